@@ -0,0 +1,103 @@
+#!/usr/bin/env bash
+#
+# Mede o tempo até a primeira requisição bem-sucedida da aplicação em cada modo de inicialização:
+#
+#   jvm      jar executável, sem otimizações
+#   aot      código AOT do Spring (-Dspring.aot.enabled=true)
+#   cds      jar extraído com arquivo CDS gerado em uma execução de treino
+#   aot-cds  AOT e CDS combinados (modo usado pelo Dockerfile com AOT=true)
+#
+# Não há modo de imagem nativa: o projeto não configura o native-maven-plugin do GraalVM.
+#
+# O tempo é contado do disparo do processo até a primeira resposta 200 do endpoint de referência.
+#
+# Pré-requisito: mvn -Pinicio-rapido package -DskipTests
+# Uso: scripts/benchmark-inicio.sh [repeticoes] [modos...]
+#      REPETICOES, PORTA e URL_REFERENCIA também podem ser informadas por variável de ambiente.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+REPETICOES="${1:-${REPETICOES:-5}}"
+shift || true
+MODOS=("$@")
+if [ ${#MODOS[@]} -eq 0 ]; then
+    MODOS=(jvm aot cds aot-cds)
+fi
+PORTA="${PORTA:-18080}"
+URL_REFERENCIA="${URL_REFERENCIA:-/api/pix/estatisticas}"
+JAR=target/case-pix-itau.jar
+TRABALHO=target/inicio-rapido
+
+if [ ! -f "$JAR" ]; then
+    echo "Jar $JAR não encontrado. Execute: mvn -Pinicio-rapido package -DskipTests" >&2
+    exit 1
+fi
+
+agora_ms() {
+    date +%s%3N
+}
+
+# Extrai o jar (o CDS não reaproveita classes de jars aninhados) e gera o arquivo CDS do modo.
+preparar_cds() {
+    local arquivo="$1"
+    shift
+    if [ ! -d "$TRABALHO/app" ] || [ "$JAR" -nt "$TRABALHO/app/case-pix-itau.jar" ]; then
+        rm -rf "$TRABALHO/app"
+        java -Djarmode=tools -jar "$JAR" extract --destination "$TRABALHO/app" > /dev/null
+    fi
+    if [ ! -f "$arquivo" ] || [ "$TRABALHO/app/case-pix-itau.jar" -nt "$arquivo" ]; then
+        java "$@" -XX:ArchiveClassesAtExit="$arquivo" -Dspring.context.exit=onRefresh \
+            -jar "$TRABALHO/app/case-pix-itau.jar" > "$TRABALHO/treino.log" 2>&1
+    fi
+}
+
+comando_do_modo() {
+    case "$1" in
+        jvm)     echo "java -jar $JAR" ;;
+        aot)     echo "java -Dspring.aot.enabled=true -jar $JAR" ;;
+        cds)     echo "java -XX:SharedArchiveFile=$TRABALHO/app.jsa -jar $TRABALHO/app/case-pix-itau.jar" ;;
+        aot-cds) echo "java -Dspring.aot.enabled=true -XX:SharedArchiveFile=$TRABALHO/app-aot.jsa -jar $TRABALHO/app/case-pix-itau.jar" ;;
+    esac
+}
+
+medir() {
+    local comando="$1"
+    local inicio fim pid
+    inicio=$(agora_ms)
+    $comando --server.port="$PORTA" --logging.level.root=WARN > "$TRABALHO/execucao.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORTA$URL_REFERENCIA"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "A aplicação encerrou antes de responder; veja $TRABALHO/execucao.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    fim=$(agora_ms)
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo $((fim - inicio))
+}
+
+mkdir -p "$TRABALHO"
+printf '%-8s %10s %10s %10s\n' modo 'min(ms)' 'mediana' 'max(ms)'
+
+for modo in "${MODOS[@]}"; do
+    case "$modo" in
+        cds)     preparar_cds "$TRABALHO/app.jsa" ;;
+        aot-cds) preparar_cds "$TRABALHO/app-aot.jsa" -Dspring.aot.enabled=true ;;
+        jvm|aot) ;;
+        *) echo "Modo desconhecido: $modo" >&2; exit 1 ;;
+    esac
+
+    comando=$(comando_do_modo "$modo")
+    tempos=()
+    for ((i = 0; i < REPETICOES; i++)); do
+        tempos+=("$(medir "$comando")")
+    done
+    ordenados=($(printf '%s\n' "${tempos[@]}" | sort -n))
+    printf '%-8s %10s %10s %10s\n' "$modo" "${ordenados[0]}" \
+        "${ordenados[$((REPETICOES / 2))]}" "${ordenados[$((REPETICOES - 1))]}"
+done
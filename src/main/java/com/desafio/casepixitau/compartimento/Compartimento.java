@@ -0,0 +1,16 @@
+package com.desafio.casepixitau.compartimento;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indica o compartimento em que o método do serviço é executado, pelo {@link CompartimentoAspect}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Compartimento {
+
+    TipoCompartimento value();
+}
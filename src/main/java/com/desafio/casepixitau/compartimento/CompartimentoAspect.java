@@ -0,0 +1,76 @@
+package com.desafio.casepixitau.compartimento;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Executa os métodos anotados com {@link Compartimento} no compartimento indicado, de forma que
+ * consultas pesadas não ocupem as threads e as conexões reservadas à resolução de chaves e às
+ * escritas. Ativado por {@code pix.compartimentos.enabled=true}.
+ *
+ * Tem precedência sobre o {@code @Transactional}: a transação é aberta e encerrada na thread do
+ * compartimento, e a conexão só é obtida depois de a operação sair da fila.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "pix.compartimentos.enabled", havingValue = "true")
+public class CompartimentoAspect {
+
+    private final Map<TipoCompartimento, CompartimentoEstanque> compartimentos = new EnumMap<>(TipoCompartimento.class);
+
+    /**
+     * Construtor do aspecto, com threads, fila e espera máxima de cada compartimento.
+     */
+    public CompartimentoAspect(@Value("${pix.compartimentos.leitura-pontual.threads:4}") int leituraThreads,
+                               @Value("${pix.compartimentos.leitura-pontual.fila:100}") int leituraFila,
+                               @Value("${pix.compartimentos.leitura-pontual.espera-ms:1000}") long leituraEsperaMs,
+                               @Value("${pix.compartimentos.escrita.threads:3}") int escritaThreads,
+                               @Value("${pix.compartimentos.escrita.fila:50}") int escritaFila,
+                               @Value("${pix.compartimentos.escrita.espera-ms:2000}") long escritaEsperaMs,
+                               @Value("${pix.compartimentos.varredura.threads:2}") int varreduraThreads,
+                               @Value("${pix.compartimentos.varredura.fila:10}") int varreduraFila,
+                               @Value("${pix.compartimentos.varredura.espera-ms:5000}") long varreduraEsperaMs,
+                               MeterRegistry meterRegistry) {
+        registrar(TipoCompartimento.LEITURA_PONTUAL, leituraThreads, leituraFila, leituraEsperaMs, meterRegistry);
+        registrar(TipoCompartimento.ESCRITA, escritaThreads, escritaFila, escritaEsperaMs, meterRegistry);
+        registrar(TipoCompartimento.VARREDURA, varreduraThreads, varreduraFila, varreduraEsperaMs, meterRegistry);
+    }
+
+    @Around("@annotation(com.desafio.casepixitau.compartimento.Compartimento)")
+    public Object executar(ProceedingJoinPoint joinPoint) throws Throwable {
+        Compartimento compartimento = ((MethodSignature) joinPoint.getSignature()).getMethod()
+                .getAnnotation(Compartimento.class);
+        return compartimentos.get(compartimento.value()).executar(() -> {
+            try {
+                return joinPoint.proceed();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        compartimentos.values().forEach(CompartimentoEstanque::encerrar);
+    }
+
+    private void registrar(TipoCompartimento tipo, int threads, int fila, long esperaMs, MeterRegistry meterRegistry) {
+        compartimentos.put(tipo, new CompartimentoEstanque(tipo.getNome(), threads, fila, esperaMs, meterRegistry));
+    }
+}
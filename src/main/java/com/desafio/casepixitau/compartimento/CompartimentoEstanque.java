@@ -0,0 +1,213 @@
+package com.desafio.casepixitau.compartimento;
+
+import com.desafio.casepixitau.config.RoteamentoContexto;
+import com.desafio.casepixitau.exception.CompartimentoSaturadoException;
+import com.desafio.casepixitau.perfil.ContagemSql;
+import com.desafio.casepixitau.perfil.PerfilSql;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compartimento estanque: pool de threads próprio, com fila limitada e espera máxima.
+ *
+ * A quantidade de threads é a parcela do pool de conexões que o compartimento pode ocupar; a
+ * thread da requisição aguarda o resultado. Com a fila cheia a operação é recusada de imediato;
+ * se ela não começar dentro da espera máxima, é retirada da fila e recusada. Uma operação já
+ * iniciada é sempre aguardada até o fim, mesmo com a thread da requisição interrompida, para que
+ * uma escrita nunca seja confirmada depois de a requisição ter recebido erro.
+ *
+ * A operação é executada na própria thread quando já está dentro de um compartimento (chamadas
+ * aninhadas) ou quando existe transação ativa, que não pode ser continuada em outra thread. O
+ * {@link RoteamentoContexto} da requisição é levado à thread do compartimento e trazido de volta;
+ * as contagens de comandos SQL da requisição ({@link PerfilSql}) seguem para a thread do compartimento.
+ */
+public class CompartimentoEstanque {
+
+    private static final ThreadLocal<Boolean> EM_COMPARTIMENTO = new ThreadLocal<>();
+
+    private static final int PENDENTE = 0;
+    private static final int INICIADA = 1;
+    private static final int CANCELADA = 2;
+
+    private final String nome;
+    private final int threads;
+    private final int capacidadeFila;
+    private final long esperaMaximaNanos;
+    private final ThreadPoolExecutor executor;
+    private final Counter recusadasFila;
+    private final Counter recusadasEspera;
+    private final Timer espera;
+
+    /**
+     * Construtor do compartimento.
+     *
+     * @param nome           Nome do compartimento, usado nas threads e nas métricas.
+     * @param threads        Operações simultâneas (parcela do pool de conexões).
+     * @param fila           Operações aguardando thread.
+     * @param esperaMaximaMs Tempo máximo de espera na fila.
+     * @param meterRegistry  Registro de métricas.
+     */
+    public CompartimentoEstanque(String nome, int threads, int fila, long esperaMaximaMs, MeterRegistry meterRegistry) {
+        this.nome = nome;
+        this.threads = threads;
+        this.capacidadeFila = fila;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        AtomicInteger contador = new AtomicInteger();
+        BlockingQueue<Runnable> filaTarefas = fila > 0 ? new ArrayBlockingQueue<>(fila) : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, filaTarefas,
+                r -> {
+                    Thread thread = new Thread(r, "pix-compartimento-" + nome + "-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.recusadasFila = Counter.builder("pix.compartimento.recusadas")
+                .tag("compartimento", nome).tag("motivo", "fila-cheia").register(meterRegistry);
+        this.recusadasEspera = Counter.builder("pix.compartimento.recusadas")
+                .tag("compartimento", nome).tag("motivo", "espera-esgotada").register(meterRegistry);
+        this.espera = Timer.builder("pix.compartimento.espera")
+                .tag("compartimento", nome).register(meterRegistry);
+        Gauge.builder("pix.compartimento.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("compartimento", nome).register(meterRegistry);
+        Gauge.builder("pix.compartimento.fila", executor, e -> e.getQueue().size())
+                .tag("compartimento", nome).register(meterRegistry);
+        Gauge.builder("pix.compartimento.saturacao", this, CompartimentoEstanque::getSaturacao)
+                .tag("compartimento", nome).register(meterRegistry);
+    }
+
+    /**
+     * Executa a operação no compartimento e aguarda o resultado.
+     *
+     * @param chamada Operação a executar.
+     * @return o resultado da operação.
+     * @throws CompartimentoSaturadoException se a fila estiver cheia ou a espera se esgotar.
+     */
+    public <T> T executar(Callable<T> chamada) throws Exception {
+        if (EM_COMPARTIMENTO.get() != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return chamada.call();
+        }
+
+        boolean escritaAnterior = RoteamentoContexto.escritaRealizada();
+        List<ContagemSql> contagensSql = PerfilSql.capturar();
+        AtomicBoolean escritaNaOperacao = new AtomicBoolean();
+        AtomicInteger estado = new AtomicInteger(PENDENTE);
+        long enfileirada = System.nanoTime();
+
+        FutureTask<T> tarefa = new FutureTask<>(() -> {
+            if (!estado.compareAndSet(PENDENTE, INICIADA)) {
+                return null;
+            }
+            espera.record(System.nanoTime() - enfileirada, TimeUnit.NANOSECONDS);
+            EM_COMPARTIMENTO.set(Boolean.TRUE);
+            if (escritaAnterior) {
+                RoteamentoContexto.marcarEscrita();
+            }
+            PerfilSql.restaurar(contagensSql);
+            try {
+                return chamada.call();
+            } finally {
+                escritaNaOperacao.set(RoteamentoContexto.escritaRealizada());
+                RoteamentoContexto.limpar();
+                PerfilSql.restaurar(null);
+                EM_COMPARTIMENTO.remove();
+            }
+        });
+
+        try {
+            executor.execute(tarefa);
+        } catch (RejectedExecutionException e) {
+            recusadasFila.increment();
+            throw new CompartimentoSaturadoException("Serviço sobrecarregado (" + nome + "). Tente novamente em instantes.");
+        }
+
+        try {
+            try {
+                return tarefa.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (estado.compareAndSet(PENDENTE, CANCELADA)) {
+                    executor.remove(tarefa);
+                    recusadasEspera.increment();
+                    throw new CompartimentoSaturadoException("Tempo de espera esgotado (" + nome + "). Tente novamente em instantes.");
+                }
+                return aguardarSemInterrupcao(tarefa);
+            } catch (InterruptedException e) {
+                if (estado.compareAndSet(PENDENTE, CANCELADA)) {
+                    executor.remove(tarefa);
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                // A operação já começou e pode ter gravado: o chamador recebe o resultado, e a
+                // interrupção fica registrada na thread.
+                Thread.currentThread().interrupt();
+                return aguardarSemInterrupcao(tarefa);
+            }
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof Error erro) {
+                throw erro;
+            }
+            throw causa instanceof Exception ? (Exception) causa : e;
+        } finally {
+            if (escritaNaOperacao.get()) {
+                RoteamentoContexto.marcarEscrita();
+            }
+        }
+    }
+
+    /**
+     * Aguarda o término de uma operação já iniciada, sem abandoná-la por interrupção da thread
+     * chamadora; uma interrupção recebida durante a espera é mantida na thread.
+     */
+    private static <T> T aguardarSemInterrupcao(FutureTask<T> tarefa) throws ExecutionException {
+        boolean interrompida = Thread.interrupted();
+        try {
+            while (true) {
+                try {
+                    return tarefa.get();
+                } catch (InterruptedException e) {
+                    interrompida = true;
+                }
+            }
+        } finally {
+            if (interrompida) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return a fração ocupada das threads e da fila, entre 0 e 1.
+     */
+    public double getSaturacao() {
+        return (double) (executor.getActiveCount() + executor.getQueue().size()) / (threads + capacidadeFila);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Interrompe as threads do compartimento.
+     */
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+}
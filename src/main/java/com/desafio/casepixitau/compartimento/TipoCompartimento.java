@@ -0,0 +1,33 @@
+package com.desafio.casepixitau.compartimento;
+
+/**
+ * Compartimentos em que as operações de chaves Pix são executadas, cada um com suas próprias
+ * threads (e, portanto, sua parcela das conexões do pool), fila e espera máxima.
+ */
+public enum TipoCompartimento {
+
+    /**
+     * Resolução de chave: consulta por id e consulta apenas pelo valor.
+     */
+    LEITURA_PONTUAL("leitura-pontual"),
+
+    /**
+     * Inclusão, alteração e inativação.
+     */
+    ESCRITA("escrita"),
+
+    /**
+     * Consultas que podem percorrer muitas linhas: filtros, tipo, conta, datas e nome.
+     */
+    VARREDURA("varredura");
+
+    private final String nome;
+
+    TipoCompartimento(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+}
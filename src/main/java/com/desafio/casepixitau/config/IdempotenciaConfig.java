@@ -0,0 +1,32 @@
+package com.desafio.casepixitau.config;
+
+import com.desafio.casepixitau.idempotencia.IdempotenciaFilter;
+import com.desafio.casepixitau.idempotencia.IdempotenciaStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do suporte ao cabeçalho {@code Idempotency-Key} nos endpoints de escrita de
+ * chaves Pix. Ativada por {@code pix.idempotencia.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pix.idempotencia.enabled", havingValue = "true")
+public class IdempotenciaConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotenciaFilter> idempotenciaFilter(IdempotenciaStore store,
+                                                                         ObjectMapper objectMapper,
+                                                                         MeterRegistry meterRegistry,
+                                                                         @Value("${pix.idempotencia.espera-ms:10000}") long esperaMs) {
+        FilterRegistrationBean<IdempotenciaFilter> registro =
+                new FilterRegistrationBean<>(new IdempotenciaFilter(store, objectMapper, meterRegistry, esperaMs));
+        registro.addUrlPatterns("/api/pix", "/api/pix/*");
+        registro.setOrder(LimiteTaxaConfig.ORDEM_FILTRO + 1);
+        return registro;
+    }
+}
@@ -0,0 +1,49 @@
+package com.desafio.casepixitau.config;
+
+import com.desafio.casepixitau.limitacao.LimiteConcorrencia;
+import com.desafio.casepixitau.limitacao.LimiteConcorrenciaFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do limite adaptativo de requisições simultâneas nos endpoints de chaves Pix.
+ * Ativada por {@code pix.limite-concorrencia.enabled=true}. O filtro é registrado depois dos
+ * filtros de limite por cliente e de idempotência: requisições recusadas por eles ou respondidas
+ * com a resposta guardada não ocupam vaga nem entram na medição da latência.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pix.limite-concorrencia.enabled", havingValue = "true")
+public class LimiteConcorrenciaConfig {
+
+    @Bean
+    public LimiteConcorrencia limiteConcorrencia(@Value("${pix.limite-concorrencia.inicial:20}") int inicial,
+                                                 @Value("${pix.limite-concorrencia.minimo:4}") int minimo,
+                                                 @Value("${pix.limite-concorrencia.maximo:200}") int maximo,
+                                                 @Value("${pix.limite-concorrencia.fracao-baixa-prioridade:0.5}") double fracaoBaixaPrioridade,
+                                                 @Value("${pix.limite-concorrencia.tolerancia:1.5}") double tolerancia,
+                                                 @Value("${pix.limite-concorrencia.janela-amostras:1000}") int janelaAmostras,
+                                                 MeterRegistry meterRegistry) {
+        LimiteConcorrencia limite = new LimiteConcorrencia(inicial, minimo, maximo, fracaoBaixaPrioridade,
+                tolerancia, janelaAmostras);
+        Gauge.builder("pix.limite-concorrencia.limite", limite, LimiteConcorrencia::getLimite).register(meterRegistry);
+        Gauge.builder("pix.limite-concorrencia.em-andamento", limite, LimiteConcorrencia::getEmAndamento).register(meterRegistry);
+        return limite;
+    }
+
+    @Bean
+    public FilterRegistrationBean<LimiteConcorrenciaFilter> limiteConcorrenciaFilter(LimiteConcorrencia limite,
+                                                                                     ObjectMapper objectMapper,
+                                                                                     MeterRegistry meterRegistry) {
+        FilterRegistrationBean<LimiteConcorrenciaFilter> registro =
+                new FilterRegistrationBean<>(new LimiteConcorrenciaFilter(limite, objectMapper, meterRegistry));
+        registro.addUrlPatterns("/api/pix", "/api/pix/*");
+        registro.setOrder(LimiteTaxaConfig.ORDEM_FILTRO + 2);
+        return registro;
+    }
+}
@@ -0,0 +1,30 @@
+package com.desafio.casepixitau.config;
+
+import com.desafio.casepixitau.limitacao.LimiteTaxaFilter;
+import com.desafio.casepixitau.limitacao.LimitesTaxa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do limite de requisições por cliente nos endpoints de chaves Pix.
+ * Ativada por {@code pix.limite-taxa.enabled=true}. O filtro é registrado antes do filtro de
+ * idempotência, de forma que repetições também consumam o limite do cliente.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pix.limite-taxa.enabled", havingValue = "true")
+public class LimiteTaxaConfig {
+
+    public static final int ORDEM_FILTRO = 0;
+
+    @Bean
+    public FilterRegistrationBean<LimiteTaxaFilter> limiteTaxaFilter(LimitesTaxa limites, ObjectMapper objectMapper) {
+        FilterRegistrationBean<LimiteTaxaFilter> registro =
+                new FilterRegistrationBean<>(new LimiteTaxaFilter(limites, objectMapper));
+        registro.addUrlPatterns("/api/pix", "/api/pix/*");
+        registro.setOrder(ORDEM_FILTRO);
+        return registro;
+    }
+}
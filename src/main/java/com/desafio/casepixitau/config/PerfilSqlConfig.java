@@ -0,0 +1,89 @@
+package com.desafio.casepixitau.config;
+
+import com.desafio.casepixitau.perfil.ConsultasLentas;
+import com.desafio.casepixitau.perfil.ConsultasLentasEndpoint;
+import com.desafio.casepixitau.perfil.MetricasPerfilSql;
+import com.desafio.casepixitau.perfil.PerfilSqlFilter;
+import com.desafio.casepixitau.perfil.PerfilSqlListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração do perfil dos comandos SQL. Ativada por {@code pix.perfil-sql.enabled=true}
+ * (desligada por padrão).
+ *
+ * O {@code DataSource} principal da aplicação (o de roteamento ou de fragmentação, quando ativos)
+ * é envolvido pelo datasource-proxy, e os comandos são contados por requisição HTTP e por método
+ * do {@code ChavePixService}. Os comandos mais lentos que {@code pix.perfil-sql.limite-lenta-ms}
+ * ficam no endpoint {@code /actuator/consultaslentas}.
+ *
+ * O filtro é registrado antes dos demais filtros de {@code /api}, para que os comandos feitos por
+ * eles (idempotência gravada em banco) entrem na contagem da requisição.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pix.perfil-sql.enabled", havingValue = "true")
+public class PerfilSqlConfig {
+
+    /**
+     * Envolve o bean {@code dataSource} com o datasource-proxy. Os {@code DataSource}s internos
+     * (primário, réplica, shards) não são envolvidos, para que cada comando seja contado uma vez.
+     */
+    @Bean
+    public static BeanPostProcessor perfilSqlDataSource(ObjectProvider<PerfilSqlListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                PerfilSqlListener ouvinte = listener.getObject();
+                return ProxyDataSourceBuilder.create("pix", dataSource)
+                        .listener(ouvinte)
+                        .methodListener(ouvinte)
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public ConsultasLentas consultasLentas(@Value("${pix.perfil-sql.capacidade-lentas:200}") int capacidade) {
+        return new ConsultasLentas(capacidade);
+    }
+
+    @Bean
+    public PerfilSqlListener perfilSqlListener(ConsultasLentas consultasLentas,
+                                               @Value("${pix.perfil-sql.limite-lenta-ms:100}") long limiteLentaMs,
+                                               MeterRegistry meterRegistry) {
+        return new PerfilSqlListener(consultasLentas, limiteLentaMs, meterRegistry);
+    }
+
+    @Bean
+    public MetricasPerfilSql metricasPerfilSql(MeterRegistry meterRegistry) {
+        return new MetricasPerfilSql(meterRegistry);
+    }
+
+    @Bean
+    public ConsultasLentasEndpoint consultasLentasEndpoint(ConsultasLentas consultasLentas) {
+        return new ConsultasLentasEndpoint(consultasLentas);
+    }
+
+    @Bean
+    public FilterRegistrationBean<PerfilSqlFilter> perfilSqlFilter(MetricasPerfilSql metricas) {
+        FilterRegistrationBean<PerfilSqlFilter> registro = new FilterRegistrationBean<>(new PerfilSqlFilter(metricas));
+        registro.addUrlPatterns("/api/*");
+        registro.setOrder(LimiteTaxaConfig.ORDEM_FILTRO - 1);
+        return registro;
+    }
+}
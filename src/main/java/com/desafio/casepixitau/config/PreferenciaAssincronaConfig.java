@@ -0,0 +1,70 @@
+package com.desafio.casepixitau.config;
+
+import com.desafio.casepixitau.controller.PreferenciaAssincrona;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Enumeration;
+
+/**
+ * Configuração do mapeamento dos endpoints anotados com {@link PreferenciaAssincrona}.
+ *
+ * A condição {@code headers = "Prefer=respond-async"} do Spring compara o cabeçalho inteiro e
+ * não reconhece {@code Prefer: respond-async, wait=10}. Aqui cada valor do cabeçalho é dividido
+ * nas preferências separadas por vírgula, e o nome de cada uma (antes de {@code =} ou {@code ;})
+ * é comparado sem diferenciar maiúsculas de minúsculas.
+ */
+@Configuration
+public class PreferenciaAssincronaConfig implements WebMvcRegistrations {
+
+    private static final String PREFERENCIA = "respond-async";
+
+    @Override
+    public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+        return new RequestMappingHandlerMapping() {
+            @Override
+            protected RequestCondition<?> getCustomMethodCondition(Method method) {
+                return method.isAnnotationPresent(PreferenciaAssincrona.class) ? new CondicaoPreferencia() : null;
+            }
+        };
+    }
+
+    private static boolean pedeRespostaAssincrona(HttpServletRequest request) {
+        Enumeration<String> valores = request.getHeaders("Prefer");
+        while (valores != null && valores.hasMoreElements()) {
+            for (String preferencia : valores.nextElement().split(",")) {
+                String nome = preferencia.split("[=;]", 2)[0].trim();
+                if (PREFERENCIA.equalsIgnoreCase(nome)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class CondicaoPreferencia implements RequestCondition<CondicaoPreferencia> {
+
+        @Override
+        public CondicaoPreferencia combine(CondicaoPreferencia other) {
+            return this;
+        }
+
+        @Override
+        public CondicaoPreferencia getMatchingCondition(HttpServletRequest request) {
+            if (CorsUtils.isPreFlightRequest(request) || pedeRespostaAssincrona(request)) {
+                return this;
+            }
+            return null;
+        }
+
+        @Override
+        public int compareTo(CondicaoPreferencia other, HttpServletRequest request) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.desafio.casepixitau.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Verifica periodicamente a disponibilidade e o atraso de replicação da réplica de leitura.
+ *
+ * O atraso é obtido pela consulta configurada em {@code pix.datasource.replica.lag-query},
+ * que deve retornar o atraso em segundos (por exemplo, no PostgreSQL:
+ * {@code SELECT EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())}).
+ * Sem consulta configurada, apenas a conectividade é verificada.
+ */
+public class ReplicaMonitor {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final double lagMaximoSegundos;
+
+    private volatile boolean disponivel = true;
+    private volatile double lagSegundos;
+
+    /**
+     * Construtor do monitor.
+     *
+     * @param replica           Pool da réplica de leitura.
+     * @param lagQuery          Consulta que retorna o atraso da réplica em segundos (pode ser vazia).
+     * @param lagMaximoSegundos Atraso máximo tolerado antes de desviar leituras para o primário.
+     * @param meterRegistry     Registro de métricas.
+     */
+    public ReplicaMonitor(DataSource replica, String lagQuery, double lagMaximoSegundos, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.lagMaximoSegundos = lagMaximoSegundos;
+
+        Gauge.builder("pix.datasource.replica.lag", this, ReplicaMonitor::getLagSegundos)
+                .description("Atraso de replicação observado, em segundos")
+                .register(meterRegistry);
+        Gauge.builder("pix.datasource.replica.disponivel", this, m -> m.isDisponivel() ? 1 : 0)
+                .description("Indica se as leituras estão sendo enviadas à réplica")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a verificação de conectividade e de atraso da réplica.
+     */
+    @Scheduled(fixedDelayString = "${pix.datasource.replica.verificacao-ms:1000}")
+    public void verificar() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(1)) {
+                marcarIndisponivel();
+                return;
+            }
+            lagSegundos = consultarLag(connection);
+            disponivel = lagSegundos <= lagMaximoSegundos;
+        } catch (SQLException e) {
+            marcarIndisponivel();
+        }
+    }
+
+    /**
+     * Marca a réplica como indisponível até a próxima verificação bem-sucedida.
+     */
+    public void marcarIndisponivel() {
+        disponivel = false;
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    public double getLagSegundos() {
+        return lagSegundos;
+    }
+
+    private double consultarLag(Connection connection) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            return resultSet.next() ? resultSet.getDouble(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.desafio.casepixitau.config;
+
+/**
+ * Contexto de roteamento da requisição corrente.
+ *
+ * Após a primeira escrita de uma requisição, as leituras seguintes da mesma requisição
+ * passam a ser atendidas pelo banco primário (read-your-writes). O contexto é limpo
+ * ao final de cada requisição pelo {@link RoteamentoContextoFilter}. Tarefas executadas em
+ * outras threads em nome da requisição recebem o contexto com {@link #capturar()} e
+ * {@link #restaurar(Boolean)}.
+ * Não deve ser instanciada.
+ */
+public final class RoteamentoContexto {
+
+    private static final ThreadLocal<Boolean> ESCRITA_REALIZADA = new ThreadLocal<>();
+
+    /**
+     * Construtor privado para evitar instanciamento da classe.
+     */
+    private RoteamentoContexto() {
+        throw new UnsupportedOperationException("Classe utilitária não pode ser instanciada.");
+    }
+
+    /**
+     * Registra que a requisição corrente realizou uma escrita no banco primário.
+     */
+    public static void marcarEscrita() {
+        ESCRITA_REALIZADA.set(Boolean.TRUE);
+    }
+
+    /**
+     * Indica se a requisição corrente já realizou alguma escrita.
+     *
+     * @return true se houve escrita na requisição corrente.
+     */
+    public static boolean escritaRealizada() {
+        return ESCRITA_REALIZADA.get() != null;
+    }
+
+    /**
+     * Captura o contexto da thread corrente, para repassá-lo a outra thread.
+     *
+     * @return o contexto corrente, ou nulo se não houve escrita.
+     */
+    public static Boolean capturar() {
+        return ESCRITA_REALIZADA.get();
+    }
+
+    /**
+     * Substitui o contexto da thread corrente.
+     *
+     * @param contexto Contexto capturado com {@link #capturar()} (ou nulo, para nenhuma escrita).
+     * @return o contexto que estava ativo, para restauração ao final.
+     */
+    public static Boolean restaurar(Boolean contexto) {
+        Boolean anterior = ESCRITA_REALIZADA.get();
+        if (contexto == null) {
+            ESCRITA_REALIZADA.remove();
+        } else {
+            ESCRITA_REALIZADA.set(contexto);
+        }
+        return anterior;
+    }
+
+    /**
+     * Limpa o contexto da thread corrente.
+     */
+    public static void limpar() {
+        ESCRITA_REALIZADA.remove();
+    }
+}
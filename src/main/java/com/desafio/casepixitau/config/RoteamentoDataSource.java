@@ -0,0 +1,103 @@
+package com.desafio.casepixitau.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource que encaminha transações somente leitura para a réplica e as demais para o primário.
+ *
+ * A réplica só é utilizada quando o {@link ReplicaMonitor} a considera disponível e a requisição
+ * corrente ainda não realizou escritas. Falhas ao obter conexão da réplica caem para o primário.
+ * Deve ser envolvido por um {@code LazyConnectionDataSourceProxy}, para que a conexão seja obtida
+ * somente depois que a transação já estiver marcada como somente leitura.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARIO = "primario";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaMonitor replicaMonitor;
+    private final Timer latenciaPrimario;
+    private final Timer latenciaReplica;
+    private final Counter fallbacks;
+
+    /**
+     * Construtor do DataSource de roteamento.
+     *
+     * @param primario       Pool do banco primário (escritas).
+     * @param replica        Pool da réplica de leitura.
+     * @param replicaMonitor Monitor de disponibilidade e atraso da réplica.
+     * @param meterRegistry  Registro de métricas.
+     */
+    public RoteamentoDataSource(DataSource primario, DataSource replica,
+                                ReplicaMonitor replicaMonitor, MeterRegistry meterRegistry) {
+        this.replicaMonitor = replicaMonitor;
+        this.latenciaPrimario = Timer.builder("pix.datasource.conexao")
+                .description("Tempo para obter conexão do pool")
+                .tag("pool", PRIMARIO)
+                .register(meterRegistry);
+        this.latenciaReplica = Timer.builder("pix.datasource.conexao")
+                .description("Tempo para obter conexão do pool")
+                .tag("pool", REPLICA)
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("pix.datasource.replica.fallback")
+                .description("Leituras desviadas para o primário por falha na réplica")
+                .register(meterRegistry);
+
+        setTargetDataSources(Map.of(PRIMARIO, primario, REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                RoteamentoContexto.marcarEscrita();
+            }
+            return PRIMARIO;
+        }
+        if (RoteamentoContexto.escritaRealizada() || !replicaMonitor.isDisponivel()) {
+            return PRIMARIO;
+        }
+        return REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object chave = determineCurrentLookupKey();
+        if (REPLICA.equals(chave)) {
+            long inicio = System.nanoTime();
+            try {
+                Connection connection = getResolvedDataSources().get(REPLICA).getConnection();
+                latenciaReplica.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                return connection;
+            } catch (SQLException e) {
+                replicaMonitor.marcarIndisponivel();
+                fallbacks.increment();
+            }
+        }
+        return obterDoPrimario();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    private Connection obterDoPrimario() throws SQLException {
+        long inicio = System.nanoTime();
+        Connection connection = getResolvedDataSources().get(PRIMARIO).getConnection();
+        latenciaPrimario.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return connection;
+    }
+}
@@ -0,0 +1,77 @@
+package com.desafio.casepixitau.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração do roteamento leitura/escrita entre o banco primário e uma réplica de leitura.
+ *
+ * Ativada por {@code pix.datasource.replica.enabled=true}. O primário continua configurado pelas
+ * propriedades {@code spring.datasource.*} e a réplica por {@code pix.datasource.replica.*}.
+ * Métodos {@code @Transactional(readOnly = true)} do serviço são atendidos pela réplica.
+ * Com a fragmentação ({@code pix.sharding.enabled=true}) esta configuração não é carregada e a
+ * {@link com.desafio.casepixitau.sharding.FragmentacaoConfig} recusa a inicialização.
+ */
+@Configuration
+@ConditionalOnExpression("${pix.datasource.replica.enabled:false} && !${pix.sharding.enabled:false}")
+public class RoteamentoDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(RoteamentoDataSource.PRIMARIO);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("pix.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${pix.datasource.replica.url}") String url,
+                                              @Value("${pix.datasource.replica.username:}") String username,
+                                              @Value("${pix.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(RoteamentoDataSource.REPLICA);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaMonitor replicaMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                         @Value("${pix.datasource.replica.lag-query:}") String lagQuery,
+                                         @Value("${pix.datasource.replica.lag-maximo-segundos:5}") double lagMaximo,
+                                         MeterRegistry meterRegistry) {
+        return new ReplicaMonitor(replica, lagQuery, lagMaximo, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primarioDataSource") DataSource primario,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaMonitor replicaMonitor,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new RoteamentoDataSource(primario, replica, replicaMonitor, meterRegistry));
+    }
+
+    @Bean
+    public FilterRegistrationBean<RoteamentoContextoFilter> roteamentoContextoFilter() {
+        return new FilterRegistrationBean<>(new RoteamentoContextoFilter());
+    }
+}
@@ -0,0 +1,67 @@
+package com.desafio.casepixitau.config;
+
+import com.desafio.casepixitau.dto.ChavePixAlteracaoDTO;
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import jakarta.validation.Validator;
+import org.hibernate.validator.BaseHibernateValidatorConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.validation.ValidationConfigurationCustomizer;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Configuração da validação dos DTOs de entrada pelo Hibernate Validator.
+ *
+ * Com {@code pix.validacao.fail-fast=true} (desligado por padrão), a validação para na primeira
+ * restrição violada: o erro 422 passa a trazer apenas o primeiro campo inválido em {@code errors}.
+ * Os metadados das restrições e os validadores de cada restrição são montados na inicialização,
+ * antes da primeira requisição, e não no primeiro {@code POST}/{@code PUT}.
+ */
+@Configuration
+public class ValidacaoConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidacaoConfig.class);
+
+    private final Validator validator;
+
+    public ValidacaoConfig(Validator validator) {
+        this.validator = validator;
+    }
+
+    @Bean
+    public static ValidationConfigurationCustomizer validacaoFailFast(
+            @Value("${pix.validacao.fail-fast:false}") boolean failFast) {
+        return configuration -> configuration.addProperty(BaseHibernateValidatorConfiguration.FAIL_FAST,
+                String.valueOf(failFast));
+    }
+
+    /**
+     * Monta os metadados dos DTOs validados nos endpoints e inicializa os validadores de cada
+     * restrição (padrões compilados, interpolação das mensagens) com um exemplo válido e um vazio.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void aquecer() {
+        long inicio = System.nanoTime();
+        validator.getConstraintsForClass(ChavePixRequestDTO.class);
+        validator.getConstraintsForClass(ChavePixAlteracaoDTO.class);
+
+        ChavePixRequestDTO requisicao = new ChavePixRequestDTO("email", "correntista@email.com", "corrente",
+                1, 1, "Correntista", null);
+        validator.validate(requisicao);
+        validator.validate(new ChavePixRequestDTO());
+
+        ChavePixAlteracaoDTO alteracao = new ChavePixAlteracaoDTO();
+        alteracao.setTipoConta("corrente");
+        alteracao.setNumeroAgencia(1);
+        alteracao.setNumeroConta(1);
+        alteracao.setNomeCorrentista("Correntista");
+        validator.validate(alteracao);
+        validator.validate(new ChavePixAlteracaoDTO());
+
+        log.info("Validação dos DTOs de chaves Pix preparada em {} ms.", (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
@@ -2,6 +2,7 @@ package com.desafio.casepixitau.controller;
 
 import com.desafio.casepixitau.dto.*;
 import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.model.TipoChave;
 import com.desafio.casepixitau.service.ChavePixService;
 import com.desafio.casepixitau.util.HttpStatusCodes;
 import jakarta.validation.Valid;
@@ -133,7 +134,8 @@ public class ChavePixController {
      * @param dataInativacao A data de inativação da chave PIX (não pode ser combinada com dataInclusao).
      * @return {@code ResponseEntity} contendo a lista de chaves encontradas ou um erro adequado.
      *         Retorna 200 se houver registros, 404 se nenhum registro for encontrado,
-     *         e 422 se nenhuma chave for informada ou se ambas as datas forem passadas juntas.
+     *         e 422 se nenhuma chave for informada, se ambas as datas forem passadas juntas ou se o
+     *         tipo da chave for desconhecido.
      */
     @GetMapping("/filtros")
     public ResponseEntity<?> consultarPorFiltros(
@@ -156,11 +158,20 @@ public class ChavePixController {
                     .body(new ErrorResponseDTO("Não é permitido informar ambas as datas ao mesmo tempo."));
         }
 
-        List<ChavePixResponseDTO> response = service.consultarPorFiltros(
-                tipoChave, valorChave, agencia, conta, dataInclusao, dataInativacao
-        );
+        // Regra 3: Tipo de chave desconhecido retorna 422, em vez de ser ignorado na consulta
+        if (tipoChave != null && TipoChave.deValor(tipoChave) == null) {
+            return ResponseEntity.status(HttpStatusCodes.UNPROCESSABLE_ENTITY)
+                    .body(new ErrorResponseDTO("Tipo de chave inválido."));
+        }
+
+        // Apenas o valor: resolução da chave, atendida como leitura pontual
+        boolean somenteValor = valorChave != null && tipoChave == null && agencia == null && conta == null
+                && dataInclusao == null && dataInativacao == null;
+        List<ChavePixResponseDTO> response = somenteValor
+                ? service.consultarPorValor(valorChave)
+                : service.consultarPorFiltros(tipoChave, valorChave, agencia, conta, dataInclusao, dataInativacao);
 
-        // Regra 3: Se nenhum registro for encontrado, retorna 404
+        // Regra 4: Se nenhum registro for encontrado, retorna 404
         if (response.isEmpty()) {
             return ResponseEntity.status(HttpStatusCodes.NOT_FOUND)
                     .body(new ErrorResponseDTO("Nenhum registro encontrado para os filtros informados."));
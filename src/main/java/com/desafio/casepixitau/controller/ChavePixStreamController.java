@@ -0,0 +1,40 @@
+package com.desafio.casepixitau.controller;
+
+import com.desafio.casepixitau.service.ChavePixStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controlador do stream (Server-Sent Events) de alterações de chaves PIX.
+ */
+@RestController
+@RequestMapping("/api/pix")
+public class ChavePixStreamController {
+
+    private final ChavePixStreamService streamService;
+
+    /**
+     * Construtor do controlador, injeta a dependência do serviço de stream.
+     *
+     * @param streamService Serviço responsável pela distribuição dos eventos.
+     */
+    public ChavePixStreamController(ChavePixStreamService streamService) {
+        this.streamService = streamService;
+    }
+
+    /**
+     * Endpoint de assinatura do stream de inclusões, alterações e inativações de chaves PIX.
+     *
+     * @param ultimoEventoId Último evento recebido pelo cliente, enviado automaticamente pelo
+     *                       navegador/cliente SSE ao reconectar.
+     * @return SseEmitter que mantém a conexão aberta de forma assíncrona.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return streamService.assinar(ultimoEventoId);
+    }
+}
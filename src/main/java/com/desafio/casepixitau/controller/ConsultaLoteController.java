@@ -0,0 +1,55 @@
+package com.desafio.casepixitau.controller;
+
+import com.desafio.casepixitau.dto.ConsultaLoteItemDTO;
+import com.desafio.casepixitau.dto.ConsultaLoteRequestDTO;
+import com.desafio.casepixitau.dto.ErrorResponseDTO;
+import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.service.ConsultaLoteService;
+import com.desafio.casepixitau.util.HttpStatusCodes;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador da consulta de chaves PIX em lote.
+ */
+@RestController
+public class ConsultaLoteController {
+
+    /**
+     * Caminho do endpoint, compartilhado com os filtros que tratam a consulta em lote como leitura.
+     */
+    public static final String CAMINHO = "/api/pix/consulta-lote";
+
+    private final ConsultaLoteService consultaLoteService;
+
+    /**
+     * Construtor do controlador, injeta a dependência do serviço de consulta em lote.
+     *
+     * @param consultaLoteService Serviço responsável pela consulta em lote.
+     */
+    public ConsultaLoteController(ConsultaLoteService consultaLoteService) {
+        this.consultaLoteService = consultaLoteService;
+    }
+
+    /**
+     * Endpoint para consultar várias chaves PIX por identificador ou por valor em uma única requisição.
+     *
+     * @param dto Objeto contendo a lista de ids ou a lista de valores de chave.
+     * @return ResponseEntity com um resultado por item, na ordem da requisição, ou 422 se a
+     *         requisição for inválida.
+     */
+    @PostMapping(CAMINHO)
+    public ResponseEntity<?> consultar(@RequestBody ConsultaLoteRequestDTO dto) {
+        try {
+            List<ConsultaLoteItemDTO> response = consultaLoteService.consultar(dto);
+            return ResponseEntity.status(HttpStatusCodes.SUCCESS).body(response);
+        } catch (ChavePixException e) {
+            return ResponseEntity.status(HttpStatusCodes.UNPROCESSABLE_ENTITY)
+                    .body(new ErrorResponseDTO(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.desafio.casepixitau.controller;
+
+import com.desafio.casepixitau.dto.EstatisticasResponseDTO;
+import com.desafio.casepixitau.service.EstatisticasChavePixService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador das estatísticas de chaves PIX.
+ */
+@RestController
+@RequestMapping("/api/pix")
+public class EstatisticasController {
+
+    private final EstatisticasChavePixService estatisticasService;
+
+    /**
+     * Construtor do controlador, injeta a dependência do serviço de estatísticas.
+     *
+     * @param estatisticasService Serviço que mantém os contadores de chaves PIX.
+     */
+    public EstatisticasController(EstatisticasChavePixService estatisticasService) {
+        this.estatisticasService = estatisticasService;
+    }
+
+    /**
+     * Endpoint para consultar as chaves ativas por tipo e por agência e as inclusões e
+     * inativações por dia.
+     *
+     * @return ResponseEntity com as estatísticas consolidadas.
+     */
+    @GetMapping("/estatisticas")
+    public ResponseEntity<EstatisticasResponseDTO> consultar() {
+        return ResponseEntity.ok(estatisticasService.consultar());
+    }
+}
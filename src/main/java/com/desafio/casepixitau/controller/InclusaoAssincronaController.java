@@ -0,0 +1,86 @@
+package com.desafio.casepixitau.controller;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.ErrorResponseDTO;
+import com.desafio.casepixitau.dto.InclusaoAssincronaDTO;
+import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.service.InclusaoAssincronaService;
+import com.desafio.casepixitau.util.HttpStatusCodes;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Controlador da inclusão assíncrona de chaves PIX. A inclusão usa o mesmo endpoint da inclusão
+ * síncrona, selecionada pela preferência {@code respond-async} no cabeçalho {@code Prefer}.
+ *
+ * A entrega é "no máximo uma vez": o 202 confirma apenas que o pedido entrou na fila em memória.
+ * Pedidos ainda pendentes são perdidos se o processo parar abruptamente, e a consulta da situação
+ * passa a responder 404. Nesse caso, o cliente reenvia a inclusão: se a chave chegou a ser
+ * gravada, o reenvio é recusado como chave duplicada. Quem precisa da confirmação da gravação
+ * usa a inclusão síncrona.
+ */
+@RestController
+@RequestMapping("/api/pix")
+@ConditionalOnProperty(name = "pix.inclusao-assincrona.enabled", havingValue = "true")
+public class InclusaoAssincronaController {
+
+    private final InclusaoAssincronaService inclusaoAssincronaService;
+
+    /**
+     * Construtor do controlador, injeta a dependência do serviço de inclusão assíncrona.
+     *
+     * @param inclusaoAssincronaService Serviço responsável pela inclusão assíncrona.
+     */
+    public InclusaoAssincronaController(InclusaoAssincronaService inclusaoAssincronaService) {
+        this.inclusaoAssincronaService = inclusaoAssincronaService;
+    }
+
+    /**
+     * Endpoint para inclusão assíncrona de uma nova chave PIX. A chave é gravada em grupo com
+     * outras inclusões; a situação final é consultada no endereço do cabeçalho {@code Location}.
+     * O 202 não garante a gravação: o pedido fica apenas em memória até ser gravado.
+     *
+     * @param dto Objeto contendo os dados da chave a ser cadastrada.
+     * @return ResponseEntity 202 com o id de acompanhamento, 422 se o formato da chave for inválido
+     *         ou 503 se a fila de inclusões estiver cheia.
+     */
+    @PostMapping
+    @PreferenciaAssincrona
+    public ResponseEntity<?> incluir(@Valid @RequestBody ChavePixRequestDTO dto) {
+        try {
+            InclusaoAssincronaDTO response = inclusaoAssincronaService.enfileirar(dto);
+            return ResponseEntity.status(HttpStatusCodes.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/pix/inclusoes/" + response.getIdAcompanhamento())
+                    .header("Preference-Applied", "respond-async")
+                    .body(response);
+        } catch (ChavePixException e) {
+            return ResponseEntity.status(HttpStatusCodes.UNPROCESSABLE_ENTITY)
+                    .body(new ErrorResponseDTO(e.getMessage()));
+        }
+    }
+
+    /**
+     * Consulta a situação de uma inclusão assíncrona.
+     *
+     * @param id Identificador de acompanhamento devolvido na inclusão.
+     * @return ResponseEntity com a situação da inclusão, ou 404 se o id for desconhecido, tiver
+     *         expirado ou tiver sido perdido em um reinício.
+     */
+    @GetMapping("/inclusoes/{id}")
+    public ResponseEntity<?> consultar(@PathVariable UUID id) {
+        return inclusaoAssincronaService.consultar(id)
+                .<ResponseEntity<?>>map(response -> ResponseEntity.status(HttpStatusCodes.SUCCESS).body(response))
+                .orElseGet(() -> ResponseEntity.status(HttpStatusCodes.NOT_FOUND)
+                        .body(new ErrorResponseDTO("Inclusão não encontrada para o id de acompanhamento informado.")));
+    }
+}
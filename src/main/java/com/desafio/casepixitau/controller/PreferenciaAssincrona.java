@@ -0,0 +1,17 @@
+package com.desafio.casepixitau.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restringe o mapeamento do endpoint às requisições cujo cabeçalho {@code Prefer} (RFC 7240)
+ * contém a preferência {@code respond-async}, inclusive junto a outras preferências, como em
+ * {@code Prefer: respond-async, wait=10}. A condição é aplicada pela
+ * {@link com.desafio.casepixitau.config.PreferenciaAssincronaConfig}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PreferenciaAssincrona {
+}
@@ -0,0 +1,30 @@
+package com.desafio.casepixitau.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO enviado aos assinantes do stream de alterações de chaves Pix.
+ */
+@AllArgsConstructor
+@Data
+public class ChavePixEventoDTO {
+
+    /**
+     * Tipo do evento (inclusao, alteracao ou inativacao).
+     */
+    private String evento;
+
+    /**
+     * Versão da chave após a mutação (campo {@code @Version} da entidade).
+     */
+    private Long versao;
+
+    /**
+     * Dados da chave após a mutação.
+     */
+    private ChavePixResponseDTO chave;
+
+    public ChavePixEventoDTO() {
+    }
+}
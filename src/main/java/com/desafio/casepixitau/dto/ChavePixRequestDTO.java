@@ -12,6 +12,11 @@ import lombok.Data;
 @Data
 public class ChavePixRequestDTO {
 
+    /**
+     * Formato aceito para chaves do tipo email, compilado uma única vez.
+     */
+    private static final java.util.regex.Pattern FORMATO_EMAIL = java.util.regex.Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+
     /**
      * Tipo da chave Pix (email, CPF ou celular).
      * Deve ser um desses valores.
@@ -68,12 +73,13 @@ public class ChavePixRequestDTO {
     }
 
     /**
-     * Validação personalizada para garantir que o email esteja no formato correto quando o tipoChave for 'email'.
+     * Validação personalizada para garantir que o email esteja no formato correto, com no máximo
+     * 77 caracteres, quando o tipoChave for 'email'.
      */
     @AssertTrue(message = "Formato de email inválido.")
     public boolean isEmailValid() {
         if ("email".equalsIgnoreCase(tipoChave)) {
-            return valorChave != null && valorChave.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+            return valorChave != null && valorChave.length() <= 77 && FORMATO_EMAIL.matcher(valorChave).matches();
         }
         return true;
     }
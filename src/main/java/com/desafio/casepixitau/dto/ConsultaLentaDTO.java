@@ -0,0 +1,49 @@
+package com.desafio.casepixitau.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de um comando SQL lento, com os parâmetros usados na execução mascarados.
+ */
+@AllArgsConstructor
+@Data
+public class ConsultaLentaDTO {
+
+    /**
+     * Data e hora do fim da execução.
+     */
+    private LocalDateTime dataHora;
+
+    /**
+     * Duração da execução no driver JDBC, em milissegundos.
+     */
+    private double duracaoMs;
+
+    /**
+     * Operação em andamento (método de serviço ou requisição HTTP); nula fora de uma operação medida.
+     */
+    private String operacao;
+
+    /**
+     * Comandos executados (mais de um apenas em lotes de {@code Statement}).
+     */
+    private List<String> sql;
+
+    /**
+     * Parâmetros mascarados (tipo, ou tamanho dos textos), um conjunto por item do lote (limitado aos
+     * primeiros itens).
+     */
+    private List<List<String>> parametros;
+
+    /**
+     * Quantidade de itens do lote; 0 quando não é lote.
+     */
+    private int lote;
+
+    public ConsultaLentaDTO() {
+    }
+}
@@ -0,0 +1,32 @@
+package com.desafio.casepixitau.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO com o resultado de um item da consulta em lote, na mesma posição do item na requisição.
+ */
+@AllArgsConstructor
+@Data
+public class ConsultaLoteItemDTO {
+
+    /**
+     * Identificador ou valor de chave informado na requisição.
+     */
+    private String consulta;
+
+    /**
+     * Indica se a chave foi encontrada.
+     */
+    private boolean encontrada;
+
+    /**
+     * Dados da chave encontrada; ausente quando a chave não existe.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ChavePixResponseDTO chave;
+
+    public ConsultaLoteItemDTO() {
+    }
+}
@@ -0,0 +1,29 @@
+package com.desafio.casepixitau.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO para receber os identificadores ou valores de chave de uma consulta em lote.
+ * Deve ser informada apenas uma das listas.
+ */
+@AllArgsConstructor
+@Data
+public class ConsultaLoteRequestDTO {
+
+    /**
+     * Identificadores das chaves Pix a consultar.
+     */
+    private List<UUID> ids;
+
+    /**
+     * Valores das chaves Pix a consultar.
+     */
+    private List<String> valoresChave;
+
+    public ConsultaLoteRequestDTO() {
+    }
+}
@@ -0,0 +1,44 @@
+package com.desafio.casepixitau.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO com as estatísticas de chaves Pix exibidas nos dashboards de operação.
+ */
+@AllArgsConstructor
+@Data
+public class EstatisticasResponseDTO {
+
+    /**
+     * Quantidade de chaves ativas por tipo de chave.
+     */
+    private Map<String, Long> ativasPorTipoChave;
+
+    /**
+     * Quantidade de chaves ativas por agência.
+     */
+    private Map<Integer, Long> ativasPorAgencia;
+
+    /**
+     * Quantidade de inclusões por dia.
+     */
+    private Map<LocalDate, Long> inclusoesPorDia;
+
+    /**
+     * Quantidade de inativações por dia.
+     */
+    private Map<LocalDate, Long> inativacoesPorDia;
+
+    /**
+     * Data e hora em que os valores foram consolidados.
+     */
+    private LocalDateTime dataHoraApuracao;
+
+    public EstatisticasResponseDTO() {
+    }
+}
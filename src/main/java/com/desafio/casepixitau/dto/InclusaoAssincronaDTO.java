@@ -0,0 +1,41 @@
+package com.desafio.casepixitau.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * DTO com a situação de uma inclusão assíncrona de chave Pix, identificada pelo id de acompanhamento
+ * devolvido no {@code 202 Accepted}.
+ */
+@AllArgsConstructor
+@Data
+public class InclusaoAssincronaDTO {
+
+    /**
+     * Identificador de acompanhamento da inclusão.
+     */
+    private UUID idAcompanhamento;
+
+    /**
+     * Situação da inclusão: {@code PENDENTE}, {@code CONCLUIDA} ou {@code RECUSADA}.
+     */
+    private String situacao;
+
+    /**
+     * Dados da chave incluída; presente apenas quando a inclusão foi concluída.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ChavePixResponseDTO chave;
+
+    /**
+     * Motivo da recusa; presente apenas quando a inclusão foi recusada.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String mensagem;
+
+    public InclusaoAssincronaDTO() {
+    }
+}
@@ -0,0 +1,53 @@
+package com.desafio.casepixitau.event;
+
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.model.ChavePix;
+
+/**
+ * Evento publicado pelo {@code ChavePixService} a cada mutação de uma chave Pix.
+ *
+ * Carrega a entidade persistida (cuja versão só é definitiva após o commit) e,
+ * para alterações e inativações, uma cópia do estado anterior da chave.
+ */
+public class ChavePixEvento {
+
+    /**
+     * Tipos de mutação das chaves Pix. {@link #REMOCAO} não gera eventos: é registrada apenas no
+     * journal, pelo arquivamento das chaves inativadas.
+     */
+    public enum Tipo {
+        INCLUSAO,
+        ALTERACAO,
+        INATIVACAO,
+        REMOCAO
+    }
+
+    private final Tipo tipo;
+    private final ChavePix chave;
+    private final ChavePixResponseDTO anterior;
+
+    /**
+     * Construtor do evento.
+     *
+     * @param tipo     Tipo da mutação realizada.
+     * @param chave    Entidade da chave Pix após a mutação.
+     * @param anterior Estado da chave antes da mutação (nulo em inclusões).
+     */
+    public ChavePixEvento(Tipo tipo, ChavePix chave, ChavePixResponseDTO anterior) {
+        this.tipo = tipo;
+        this.chave = chave;
+        this.anterior = anterior;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public ChavePix getChave() {
+        return chave;
+    }
+
+    public ChavePixResponseDTO getAnterior() {
+        return anterior;
+    }
+}
@@ -0,0 +1,18 @@
+package com.desafio.casepixitau.exception;
+
+/**
+ * Exceção lançada quando a fila de um compartimento está cheia ou a operação não começou a ser
+ * executada dentro da espera máxima do compartimento. Também usada quando a fila da inclusão
+ * assíncrona está cheia.
+ */
+public class CompartimentoSaturadoException extends RuntimeException {
+
+    /**
+     * Construtor da exceção.
+     *
+     * @param message Mensagem de erro associada à exceção.
+     */
+    public CompartimentoSaturadoException(String message) {
+        super(message);
+    }
+}
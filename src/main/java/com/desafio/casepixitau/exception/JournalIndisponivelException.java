@@ -0,0 +1,19 @@
+package com.desafio.casepixitau.exception;
+
+/**
+ * Exceção lançada quando uma mutação confirmada não pôde ser registrada no journal de chaves
+ * Pix (falha de escrita ou de sincronização com o disco). A mutação não tem garantia de
+ * durabilidade e a requisição não deve ser confirmada ao cliente.
+ */
+public class JournalIndisponivelException extends RuntimeException {
+
+    /**
+     * Construtor da exceção.
+     *
+     * @param message Mensagem de erro associada à exceção.
+     * @param cause   Falha de entrada e saída do journal.
+     */
+    public JournalIndisponivelException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package com.desafio.casepixitau.exception;
+
+/**
+ * Exceção lançada quando um cliente ou uma conta excede o limite de requisições.
+ */
+public class LimiteExcedidoException extends RuntimeException {
+
+    private final long esperaSegundos;
+
+    /**
+     * Construtor da exceção.
+     *
+     * @param message        Mensagem de erro associada à exceção.
+     * @param esperaSegundos Tempo, em segundos, até que uma nova requisição seja aceita.
+     */
+    public LimiteExcedidoException(String message, long esperaSegundos) {
+        super(message);
+        this.esperaSegundos = esperaSegundos;
+    }
+
+    public long getEsperaSegundos() {
+        return esperaSegundos;
+    }
+}
@@ -0,0 +1,244 @@
+package com.desafio.casepixitau.idempotencia;
+
+import com.desafio.casepixitau.dto.ErrorResponseDTO;
+import com.desafio.casepixitau.model.RespostaIdempotente;
+import com.desafio.casepixitau.util.HttpStatusCodes;
+import com.desafio.casepixitau.util.IdentidadeCliente;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Filtro que torna idempotentes as requisições de inclusão, alteração e inativação de chaves
+ * Pix enviadas com o cabeçalho {@code Idempotency-Key}.
+ *
+ * A primeira requisição de cada chave é executada normalmente e sua resposta (status e corpo)
+ * é armazenada no {@link IdempotenciaStore}. As repetições são respondidas a partir do
+ * armazenamento, sem chegar ao serviço, e as repetições concorrentes aguardam a execução em
+ * andamento. Só são armazenados resultados definitivos: sucesso (2xx) e os erros do cliente que
+ * se repetiriam com a mesma requisição (400, 404 e 422). Erros do servidor (5xx) e recusas
+ * transitórias, como 408, 409 e 429, não são armazenados, para que o cliente possa tentar
+ * novamente com a mesma chave. Reutilizar a chave com outro corpo resulta em 422.
+ *
+ * A chave armazenada inclui a identidade do cliente ({@link IdentidadeCliente}), para que um
+ * cliente não receba a resposta de outro que tenha usado o mesmo {@code Idempotency-Key}.
+ */
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+    private static final Set<String> METODOS = Set.of("POST", "PUT", "DELETE");
+    private static final Set<Integer> ERROS_DEFINITIVOS = Set.of(
+            HttpStatusCodes.BAD_REQUEST.value(), HttpStatusCodes.NOT_FOUND.value(),
+            HttpStatusCodes.UNPROCESSABLE_ENTITY.value());
+
+    private final IdempotenciaStore store;
+    private final ObjectMapper objectMapper;
+    private final long esperaMs;
+    private final Counter executadas;
+    private final Counter reutilizadas;
+
+    private final ConcurrentHashMap<String, CompletableFuture<RespostaIdempotente>> emAndamento = new ConcurrentHashMap<>();
+
+    /**
+     * Construtor do filtro.
+     *
+     * @param store         Armazenamento das respostas.
+     * @param objectMapper  Serializador das mensagens de erro.
+     * @param meterRegistry Registro de métricas.
+     * @param esperaMs      Tempo máximo de espera por uma execução em andamento com a mesma chave.
+     */
+    public IdempotenciaFilter(IdempotenciaStore store, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry, long esperaMs) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.esperaMs = esperaMs;
+        this.executadas = Counter.builder("pix.idempotencia.requisicoes").tag("resultado", "executada")
+                .description("Requisições com Idempotency-Key executadas").register(meterRegistry);
+        this.reutilizadas = Counter.builder("pix.idempotencia.requisicoes").tag("resultado", "reutilizada")
+                .description("Requisições com Idempotency-Key respondidas com a resposta armazenada").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(CABECALHO) == null || !METODOS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        byte[] corpoRequisicao = request.getInputStream().readAllBytes();
+        String impressao = impressao(corpoRequisicao);
+        String chave = request.getMethod() + " " + request.getRequestURI() + " " + IdentidadeCliente.de(request)
+                + " " + request.getHeader(CABECALHO);
+
+        while (true) {
+            CompletableFuture<RespostaIdempotente> execucao = new CompletableFuture<>();
+            CompletableFuture<RespostaIdempotente> anterior = emAndamento.putIfAbsent(chave, execucao);
+
+            if (anterior != null) {
+                RespostaIdempotente armazenada;
+                try {
+                    armazenada = anterior.get(esperaMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    escreverErro(response, HttpStatusCodes.CONFLICT,
+                            "Requisição com a mesma chave de idempotência ainda em processamento.");
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServletException(e);
+                } catch (ExecutionException e) {
+                    armazenada = null;
+                }
+                if (armazenada == null) {
+                    continue; // A execução anterior falhou sem resposta armazenável: executa novamente.
+                }
+                reutilizar(armazenada, impressao, response);
+                return;
+            }
+
+            RespostaIdempotente armazenada = null;
+            try {
+                armazenada = store.buscar(chave);
+                if (armazenada != null) {
+                    reutilizar(armazenada, impressao, response);
+                } else {
+                    armazenada = executar(new CorpoEmCacheRequest(request, corpoRequisicao), response,
+                            filterChain, chave, impressao);
+                }
+            } finally {
+                execucao.complete(armazenada);
+                emAndamento.remove(chave, execucao);
+            }
+            return;
+        }
+    }
+
+    private RespostaIdempotente executar(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                                         String chave, String impressao) throws ServletException, IOException {
+        executadas.increment();
+        ContentCachingResponseWrapper respostaEmCache = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, respostaEmCache);
+
+        RespostaIdempotente armazenada = null;
+        if (definitiva(respostaEmCache.getStatus())) {
+            armazenada = store.salvar(chave, impressao, respostaEmCache.getStatus(),
+                    respostaEmCache.getContentType(), respostaEmCache.getContentAsByteArray());
+        }
+        respostaEmCache.copyBodyToResponse();
+        return armazenada;
+    }
+
+    private static boolean definitiva(int status) {
+        return (status >= 200 && status < 300) || ERROS_DEFINITIVOS.contains(status);
+    }
+
+    private void reutilizar(RespostaIdempotente armazenada, String impressao,
+                            HttpServletResponse response) throws IOException {
+        if (!armazenada.getImpressao().equals(impressao)) {
+            escreverErro(response, HttpStatusCodes.UNPROCESSABLE_ENTITY,
+                    "A chave de idempotência já foi utilizada com outra requisição.");
+            return;
+        }
+        reutilizadas.increment();
+        response.setStatus(armazenada.getStatus());
+        if (armazenada.getContentType() != null) {
+            response.setContentType(armazenada.getContentType());
+        }
+        response.setHeader(CABECALHO_REPETIDA, "true");
+        response.setContentLength(armazenada.getCorpo().length);
+        response.getOutputStream().write(armazenada.getCorpo());
+    }
+
+    private void escreverErro(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponseDTO(mensagem));
+    }
+
+    private static String impressao(byte[] corpo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(corpo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Requisição cujo corpo já foi lido pelo filtro e é reentregue a partir da memória.
+     */
+    private static final class CorpoEmCacheRequest extends HttpServletRequestWrapper {
+        private final byte[] corpo;
+
+        private CorpoEmCacheRequest(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.desafio.casepixitau.idempotencia;
+
+import com.desafio.casepixitau.model.RespostaIdempotente;
+import com.desafio.casepixitau.repository.RespostaIdempotenteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Armazenamento das respostas de requisições idempotentes.
+ *
+ * O primeiro nível é um mapa em memória limitado por capacidade e por tempo de vida. Como todas
+ * as entradas têm o mesmo tempo de vida, a ordem de inserção é também a ordem de expiração, e a
+ * fila de inserção basta para descartar tanto as expiradas quanto as excedentes. Opcionalmente
+ * ({@code pix.idempotencia.banco.enabled=true}) as respostas também são gravadas na tabela
+ * {@code tb_idempotencia}, preservando-as entre reinicializações e entre instâncias.
+ */
+@Component
+public class IdempotenciaStore {
+
+    private final RespostaIdempotenteRepository repository;
+    private final int capacidade;
+    private final long ttlSegundos;
+    private final boolean bancoHabilitado;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, RespostaIdempotente> memoria = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> ordemInsercao = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Construtor do armazenamento.
+     *
+     * @param repository      Repositório da tabela de respostas, usado quando o nível em banco está habilitado.
+     * @param capacidade      Quantidade máxima de respostas mantidas em memória.
+     * @param ttlSegundos     Tempo de vida de cada resposta.
+     * @param bancoHabilitado Indica se as respostas também são gravadas no banco.
+     */
+    public IdempotenciaStore(RespostaIdempotenteRepository repository,
+                             @Value("${pix.idempotencia.capacidade:10000}") int capacidade,
+                             @Value("${pix.idempotencia.ttl-segundos:86400}") long ttlSegundos,
+                             @Value("${pix.idempotencia.banco.enabled:false}") boolean bancoHabilitado) {
+        this.repository = repository;
+        this.capacidade = capacidade;
+        this.ttlSegundos = ttlSegundos;
+        this.bancoHabilitado = bancoHabilitado;
+        this.clock = Clock.systemDefaultZone();
+    }
+
+    /**
+     * Busca a resposta armazenada para a chave, primeiro em memória e depois no banco.
+     *
+     * @param chave Chave da requisição (método, caminho, cliente e Idempotency-Key).
+     * @return a resposta armazenada, ou {@code null} se não houver resposta válida.
+     */
+    public RespostaIdempotente buscar(String chave) {
+        LocalDateTime agora = LocalDateTime.now(clock);
+        RespostaIdempotente resposta = memoria.get(chave);
+        if (resposta != null && resposta.getDataHoraExpiracao().isAfter(agora)) {
+            return resposta;
+        }
+        if (bancoHabilitado) {
+            resposta = repository.findById(chave).orElse(null);
+            if (resposta != null && resposta.getDataHoraExpiracao().isAfter(agora)) {
+                guardarEmMemoria(resposta);
+                return resposta;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Armazena a resposta de uma requisição.
+     *
+     * @param chave       Chave da requisição (método, caminho, cliente e Idempotency-Key).
+     * @param impressao   Hash do corpo da requisição.
+     * @param status      Status HTTP da resposta.
+     * @param contentType Content-Type da resposta.
+     * @param corpo       Corpo da resposta.
+     * @return a resposta armazenada.
+     */
+    public RespostaIdempotente salvar(String chave, String impressao, int status, String contentType, byte[] corpo) {
+        RespostaIdempotente resposta = new RespostaIdempotente(chave, impressao, status, contentType, corpo,
+                LocalDateTime.now(clock).plusSeconds(ttlSegundos));
+        if (bancoHabilitado) {
+            repository.save(resposta);
+        }
+        guardarEmMemoria(resposta);
+        return resposta;
+    }
+
+    /**
+     * Descarta as respostas expiradas da memória e, se habilitado, do banco.
+     */
+    @Scheduled(fixedDelayString = "${pix.idempotencia.limpeza-ms:60000}")
+    public void removerExpiradas() {
+        descartar(0);
+        if (bancoHabilitado) {
+            repository.removerExpiradas(LocalDateTime.now(clock));
+        }
+    }
+
+    /**
+     * Retorna a quantidade de respostas mantidas em memória.
+     *
+     * @return quantidade de respostas em memória.
+     */
+    public int getQuantidadeEmMemoria() {
+        return memoria.size();
+    }
+
+    private void guardarEmMemoria(RespostaIdempotente resposta) {
+        if (memoria.put(resposta.getChave(), resposta) == null) {
+            ordemInsercao.add(resposta.getChave());
+        }
+        descartar(capacidade);
+    }
+
+    /**
+     * Remove, a partir das mais antigas, as respostas expiradas e as que excedem o limite.
+     */
+    private void descartar(int limite) {
+        LocalDateTime agora = LocalDateTime.now(clock);
+        String chave;
+        while ((chave = ordemInsercao.peek()) != null) {
+            RespostaIdempotente maisAntiga = memoria.get(chave);
+            boolean expirada = maisAntiga == null || !maisAntiga.getDataHoraExpiracao().isAfter(agora);
+            if (!expirada && (limite == 0 || memoria.size() <= limite)) {
+                return;
+            }
+            String removida = ordemInsercao.poll();
+            if (removida != null) {
+                memoria.remove(removida);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.desafio.casepixitau.job;
+
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.journal.JournalChavePixService;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixArquivadaRepository;
+import com.desafio.casepixitau.service.CacheConsultas;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Job que move para o arquivo ({@code tb_chavespix_arquivo}) as chaves Pix inativadas há mais de
+ * {@code pix.arquivamento.dias-inativa} dias, mantendo na tabela de chaves, e nos seus índices,
+ * apenas as chaves ativas e as inativadas recentemente.
+ *
+ * As chaves são percorridas em lotes pequenos, em ordem de (data de inativação, id), a partir da
+ * última chave do lote anterior. Cada lote é copiado e removido da tabela de chaves em uma única
+ * transação, e há uma pausa entre os lotes para limitar a carga sobre o banco. Com o journal
+ * habilitado, as chaves de cada lote confirmado são registradas nele como remoções, já que o
+ * arquivamento não publica eventos de mutação. As consultas por id, por valor (inclusive em
+ * lote) e por data de inativação continuam encontrando as chaves arquivadas; as demais consultas,
+ * a unicidade do valor e o limite por conta passam a considerar apenas a tabela de chaves.
+ *
+ * O período de retenção deve ser maior que o dos contadores diários das estatísticas
+ * ({@code pix.estatisticas.dias-retencao}), que são conferidos contra a tabela de chaves. O job
+ * move as chaves apenas no banco principal e, por isso, impede a inicialização com a
+ * fragmentação da tabela de chaves ({@code pix.sharding.enabled=true}).
+ */
+@Component
+@Profile("!memoria")
+@ConditionalOnProperty(name = "pix.arquivamento.enabled", havingValue = "true")
+public class ArquivamentoJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoJob.class);
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID MENOR_ID = new UUID(0, 0);
+
+    private final ChavePixArquivadaRepository repository;
+    private final CacheConsultas cache;
+    private final JournalChavePixService journal;
+    private final TransactionTemplate transacao;
+    private final Clock clock;
+    private final int diasInativa;
+    private final int tamanhoLote;
+    private final long pausaMs;
+    private final Counter arquivadas;
+    private final Timer lotes;
+
+    /**
+     * Construtor do job de arquivamento.
+     *
+     * @param repository         Repositório do arquivo de chaves Pix.
+     * @param cache              Cache de consultas, invalidado para as chaves arquivadas.
+     * @param journal            Journal de mutações, presente apenas com {@code pix.journal.enabled=true}.
+     * @param transactionManager Gerenciador das transações de cada lote.
+     * @param diasInativa        Dias de inativação a partir dos quais a chave é arquivada.
+     * @param tamanhoLote        Quantidade máxima de chaves movidas por transação.
+     * @param pausaMs            Pausa entre dois lotes.
+     * @param fragmentacao       Indica se a fragmentação da tabela de chaves está habilitada.
+     * @param meterRegistry      Registro de métricas.
+     */
+    public ArquivamentoJob(ChavePixArquivadaRepository repository, CacheConsultas cache,
+                           ObjectProvider<JournalChavePixService> journal,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${pix.arquivamento.dias-inativa:180}") int diasInativa,
+                           @Value("${pix.arquivamento.tamanho-lote:500}") int tamanhoLote,
+                           @Value("${pix.arquivamento.pausa-ms:100}") long pausaMs,
+                           @Value("${pix.sharding.enabled:false}") boolean fragmentacao,
+                           MeterRegistry meterRegistry) {
+        if (fragmentacao) {
+            throw new IllegalStateException("O arquivamento não é suportado com a fragmentação da tabela de chaves: "
+                    + "use pix.arquivamento.enabled=false com pix.sharding.enabled=true.");
+        }
+        this.repository = repository;
+        this.cache = cache;
+        this.journal = journal.getIfAvailable();
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.clock = Clock.systemDefaultZone();
+        this.diasInativa = diasInativa;
+        this.tamanhoLote = tamanhoLote;
+        this.pausaMs = pausaMs;
+        this.arquivadas = Counter.builder("pix.arquivamento.chaves")
+                .description("Chaves Pix movidas para o arquivo")
+                .register(meterRegistry);
+        this.lotes = Timer.builder("pix.arquivamento.lote")
+                .description("Duração da transação de cada lote do arquivamento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Arquiva as chaves inativadas antes do período de retenção, diariamente.
+     */
+    @Scheduled(cron = "${pix.arquivamento.cron:0 30 3 * * *}")
+    public void arquivar() {
+        arquivarInativadasAntes(LocalDateTime.now(clock).minusDays(diasInativa));
+    }
+
+    /**
+     * Arquiva, em lotes, as chaves inativadas antes do instante informado.
+     *
+     * @param limite Chaves inativadas antes deste instante são arquivadas.
+     * @return a quantidade de chaves arquivadas.
+     */
+    public int arquivarInativadasAntes(LocalDateTime limite) {
+        long inicio = System.nanoTime();
+        LocalDateTime ultimaData = INICIO;
+        UUID ultimoId = MENOR_ID;
+        int total = 0;
+        while (true) {
+            LocalDateTime apos = ultimaData;
+            UUID aposId = ultimoId;
+            List<ChavePix> lote = lotes.record(() -> transacao.execute(status -> moverLote(limite, apos, aposId)));
+            if (lote.isEmpty()) {
+                break;
+            }
+            if (journal != null) {
+                journal.registrar(ChavePixEvento.Tipo.REMOCAO, lote);
+            }
+            cache.invalidarChaves(lote);
+            arquivadas.increment(lote.size());
+            total += lote.size();
+
+            ChavePix ultima = lote.get(lote.size() - 1);
+            ultimaData = ultima.getDataHoraInativacao();
+            ultimoId = ultima.getId();
+            if (lote.size() < tamanhoLote || !pausar()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("{} chaves Pix inativadas antes de {} arquivadas em {} ms.", total, limite,
+                    (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return total;
+    }
+
+    private List<ChavePix> moverLote(LocalDateTime limite, LocalDateTime ultimaData, UUID ultimoId) {
+        List<ChavePix> lote = repository.buscarArquivaveis(limite, ultimaData, ultimoId, Limit.of(tamanhoLote));
+        if (!lote.isEmpty()) {
+            List<UUID> ids = lote.stream().map(ChavePix::getId).toList();
+            repository.copiarParaArquivo(ids, LocalDateTime.now(clock));
+            repository.removerArquivadas(ids);
+        }
+        return lote;
+    }
+
+    private boolean pausar() {
+        if (pausaMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
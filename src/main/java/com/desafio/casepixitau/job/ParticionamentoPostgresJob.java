@@ -0,0 +1,93 @@
+package com.desafio.casepixitau.job;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Job que mantém as partições mensais da tabela de chaves Pix no PostgreSQL.
+ *
+ * Cria, na inicialização e diariamente, as partições do mês corrente, dos meses anteriores
+ * configurados e dos próximos meses, de forma que a partição de cada inclusão já exista quando
+ * ela acontecer. Os índices declarados na tabela pai são herdados por cada nova partição, e as
+ * consultas de um dia por data de inclusão tocam uma única partição.
+ *
+ * Na inicialização, as partições são criadas logo após o script do schema e antes de qualquer
+ * carga de dados (como a importação de snapshot do {@code SnapshotComandos}, um {@code ApplicationRunner}).
+ * Linhas que já estejam na partição padrão são movidas para a partição do seu mês por
+ * {@code fn_chavespix_criar_particao}, já que a partição não pode ser criada sobre elas.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@ConditionalOnProperty(name = "pix.particionamento.enabled", havingValue = "true")
+public class ParticionamentoPostgresJob {
+
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("'p'yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final int mesesAnteriores;
+    private final int mesesFuturos;
+
+    /**
+     * Construtor do job de particionamento.
+     *
+     * @param jdbcTemplate    Template JDBC do banco PostgreSQL.
+     * @param mesesAnteriores Quantidade de meses passados que devem possuir partição.
+     * @param mesesFuturos    Quantidade de meses futuros criados antecipadamente.
+     */
+    public ParticionamentoPostgresJob(JdbcTemplate jdbcTemplate,
+                                      @Value("${pix.particionamento.meses-anteriores:1}") int mesesAnteriores,
+                                      @Value("${pix.particionamento.meses-futuros:3}") int mesesFuturos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = Clock.systemDefaultZone();
+        this.mesesAnteriores = mesesAnteriores;
+        this.mesesFuturos = mesesFuturos;
+    }
+
+    /**
+     * Cria as partições ausentes na inicialização da aplicação e diariamente.
+     */
+    @PostConstruct
+    @Scheduled(cron = "${pix.particionamento.cron:0 0 3 * * *}")
+    public void criarParticoes() {
+        comandosDeCriacao(YearMonth.now(clock), mesesAnteriores, mesesFuturos).forEach(jdbcTemplate::execute);
+    }
+
+    /**
+     * Gera os comandos de criação das partições mensais ao redor do mês de referência.
+     *
+     * @param referencia      Mês corrente.
+     * @param mesesAnteriores Quantidade de meses passados.
+     * @param mesesFuturos    Quantidade de meses futuros.
+     * @return comandos de criação das partições, idempotentes.
+     */
+    public static List<String> comandosDeCriacao(YearMonth referencia, int mesesAnteriores, int mesesFuturos) {
+        List<String> comandos = new ArrayList<>();
+        for (int i = -mesesAnteriores; i <= mesesFuturos; i++) {
+            comandos.add(comandoDeCriacao(referencia.plusMonths(i)));
+        }
+        return comandos;
+    }
+
+    /**
+     * Gera o comando de criação da partição de um mês.
+     *
+     * @param mes Mês da partição.
+     * @return comando que chama {@code fn_chavespix_criar_particao} com o intervalo semiaberto do mês.
+     */
+    public static String comandoDeCriacao(YearMonth mes) {
+        return "SELECT fn_chavespix_criar_particao('tb_chavespix_" + SUFIXO.format(mes) + "', DATE '" +
+                mes.atDay(1) + "', DATE '" + mes.plusMonths(1).atDay(1) + "')";
+    }
+}
@@ -0,0 +1,90 @@
+package com.desafio.casepixitau.journal;
+
+import com.desafio.casepixitau.model.ChavePix;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Codificação binária compacta de uma chave Pix, usada nos registros do journal e nos snapshots.
+ *
+ * Campos de texto são gravados em UTF-8 precedidos do tamanho ({@code -1} para nulo) e datas como
+ * segundos e nanossegundos em UTC ({@link Long#MIN_VALUE} para nulo).
+ */
+final class CodecChavePix {
+
+    private static final long DATA_NULA = Long.MIN_VALUE;
+
+    private CodecChavePix() {
+    }
+
+    static void escrever(ByteBuffer destino, ChavePix chave) {
+        destino.putLong(chave.getId().getMostSignificantBits());
+        destino.putLong(chave.getId().getLeastSignificantBits());
+        destino.putLong(chave.getVersion() == null ? 0 : chave.getVersion());
+        escreverTexto(destino, chave.getTipoChave());
+        escreverTexto(destino, chave.getValorChave());
+        escreverTexto(destino, chave.getTipoConta());
+        destino.putInt(chave.getNumeroAgencia());
+        destino.putInt(chave.getNumeroConta());
+        escreverTexto(destino, chave.getNomeCorrentista());
+        escreverTexto(destino, chave.getSobrenomeCorrentista());
+        escreverData(destino, chave.getDataHoraInclusao());
+        escreverData(destino, chave.getDataHoraInativacao());
+    }
+
+    static ChavePix ler(ByteBuffer origem) {
+        ChavePix chave = new ChavePix();
+        chave.setId(new UUID(origem.getLong(), origem.getLong()));
+        chave.setVersion(origem.getLong());
+        chave.setTipoChave(lerTexto(origem));
+        chave.setValorChave(lerTexto(origem));
+        chave.setTipoConta(lerTexto(origem));
+        chave.setNumeroAgencia(origem.getInt());
+        chave.setNumeroConta(origem.getInt());
+        chave.setNomeCorrentista(lerTexto(origem));
+        chave.setSobrenomeCorrentista(lerTexto(origem));
+        chave.setDataHoraInclusao(lerData(origem));
+        chave.setDataHoraInativacao(lerData(origem));
+        return chave;
+    }
+
+    private static void escreverTexto(ByteBuffer destino, String texto) {
+        if (texto == null) {
+            destino.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        destino.putShort((short) bytes.length);
+        destino.put(bytes);
+    }
+
+    private static String lerTexto(ByteBuffer origem) {
+        short tamanho = origem.getShort();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        origem.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escreverData(ByteBuffer destino, LocalDateTime data) {
+        if (data == null) {
+            destino.putLong(DATA_NULA);
+            destino.putInt(0);
+            return;
+        }
+        destino.putLong(data.toEpochSecond(ZoneOffset.UTC));
+        destino.putInt(data.getNano());
+    }
+
+    private static LocalDateTime lerData(ByteBuffer origem) {
+        long segundos = origem.getLong();
+        int nanos = origem.getInt();
+        return segundos == DATA_NULA ? null : LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,420 @@
+package com.desafio.casepixitau.journal;
+
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.model.ChavePix;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal append-only das mutações de chaves Pix em segmentos mapeados em memória.
+ *
+ * Cada segmento é um arquivo de tamanho fixo ({@code journal-<primeira sequência>.log}) mapeado com
+ * {@link MappedByteBuffer}; ao encher, um novo segmento é criado. Cada registro é gravado como
+ * {@code [tamanho][crc32c][sequência][tipo][chave]}. A leitura para no primeiro registro vazio, com
+ * CRC inválido ou fora de sequência, descartando o final de uma gravação interrompida.
+ *
+ * A durabilidade usa group commit: {@link #anexar} apenas copia o registro para o mapeamento e uma
+ * thread de sincronização executa {@code force()} sobre tudo o que foi gravado desde a última
+ * sincronização, liberando de uma vez todos os chamadores que aguardam em {@link #aguardarDuravel}.
+ * Ao abrir, o journal continua em um segmento novo, sem reescrever os segmentos existentes.
+ */
+public class JournalChavePix implements AutoCloseable {
+
+    private static final String PREFIXO = "journal-";
+    private static final String SUFIXO = ".log";
+    private static final int CABECALHO = Integer.BYTES * 2;
+    private static final int TAMANHO_MAXIMO_REGISTRO = 8 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> CODIFICACAO =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(TAMANHO_MAXIMO_REGISTRO));
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition gravado = lock.newCondition();
+    private final Condition sincronizado = lock.newCondition();
+    private final List<Segmento> aSincronizar = new ArrayList<>();
+    private final CRC32C crc = new CRC32C();
+    private final Thread sincronizacao;
+
+    private Segmento atual;
+    private long ultimaSequencia;
+    private long sequenciaDuravel;
+    private long sincronizacoes;
+    private IOException falha;
+    private boolean fechado;
+
+    /**
+     * Abre (ou cria) o journal no diretório informado.
+     *
+     * @param diretorio       Diretório dos segmentos.
+     * @param tamanhoSegmento Tamanho de cada segmento, em bytes.
+     */
+    public JournalChavePix(Path diretorio, int tamanhoSegmento) throws IOException {
+        if (tamanhoSegmento < TAMANHO_MAXIMO_REGISTRO + CABECALHO) {
+            throw new IllegalArgumentException("Tamanho de segmento muito pequeno: " + tamanhoSegmento);
+        }
+        this.diretorio = Files.createDirectories(diretorio);
+        this.tamanhoSegmento = tamanhoSegmento;
+
+        List<Path> segmentos = segmentos();
+        if (!segmentos.isEmpty()) {
+            Path ultimo = segmentos.get(segmentos.size() - 1);
+            long[] ultima = {primeiraSequencia(ultimo) - 1};
+            lerSegmento(ultimo, ultima[0], Long.MAX_VALUE, registro -> ultima[0] = registro.sequencia());
+            ultimaSequencia = ultima[0];
+            if (ultimaSequencia < primeiraSequencia(ultimo)) {
+                Files.delete(ultimo); // Segmento sem nenhum registro válido: será recriado.
+            }
+        }
+        sequenciaDuravel = ultimaSequencia;
+        atual = new Segmento(ultimaSequencia + 1);
+
+        sincronizacao = new Thread(this::sincronizar, "pix-journal-fsync");
+        sincronizacao.setDaemon(true);
+        sincronizacao.start();
+    }
+
+    /**
+     * Anexa a mutação ao journal, sem aguardar a sincronização com o disco.
+     *
+     * @param tipo  Tipo da mutação.
+     * @param chave Estado da chave após a mutação.
+     * @return a sequência atribuída ao registro.
+     */
+    public long anexar(ChavePixEvento.Tipo tipo, ChavePix chave) throws IOException {
+        ByteBuffer corpo = CODIFICACAO.get().clear();
+        corpo.putLong(0);
+        corpo.put((byte) tipo.ordinal());
+        CodecChavePix.escrever(corpo, chave);
+        corpo.flip();
+
+        lock.lock();
+        try {
+            if (fechado) {
+                throw new IOException("Journal fechado.");
+            }
+            if (falha != null) {
+                throw falha;
+            }
+            if (atual.restante() < CABECALHO + corpo.remaining()) {
+                aSincronizar.add(atual);
+                atual = new Segmento(ultimaSequencia + 1);
+            }
+            long sequencia = ultimaSequencia + 1;
+            corpo.putLong(0, sequencia);
+            crc.reset();
+            crc.update(corpo.duplicate());
+            atual.gravar(corpo, (int) crc.getValue());
+            ultimaSequencia = sequencia;
+            gravado.signal();
+            return sequencia;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aguarda até que o registro da sequência informada esteja sincronizado com o disco.
+     *
+     * @param sequencia Sequência retornada por {@link #anexar}.
+     */
+    public void aguardarDuravel(long sequencia) throws IOException {
+        lock.lock();
+        try {
+            while (sequenciaDuravel < sequencia) {
+                if (falha != null) {
+                    throw falha;
+                }
+                sincronizado.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lê, em ordem, os registros com sequência no intervalo informado.
+     *
+     * @param aPartirDe Primeira sequência desejada.
+     * @param ate       Última sequência desejada.
+     * @param consumidor Consumidor dos registros.
+     * @return a quantidade de registros lidos.
+     */
+    public long ler(long aPartirDe, long ate, Consumer<RegistroJournal> consumidor) throws IOException {
+        List<Path> segmentos = segmentos();
+        long[] lidos = {0};
+        long anterior = -1;
+        for (int i = 0; i < segmentos.size(); i++) {
+            long proxima = i + 1 < segmentos.size() ? primeiraSequencia(segmentos.get(i + 1)) : Long.MAX_VALUE;
+            if (proxima <= aPartirDe) {
+                continue;
+            }
+            long primeira = primeiraSequencia(segmentos.get(i));
+            if (primeira > ate) {
+                break;
+            }
+            anterior = lerSegmento(segmentos.get(i), Math.max(anterior, primeira - 1), ate, registro -> {
+                if (registro.sequencia() >= aPartirDe) {
+                    consumidor.accept(registro);
+                    lidos[0]++;
+                }
+            });
+        }
+        return lidos[0];
+    }
+
+    /**
+     * Remove os segmentos cujos registros têm todos sequência menor ou igual à informada.
+     *
+     * @param sequencia Sequência já coberta por um snapshot.
+     * @return a quantidade de segmentos removidos.
+     */
+    public int removerSegmentosAte(long sequencia) throws IOException {
+        List<Path> segmentos = segmentos();
+        long emUso;
+        lock.lock();
+        try {
+            emUso = aSincronizar.isEmpty() ? atual.primeira : aSincronizar.get(0).primeira;
+        } finally {
+            lock.unlock();
+        }
+        int removidos = 0;
+        for (int i = 0; i + 1 < segmentos.size(); i++) {
+            long primeira = primeiraSequencia(segmentos.get(i));
+            long proxima = primeiraSequencia(segmentos.get(i + 1));
+            if (proxima - 1 > sequencia || primeira >= emUso) {
+                break;
+            }
+            Files.delete(segmentos.get(i));
+            removidos++;
+        }
+        return removidos;
+    }
+
+    public long getUltimaSequencia() {
+        lock.lock();
+        try {
+            return ultimaSequencia;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSequenciaDuravel() {
+        lock.lock();
+        try {
+            return sequenciaDuravel;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retorna a falha de sincronização que interrompeu o journal. Após uma falha, nenhuma
+     * mutação é aceita até que a aplicação seja reiniciada.
+     *
+     * @return a falha, ou nulo se o journal está operando.
+     */
+    public IOException getFalha() {
+        lock.lock();
+        try {
+            return falha;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quantidade de sincronizações com o disco executadas; cada uma cobre um lote de registros.
+     */
+    public long getSincronizacoes() {
+        lock.lock();
+        try {
+            return sincronizacoes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sincroniza os registros pendentes e fecha o journal.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            gravado.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            sincronizacao.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        atual.fechar();
+    }
+
+    /**
+     * Laço da thread de sincronização: a cada volta, força para o disco tudo o que foi gravado
+     * até então e avança a sequência durável.
+     */
+    private void sincronizar() {
+        while (true) {
+            List<Segmento> segmentos;
+            long alvo;
+            lock.lock();
+            try {
+                while (ultimaSequencia == sequenciaDuravel && !fechado) {
+                    gravado.awaitUninterruptibly();
+                }
+                if (ultimaSequencia == sequenciaDuravel) {
+                    sincronizado.signalAll();
+                    return;
+                }
+                alvo = ultimaSequencia;
+                segmentos = new ArrayList<>(aSincronizar);
+                segmentos.add(atual);
+            } finally {
+                lock.unlock();
+            }
+
+            List<Segmento> completos = segmentos.subList(0, segmentos.size() - 1);
+            IOException erro = null;
+            try {
+                for (Segmento segmento : segmentos) {
+                    segmento.mapeamento.force();
+                }
+                for (Segmento segmento : completos) {
+                    segmento.fechar();
+                }
+            } catch (UncheckedIOException e) {
+                erro = e.getCause();
+            } catch (IOException e) {
+                erro = e;
+            }
+
+            lock.lock();
+            try {
+                if (erro != null) {
+                    // Sem garantia de durabilidade: os chamadores passam a receber o erro.
+                    falha = erro;
+                    sincronizado.signalAll();
+                    return;
+                }
+                aSincronizar.removeAll(completos);
+                sequenciaDuravel = alvo;
+                sincronizacoes++;
+                sincronizado.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lê os registros válidos de um segmento, a partir do início, até a sequência {@code ate}.
+     *
+     * @return a sequência do último registro válido lido.
+     */
+    private static long lerSegmento(Path arquivo, long anterior, long ate,
+                                    Consumer<RegistroJournal> consumidor) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            CRC32C verificacao = new CRC32C();
+            while (dados.remaining() >= CABECALHO) {
+                int tamanho = dados.getInt();
+                int esperado = dados.getInt();
+                if (tamanho <= Long.BYTES || tamanho > dados.remaining() || tamanho > TAMANHO_MAXIMO_REGISTRO) {
+                    break;
+                }
+                ByteBuffer corpo = dados.slice(dados.position(), tamanho);
+                verificacao.reset();
+                verificacao.update(corpo.duplicate());
+                long sequencia = corpo.getLong(0);
+                if ((int) verificacao.getValue() != esperado || sequencia != anterior + 1) {
+                    break;
+                }
+                if (sequencia > ate) {
+                    break;
+                }
+                corpo.position(Long.BYTES);
+                ChavePixEvento.Tipo tipo = ChavePixEvento.Tipo.values()[corpo.get()];
+                consumidor.accept(new RegistroJournal(sequencia, tipo, CodecChavePix.ler(corpo)));
+                dados.position(dados.position() + tamanho);
+                anterior = sequencia;
+            }
+            return anterior;
+        }
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIXO) && p.getFileName().toString().endsWith(SUFIXO))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long primeiraSequencia(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+    }
+
+    /**
+     * Segmento do journal: arquivo de tamanho fixo mapeado para escrita.
+     */
+    private final class Segmento {
+        private final long primeira;
+        private final FileChannel canal;
+        private final MappedByteBuffer mapeamento;
+        private int posicao;
+
+        private Segmento(long primeira) throws IOException {
+            this.primeira = primeira;
+            Path arquivo = diretorio.resolve(String.format("%s%020d%s", PREFIXO, primeira, SUFIXO));
+            this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.mapeamento = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        }
+
+        private int restante() {
+            return tamanhoSegmento - posicao;
+        }
+
+        private void gravar(ByteBuffer corpo, int verificacao) {
+            int tamanho = corpo.remaining();
+            mapeamento.putInt(posicao + Integer.BYTES, verificacao);
+            mapeamento.put(posicao + CABECALHO, corpo, 0, tamanho);
+            // O tamanho é gravado por último: um registro incompleto é lido como fim do segmento.
+            mapeamento.putInt(posicao, tamanho);
+            posicao += CABECALHO + tamanho;
+        }
+
+        private void fechar() throws IOException {
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.desafio.casepixitau.journal;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Indicador de saúde do journal de chaves Pix ({@code journalChavePix}): DOWN após uma falha de
+ * sincronização com o disco, quando as mutações passam a ser recusadas.
+ */
+@Component
+@ConditionalOnProperty(name = "pix.journal.enabled", havingValue = "true")
+public class JournalChavePixHealthIndicator implements HealthIndicator {
+
+    private final JournalChavePixService journal;
+
+    public JournalChavePixHealthIndicator(JournalChavePixService journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public Health health() {
+        IOException falha = journal.getFalha();
+        if (falha != null) {
+            return Health.down(falha).build();
+        }
+        return Health.up().build();
+    }
+}
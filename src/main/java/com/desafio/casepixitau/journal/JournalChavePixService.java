@@ -0,0 +1,245 @@
+package com.desafio.casepixitau.journal;
+
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.exception.JournalIndisponivelException;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepositoryMemoria;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Camada de durabilidade das mutações de chaves Pix em journal e snapshots locais.
+ * Ativada por {@code pix.journal.enabled=true}.
+ *
+ * Cada inclusão, alteração e inativação confirmada é anexada ao {@link JournalChavePix} logo após
+ * o commit, na thread da requisição; com {@code pix.journal.aguardar-fsync=true} a requisição só
+ * retorna após a sincronização do lote com o disco. Uma falha de escrita ou de sincronização é
+ * propagada ao chamador como {@link JournalIndisponivelException}, e a requisição falha em vez de
+ * ser confirmada sem durabilidade; após uma falha de sincronização o journal recusa as mutações
+ * seguintes e o indicador de saúde {@code journalChavePix} fica DOWN. As mutações feitas sem publicação de eventos (chaves importadas de um snapshot e
+ * chaves removidas pelo arquivamento) são anexadas por {@link #registrar}. Periodicamente é
+ * gravado um snapshot do diretório de chaves e os segmentos já cobertos pelos snapshots mantidos
+ * são removidos.
+ *
+ * No perfil {@code memoria}, o repositório em memória é reconstruído na inicialização a partir do
+ * último snapshot e do final do journal. Nos demais perfis, o journal serve de histórico das
+ * mutações e os snapshots são gerados compactando o snapshot anterior com o journal, sem
+ * consultar o banco: apenas os registros posteriores ao snapshot anterior ficam em memória, e as
+ * chaves do snapshot anterior são copiadas uma a uma para o novo.
+ */
+@Component
+@ConditionalOnProperty(name = "pix.journal.enabled", havingValue = "true")
+public class JournalChavePixService {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalChavePixService.class);
+    private static final int SNAPSHOTS_MANTIDOS = 2;
+
+    private final JournalChavePix journal;
+    private final SnapshotsChavePix snapshots;
+    private final ChavePixRepositoryMemoria memoria;
+    private final boolean aguardarFsync;
+
+    /**
+     * Construtor do serviço.
+     *
+     * @param diretorio         Diretório do journal e dos snapshots.
+     * @param tamanhoSegmentoMb Tamanho de cada segmento do journal, em MB.
+     * @param aguardarFsync     Indica se as mutações aguardam a sincronização do journal com o disco.
+     * @param memoria           Repositório em memória, presente apenas no perfil {@code memoria}.
+     * @param meterRegistry     Registro de métricas.
+     */
+    public JournalChavePixService(@Value("${pix.journal.diretorio:data/journal}") Path diretorio,
+                                  @Value("${pix.journal.tamanho-segmento-mb:64}") int tamanhoSegmentoMb,
+                                  @Value("${pix.journal.aguardar-fsync:true}") boolean aguardarFsync,
+                                  ObjectProvider<ChavePixRepositoryMemoria> memoria,
+                                  MeterRegistry meterRegistry) throws IOException {
+        this.journal = new JournalChavePix(diretorio, tamanhoSegmentoMb * 1024 * 1024);
+        this.snapshots = new SnapshotsChavePix(diretorio);
+        this.memoria = memoria.getIfAvailable();
+        this.aguardarFsync = aguardarFsync;
+
+        Gauge.builder("pix.journal.sequencia", journal, JournalChavePix::getUltimaSequencia)
+                .description("Última sequência anexada ao journal de chaves Pix").register(meterRegistry);
+        FunctionCounter.builder("pix.journal.sincronizacoes", journal, JournalChavePix::getSincronizacoes)
+                .description("Sincronizações (fsync) do journal, cada uma cobrindo um lote de registros")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reconstrói o repositório em memória, quando presente, a partir do último snapshot e do journal.
+     */
+    @PostConstruct
+    public void recuperar() throws IOException {
+        if (memoria == null) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        long[] chaves = {0};
+        long sequencia = snapshots.carregarUltimo(chave -> {
+            memoria.restaurar(chave);
+            chaves[0]++;
+        });
+        long reaplicados = journal.ler(sequencia + 1, Long.MAX_VALUE, registro -> {
+            if (registro.tipo() == ChavePixEvento.Tipo.REMOCAO) {
+                memoria.deleteById(registro.chave().getId());
+            } else {
+                memoria.restaurar(registro.chave());
+            }
+        });
+        log.info("Repositório em memória recuperado: {} chaves do snapshot {} e {} registros do journal em {} ms.",
+                chaves[0], sequencia, reaplicados, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Anexa a mutação ao journal após o commit da transação que a publicou, ou imediatamente
+     * quando não há transação. O registro é feito no {@code afterCommit}, cujas exceções chegam ao
+     * chamador, e não em um {@code @TransactionalEventListener}, executado no
+     * {@code afterCompletion}, que apenas registra as exceções em log.
+     *
+     * @param evento Evento de mutação da chave Pix.
+     */
+    @EventListener
+    public void onChavePixEvento(ChavePixEvento evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            anexar(evento);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                anexar(evento);
+            }
+        });
+    }
+
+    /**
+     * Indica a falha de sincronização que interrompeu o journal, se houver.
+     *
+     * @return a falha, ou nulo se o journal está operando.
+     */
+    public IOException getFalha() {
+        return journal.getFalha();
+    }
+
+    private void anexar(ChavePixEvento evento) {
+        try {
+            long sequencia = journal.anexar(evento.getTipo(), evento.getChave());
+            if (aguardarFsync) {
+                journal.aguardarDuravel(sequencia);
+            }
+        } catch (IOException e) {
+            throw new JournalIndisponivelException("Falha ao registrar a mutação no journal de chaves Pix.", e);
+        }
+    }
+
+    /**
+     * Anexa ao journal mutações feitas sem publicação de eventos e aguarda a sincronização de
+     * todas com o disco.
+     *
+     * @param tipo   Tipo da mutação: {@code INCLUSAO} para chaves importadas, {@code REMOCAO} para
+     *               chaves arquivadas.
+     * @param chaves Estado das chaves após a mutação (para remoções, o estado removido).
+     */
+    public void registrar(ChavePixEvento.Tipo tipo, Collection<ChavePix> chaves) {
+        if (chaves.isEmpty()) {
+            return;
+        }
+        try {
+            long sequencia = 0;
+            for (ChavePix chave : chaves) {
+                sequencia = journal.anexar(tipo, chave);
+            }
+            journal.aguardarDuravel(sequencia);
+        } catch (IOException e) {
+            throw new JournalIndisponivelException("Falha ao registrar as mutações no journal de chaves Pix.", e);
+        }
+    }
+
+    /**
+     * Grava um snapshot do diretório de chaves e remove os segmentos do journal já cobertos.
+     */
+    @Scheduled(initialDelayString = "${pix.journal.snapshot-ms:600000}", fixedDelayString = "${pix.journal.snapshot-ms:600000}")
+    public void gravarSnapshot() throws IOException {
+        long sequencia = journal.getUltimaSequencia();
+        List<Long> existentes = snapshots.sequencias();
+        if (!existentes.isEmpty() && existentes.get(existentes.size() - 1) == sequencia) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        long quantidade;
+        if (memoria != null) {
+            // Snapshot sem pausa: as mutações posteriores a "sequencia" são reaplicadas na recuperação.
+            quantidade = snapshots.gravar(sequencia, memoria::paraCada);
+        } else {
+            quantidade = compactar(sequencia);
+        }
+        snapshots.removerAntigos(SNAPSHOTS_MANTIDOS);
+        int removidos = journal.removerSegmentosAte(snapshots.sequencias().get(0));
+        log.info("Snapshot {} do diretório de chaves gravado com {} chaves em {} ms; {} segmentos removidos.",
+                sequencia, quantidade, (System.nanoTime() - inicio) / 1_000_000, removidos);
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * Grava o snapshot da sequência informada a partir do último snapshot íntegro e dos registros
+     * posteriores do journal. Apenas esses registros são mantidos em memória (o último estado de
+     * cada chave alterada); as chaves do snapshot anterior são lidas e gravadas em sequência.
+     */
+    private long compactar(long sequencia) throws IOException {
+        long base = snapshots.carregarUltimo(chave -> { });
+        Map<UUID, RegistroJournal> alteradas = new HashMap<>();
+        journal.ler(base + 1, sequencia, registro -> alteradas.merge(registro.chave().getId(), registro,
+                (atual, novo) -> novo.chave().getVersion() >= atual.chave().getVersion() ? novo : atual));
+
+        try {
+            return snapshots.gravar(sequencia, consumidor -> {
+                if (base > 0) {
+                    try {
+                        snapshots.carregar(base, chave -> {
+                            RegistroJournal registro = alteradas.remove(chave.getId());
+                            if (registro == null || registro.chave().getVersion() < chave.getVersion()) {
+                                consumidor.accept(chave);
+                            } else if (registro.tipo() != ChavePixEvento.Tipo.REMOCAO) {
+                                consumidor.accept(registro.chave());
+                            }
+                        });
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                alteradas.values().stream()
+                        .filter(registro -> registro.tipo() != ChavePixEvento.Tipo.REMOCAO)
+                        .forEach(registro -> consumidor.accept(registro.chave()));
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.desafio.casepixitau.journal;
+
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.model.ChavePix;
+
+/**
+ * Registro do journal: a mutação e o estado completo da chave após ela.
+ *
+ * @param sequencia Número sequencial do registro no journal.
+ * @param tipo      Tipo da mutação.
+ * @param chave     Estado da chave Pix após a mutação.
+ */
+public record RegistroJournal(long sequencia, ChavePixEvento.Tipo tipo, ChavePix chave) {
+}
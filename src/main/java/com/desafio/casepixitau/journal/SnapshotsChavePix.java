@@ -0,0 +1,201 @@
+package com.desafio.casepixitau.journal;
+
+import com.desafio.casepixitau.model.ChavePix;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshots do diretório de chaves Pix: o estado de todas as chaves até uma sequência do journal.
+ *
+ * Cada snapshot ({@code snapshot-<sequência>.bin}) contém um cabeçalho com a sequência, as chaves
+ * codificadas com {@link CodecChavePix} e um CRC32C de todo o conteúdo. É gravado em um arquivo
+ * temporário, sincronizado e renomeado, de forma que um snapshot incompleto nunca é carregado.
+ */
+public class SnapshotsChavePix {
+
+    private static final String PREFIXO = "snapshot-";
+    private static final String SUFIXO = ".bin";
+    private static final int ASSINATURA = 0x50495853; // "PIXS"
+    private static final int VERSAO_FORMATO = 1;
+
+    private final Path diretorio;
+
+    /**
+     * Construtor dos snapshots.
+     *
+     * @param diretorio Diretório dos arquivos de snapshot.
+     */
+    public SnapshotsChavePix(Path diretorio) throws IOException {
+        this.diretorio = Files.createDirectories(diretorio);
+    }
+
+    /**
+     * Grava um snapshot.
+     *
+     * @param sequencia Sequência do journal coberta pelo snapshot.
+     * @param fonte     Função que entrega cada chave do diretório ao consumidor recebido.
+     * @return a quantidade de chaves gravadas.
+     */
+    public long gravar(long sequencia, Consumer<Consumer<ChavePix>> fonte) throws IOException {
+        Path destino = arquivo(sequencia);
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        long quantidade;
+
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream saida = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16), crc));
+            saida.writeInt(ASSINATURA);
+            saida.writeInt(VERSAO_FORMATO);
+            saida.writeLong(sequencia);
+
+            ByteBuffer registro = ByteBuffer.allocate(8 * 1024);
+            long[] contador = {0};
+            IOException[] erro = {null};
+            fonte.accept(chave -> {
+                if (erro[0] != null) {
+                    return;
+                }
+                registro.clear();
+                CodecChavePix.escrever(registro, chave);
+                try {
+                    saida.writeShort(registro.position());
+                    saida.write(registro.array(), 0, registro.position());
+                    contador[0]++;
+                } catch (IOException e) {
+                    erro[0] = e;
+                }
+            });
+            if (erro[0] != null) {
+                throw erro[0];
+            }
+            quantidade = contador[0];
+            saida.writeShort(0);
+            saida.writeLong(quantidade);
+            saida.writeInt((int) crc.getValue());
+            saida.flush();
+            canal.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return quantidade;
+    }
+
+    /**
+     * Carrega o snapshot mais recente íntegro. Se um snapshot se mostrar corrompido durante a
+     * leitura, o anterior é carregado em seguida; por isso o consumidor deve manter, para cada
+     * chave, o estado de maior versão recebido.
+     *
+     * @param consumidor Consumidor de cada chave do snapshot.
+     * @return a sequência coberta pelo snapshot carregado, ou 0 se não houver snapshot.
+     */
+    public long carregarUltimo(Consumer<ChavePix> consumidor) throws IOException {
+        List<Path> arquivos = snapshots();
+        for (int i = arquivos.size() - 1; i >= 0; i--) {
+            if (ler(arquivos.get(i), consumidor)) {
+                return sequencia(arquivos.get(i));
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Carrega o snapshot da sequência informada, sem recorrer a snapshots anteriores.
+     *
+     * @param sequencia  Sequência coberta pelo snapshot.
+     * @param consumidor Consumidor de cada chave do snapshot.
+     * @throws IOException se o snapshot não existir ou se mostrar corrompido durante a leitura.
+     */
+    public void carregar(long sequencia, Consumer<ChavePix> consumidor) throws IOException {
+        if (!ler(arquivo(sequencia), consumidor)) {
+            throw new IOException("Snapshot " + sequencia + " do diretório de chaves corrompido.");
+        }
+    }
+
+    /**
+     * Sequências dos snapshots existentes, em ordem crescente.
+     */
+    public List<Long> sequencias() throws IOException {
+        return snapshots().stream().map(SnapshotsChavePix::sequencia).toList();
+    }
+
+    /**
+     * Remove os snapshots mais antigos, mantendo a quantidade informada.
+     *
+     * @param manter Quantidade de snapshots mais recentes mantidos.
+     */
+    public void removerAntigos(int manter) throws IOException {
+        List<Path> arquivos = snapshots();
+        for (int i = 0; i < arquivos.size() - manter; i++) {
+            Files.deleteIfExists(arquivos.get(i));
+        }
+    }
+
+    private boolean ler(Path arquivo, Consumer<ChavePix> consumidor) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (DataInputStream entrada = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16), crc))) {
+            if (entrada.readInt() != ASSINATURA || entrada.readInt() != VERSAO_FORMATO) {
+                return false;
+            }
+            entrada.readLong();
+            byte[] registro = new byte[8 * 1024];
+            long quantidade = 0;
+            int tamanho;
+            while ((tamanho = entrada.readUnsignedShort()) != 0) {
+                entrada.readFully(registro, 0, tamanho);
+                ChavePix chave;
+                try {
+                    chave = CodecChavePix.ler(ByteBuffer.wrap(registro, 0, tamanho));
+                } catch (RuntimeException e) {
+                    return false; // Conteúdo corrompido antes da conferência do CRC.
+                }
+                consumidor.accept(chave);
+                quantidade++;
+            }
+            if (entrada.readLong() != quantidade) {
+                return false;
+            }
+            int calculado = (int) crc.getValue();
+            return entrada.readInt() == calculado;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIXO) && p.getFileName().toString().endsWith(SUFIXO))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path arquivo(long sequencia) {
+        return diretorio.resolve(String.format("%s%020d%s", PREFIXO, sequencia, SUFIXO));
+    }
+
+    private static long sequencia(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+    }
+}
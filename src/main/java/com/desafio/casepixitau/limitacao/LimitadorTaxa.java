@@ -0,0 +1,104 @@
+package com.desafio.casepixitau.limitacao;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Conjunto de {@link TokenBucket}s de um mesmo limite, um por chave (cliente ou agência/conta).
+ *
+ * A quantidade de buckets é limitada: atingido o máximo, as chaves novas passam a dividir um
+ * único bucket de excedente até que a limpeza dos ociosos libere espaço. Assim, chaves variadas
+ * (endereços ou contas inexistentes) não fazem o mapa crescer sem limite nem escapam do limite.
+ */
+public class LimitadorTaxa {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final int maximoBuckets;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicReference<TokenBucket> excedente = new AtomicReference<>();
+
+    /**
+     * Construtor do limitador sem limite na quantidade de buckets.
+     *
+     * @param capacidade Quantidade máxima de requisições em rajada.
+     * @param porSegundo Quantidade de requisições por segundo em regime.
+     */
+    public LimitadorTaxa(int capacidade, double porSegundo) {
+        this(capacidade, porSegundo, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Construtor do limitador.
+     *
+     * @param capacidade    Quantidade máxima de requisições em rajada.
+     * @param porSegundo    Quantidade de requisições por segundo em regime.
+     * @param maximoBuckets Quantidade máxima (aproximada, sob concorrência) de buckets individuais.
+     */
+    public LimitadorTaxa(int capacidade, double porSegundo, int maximoBuckets) {
+        if (capacidade < 1 || porSegundo <= 0 || maximoBuckets < 1) {
+            throw new IllegalArgumentException("Capacidade, taxa e máximo de buckets do limite devem ser positivos.");
+        }
+        this.intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo);
+        this.toleranciaNanos = intervaloNanos * (capacidade - 1);
+        this.maximoBuckets = maximoBuckets;
+    }
+
+    /**
+     * Tenta admitir uma requisição da chave informada.
+     *
+     * @param chave Identificação do cliente ou da conta.
+     * @return 0 se admitida, ou o tempo em nanossegundos até a próxima admissão.
+     */
+    public long tentarConsumir(String chave) {
+        return tentarConsumir(chave, System.nanoTime());
+    }
+
+    /**
+     * Tenta admitir uma requisição da chave informada no instante informado.
+     *
+     * @param chave Identificação do cliente ou da conta.
+     * @param agora Instante atual, em nanossegundos.
+     * @return 0 se admitida, ou o tempo em nanossegundos até a próxima admissão.
+     */
+    public long tentarConsumir(String chave, long agora) {
+        TokenBucket bucket = buckets.get(chave);
+        if (bucket == null) {
+            if (buckets.size() >= maximoBuckets) {
+                return excedente.updateAndGet(atual -> atual != null ? atual
+                        : new TokenBucket(intervaloNanos, toleranciaNanos, agora)).tentarConsumir(agora);
+            }
+            bucket = buckets.computeIfAbsent(chave, k -> new TokenBucket(intervaloNanos, toleranciaNanos, agora));
+        }
+        return bucket.tentarConsumir(agora);
+    }
+
+    /**
+     * Remove os buckets ociosos (cheios) há mais tempo que o informado.
+     *
+     * @param ociosidadeNanos Tempo mínimo de ociosidade.
+     */
+    public void removerOciosos(long ociosidadeNanos) {
+        removerOciosos(ociosidadeNanos, System.nanoTime());
+    }
+
+    /**
+     * Remove os buckets ociosos em relação ao instante informado.
+     *
+     * @param ociosidadeNanos Tempo mínimo de ociosidade.
+     * @param agora           Instante atual, em nanossegundos.
+     */
+    public void removerOciosos(long ociosidadeNanos, long agora) {
+        buckets.values().removeIf(bucket -> bucket.ocioso(agora, ociosidadeNanos));
+    }
+
+    /**
+     * Retorna a quantidade de buckets mantidos.
+     *
+     * @return quantidade de chaves com bucket ativo.
+     */
+    public int getQuantidadeBuckets() {
+        return buckets.size();
+    }
+}
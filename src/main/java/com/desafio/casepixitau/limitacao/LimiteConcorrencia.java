@@ -0,0 +1,153 @@
+package com.desafio.casepixitau.limitacao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite adaptativo de requisições simultâneas, ajustado pela latência observada.
+ *
+ * A cada requisição concluída, o tempo de resposta entra numa média móvel curta, comparada com o
+ * menor tempo observado na janela de amostras (a latência sem fila). Enquanto a média fica dentro
+ * da tolerância, o limite cresce aos poucos (mais {@code log10(limite)}, no mínimo 1, por amostra,
+ * suavizado); quando a fila começa a aumentar a latência, o limite é reduzido na proporção do gradiente
+ * {@code tolerancia * rttMinimo / rttCurto}. Respostas de erro do servidor (5xx ou exceção)
+ * reduzem o limite multiplicativamente. O limite só cresce quando está de fato em uso.
+ *
+ * Requisições de baixa prioridade são admitidas apenas até uma fração do limite, reservando o
+ * restante para as prioritárias. A latência sem fila e a média curta são mantidas separadamente por
+ * prioridade: as requisições de baixa prioridade (varreduras, consultas em lote) são naturalmente
+ * mais lentas e, numa linha de base comum, seriam lidas como fila e derrubariam o limite, além de
+ * elevar a latência de referência das prioritárias.
+ */
+public class LimiteConcorrencia {
+
+    private static final double SUAVIZACAO = 0.2;
+    private static final double PESO_RTT_CURTO = 0.2;
+    private static final double REDUCAO_SOBRECARGA = 0.9;
+    private static final double GRADIENTE_MINIMO = 0.5;
+
+    private final int minimo;
+    private final int maximo;
+    private final double fracaoBaixaPrioridade;
+    private final double tolerancia;
+    private final int janelaAmostras;
+    private final AtomicInteger emAndamento = new AtomicInteger();
+
+    private volatile double limite;
+
+    // Estado do cálculo, protegido pelo monitor da instância.
+    private final Latencias latenciasPrioritarias = new Latencias();
+    private final Latencias latenciasBaixaPrioridade = new Latencias();
+
+    /**
+     * Construtor do limite.
+     *
+     * @param inicial               Limite inicial de requisições simultâneas.
+     * @param minimo                Menor limite admitido.
+     * @param maximo                Maior limite admitido.
+     * @param fracaoBaixaPrioridade Fração do limite disponível às requisições de baixa prioridade.
+     * @param tolerancia            Razão aceita entre a latência média e a latência sem fila.
+     * @param janelaAmostras        Amostras após as quais a latência sem fila é recalculada.
+     */
+    public LimiteConcorrencia(int inicial, int minimo, int maximo, double fracaoBaixaPrioridade,
+                              double tolerancia, int janelaAmostras) {
+        if (minimo < 1 || maximo < minimo || inicial < minimo || inicial > maximo) {
+            throw new IllegalArgumentException("Limites de concorrência inválidos: inicial=" + inicial
+                    + ", mínimo=" + minimo + ", máximo=" + maximo);
+        }
+        this.limite = inicial;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.fracaoBaixaPrioridade = fracaoBaixaPrioridade;
+        this.tolerancia = tolerancia;
+        this.janelaAmostras = janelaAmostras;
+    }
+
+    /**
+     * Admite uma requisição se houver vaga no limite atual.
+     *
+     * @param prioritaria Indica se a requisição é prioritária.
+     * @return {@code true} se admitida; nesse caso, {@link #liberar} deve ser chamado ao final.
+     */
+    public boolean tentarAdmitir(boolean prioritaria) {
+        int teto = (int) limite;
+        if (!prioritaria) {
+            teto = Math.max(1, (int) (teto * fracaoBaixaPrioridade));
+        }
+        while (true) {
+            int atual = emAndamento.get();
+            if (atual >= teto) {
+                return false;
+            }
+            if (emAndamento.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga de uma requisição admitida e ajusta o limite com o tempo de resposta dela,
+     * comparado com as latências da mesma prioridade.
+     *
+     * @param prioritaria Indica se a requisição foi admitida como prioritária.
+     * @param rttNanos    Tempo de resposta da requisição.
+     * @param sobrecarga  Indica se a requisição terminou em erro do servidor.
+     */
+    public void liberar(boolean prioritaria, long rttNanos, boolean sobrecarga) {
+        int andamento = emAndamento.getAndDecrement();
+        registrar(prioritaria ? latenciasPrioritarias : latenciasBaixaPrioridade, rttNanos, andamento, sobrecarga);
+    }
+
+    private synchronized void registrar(Latencias latencias, long rttNanos, int andamento, boolean sobrecarga) {
+        double atual = limite;
+        if (sobrecarga) {
+            limite = Math.max(minimo, atual * REDUCAO_SOBRECARGA);
+            return;
+        }
+
+        latencias.registrar(Math.max(1, rttNanos), janelaAmostras);
+        double gradiente = Math.max(GRADIENTE_MINIMO,
+                Math.min(1.0, tolerancia * latencias.rttMinimo / latencias.rttCurto));
+        double novo = atual * gradiente + Math.max(1.0, Math.log10(atual));
+        if (andamento < atual / 2) {
+            novo = Math.min(novo, atual);
+        }
+        limite = Math.max(minimo, Math.min(maximo, atual + SUAVIZACAO * (novo - atual)));
+    }
+
+    /**
+     * @return o limite atual de requisições simultâneas.
+     */
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    /**
+     * @return a quantidade de requisições admitidas e ainda não concluídas.
+     */
+    public int getEmAndamento() {
+        return emAndamento.get();
+    }
+
+    /**
+     * Latência sem fila (menor tempo da janela) e média móvel curta de uma prioridade.
+     */
+    private static final class Latencias {
+
+        private double rttCurto;
+        private long rttMinimo = Long.MAX_VALUE;
+        private long rttMinimoJanela = Long.MAX_VALUE;
+        private int amostrasJanela;
+
+        void registrar(long rttNanos, int janelaAmostras) {
+            rttMinimoJanela = Math.min(rttMinimoJanela, rttNanos);
+            rttMinimo = Math.min(rttMinimo, rttNanos);
+            if (++amostrasJanela >= janelaAmostras) {
+                // A latência sem fila pode ter mudado (banco mais lento ou mais rápido): recomeça da última janela.
+                rttMinimo = rttMinimoJanela;
+                rttMinimoJanela = Long.MAX_VALUE;
+                amostrasJanela = 0;
+            }
+            rttCurto = rttCurto == 0 ? rttNanos : rttCurto + PESO_RTT_CURTO * (rttNanos - rttCurto);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.desafio.casepixitau.limitacao;
+
+import com.desafio.casepixitau.dto.ErrorResponseDTO;
+import com.desafio.casepixitau.util.HttpStatusCodes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que aplica o {@link LimiteConcorrencia} aos endpoints de chaves Pix. Requisições acima
+ * do limite são recusadas de imediato com 503 e o cabeçalho {@code Retry-After}, em vez de
+ * aguardarem na fila do Tomcat e do pool de conexões.
+ *
+ * São prioritárias as escritas e as resoluções de chave (consulta por id e consulta apenas pelo
+ * valor); consultas por filtros, consulta em lote e estatísticas têm baixa prioridade. O stream
+ * de eventos (SSE) mantém a conexão aberta e não passa pelo limite.
+ */
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    private final LimiteConcorrencia limite;
+    private final ObjectMapper objectMapper;
+    private final Counter descartadasAlta;
+    private final Counter descartadasBaixa;
+
+    /**
+     * Construtor do filtro.
+     *
+     * @param limite        Limite adaptativo de requisições simultâneas.
+     * @param objectMapper  Serializador das mensagens de erro.
+     * @param meterRegistry Registro de métricas.
+     */
+    public LimiteConcorrenciaFilter(LimiteConcorrencia limite, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limite = limite;
+        this.objectMapper = objectMapper;
+        this.descartadasAlta = Counter.builder("pix.limite-concorrencia.descartadas")
+                .tag("prioridade", "alta").register(meterRegistry);
+        this.descartadasBaixa = Counter.builder("pix.limite-concorrencia.descartadas")
+                .tag("prioridade", "baixa").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean prioritaria = prioritaria(request);
+        if (!limite.tentarAdmitir(prioritaria)) {
+            (prioritaria ? descartadasAlta : descartadasBaixa).increment();
+            response.setStatus(HttpStatusCodes.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponseDTO("Serviço sobrecarregado. Tente novamente em instantes."));
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        boolean sobrecarga = true;
+        try {
+            filterChain.doFilter(request, response);
+            sobrecarga = response.getStatus() >= 500;
+        } finally {
+            limite.liberar(prioritaria, System.nanoTime() - inicio, sobrecarga);
+        }
+    }
+
+    private static boolean prioritaria(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (!"GET".equals(request.getMethod())) {
+            return !RequisicaoConsultaLote.corresponde(request);
+        }
+        if (uri.contains("/filtros/")) {
+            return true;
+        }
+        return uri.endsWith("/filtros") && request.getParameter("valor") != null
+                && request.getParameterMap().size() == 1;
+    }
+}
@@ -0,0 +1,45 @@
+package com.desafio.casepixitau.limitacao;
+
+import com.desafio.casepixitau.dto.ChavePixAlteracaoDTO;
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Aplica o limite de escritas por agência/conta assim que o corpo da inclusão ou da alteração
+ * é lido, antes da validação e de qualquer acesso ao banco. A inativação não possui corpo e
+ * fica sujeita apenas ao limite por cliente.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "pix.limite-taxa.enabled", havingValue = "true")
+public class LimiteContaAdvice extends RequestBodyAdviceAdapter {
+
+    private final LimitesTaxa limites;
+
+    public LimiteContaAdvice(LimitesTaxa limites) {
+        this.limites = limites;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == ChavePixRequestDTO.class || targetType == ChavePixAlteracaoDTO.class;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        if (body instanceof ChavePixRequestDTO dto) {
+            limites.admitirConta(dto.getNumeroAgencia(), dto.getNumeroConta());
+        } else if (body instanceof ChavePixAlteracaoDTO dto) {
+            limites.admitirConta(dto.getNumeroAgencia(), dto.getNumeroConta());
+        }
+        return body;
+    }
+}
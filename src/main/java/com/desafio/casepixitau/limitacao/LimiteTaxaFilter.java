@@ -0,0 +1,60 @@
+package com.desafio.casepixitau.limitacao;
+
+import com.desafio.casepixitau.dto.ErrorResponseDTO;
+import com.desafio.casepixitau.exception.LimiteExcedidoException;
+import com.desafio.casepixitau.util.HttpStatusCodes;
+import com.desafio.casepixitau.util.IdentidadeCliente;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que aplica o limite de requisições por cliente, identificado pelo usuário autenticado
+ * ou pelo endereço de origem ({@link IdentidadeCliente}), e não por cabeçalhos escolhidos pelo
+ * próprio cliente. Requisições recusadas recebem 429 com o cabeçalho {@code Retry-After}.
+ */
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    private final LimitesTaxa limites;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Construtor do filtro.
+     *
+     * @param limites      Limites de requisições.
+     * @param objectMapper Serializador das mensagens de erro.
+     */
+    public LimiteTaxaFilter(LimitesTaxa limites, ObjectMapper objectMapper) {
+        this.limites = limites;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            limites.admitirCliente(IdentidadeCliente.de(request), escrita(request));
+        } catch (LimiteExcedidoException e) {
+            response.setStatus(HttpStatusCodes.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getEsperaSegundos()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponseDTO(e.getMessage()));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * A consulta em lote usa POST apenas para transportar a lista de itens e conta como consulta.
+     */
+    private static boolean escrita(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) && !RequisicaoConsultaLote.corresponde(request);
+    }
+}
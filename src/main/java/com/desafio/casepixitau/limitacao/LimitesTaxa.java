@@ -0,0 +1,106 @@
+package com.desafio.casepixitau.limitacao;
+
+import com.desafio.casepixitau.exception.LimiteExcedidoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limites de requisições da API de chaves Pix: consultas e escritas por cliente e escritas
+ * por agência/conta. Ativados por {@code pix.limite-taxa.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "pix.limite-taxa.enabled", havingValue = "true")
+public class LimitesTaxa {
+
+    private final LimitadorTaxa consulta;
+    private final LimitadorTaxa escrita;
+    private final LimitadorTaxa conta;
+    private final long ociosidadeNanos;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Construtor dos limites.
+     *
+     * @param consultaCapacidade Rajada de consultas por cliente.
+     * @param consultaPorSegundo Consultas por segundo por cliente.
+     * @param escritaCapacidade  Rajada de escritas por cliente.
+     * @param escritaPorSegundo  Escritas por segundo por cliente.
+     * @param contaCapacidade    Rajada de escritas por agência/conta.
+     * @param contaPorSegundo    Escritas por segundo por agência/conta.
+     * @param ociosidadeMs       Tempo após o qual buckets cheios são descartados.
+     * @param maximoBuckets      Quantidade máxima de buckets individuais de cada limite.
+     * @param meterRegistry      Registro de métricas.
+     */
+    public LimitesTaxa(@Value("${pix.limite-taxa.consulta.capacidade:200}") int consultaCapacidade,
+                       @Value("${pix.limite-taxa.consulta.por-segundo:100}") double consultaPorSegundo,
+                       @Value("${pix.limite-taxa.escrita.capacidade:50}") int escritaCapacidade,
+                       @Value("${pix.limite-taxa.escrita.por-segundo:20}") double escritaPorSegundo,
+                       @Value("${pix.limite-taxa.conta.capacidade:10}") int contaCapacidade,
+                       @Value("${pix.limite-taxa.conta.por-segundo:1}") double contaPorSegundo,
+                       @Value("${pix.limite-taxa.ociosidade-ms:300000}") long ociosidadeMs,
+                       @Value("${pix.limite-taxa.maximo-buckets:100000}") int maximoBuckets,
+                       MeterRegistry meterRegistry) {
+        this.consulta = new LimitadorTaxa(consultaCapacidade, consultaPorSegundo, maximoBuckets);
+        this.escrita = new LimitadorTaxa(escritaCapacidade, escritaPorSegundo, maximoBuckets);
+        this.conta = new LimitadorTaxa(contaCapacidade, contaPorSegundo, maximoBuckets);
+        this.ociosidadeNanos = TimeUnit.MILLISECONDS.toNanos(ociosidadeMs);
+        this.meterRegistry = meterRegistry;
+
+        registrarBuckets("consulta", consulta);
+        registrarBuckets("escrita", escrita);
+        registrarBuckets("conta", conta);
+    }
+
+    /**
+     * Admite uma requisição do cliente ou lança {@link LimiteExcedidoException}.
+     *
+     * @param cliente           Identificação do cliente ({@link com.desafio.casepixitau.util.IdentidadeCliente}).
+     * @param requisicaoEscrita Indica se a requisição é de escrita (POST, PUT ou DELETE).
+     */
+    public void admitirCliente(String cliente, boolean requisicaoEscrita) {
+        admitir(requisicaoEscrita ? escrita : consulta, requisicaoEscrita ? "escrita" : "consulta", cliente);
+    }
+
+    /**
+     * Admite uma escrita para a agência/conta ou lança {@link LimiteExcedidoException}.
+     *
+     * @param numeroAgencia Número da agência.
+     * @param numeroConta   Número da conta.
+     */
+    public void admitirConta(int numeroAgencia, int numeroConta) {
+        admitir(conta, "conta", numeroAgencia + "/" + numeroConta);
+    }
+
+    /**
+     * Descarta os buckets ociosos de todos os limites.
+     */
+    @Scheduled(fixedDelayString = "${pix.limite-taxa.limpeza-ms:60000}")
+    public void removerOciosos() {
+        consulta.removerOciosos(ociosidadeNanos);
+        escrita.removerOciosos(ociosidadeNanos);
+        conta.removerOciosos(ociosidadeNanos);
+    }
+
+    private void admitir(LimitadorTaxa limitador, String limite, String chave) {
+        long esperaNanos = limitador.tentarConsumir(chave);
+        if (esperaNanos > 0) {
+            Counter.builder("pix.limite-taxa.recusadas").tag("limite", limite).register(meterRegistry).increment();
+            long esperaSegundos = Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new LimiteExcedidoException("Limite de requisições excedido. Tente novamente em "
+                    + esperaSegundos + " segundo(s).", esperaSegundos);
+        }
+    }
+
+    private void registrarBuckets(String limite, LimitadorTaxa limitador) {
+        Gauge.builder("pix.limite-taxa.buckets", limitador, LimitadorTaxa::getQuantidadeBuckets)
+                .tag("limite", limite)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.desafio.casepixitau.limitacao;
+
+import com.desafio.casepixitau.controller.ConsultaLoteController;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Identifica as requisições da consulta em lote, que usam POST apenas para transportar a lista
+ * de itens e são tratadas como consultas pelos limites. Compara o caminho dentro da aplicação,
+ * já decodificado e normalizado, com o caminho do {@link ConsultaLoteController}.
+ * Não deve ser instanciada.
+ */
+final class RequisicaoConsultaLote {
+
+    /**
+     * Construtor privado para evitar instanciamento da classe.
+     */
+    private RequisicaoConsultaLote() {
+        throw new UnsupportedOperationException("Classe utilitária não pode ser instanciada.");
+    }
+
+    /**
+     * Indica se a requisição é uma consulta em lote.
+     *
+     * @param request Requisição HTTP.
+     * @return true para {@code POST} no caminho da consulta em lote.
+     */
+    static boolean corresponde(HttpServletRequest request) {
+        return "POST".equals(request.getMethod())
+                && ConsultaLoteController.CAMINHO.equals(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+    }
+}
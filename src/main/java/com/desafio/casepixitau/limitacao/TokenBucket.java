@@ -0,0 +1,61 @@
+package com.desafio.casepixitau.limitacao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem locks, implementado como GCRA (generic cell rate algorithm).
+ *
+ * Em vez de guardar a quantidade de tokens e o instante da última reposição, o bucket guarda
+ * apenas o instante teórico de chegada da próxima requisição, em um único {@link AtomicLong}.
+ * Cada admissão avança esse instante em um intervalo de reposição via compare-and-set; a
+ * requisição é recusada quando o instante estaria adiantado em mais do que a rajada permitida.
+ */
+final class TokenBucket {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong chegadaTeorica;
+
+    /**
+     * @param intervaloNanos  Intervalo de reposição de um token.
+     * @param toleranciaNanos Adiantamento máximo permitido, equivalente à capacidade menos um token.
+     * @param agora           Instante de criação (bucket cheio).
+     */
+    TokenBucket(long intervaloNanos, long toleranciaNanos, long agora) {
+        this.intervaloNanos = intervaloNanos;
+        this.toleranciaNanos = toleranciaNanos;
+        this.chegadaTeorica = new AtomicLong(agora);
+    }
+
+    /**
+     * Tenta consumir um token.
+     *
+     * @param agora Instante atual, em nanossegundos.
+     * @return 0 se a requisição foi admitida, ou o tempo em nanossegundos até o próximo token.
+     */
+    long tentarConsumir(long agora) {
+        while (true) {
+            long atual = chegadaTeorica.get();
+            long base = atual - agora > 0 ? atual : agora;
+            long adiantamento = base - agora;
+            if (adiantamento > toleranciaNanos) {
+                return adiantamento - toleranciaNanos;
+            }
+            if (chegadaTeorica.compareAndSet(atual, base + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Indica se o bucket está cheio há mais tempo que o informado. Um bucket cheio equivale a um
+     * bucket inexistente, portanto pode ser descartado sem alterar o comportamento do limite.
+     *
+     * @param agora           Instante atual, em nanossegundos.
+     * @param ociosidadeNanos Tempo mínimo de ociosidade.
+     * @return {@code true} se o bucket pode ser descartado.
+     */
+    boolean ocioso(long agora, long ociosidadeNanos) {
+        return agora - chegadaTeorica.get() > ociosidadeNanos;
+    }
+}
@@ -1,28 +1,51 @@
 package com.desafio.casepixitau.model;
 
+import com.desafio.casepixitau.util.IdUuidV7;
+import com.desafio.casepixitau.util.UuidV7;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 import jakarta.persistence.Version;
 
 /**
  * Representa uma chave Pix cadastrada no sistema.
+ *
+ * O identificador é um UUID versão 7 gerado pela aplicação ({@link UuidV7}), ordenado pelo
+ * instante de inclusão. A entidade é nova enquanto não tem versão, de modo que o {@code save}
+ * do Spring Data sempre a insere diretamente, mesmo com o id já atribuído, sem a consulta
+ * prévia do {@code merge}.
+ *
+ * O hash do valor da chave ({@link HashValorChave}) é mantido junto com o valor e indexado, para
+ * que as buscas por valor comparem primeiro um inteiro de tamanho fixo.
+ *
+ * O tipo da chave e o tipo da conta são gravados como códigos numéricos ({@link TipoChave} e
+ * {@link TipoConta}), mantendo os atributos e o contrato JSON com os valores textuais.
  */
 @Entity
-@Table(name = "tb_chavespix")
-public class ChavePix {
+@Table(name = "tb_chavespix", indexes = {
+        @Index(name = "ix_chavespix_hash_valor", columnList = "hashValorChave"),
+        @Index(name = "ix_chavespix_agencia_conta", columnList = "numeroAgencia, numeroConta"),
+        @Index(name = "ix_chavespix_inativacao", columnList = "dataHoraInativacao")})
+public class ChavePix implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue(strategy= GenerationType.AUTO)
+    @IdUuidV7
     private UUID id; // Identificador único da chave Pix
 
     @Column(nullable = false)
+    @Convert(converter = TipoChaveConverter.class)
     private String tipoChave; // Tipo da chave Pix (CPF, telefone ou e-mail)
 
     @Column(nullable = false, unique = true)
     private String valorChave; // Valor da chave Pix, deve ser único no sistema
 
     @Column(nullable = false)
+    private long hashValorChave; // Hash do valor da chave, usado nas buscas por valor (ver HashValorChave)
+
+    @Column(nullable = false)
+    @Convert(converter = TipoContaConverter.class)
     private String tipoConta; // Tipo da conta associada (corrente ou poupança)
 
     @Column(nullable = false)
@@ -67,6 +90,11 @@ public class ChavePix {
 
     public void setValorChave(String valorChave) {
         this.valorChave = valorChave;
+        this.hashValorChave = HashValorChave.calcular(valorChave);
+    }
+
+    public long getHashValorChave() {
+        return hashValorChave;
     }
 
     public String getTipoConta() {
@@ -133,6 +161,11 @@ public class ChavePix {
         this.version = version;
     }
 
+    @Override
+    public boolean isNew() {
+        return version == null;
+    }
+
     @Override
     public String toString() {
         return "ChavePix{" +
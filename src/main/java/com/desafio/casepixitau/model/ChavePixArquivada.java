@@ -0,0 +1,104 @@
+package com.desafio.casepixitau.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Chave Pix inativada há mais tempo que o período de retenção, movida da tabela de chaves para o
+ * arquivo pelo {@code ArquivamentoJob}.
+ *
+ * As linhas são gravadas pelo job com {@code INSERT ... SELECT} a partir da tabela de chaves e
+ * não são alteradas pela aplicação. O valor da chave não é único no arquivo: depois de arquivado,
+ * ele pode ser cadastrado, inativado e arquivado novamente.
+ */
+@Entity
+@Immutable
+@Table(name = "tb_chavespix_arquivo",
+        indexes = {
+                @Index(name = "ix_chavespix_arquivo_inativacao", columnList = "dataHoraInativacao"),
+                @Index(name = "ix_chavespix_arquivo_valor", columnList = "valorChave")
+        })
+public class ChavePixArquivada {
+
+    @Id
+    private UUID id; // Identificador da chave Pix, o mesmo da tabela de chaves
+
+    @Column(nullable = false)
+    @Convert(converter = TipoChaveConverter.class)
+    private String tipoChave; // Tipo da chave Pix (CPF, telefone ou e-mail)
+
+    @Column(nullable = false)
+    private String valorChave; // Valor da chave Pix
+
+    @Column(nullable = false)
+    @Convert(converter = TipoContaConverter.class)
+    private String tipoConta; // Tipo da conta associada (corrente ou poupança)
+
+    @Column(nullable = false)
+    private int numeroAgencia; // Número da agência bancária
+
+    @Column(nullable = false)
+    private int numeroConta; // Número da conta bancária
+
+    @Column(nullable = false)
+    private String nomeCorrentista; // Nome do titular da conta
+
+    private String sobrenomeCorrentista; // Sobrenome do titular da conta
+
+    @Column(nullable = false)
+    private LocalDateTime dataHoraInclusao; // Data e hora de criação do registro
+
+    @Column(nullable = false)
+    private LocalDateTime dataHoraInativacao; // Data e hora da inativação da chave
+
+    @Column(nullable = false)
+    private LocalDateTime dataHoraArquivamento; // Data e hora da movimentação para o arquivo
+
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+
+    public String getTipoChave() {
+        return tipoChave;
+    }
+
+    public String getValorChave() {
+        return valorChave;
+    }
+
+    public String getTipoConta() {
+        return tipoConta;
+    }
+
+    public int getNumeroAgencia() {
+        return numeroAgencia;
+    }
+
+    public int getNumeroConta() {
+        return numeroConta;
+    }
+
+    public String getNomeCorrentista() {
+        return nomeCorrentista;
+    }
+
+    public String getSobrenomeCorrentista() {
+        return sobrenomeCorrentista;
+    }
+
+    public LocalDateTime getDataHoraInclusao() {
+        return dataHoraInclusao;
+    }
+
+    public LocalDateTime getDataHoraInativacao() {
+        return dataHoraInativacao;
+    }
+
+    public LocalDateTime getDataHoraArquivamento() {
+        return dataHoraArquivamento;
+    }
+}
@@ -0,0 +1,59 @@
+package com.desafio.casepixitau.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint de um contador de estatísticas de chaves Pix.
+ *
+ * A chave identifica a dimensão e o valor agregado (ex.: {@code tipo:email},
+ * {@code agencia:1234}, {@code inclusao:2026-10-18}).
+ */
+@Entity
+@Table(name = "tb_estatisticas_chavespix")
+public class EstatisticaChavePix {
+
+    @Id
+    @Column(length = 40)
+    private String chave; // Dimensão e valor agregado
+
+    @Column(nullable = false)
+    private long valor; // Valor do contador no momento do checkpoint
+
+    @Column(nullable = false)
+    private LocalDateTime dataHoraAtualizacao; // Data e hora do checkpoint
+
+    public EstatisticaChavePix() {
+    }
+
+    public EstatisticaChavePix(String chave, long valor, LocalDateTime dataHoraAtualizacao) {
+        this.chave = chave;
+        this.valor = valor;
+        this.dataHoraAtualizacao = dataHoraAtualizacao;
+    }
+
+    // Getters e Setters
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+
+    public void setValor(long valor) {
+        this.valor = valor;
+    }
+
+    public LocalDateTime getDataHoraAtualizacao() {
+        return dataHoraAtualizacao;
+    }
+
+    public void setDataHoraAtualizacao(LocalDateTime dataHoraAtualizacao) {
+        this.dataHoraAtualizacao = dataHoraAtualizacao;
+    }
+}
@@ -0,0 +1,56 @@
+package com.desafio.casepixitau.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hash de 64 bits do valor canônico (em minúsculas) de uma chave Pix, persistido na coluna
+ * indexada {@code hash_valor_chave}.
+ *
+ * As buscas por valor comparam primeiro o hash, de tamanho fixo, e depois o próprio valor, que
+ * resolve as colisões. O hash são os 8 primeiros bytes do MD5, reproduzível no PostgreSQL por
+ * {@code ('x' || substr(md5(lower(valor_chave)), 1, 16))::bit(64)::bigint}, o que permite
+ * preencher a coluna de linhas existentes por SQL.
+ */
+public final class HashValorChave {
+
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 indisponível na JVM.", e);
+        }
+    });
+
+    private HashValorChave() {
+    }
+
+    /**
+     * Calcula o hash do valor da chave.
+     *
+     * @param valorChave Valor da chave Pix.
+     * @return o hash do valor em minúsculas, ou 0 se o valor for nulo.
+     */
+    public static long calcular(String valorChave) {
+        if (valorChave == null) {
+            return 0L;
+        }
+        byte[] digest = MD5.get().digest(valorChave.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(digest).getLong();
+    }
+
+    /**
+     * Calcula os hashes de uma coleção de valores, para buscas em lote.
+     *
+     * @param valoresChave Valores das chaves Pix.
+     * @return os hashes, na mesma ordem dos valores.
+     */
+    public static List<Long> calcular(Collection<String> valoresChave) {
+        return valoresChave.stream().map(HashValorChave::calcular).toList();
+    }
+}
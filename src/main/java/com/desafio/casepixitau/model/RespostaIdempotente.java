@@ -0,0 +1,94 @@
+package com.desafio.casepixitau.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Resposta original de uma requisição com cabeçalho {@code Idempotency-Key}, devolvida
+ * novamente quando o cliente repete a requisição.
+ */
+@Entity
+@Table(name = "tb_idempotencia")
+public class RespostaIdempotente {
+
+    @Id
+    @Column(length = 400)
+    private String chave; // Método, caminho, cliente e Idempotency-Key da requisição
+
+    @Column(nullable = false, length = 64)
+    private String impressao; // Hash SHA-256 do corpo da requisição original
+
+    @Column(nullable = false)
+    private int status; // Status HTTP da resposta original
+
+    @Column(length = 100)
+    private String contentType; // Content-Type da resposta original
+
+    @Column(nullable = false, length = 65536)
+    private byte[] corpo; // Corpo da resposta original
+
+    @Column(nullable = false)
+    private LocalDateTime dataHoraExpiracao; // Data e hora a partir da qual a resposta é descartada
+
+    public RespostaIdempotente() {
+    }
+
+    public RespostaIdempotente(String chave, String impressao, int status, String contentType,
+                               byte[] corpo, LocalDateTime dataHoraExpiracao) {
+        this.chave = chave;
+        this.impressao = impressao;
+        this.status = status;
+        this.contentType = contentType;
+        this.corpo = corpo;
+        this.dataHoraExpiracao = dataHoraExpiracao;
+    }
+
+    // Getters e Setters
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public String getImpressao() {
+        return impressao;
+    }
+
+    public void setImpressao(String impressao) {
+        this.impressao = impressao;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getCorpo() {
+        return corpo;
+    }
+
+    public void setCorpo(byte[] corpo) {
+        this.corpo = corpo;
+    }
+
+    public LocalDateTime getDataHoraExpiracao() {
+        return dataHoraExpiracao;
+    }
+
+    public void setDataHoraExpiracao(LocalDateTime dataHoraExpiracao) {
+        this.dataHoraExpiracao = dataHoraExpiracao;
+    }
+}
@@ -0,0 +1,63 @@
+package com.desafio.casepixitau.model;
+
+import java.util.Locale;
+
+/**
+ * Tipos de chave Pix aceitos, com o código persistido na coluna {@code tipo_chave}.
+ * Os códigos são gravados no banco e não podem ser alterados ou reutilizados.
+ */
+public enum TipoChave {
+
+    CPF("cpf", (short) 1),
+    EMAIL("email", (short) 2),
+    CELULAR("celular", (short) 3);
+
+    private final String valor;
+    private final short codigo;
+
+    TipoChave(String valor, short codigo) {
+        this.valor = valor;
+        this.codigo = codigo;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public short getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Tipo correspondente ao valor informado, sem diferenciar maiúsculas e minúsculas.
+     *
+     * @param valor Valor do tipo da chave (ex.: "email").
+     * @return o tipo, ou nulo se o valor for nulo ou desconhecido.
+     */
+    public static TipoChave deValor(String valor) {
+        if (valor != null) {
+            String normalizado = valor.toLowerCase(Locale.ROOT);
+            for (TipoChave tipo : values()) {
+                if (tipo.valor.equals(normalizado)) {
+                    return tipo;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tipo correspondente ao código persistido.
+     *
+     * @param codigo Código gravado na coluna.
+     * @return o tipo da chave.
+     */
+    public static TipoChave deCodigo(short codigo) {
+        for (TipoChave tipo : values()) {
+            if (tipo.codigo == codigo) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Código de tipo de chave desconhecido: " + codigo);
+    }
+}
@@ -0,0 +1,67 @@
+package com.desafio.casepixitau.model;
+
+import java.util.Locale;
+
+/**
+ * Tipos de conta aceitos, com o código persistido na coluna {@code tipo_conta}.
+ * Os códigos são gravados no banco e não podem ser alterados ou reutilizados.
+ */
+public enum TipoConta {
+
+    CORRENTE("corrente", (short) 1),
+    POUPANCA("poupança", (short) 2);
+
+    private final String valor;
+    private final short codigo;
+
+    TipoConta(String valor, short codigo) {
+        this.valor = valor;
+        this.codigo = codigo;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public short getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Tipo correspondente ao valor informado, sem diferenciar maiúsculas e minúsculas e
+     * aceitando "poupanca" sem cedilha.
+     *
+     * @param valor Valor do tipo da conta (ex.: "corrente").
+     * @return o tipo, ou nulo se o valor for nulo ou desconhecido.
+     */
+    public static TipoConta deValor(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String normalizado = valor.toLowerCase(Locale.ROOT);
+        if (normalizado.equals("poupanca")) {
+            return POUPANCA;
+        }
+        for (TipoConta tipo : values()) {
+            if (tipo.valor.equals(normalizado)) {
+                return tipo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tipo correspondente ao código persistido.
+     *
+     * @param codigo Código gravado na coluna.
+     * @return o tipo da conta.
+     */
+    public static TipoConta deCodigo(short codigo) {
+        for (TipoConta tipo : values()) {
+            if (tipo.codigo == codigo) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Código de tipo de conta desconhecido: " + codigo);
+    }
+}
@@ -0,0 +1,32 @@
+package com.desafio.casepixitau.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Persiste o tipo da conta como o código numérico de {@link TipoConta}.
+ *
+ * Valores desconhecidos são recusados com {@link IllegalArgumentException}, tanto nas gravações
+ * quanto nas consultas: convertidos em nulo, tornariam condições como {@code :tipo IS NULL}
+ * verdadeiras e a consulta retornaria todas as chaves.
+ */
+@Converter
+public class TipoContaConverter implements AttributeConverter<String, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(String valor) {
+        TipoConta tipo = TipoConta.deValor(valor);
+        if (tipo == null) {
+            if (valor != null) {
+                throw new IllegalArgumentException("Valor de tipo de conta desconhecido: " + valor);
+            }
+            return null;
+        }
+        return tipo.getCodigo();
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short codigo) {
+        return codigo == null ? null : TipoConta.deCodigo(codigo).getValor();
+    }
+}
@@ -0,0 +1,44 @@
+package com.desafio.casepixitau.perfil;
+
+import com.desafio.casepixitau.dto.ConsultaLentaDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Buffer circular dos comandos SQL lentos mais recentes; ao atingir a capacidade, o mais antigo é descartado.
+ */
+public class ConsultasLentas {
+
+    private final int capacidade;
+    private final Deque<ConsultaLentaDTO> consultas = new ArrayDeque<>();
+
+    /**
+     * Construtor do buffer.
+     *
+     * @param capacidade Quantidade máxima de comandos mantidos.
+     */
+    public ConsultasLentas(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public synchronized void registrar(ConsultaLentaDTO consulta) {
+        consultas.addFirst(consulta);
+        if (consultas.size() > capacidade) {
+            consultas.removeLast();
+        }
+    }
+
+    /**
+     * @return os comandos mantidos, do mais recente para o mais antigo.
+     */
+    public synchronized List<ConsultaLentaDTO> listar() {
+        return new ArrayList<>(consultas);
+    }
+
+    public synchronized void limpar() {
+        consultas.clear();
+    }
+}
@@ -0,0 +1,34 @@
+package com.desafio.casepixitau.perfil;
+
+import com.desafio.casepixitau.dto.ConsultaLentaDTO;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * Endpoint administrativo ({@code /actuator/consultaslentas}) com os comandos SQL lentos mais
+ * recentes, com os parâmetros mascarados pelo {@link PerfilSqlListener}. Não é exposto por padrão:
+ * deve ser incluído em {@code management.endpoints.web.exposure.include} e ficar restrito à rede de
+ * administração, como os demais endpoints do actuator.
+ */
+@Endpoint(id = "consultaslentas")
+public class ConsultasLentasEndpoint {
+
+    private final ConsultasLentas consultasLentas;
+
+    public ConsultasLentasEndpoint(ConsultasLentas consultasLentas) {
+        this.consultasLentas = consultasLentas;
+    }
+
+    @ReadOperation
+    public List<ConsultaLentaDTO> listar() {
+        return consultasLentas.listar();
+    }
+
+    @DeleteOperation
+    public void limpar() {
+        consultasLentas.limpar();
+    }
+}
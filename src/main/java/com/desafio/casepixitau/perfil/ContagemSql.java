@@ -0,0 +1,69 @@
+package com.desafio.casepixitau.perfil;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem dos comandos SQL executados durante uma operação (requisição HTTP ou método de serviço).
+ *
+ * Cada execução JDBC conta como um comando, inclusive um lote ({@code executeBatch}), que é uma
+ * única ida ao banco. As linhas somam as lidas dos {@code ResultSet}s e as afetadas por
+ * {@code INSERT}/{@code UPDATE}/{@code DELETE}. A contagem pode receber comandos de outra thread
+ * para a qual a operação foi repassada (ver {@link PerfilSql#capturar()}).
+ */
+public class ContagemSql {
+
+    private final String operacao;
+    private final LongAdder comandos = new LongAdder();
+    private final LongAdder linhas = new LongAdder();
+    private final LongAdder tempoNanos = new LongAdder();
+
+    /**
+     * Construtor da contagem.
+     *
+     * @param operacao Nome da operação medida, registrado junto com os comandos lentos.
+     */
+    public ContagemSql(String operacao) {
+        this.operacao = operacao;
+    }
+
+    void registrarComando(long nanos, long linhasAfetadas) {
+        comandos.increment();
+        tempoNanos.add(nanos);
+        linhas.add(linhasAfetadas);
+    }
+
+    void registrarLinhaLida() {
+        linhas.increment();
+    }
+
+    public String getOperacao() {
+        return operacao;
+    }
+
+    /**
+     * @return a quantidade de execuções JDBC (idas ao banco).
+     */
+    public long getComandos() {
+        return comandos.sum();
+    }
+
+    /**
+     * @return as linhas lidas e afetadas pelos comandos.
+     */
+    public long getLinhas() {
+        return linhas.sum();
+    }
+
+    /**
+     * @return o tempo total de execução dos comandos no driver JDBC, em nanossegundos.
+     */
+    public long getTempoNanos() {
+        return tempoNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return operacao + ": " + getComandos() + " comandos, " + getLinhas() + " linhas, "
+                + String.format("%.2f", getTempoNanos() / 1e6) + " ms";
+    }
+}
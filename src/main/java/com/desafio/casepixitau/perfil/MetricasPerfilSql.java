@@ -0,0 +1,47 @@
+package com.desafio.casepixitau.perfil;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra as contagens encerradas como métricas por operação: comandos, linhas e tempo JDBC, com
+ * as tags {@code escopo} ({@code requisicao} ou {@code servico}) e {@code operacao}.
+ */
+public class MetricasPerfilSql {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricasPerfilSql.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasPerfilSql(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registra a contagem de uma operação encerrada.
+     *
+     * @param escopo   {@code requisicao} ou {@code servico}.
+     * @param operacao Nome da operação, de cardinalidade limitada (padrão da rota ou nome do método).
+     * @param contagem Contagem encerrada.
+     */
+    public void registrar(String escopo, String operacao, ContagemSql contagem) {
+        DistributionSummary.builder("pix.sql.operacao.comandos")
+                .tag("escopo", escopo).tag("operacao", operacao).register(meterRegistry)
+                .record(contagem.getComandos());
+        DistributionSummary.builder("pix.sql.operacao.linhas")
+                .tag("escopo", escopo).tag("operacao", operacao).register(meterRegistry)
+                .record(contagem.getLinhas());
+        Timer.builder("pix.sql.operacao.tempo")
+                .tag("escopo", escopo).tag("operacao", operacao).register(meterRegistry)
+                .record(contagem.getTempoNanos(), TimeUnit.NANOSECONDS);
+        if (log.isDebugEnabled()) {
+            log.debug("{} {}: {} comandos, {} linhas, {} µs de JDBC.", escopo, operacao, contagem.getComandos(),
+                    contagem.getLinhas(), contagem.getTempoNanos() / 1000);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.desafio.casepixitau.perfil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Contagens de comandos SQL ativas na thread corrente.
+ *
+ * Uma requisição HTTP e o método de serviço chamado por ela têm cada um a sua contagem; cada
+ * comando executado na thread é somado a todas as contagens ativas. Quando a operação continua em
+ * outra thread (compartimentos, blocos da consulta em lote), as contagens são capturadas na thread
+ * de origem e restauradas na de destino.
+ * Não deve ser instanciada.
+ */
+public final class PerfilSql {
+
+    private static final ThreadLocal<List<ContagemSql>> ATIVAS = new ThreadLocal<>();
+
+    /**
+     * Construtor privado para evitar instanciamento da classe.
+     */
+    private PerfilSql() {
+        throw new UnsupportedOperationException("Classe utilitária não pode ser instanciada.");
+    }
+
+    /**
+     * Inicia uma contagem na thread corrente; deve ser encerrada com {@link #encerrar}.
+     *
+     * @param operacao Nome da operação medida.
+     * @return a contagem iniciada.
+     */
+    public static ContagemSql iniciar(String operacao) {
+        ContagemSql contagem = new ContagemSql(operacao);
+        List<ContagemSql> ativas = ATIVAS.get();
+        List<ContagemSql> novas = ativas == null ? new ArrayList<>(2) : new ArrayList<>(ativas);
+        novas.add(contagem);
+        ATIVAS.set(novas);
+        return contagem;
+    }
+
+    /**
+     * Encerra uma contagem iniciada na thread corrente.
+     *
+     * @param contagem Contagem a encerrar.
+     */
+    public static void encerrar(ContagemSql contagem) {
+        List<ContagemSql> ativas = ATIVAS.get();
+        if (ativas == null) {
+            return;
+        }
+        List<ContagemSql> restantes = new ArrayList<>(ativas);
+        restantes.remove(contagem);
+        if (restantes.isEmpty()) {
+            ATIVAS.remove();
+        } else {
+            ATIVAS.set(restantes);
+        }
+    }
+
+    /**
+     * Executa a operação e devolve os comandos SQL executados por ela na thread corrente (e nas
+     * threads para as quais foi repassada).
+     *
+     * @param operacao Operação a medir.
+     * @return a contagem da operação.
+     */
+    public static ContagemSql medir(Runnable operacao) {
+        ContagemSql contagem = iniciar("medicao");
+        try {
+            operacao.run();
+        } finally {
+            encerrar(contagem);
+        }
+        return contagem;
+    }
+
+    /**
+     * Executa a operação dentro de uma contagem com o nome informado.
+     *
+     * @param nome     Nome da operação medida.
+     * @param operacao Operação a medir.
+     * @return o resultado da operação.
+     */
+    public static <T> T medir(String nome, Supplier<T> operacao) {
+        ContagemSql contagem = iniciar(nome);
+        try {
+            return operacao.get();
+        } finally {
+            encerrar(contagem);
+        }
+    }
+
+    /**
+     * @return as contagens ativas na thread corrente, para repasse a outra thread; nulo se não houver.
+     */
+    public static List<ContagemSql> capturar() {
+        return ATIVAS.get();
+    }
+
+    /**
+     * Substitui as contagens ativas na thread corrente.
+     *
+     * @param contagens Contagens capturadas com {@link #capturar()} (ou nulo, para nenhuma).
+     * @return as contagens que estavam ativas, para restauração ao final.
+     */
+    public static List<ContagemSql> restaurar(List<ContagemSql> contagens) {
+        List<ContagemSql> anteriores = ATIVAS.get();
+        if (contagens == null) {
+            ATIVAS.remove();
+        } else {
+            ATIVAS.set(contagens);
+        }
+        return anteriores;
+    }
+
+    /**
+     * @return o nome da operação mais interna ativa na thread corrente, ou nulo.
+     */
+    static String operacaoAtual() {
+        List<ContagemSql> ativas = ATIVAS.get();
+        return ativas == null ? null : ativas.get(ativas.size() - 1).getOperacao();
+    }
+
+    static void registrarComando(long nanos, long linhasAfetadas) {
+        List<ContagemSql> ativas = ATIVAS.get();
+        if (ativas != null) {
+            for (ContagemSql contagem : ativas) {
+                contagem.registrarComando(nanos, linhasAfetadas);
+            }
+        }
+    }
+
+    static void registrarLinhaLida() {
+        List<ContagemSql> ativas = ATIVAS.get();
+        if (ativas != null) {
+            for (ContagemSql contagem : ativas) {
+                contagem.registrarLinhaLida();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.desafio.casepixitau.perfil;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conta os comandos SQL de cada método público do {@code ChavePixService}.
+ *
+ * Executa depois do compartimento (já na thread dele) e antes do {@code @Transactional}, de forma
+ * que o {@code flush} e o commit da transação do método entram na contagem.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "pix.perfil-sql.enabled", havingValue = "true")
+public class PerfilSqlAspect {
+
+    private final MetricasPerfilSql metricas;
+
+    public PerfilSqlAspect(MetricasPerfilSql metricas) {
+        this.metricas = metricas;
+    }
+
+    @Around("execution(public * com.desafio.casepixitau.service.ChavePixService.*(..))")
+    public Object contar(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operacao = "ChavePixService." + joinPoint.getSignature().getName();
+        ContagemSql contagem = PerfilSql.iniciar(operacao);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            PerfilSql.encerrar(contagem);
+            metricas.registrar("servico", operacao, contagem);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.desafio.casepixitau.perfil;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Filtro que conta os comandos SQL de cada requisição HTTP. A operação registrada nas métricas é
+ * o método HTTP com o padrão da rota atendida (por exemplo, {@code PUT /api/pix/{id}}).
+ */
+public class PerfilSqlFilter extends OncePerRequestFilter {
+
+    private final MetricasPerfilSql metricas;
+
+    public PerfilSqlFilter(MetricasPerfilSql metricas) {
+        this.metricas = metricas;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ContagemSql contagem = PerfilSql.iniciar(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PerfilSql.encerrar(contagem);
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metricas.registrar("requisicao", request.getMethod() + " " + (padrao != null ? padrao : "sem-rota"), contagem);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.desafio.casepixitau.perfil;
+
+import com.desafio.casepixitau.dto.ConsultaLentaDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ouvinte do datasource-proxy que soma cada comando SQL às contagens ativas da thread
+ * ({@link PerfilSql}), mede o tempo por tipo de comando e guarda os comandos lentos em
+ * {@link ConsultasLentas}. Os valores dos parâmetros não são guardados: cada um é registrado apenas
+ * pelo tipo (e pelo tamanho, nos textos), pois incluem dados de correntistas.
+ *
+ * As linhas lidas são contadas a cada {@code ResultSet.next()} que avança; as afetadas, pelo
+ * retorno de {@code executeUpdate}/{@code executeBatch}.
+ */
+public class PerfilSqlListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String INICIO = "pix.perfil-sql.inicio";
+    private static final int MAXIMO_ITENS_LOTE = 20;
+
+    private final ConsultasLentas consultasLentas;
+    private final long limiteLentaNanos;
+    private final Map<QueryType, Timer> tempos = new EnumMap<>(QueryType.class);
+
+    /**
+     * Construtor do ouvinte.
+     *
+     * @param consultasLentas Buffer dos comandos lentos.
+     * @param limiteLentaMs   Duração a partir da qual um comando é considerado lento.
+     * @param meterRegistry   Registro de métricas.
+     */
+    public PerfilSqlListener(ConsultasLentas consultasLentas, long limiteLentaMs, MeterRegistry meterRegistry) {
+        this.consultasLentas = consultasLentas;
+        this.limiteLentaNanos = TimeUnit.MILLISECONDS.toNanos(limiteLentaMs);
+        for (QueryType tipo : QueryType.values()) {
+            tempos.put(tipo, Timer.builder("pix.sql.comandos")
+                    .tag("tipo", tipo.name().toLowerCase(Locale.ROOT)).register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(INICIO, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long inicio = execInfo.getCustomValue(INICIO, Long.class);
+        long nanos = inicio == null ? 0 : System.nanoTime() - inicio;
+
+        PerfilSql.registrarComando(nanos, linhasAfetadas(execInfo.getResult()));
+        QueryType tipo = queryInfoList.isEmpty() ? QueryType.OTHER : QueryUtils.getQueryType(queryInfoList.get(0).getQuery());
+        tempos.get(tipo).record(nanos, TimeUnit.NANOSECONDS);
+
+        if (nanos >= limiteLentaNanos) {
+            consultasLentas.registrar(new ConsultaLentaDTO(LocalDateTime.now(), nanos / 1e6, PerfilSql.operacaoAtual(),
+                    queryInfoList.stream().map(QueryInfo::getQuery).toList(), parametros(queryInfoList),
+                    execInfo.isBatch() ? execInfo.getBatchSize() : 0));
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            PerfilSql.registrarLinhaLida();
+        }
+    }
+
+    private static long linhasAfetadas(Object resultado) {
+        if (resultado instanceof Number numero) {
+            return Math.max(0, numero.longValue());
+        }
+        long total = 0;
+        if (resultado instanceof int[] lote) {
+            for (int linhas : lote) {
+                total += Math.max(0, linhas);
+            }
+        } else if (resultado instanceof long[] lote) {
+            for (long linhas : lote) {
+                total += Math.max(0, linhas);
+            }
+        }
+        return total;
+    }
+
+    private static List<List<String>> parametros(List<QueryInfo> queryInfoList) {
+        List<List<String>> conjuntos = new ArrayList<>();
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (List<ParameterSetOperation> operacoes : queryInfo.getParametersList()) {
+                if (conjuntos.size() >= MAXIMO_ITENS_LOTE) {
+                    return conjuntos;
+                }
+                conjuntos.add(operacoes.stream()
+                        .sorted(Comparator.comparing(o -> String.valueOf(o.getArgs()[0]), PerfilSqlListener::compararIndices))
+                        .map(PerfilSqlListener::valor)
+                        .toList());
+            }
+        }
+        return conjuntos;
+    }
+
+    private static int compararIndices(String a, String b) {
+        return a.length() != b.length() ? Integer.compare(a.length(), b.length()) : a.compareTo(b);
+    }
+
+    /**
+     * Máscara do valor de um parâmetro: {@code NULL}, o tamanho dos textos ({@code String(17)}) ou o
+     * tipo dos demais valores ({@code Integer}, {@code UUID}, {@code Timestamp}).
+     */
+    private static String valor(ParameterSetOperation operacao) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operacao)) {
+            return "NULL";
+        }
+        Object[] args = operacao.getArgs();
+        Object valor = args.length > 1 ? args[1] : null;
+        if (valor == null) {
+            return "NULL";
+        }
+        if (valor instanceof CharSequence texto) {
+            return "String(" + texto.length() + ")";
+        }
+        return valor.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,93 @@
+package com.desafio.casepixitau.repository;
+
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.ChavePixArquivada;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Interface de acesso ao arquivo de chaves Pix inativadas e às operações do arquivamento, que
+ * movem as chaves da tabela de chaves para o arquivo.
+ */
+public interface ChavePixArquivadaRepository extends JpaRepository<ChavePixArquivada, UUID> {
+
+    /**
+     * Busca as chaves arquivadas inativadas dentro de um intervalo de datas.
+     *
+     * @param inicio Data e hora inicial do intervalo.
+     * @param fim    Data e hora final do intervalo.
+     * @return lista de chaves arquivadas inativadas dentro do intervalo.
+     */
+    List<ChavePixArquivada> findByDataHoraInativacaoBetween(LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Busca a chave arquivada mais recente com o valor informado (o mesmo valor pode ter sido
+     * arquivado mais de uma vez).
+     *
+     * @param valorChave Valor da chave Pix.
+     * @return a chave arquivada de inativação mais recente, se houver.
+     */
+    Optional<ChavePixArquivada> findFirstByValorChaveOrderByDataHoraInativacaoDesc(String valorChave);
+
+    /**
+     * Busca as chaves arquivadas com os valores informados.
+     *
+     * @param valoresChave Valores das chaves Pix.
+     * @return as chaves arquivadas, possivelmente mais de uma por valor.
+     */
+    List<ChavePixArquivada> findByValorChaveIn(Collection<String> valoresChave);
+
+    /**
+     * Busca, na tabela de chaves, o próximo lote de chaves inativadas antes do limite, em ordem de
+     * (data de inativação, id) a partir da última chave do lote anterior (paginação por chave, sem
+     * {@code OFFSET}).
+     *
+     * @param limite      Chaves inativadas antes deste instante são arquivadas.
+     * @param ultimaData  Data de inativação da última chave do lote anterior.
+     * @param ultimoId    Id da última chave do lote anterior.
+     * @param tamanhoLote Quantidade máxima de chaves do lote.
+     * @return as chaves do lote, em ordem de inativação.
+     */
+    @Query("SELECT c FROM ChavePix c WHERE c.dataHoraInativacao < :limite " +
+            "AND (c.dataHoraInativacao > :ultimaData OR (c.dataHoraInativacao = :ultimaData AND c.id > :ultimoId)) " +
+            "ORDER BY c.dataHoraInativacao, c.id")
+    List<ChavePix> buscarArquivaveis(@Param("limite") LocalDateTime limite,
+                                     @Param("ultimaData") LocalDateTime ultimaData,
+                                     @Param("ultimoId") UUID ultimoId,
+                                     Limit tamanhoLote);
+
+    /**
+     * Copia as chaves inativadas informadas da tabela de chaves para o arquivo.
+     *
+     * @param ids          Ids das chaves.
+     * @param arquivamento Data e hora do arquivamento.
+     * @return a quantidade de chaves copiadas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_chavespix_arquivo (id, tipo_chave, valor_chave, tipo_conta, numero_agencia, " +
+            "numero_conta, nome_correntista, sobrenome_correntista, data_hora_inclusao, data_hora_inativacao, " +
+            "data_hora_arquivamento) " +
+            "SELECT id, tipo_chave, valor_chave, tipo_conta, numero_agencia, numero_conta, nome_correntista, " +
+            "sobrenome_correntista, data_hora_inclusao, data_hora_inativacao, :arquivamento " +
+            "FROM tb_chavespix WHERE id IN (:ids) AND data_hora_inativacao IS NOT NULL", nativeQuery = true)
+    int copiarParaArquivo(@Param("ids") Collection<UUID> ids, @Param("arquivamento") LocalDateTime arquivamento);
+
+    /**
+     * Remove da tabela de chaves as chaves inativadas informadas, já copiadas para o arquivo.
+     *
+     * @param ids Ids das chaves.
+     * @return a quantidade de chaves removidas.
+     */
+    @Modifying
+    @Query("DELETE FROM ChavePix c WHERE c.id IN :ids AND c.dataHoraInativacao IS NOT NULL")
+    int removerArquivadas(@Param("ids") Collection<UUID> ids);
+}
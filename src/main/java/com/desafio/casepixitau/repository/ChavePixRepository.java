@@ -1,28 +1,53 @@
 package com.desafio.casepixitau.repository;
 
 import com.desafio.casepixitau.model.ChavePix;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.ListPagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Interface que define as operações de acesso a dados para a entidade ChavePix.
- * Estende JpaRepository para fornecer operações CRUD padrão e permite a definição de consultas personalizadas.
+ * Estende ListCrudRepository e ListPagingAndSortingRepository para fornecer operações CRUD,
+ * paginação e ordenação, e permite a definição de consultas personalizadas. Não expõe o restante
+ * do contrato do JpaRepository (consulta por exemplo, referências e exclusões em lote), que as
+ * implementações em memória e fragmentada não oferecem.
  */
-public interface ChavePixRepository extends JpaRepository<ChavePix, UUID> {
+@Profile("!memoria")
+public interface ChavePixRepository extends ListCrudRepository<ChavePix, UUID>, ListPagingAndSortingRepository<ChavePix, UUID> {
 
     /**
-     * Busca uma chave Pix pelo valor da chave.
+     * Sincroniza com o banco as alterações pendentes no contexto de persistência.
+     */
+    void flush();
+
+    /**
+     * Busca uma chave Pix pelo valor da chave. A busca usa o índice do hash do valor e compara
+     * o valor em seguida, descartando eventuais colisões.
      *
      * @param valorChave Valor da chave Pix.
      * @return Um Optional contendo a ChavePix, se encontrada.
      */
-    Optional<ChavePix> findByValorChave(String valorChave);
+    @Query("SELECT c FROM ChavePix c WHERE c.hashValorChave = :#{T(com.desafio.casepixitau.model.HashValorChave).calcular(#valorChave)} " +
+            "AND c.valorChave = :valorChave")
+    Optional<ChavePix> findByValorChave(@Param("valorChave") String valorChave);
+
+    /**
+     * Busca as chaves Pix cujos valores estão na coleção informada, pelo hash e pelo valor.
+     *
+     * @param valoresChave Valores das chaves Pix.
+     * @return Lista com as chaves encontradas, sem ordem definida.
+     */
+    @Query("SELECT c FROM ChavePix c WHERE c.hashValorChave IN :#{T(com.desafio.casepixitau.model.HashValorChave).calcular(#valoresChave)} " +
+            "AND c.valorChave IN :valoresChave")
+    List<ChavePix> findByValorChaveIn(@Param("valoresChave") Collection<String> valoresChave);
 
     /**
      * Retorna uma lista de chaves Pix pelo tipo de chave.
@@ -102,7 +127,8 @@ public interface ChavePixRepository extends JpaRepository<ChavePix, UUID> {
      */
     @Query("SELECT c FROM ChavePix c WHERE " +
             "(:tipoChave IS NULL OR c.tipoChave = :tipoChave) " +
-            "AND (:valorChave IS NULL OR c.valorChave = :valorChave) " +
+            "AND (:valorChave IS NULL OR (c.hashValorChave = :#{T(com.desafio.casepixitau.model.HashValorChave).calcular(#valorChave)} " +
+            "AND c.valorChave = :valorChave)) " +
             "AND (:agencia IS NULL OR c.numeroAgencia = :agencia) " +
             "AND (:conta IS NULL OR c.numeroConta = :conta) " +
             "AND (:dataInclusao IS NULL OR c.dataHoraInclusao >= :dataInclusao) " +
@@ -114,5 +140,52 @@ public interface ChavePixRepository extends JpaRepository<ChavePix, UUID> {
                                     @Param("dataInclusao") LocalDateTime dataInclusao,
                                     @Param("dataInativacao") LocalDateTime dataInativacao);
 
+    /**
+     * Conta as chaves Pix ativas agrupadas por tipo de chave.
+     *
+     * @return Lista de pares [tipoChave, quantidade].
+     */
+    @Query("SELECT c.tipoChave, COUNT(c) FROM ChavePix c WHERE c.dataHoraInativacao IS NULL GROUP BY c.tipoChave")
+    List<Object[]> contarAtivasPorTipoChave();
+
+    /**
+     * Conta as chaves Pix ativas agrupadas por agência.
+     *
+     * @return Lista de pares [numeroAgencia, quantidade].
+     */
+    @Query("SELECT c.numeroAgencia, COUNT(c) FROM ChavePix c WHERE c.dataHoraInativacao IS NULL GROUP BY c.numeroAgencia")
+    List<Object[]> contarAtivasPorAgencia();
 
+    /**
+     * Conta as chaves Pix ativas das contas formadas pelas agências e contas informadas, agrupadas
+     * por agência e conta. Contas sem chaves ativas não aparecem no resultado.
+     *
+     * @param agencias Números das agências.
+     * @param contas   Números das contas.
+     * @return Lista de triplas [numeroAgencia, numeroConta, quantidade].
+     */
+    @Query("SELECT c.numeroAgencia, c.numeroConta, COUNT(c) FROM ChavePix c WHERE c.numeroAgencia IN :agencias " +
+            "AND c.numeroConta IN :contas AND c.dataHoraInativacao IS NULL GROUP BY c.numeroAgencia, c.numeroConta")
+    List<Object[]> contarAtivasPorConta(@Param("agencias") Collection<Integer> agencias,
+                                        @Param("contas") Collection<Integer> contas);
+
+    /**
+     * Conta as inclusões de chaves Pix por dia a partir da data informada.
+     *
+     * @param inicio Data e hora de início.
+     * @return Lista de pares [dia, quantidade].
+     */
+    @Query("SELECT CAST(c.dataHoraInclusao AS LocalDate), COUNT(c) FROM ChavePix c " +
+            "WHERE c.dataHoraInclusao >= :inicio GROUP BY CAST(c.dataHoraInclusao AS LocalDate)")
+    List<Object[]> contarInclusoesPorDia(@Param("inicio") LocalDateTime inicio);
+
+    /**
+     * Conta as inativações de chaves Pix por dia a partir da data informada.
+     *
+     * @param inicio Data e hora de início.
+     * @return Lista de pares [dia, quantidade].
+     */
+    @Query("SELECT CAST(c.dataHoraInativacao AS LocalDate), COUNT(c) FROM ChavePix c " +
+            "WHERE c.dataHoraInativacao >= :inicio GROUP BY CAST(c.dataHoraInativacao AS LocalDate)")
+    List<Object[]> contarInativacoesPorDia(@Param("inicio") LocalDateTime inicio);
 }
@@ -0,0 +1,491 @@
+package com.desafio.casepixitau.repository;
+
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.TipoChave;
+import com.desafio.casepixitau.util.UuidV7;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Repositório de chaves Pix mantido inteiramente em memória, ativado pelo perfil {@code memoria}.
+ *
+ * Substitui o repositório JPA por estruturas concorrentes: um mapa por id com os registros,
+ * um mapa único por valor da chave, conjuntos de ids por agência e conta e índices ordenados
+ * ({@link ConcurrentSkipListMap}) pelas datas de inclusão e de inativação. Cada escrita é
+ * atômica por id e mantém os índices dentro do {@code compute} do registro; as leituras não
+ * bloqueiam e conferem o registro atual contra o critério, descartando entradas de índice
+ * ainda não atualizadas.
+ *
+ * Os registros são copiados na entrada e na saída, como entidades destacadas, e o campo
+ * {@code version} segue o {@code @Version} do JPA: salvar uma cópia desatualizada lança
+ * {@link ObjectOptimisticLockingFailureException} e salvar sem alterações não incrementa a versão.
+ * As escritas não participam de transações: não são desfeitas em caso de rollback.
+ */
+@Repository
+@Primary
+@Profile("memoria")
+public class ChavePixRepositoryMemoria implements ChavePixRepository {
+
+    private static final UUID MENOR_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAIOR_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final ConcurrentHashMap<UUID, ChavePix> porId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UUID> porValor = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, List<UUID>> porConta = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Instante, UUID> porInclusao = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Instante, UUID> porInativacao = new ConcurrentSkipListMap<>();
+
+    @Override
+    public <S extends ChavePix> S save(S entity) {
+        validar(entity);
+        ChavePix nova = copiar(entity);
+        if (nova.getId() == null) {
+            nova.setId(UuidV7.gerar());
+        }
+        ChavePix gravada = porId.compute(nova.getId(), (id, atual) -> gravar(atual, nova));
+        entity.setId(gravada.getId());
+        entity.setVersion(gravada.getVersion());
+        return entity;
+    }
+
+    @Override
+    public <S extends ChavePix> List<S> saveAll(Iterable<S> entities) {
+        List<S> salvas = new ArrayList<>();
+        for (S entity : entities) {
+            salvas.add(save(entity));
+        }
+        return salvas;
+    }
+
+    @Override
+    public void flush() {
+        // Sem contexto de persistência: cada escrita já é visível ao retornar.
+    }
+
+    @Override
+    public Optional<ChavePix> findById(UUID id) {
+        return Optional.ofNullable(porId.get(id)).map(ChavePixRepositoryMemoria::copiar);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return porId.containsKey(id);
+    }
+
+    @Override
+    public List<ChavePix> findAll() {
+        return filtrar(porId.values().stream(), c -> true);
+    }
+
+    @Override
+    public List<ChavePix> findAllById(Iterable<UUID> ids) {
+        List<ChavePix> encontradas = new ArrayList<>();
+        for (UUID id : ids) {
+            ChavePix chave = porId.get(id);
+            if (chave != null) {
+                encontradas.add(copiar(chave));
+            }
+        }
+        return encontradas;
+    }
+
+    @Override
+    public long count() {
+        return porId.size();
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        porId.computeIfPresent(id, (chave, atual) -> {
+            desindexar(atual);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(ChavePix entity) {
+        if (entity.getId() != null) {
+            deleteById(entity.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends UUID> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends ChavePix> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        porId.keySet().forEach(this::deleteById);
+    }
+
+    @Override
+    public List<ChavePix> findAll(Sort sort) {
+        List<ChavePix> todas = new ArrayList<>(findAll());
+        if (sort.isSorted()) {
+            todas.sort(OrdenacaoChavePix.comparador(sort));
+        }
+        return todas;
+    }
+
+    @Override
+    public Page<ChavePix> findAll(Pageable pageable) {
+        List<ChavePix> todas = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(todas);
+        }
+        int inicio = (int) Math.min(pageable.getOffset(), todas.size());
+        int fim = Math.min(inicio + pageable.getPageSize(), todas.size());
+        return new PageImpl<>(todas.subList(inicio, fim), pageable, todas.size());
+    }
+
+    @Override
+    public Optional<ChavePix> findByValorChave(String valorChave) {
+        UUID id = porValor.get(valorChave);
+        ChavePix chave = id == null ? null : porId.get(id);
+        return chave != null && chave.getValorChave().equals(valorChave) ? Optional.of(copiar(chave)) : Optional.empty();
+    }
+
+    @Override
+    public List<ChavePix> findByValorChaveIn(Collection<String> valoresChave) {
+        List<ChavePix> encontradas = new ArrayList<>();
+        for (String valor : valoresChave) {
+            findByValorChave(valor).ifPresent(encontradas::add);
+        }
+        return encontradas;
+    }
+
+    @Override
+    public List<ChavePix> findByTipoChave(String tipoChave) {
+        TipoChave tipo = tipoDaConsulta(tipoChave);
+        return filtrar(porId.values().stream(), c -> TipoChave.deValor(c.getTipoChave()) == tipo);
+    }
+
+    @Override
+    public List<ChavePix> findByNumeroAgenciaAndNumeroConta(int numeroAgencia, int numeroConta) {
+        return filtrar(daConta(numeroAgencia, numeroConta), c -> true);
+    }
+
+    @Override
+    public List<ChavePix> findByDataHoraInclusaoBetween(LocalDateTime inicio, LocalDateTime fim) {
+        return filtrar(noIntervalo(porInclusao, inicio, fim),
+                c -> entre(c.getDataHoraInclusao(), inicio, fim));
+    }
+
+    @Override
+    public List<ChavePix> findByDataHoraInativacaoBetween(LocalDateTime inicio, LocalDateTime fim) {
+        return filtrar(noIntervalo(porInativacao, inicio, fim),
+                c -> entre(c.getDataHoraInativacao(), inicio, fim));
+    }
+
+    @Override
+    public long countByNumeroAgenciaAndNumeroContaAndDataHoraInativacaoIsNull(int numeroAgencia, int numeroConta) {
+        return daConta(numeroAgencia, numeroConta).filter(c -> c.getDataHoraInativacao() == null).count();
+    }
+
+    @Override
+    public long countByNumeroAgenciaAndNumeroConta(int numeroAgencia, int numeroConta) {
+        return daConta(numeroAgencia, numeroConta).count();
+    }
+
+    @Override
+    public List<ChavePix> findByNomeCorrentistaContainingIgnoreCase(String nomeCorrentista) {
+        String trecho = nomeCorrentista.toLowerCase(Locale.ROOT);
+        return filtrar(porId.values().stream(),
+                c -> c.getNomeCorrentista().toLowerCase(Locale.ROOT).contains(trecho));
+    }
+
+    @Override
+    public List<ChavePix> buscarPorFiltros(String tipoChave, String valorChave, Integer agencia, Integer conta,
+                                          LocalDateTime dataInclusao, LocalDateTime dataInativacao) {
+        TipoChave tipo = tipoChave == null ? null : tipoDaConsulta(tipoChave);
+        Predicate<ChavePix> criterio = c -> (tipo == null || TipoChave.deValor(c.getTipoChave()) == tipo)
+                && (valorChave == null || c.getValorChave().equals(valorChave))
+                && (agencia == null || c.getNumeroAgencia() == agencia)
+                && (conta == null || c.getNumeroConta() == conta)
+                && (dataInclusao == null || !c.getDataHoraInclusao().isBefore(dataInclusao))
+                && (dataInativacao == null || c.getDataHoraInativacao() != null
+                        && !c.getDataHoraInativacao().isBefore(dataInativacao));
+
+        // Usa o índice mais seletivo disponível e confere o critério completo em cada candidata.
+        Stream<ChavePix> candidatas;
+        if (valorChave != null) {
+            candidatas = findByValorChave(valorChave).stream();
+        } else if (agencia != null && conta != null) {
+            candidatas = daConta(agencia, conta);
+        } else if (dataInclusao != null) {
+            candidatas = noIntervalo(porInclusao, dataInclusao, null);
+        } else if (dataInativacao != null) {
+            candidatas = noIntervalo(porInativacao, dataInativacao, null);
+        } else {
+            candidatas = porId.values().stream();
+        }
+        return filtrar(candidatas, criterio);
+    }
+
+    @Override
+    public List<Object[]> contarAtivasPorTipoChave() {
+        return contar(porId.values().stream().filter(c -> c.getDataHoraInativacao() == null), ChavePix::getTipoChave);
+    }
+
+    @Override
+    public List<Object[]> contarAtivasPorAgencia() {
+        return contar(porId.values().stream().filter(c -> c.getDataHoraInativacao() == null),
+                ChavePix::getNumeroAgencia);
+    }
+
+    @Override
+    public List<Object[]> contarAtivasPorConta(Collection<Integer> agencias, Collection<Integer> contas) {
+        List<Object[]> linhas = new ArrayList<>();
+        for (int agencia : new HashSet<>(agencias)) {
+            for (int conta : new HashSet<>(contas)) {
+                long ativas = countByNumeroAgenciaAndNumeroContaAndDataHoraInativacaoIsNull(agencia, conta);
+                if (ativas > 0) {
+                    linhas.add(new Object[]{agencia, conta, ativas});
+                }
+            }
+        }
+        return linhas;
+    }
+
+    @Override
+    public List<Object[]> contarInclusoesPorDia(LocalDateTime inicio) {
+        return contar(noIntervalo(porInclusao, inicio, null).filter(c -> !c.getDataHoraInclusao().isBefore(inicio)),
+                c -> c.getDataHoraInclusao().toLocalDate());
+    }
+
+    @Override
+    public List<Object[]> contarInativacoesPorDia(LocalDateTime inicio) {
+        return contar(noIntervalo(porInativacao, inicio, null).filter(c -> c.getDataHoraInativacao() != null
+                        && !c.getDataHoraInativacao().isBefore(inicio)),
+                c -> c.getDataHoraInativacao().toLocalDate());
+    }
+
+    /**
+     * Restaura o estado de uma chave a partir de uma fonte externa (snapshot ou journal), sem
+     * validação de versão. O estado só é aplicado se sua versão não for menor que a atual, o que
+     * torna a reaplicação de registros fora de ordem ou repetidos inofensiva.
+     *
+     * A instância recebida passa a ser mantida pelo repositório, sem cópia, e não deve mais ser
+     * alterada pelo chamador.
+     *
+     * @param nova Estado da chave a restaurar.
+     */
+    public void restaurar(ChavePix nova) {
+        porId.compute(nova.getId(), (id, atual) -> {
+            if (atual != null && atual.getVersion() > nova.getVersion()) {
+                return atual;
+            }
+            if (atual != null) {
+                desindexar(atual);
+            }
+            indexar(nova);
+            return nova;
+        });
+    }
+
+    /**
+     * Entrega uma cópia de cada chave armazenada ao consumidor, sem montar uma lista intermediária.
+     *
+     * @param consumidor Consumidor das chaves.
+     */
+    public void paraCada(Consumer<ChavePix> consumidor) {
+        porId.values().forEach(chave -> consumidor.accept(copiar(chave)));
+    }
+
+    /**
+     * Grava o registro dentro do {@code compute} do id, validando a versão e a unicidade do valor
+     * e atualizando os índices secundários.
+     */
+    private ChavePix gravar(ChavePix atual, ChavePix nova) {
+        if (atual == null) {
+            if (nova.getVersion() != null && nova.getVersion() > 0) {
+                throw new ObjectOptimisticLockingFailureException(ChavePix.class, nova.getId());
+            }
+            nova.setVersion(0L);
+        } else {
+            if (!Objects.equals(atual.getVersion(), nova.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(ChavePix.class, nova.getId());
+            }
+            if (mesmoConteudo(atual, nova)) {
+                return atual;
+            }
+            nova.setVersion(atual.getVersion() + 1);
+        }
+
+        if (atual == null || !atual.getValorChave().equals(nova.getValorChave())) {
+            UUID dono = porValor.putIfAbsent(nova.getValorChave(), nova.getId());
+            if (dono != null && !dono.equals(nova.getId())) {
+                throw new DataIntegrityViolationException("Valor de chave já cadastrado: " + nova.getValorChave());
+            }
+        }
+        if (atual != null) {
+            desindexar(atual);
+        }
+        indexar(nova);
+        return nova;
+    }
+
+    private void indexar(ChavePix chave) {
+        porValor.put(chave.getValorChave(), chave.getId());
+        porConta.merge(conta(chave.getNumeroAgencia(), chave.getNumeroConta()), List.of(chave.getId()),
+                ChavePixRepositoryMemoria::juntar);
+        porInclusao.put(new Instante(chave.getDataHoraInclusao(), chave.getId()), chave.getId());
+        if (chave.getDataHoraInativacao() != null) {
+            porInativacao.put(new Instante(chave.getDataHoraInativacao(), chave.getId()), chave.getId());
+        }
+    }
+
+    private void desindexar(ChavePix chave) {
+        porValor.remove(chave.getValorChave(), chave.getId());
+        porConta.computeIfPresent(conta(chave.getNumeroAgencia(), chave.getNumeroConta()),
+                (k, ids) -> remover(ids, chave.getId()));
+        porInclusao.remove(new Instante(chave.getDataHoraInclusao(), chave.getId()));
+        if (chave.getDataHoraInativacao() != null) {
+            porInativacao.remove(new Instante(chave.getDataHoraInativacao(), chave.getId()));
+        }
+    }
+
+    private Stream<ChavePix> daConta(int numeroAgencia, int numeroConta) {
+        List<UUID> ids = porConta.getOrDefault(conta(numeroAgencia, numeroConta), List.of());
+        return ids.stream()
+                .map(porId::get)
+                .filter(c -> c != null && c.getNumeroAgencia() == numeroAgencia && c.getNumeroConta() == numeroConta);
+    }
+
+    private Stream<ChavePix> noIntervalo(ConcurrentSkipListMap<Instante, UUID> indice,
+                                         LocalDateTime inicio, LocalDateTime fim) {
+        Map<Instante, UUID> faixa = fim == null
+                ? indice.tailMap(new Instante(inicio, MENOR_ID), true)
+                : indice.subMap(new Instante(inicio, MENOR_ID), true, new Instante(fim, MAIOR_ID), true);
+        return faixa.values().stream().map(porId::get).filter(Objects::nonNull);
+    }
+
+    private static List<ChavePix> filtrar(Stream<ChavePix> candidatas, Predicate<ChavePix> criterio) {
+        return candidatas.filter(criterio).map(ChavePixRepositoryMemoria::copiar).toList();
+    }
+
+    private static <K> List<Object[]> contar(Stream<ChavePix> chaves, Function<ChavePix, K> agrupamento) {
+        Map<K, Long> contagens = new HashMap<>();
+        chaves.forEach(c -> contagens.merge(agrupamento.apply(c), 1L, Long::sum));
+        List<Object[]> linhas = new ArrayList<>(contagens.size());
+        contagens.forEach((chave, quantidade) -> linhas.add(new Object[]{chave, quantidade}));
+        return linhas;
+    }
+
+    private static boolean entre(LocalDateTime data, LocalDateTime inicio, LocalDateTime fim) {
+        return data != null && !data.isBefore(inicio) && !data.isAfter(fim);
+    }
+
+    /**
+     * Converte o tipo de chave de uma consulta como o {@code TipoChaveConverter} faz no JPA: sem
+     * diferenciar maiúsculas e recusando valores desconhecidos.
+     */
+    private static TipoChave tipoDaConsulta(String tipoChave) {
+        TipoChave tipo = TipoChave.deValor(tipoChave);
+        if (tipo == null) {
+            throw new IllegalArgumentException("Valor de tipo de chave desconhecido: " + tipoChave);
+        }
+        return tipo;
+    }
+
+    /**
+     * As listas por conta são imutáveis e substituídas a cada escrita: cada conta tem poucas chaves
+     * e as leituras percorrem a lista sem cópia nem bloqueio.
+     */
+    private static List<UUID> juntar(List<UUID> atuais, List<UUID> novos) {
+        List<UUID> ids = new ArrayList<>(atuais.size() + novos.size());
+        ids.addAll(atuais);
+        ids.addAll(novos);
+        return List.copyOf(ids);
+    }
+
+    private static List<UUID> remover(List<UUID> atuais, UUID id) {
+        List<UUID> ids = new ArrayList<>(atuais);
+        ids.remove(id);
+        return ids.isEmpty() ? null : List.copyOf(ids);
+    }
+
+    private static long conta(int numeroAgencia, int numeroConta) {
+        return ((long) numeroAgencia << 32) | (numeroConta & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Aplica as restrições {@code NOT NULL} das colunas da tabela de chaves.
+     */
+    private static void validar(ChavePix chave) {
+        if (chave.getTipoChave() == null || chave.getValorChave() == null || chave.getTipoConta() == null
+                || chave.getNomeCorrentista() == null || chave.getDataHoraInclusao() == null) {
+            throw new DataIntegrityViolationException("Campo obrigatório da chave Pix não informado: " + chave);
+        }
+    }
+
+    private static boolean mesmoConteudo(ChavePix a, ChavePix b) {
+        return a.getTipoChave().equals(b.getTipoChave())
+                && a.getValorChave().equals(b.getValorChave())
+                && a.getTipoConta().equals(b.getTipoConta())
+                && a.getNumeroAgencia() == b.getNumeroAgencia()
+                && a.getNumeroConta() == b.getNumeroConta()
+                && a.getNomeCorrentista().equals(b.getNomeCorrentista())
+                && Objects.equals(a.getSobrenomeCorrentista(), b.getSobrenomeCorrentista())
+                && a.getDataHoraInclusao().equals(b.getDataHoraInclusao())
+                && Objects.equals(a.getDataHoraInativacao(), b.getDataHoraInativacao());
+    }
+
+    private static ChavePix copiar(ChavePix origem) {
+        ChavePix copia = new ChavePix();
+        copia.setId(origem.getId());
+        copia.setTipoChave(origem.getTipoChave());
+        copia.setValorChave(origem.getValorChave());
+        copia.setTipoConta(origem.getTipoConta());
+        copia.setNumeroAgencia(origem.getNumeroAgencia());
+        copia.setNumeroConta(origem.getNumeroConta());
+        copia.setNomeCorrentista(origem.getNomeCorrentista());
+        copia.setSobrenomeCorrentista(origem.getSobrenomeCorrentista());
+        copia.setDataHoraInclusao(origem.getDataHoraInclusao());
+        copia.setDataHoraInativacao(origem.getDataHoraInativacao());
+        copia.setVersion(origem.getVersion());
+        return copia;
+    }
+
+    /**
+     * Entrada dos índices por data: a data seguida do id, para manter chaves distintas com a mesma data.
+     */
+    private record Instante(LocalDateTime data, UUID id) implements Comparable<Instante> {
+        @Override
+        public int compareTo(Instante outro) {
+            int comparacao = data.compareTo(outro.data);
+            return comparacao != 0 ? comparacao : id.compareTo(outro.id);
+        }
+    }
+}
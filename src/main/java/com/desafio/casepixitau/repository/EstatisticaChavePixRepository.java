@@ -0,0 +1,10 @@
+package com.desafio.casepixitau.repository;
+
+import com.desafio.casepixitau.model.EstatisticaChavePix;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Interface de acesso ao checkpoint dos contadores de estatísticas de chaves Pix.
+ */
+public interface EstatisticaChavePixRepository extends JpaRepository<EstatisticaChavePix, String> {
+}
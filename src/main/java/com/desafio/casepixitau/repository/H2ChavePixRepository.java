@@ -1,6 +1,7 @@
 package com.desafio.casepixitau.repository;
 
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,5 +10,6 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 @Primary
+@Profile("!memoria")
 public interface H2ChavePixRepository extends ChavePixRepository {
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.desafio.casepixitau.repository;
+
+import com.desafio.casepixitau.model.ChavePix;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Ordenação de chaves Pix em memória a partir de um {@link Sort} do Spring Data, para as
+ * implementações do {@link ChavePixRepository} que não ordenam no banco: o repositório em memória
+ * e a combinação dos resultados dos shards.
+ *
+ * Segue a semântica do {@code ORDER BY}: cada critério na ordem informada, com
+ * {@code ignoreCase} nos textos e, com {@link Sort.NullHandling#NATIVE}, nulos depois dos demais
+ * valores na ordem ascendente e antes na descendente, como no PostgreSQL.
+ */
+public final class OrdenacaoChavePix {
+
+    @SuppressWarnings("rawtypes")
+    private static final Map<String, Function<ChavePix, Comparable>> PROPRIEDADES = Map.ofEntries(
+            Map.entry("id", ChavePix::getId),
+            Map.entry("tipoChave", ChavePix::getTipoChave),
+            Map.entry("valorChave", ChavePix::getValorChave),
+            Map.entry("hashValorChave", ChavePix::getHashValorChave),
+            Map.entry("tipoConta", ChavePix::getTipoConta),
+            Map.entry("numeroAgencia", ChavePix::getNumeroAgencia),
+            Map.entry("numeroConta", ChavePix::getNumeroConta),
+            Map.entry("nomeCorrentista", ChavePix::getNomeCorrentista),
+            Map.entry("sobrenomeCorrentista", ChavePix::getSobrenomeCorrentista),
+            Map.entry("dataHoraInclusao", ChavePix::getDataHoraInclusao),
+            Map.entry("dataHoraInativacao", ChavePix::getDataHoraInativacao),
+            Map.entry("version", ChavePix::getVersion));
+
+    private OrdenacaoChavePix() {
+    }
+
+    /**
+     * Cria o comparador equivalente à ordenação informada.
+     *
+     * @param sort Ordenação do Spring Data; sem critérios, todas as chaves são equivalentes.
+     * @return o comparador das chaves.
+     * @throws PropertyReferenceException se a ordenação usar uma propriedade inexistente.
+     */
+    public static Comparator<ChavePix> comparador(Sort sort) {
+        Comparator<ChavePix> comparador = (a, b) -> 0;
+        for (Sort.Order ordem : sort) {
+            comparador = comparador.thenComparing(criterio(ordem));
+        }
+        return comparador;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Comparator<ChavePix> criterio(Sort.Order ordem) {
+        Function<ChavePix, Comparable> propriedade = PROPRIEDADES.get(ordem.getProperty());
+        if (propriedade == null) {
+            throw new PropertyReferenceException(ordem.getProperty(), TypeInformation.of(ChavePix.class), List.of());
+        }
+        Comparator<Comparable> valores = ordem.isIgnoreCase()
+                ? (a, b) -> a instanceof String x && b instanceof String y
+                        ? String.CASE_INSENSITIVE_ORDER.compare(x, y) : a.compareTo(b)
+                : Comparator.naturalOrder();
+        if (ordem.isDescending()) {
+            valores = valores.reversed();
+        }
+        boolean nulosPrimeiro = switch (ordem.getNullHandling()) {
+            case NULLS_FIRST -> true;
+            case NULLS_LAST -> false;
+            case NATIVE -> ordem.isDescending();
+        };
+        return Comparator.comparing(propriedade, nulosPrimeiro ? Comparator.nullsFirst(valores) : Comparator.nullsLast(valores));
+    }
+}
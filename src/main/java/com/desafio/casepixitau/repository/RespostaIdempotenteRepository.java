@@ -0,0 +1,27 @@
+package com.desafio.casepixitau.repository;
+
+import com.desafio.casepixitau.model.RespostaIdempotente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface de acesso às respostas armazenadas para requisições idempotentes.
+ */
+public interface RespostaIdempotenteRepository extends JpaRepository<RespostaIdempotente, String> {
+
+    /**
+     * Remove as respostas expiradas.
+     *
+     * @param limite Data e hora de referência.
+     * @return Quantidade de respostas removidas.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RespostaIdempotente r WHERE r.dataHoraExpiracao < :limite")
+    int removerExpiradas(@Param("limite") LocalDateTime limite);
+}
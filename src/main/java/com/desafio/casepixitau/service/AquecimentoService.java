@@ -0,0 +1,219 @@
+package com.desafio.casepixitau.service;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.ConsultaLoteRequestDTO;
+import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aquecimento da aplicação antes de ela passar a receber tráfego.
+ *
+ * Executado como {@link ApplicationRunner}, antes do {@code ApplicationReadyEvent}: enquanto ele
+ * roda, o estado de prontidão continua {@code REFUSING_TRAFFIC} e o probe
+ * {@code /actuator/health/readiness} responde 503. O aquecimento
+ * abre as conexões do pool do banco principal e executa consultas sintéticas pelo
+ * {@link ChavePixService} e pelo {@link ChavePixRepository}, para que a compilação JIT, os planos
+ * das consultas do Hibernate e os comandos preparados do driver não recaiam sobre as primeiras
+ * requisições.
+ *
+ * O aquecimento é somente leitura: as consultas usam ids, valores (domínio reservado
+ * {@code .invalid}) e contas que não existem, e nenhuma chave é gravada. Assim, nenhum evento de
+ * mutação é publicado e nada precisa ser desfeito, inclusive nos repositórios que não participam de
+ * transações (em memória e fragmentado). Do caminho de escrita, apenas a validação do formato da
+ * chave é exercitada. O cache de consultas é limpo ao final, pois guardou os resultados vazios das
+ * consultas sintéticas.
+ *
+ * As consultas pelo {@link ChavePixService} rodam fora de transação, como as das requisições, e
+ * passam pelos compartimentos (que executam na própria thread quando há transação ativa), aquecendo
+ * também as suas threads. As consultas diretas ao repositório rodam em uma transação somente leitura.
+ *
+ * As consultas sem filtro seletivo (por tipo de chave, por nome e as contagens por tipo e por
+ * agência) percorrem a tabela e só rodam com {@code pix.aquecimento.varredura-por-tipo=true}.
+ * Desligado por padrão ({@code pix.aquecimento.enabled}).
+ */
+@Service
+@ConditionalOnProperty(name = "pix.aquecimento.enabled", havingValue = "true")
+public class AquecimentoService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AquecimentoService.class);
+
+    static final String DOMINIO_SINTETICO = "@aquecimento.invalid";
+    static final int AGENCIA_SINTETICA = 9999;
+    private static final int CONTA_SINTETICA = 99_000_000;
+
+    private final ChavePixService service;
+    private final ConsultaLoteService consultaLote;
+    private final ChavePixRepository repository;
+    private final CacheConsultas cache;
+    private final DataSource dataSource;
+    private final TransactionTemplate transacao;
+    private final int iteracoes;
+    private final int conexoes;
+    private final boolean varreduraPorTipo;
+    private final AtomicLong duracaoMs = new AtomicLong(-1);
+
+    /**
+     * Construtor do serviço de aquecimento.
+     *
+     * @param service            Serviço de chaves Pix exercitado pelo tráfego sintético.
+     * @param consultaLote       Serviço de consulta em lote.
+     * @param repository         Repositório de chaves Pix.
+     * @param cache              Cache de consultas, limpo ao final.
+     * @param dataSource         DataSource do banco principal.
+     * @param transactionManager Gerenciador da transação somente leitura das consultas diretas ao repositório.
+     * @param iteracoes          Quantidade de ciclos de consultas sintéticas.
+     * @param conexoes           Conexões abertas no pool antes do tráfego sintético.
+     * @param varreduraPorTipo   Indica se as consultas sem filtro seletivo (tipo, nome, contagens) são executadas.
+     * @param meterRegistry      Registro de métricas.
+     */
+    public AquecimentoService(ChavePixService service, ConsultaLoteService consultaLote,
+                              ChavePixRepository repository, CacheConsultas cache, DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${pix.aquecimento.iteracoes:100}") int iteracoes,
+                              @Value("${pix.aquecimento.conexoes:${spring.datasource.hikari.maximum-pool-size:10}}") int conexoes,
+                              @Value("${pix.aquecimento.varredura-por-tipo:false}") boolean varreduraPorTipo,
+                              MeterRegistry meterRegistry) {
+        this.service = service;
+        this.consultaLote = consultaLote;
+        this.repository = repository;
+        this.cache = cache;
+        this.dataSource = dataSource;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setReadOnly(true);
+        this.iteracoes = iteracoes;
+        this.conexoes = conexoes;
+        this.varreduraPorTipo = varreduraPorTipo;
+        Gauge.builder("pix.aquecimento.duracao", duracaoMs, AtomicLong::get)
+                .description("Duração do aquecimento na inicialização, em milissegundos (-1 enquanto não concluído)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa o aquecimento. Uma falha é registrada no log e não impede a inicialização: a
+     * aplicação passa a receber tráfego sem aquecimento.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        long inicio = System.nanoTime();
+        String lote = UUID.randomUUID().toString().substring(0, 8);
+        List<UUID> ids = new ArrayList<>();
+        List<String> valores = new ArrayList<>();
+        int abertas = 0;
+        try {
+            abertas = abrirConexoes();
+            exercitarServico(lote, ids, valores);
+            transacao.executeWithoutResult(status -> exercitarRepositorio(lote, valores));
+            ConsultaLoteRequestDTO porId = new ConsultaLoteRequestDTO();
+            porId.setIds(ids);
+            consultaLote.consultar(porId);
+            ConsultaLoteRequestDTO porValor = new ConsultaLoteRequestDTO();
+            porValor.setValoresChave(valores);
+            consultaLote.consultar(porValor);
+        } catch (RuntimeException e) {
+            log.warn("Aquecimento interrompido; a aplicação passa a receber tráfego sem aquecimento completo.", e);
+        } finally {
+            cache.limpar();
+        }
+        long duracao = (System.nanoTime() - inicio) / 1_000_000;
+        duracaoMs.set(duracao);
+        log.info("Aquecimento concluído em {} ms: {} conexões abertas, {} ciclos de consultas sintéticas.",
+                duracao, abertas, ids.size());
+    }
+
+    /**
+     * Abre ao mesmo tempo as conexões do pool, para que nenhuma requisição aguarde a criação de
+     * uma conexão física.
+     *
+     * @return a quantidade de conexões abertas.
+     */
+    private int abrirConexoes() {
+        List<Connection> abertas = new ArrayList<>();
+        try {
+            for (int i = 0; i < conexoes; i++) {
+                abertas.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Pool aquecido com {} de {} conexões: {}", abertas.size(), conexoes, e.getMessage());
+        } finally {
+            for (Connection conexao : abertas) {
+                try {
+                    conexao.close();
+                } catch (SQLException e) {
+                    log.debug("Falha ao devolver conexão ao pool", e);
+                }
+            }
+        }
+        return abertas.size();
+    }
+
+    private void exercitarServico(String lote, List<UUID> ids, List<String> valores) {
+        String nome = "Aquecimento " + lote;
+        for (int i = 0; i < iteracoes; i++) {
+            int conta = CONTA_SINTETICA + i;
+            String valor = "aquecimento-" + lote + "-" + i + DOMINIO_SINTETICO;
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            valores.add(valor);
+            ChavePixService.validarFormatoChave(new ChavePixRequestDTO("email", valor, "corrente",
+                    AGENCIA_SINTETICA, conta, nome, null));
+            try {
+                service.consultarPorId(id);
+            } catch (ChavePixException e) {
+                // Esperado: o id sintético não existe.
+            }
+            service.consultarPorValor(valor);
+            service.consultarPorFiltros("email", null, AGENCIA_SINTETICA, conta, null, null);
+            service.consultarPorFiltros(null, valor, null, null, null, null);
+        }
+        service.consultarPorData(LocalDate.now(), null);
+        service.consultarPorData(null, LocalDate.now());
+        if (varreduraPorTipo) {
+            service.consultarPorTipoChave("email");
+        }
+    }
+
+    /**
+     * Consultas diretas ao repositório. As por conta e por nome não passam pelo serviço, pois as
+     * dele escrevem o resultado no console.
+     */
+    private void exercitarRepositorio(String lote, List<String> valores) {
+        for (int i = 0; i < iteracoes; i++) {
+            repository.countByNumeroAgenciaAndNumeroContaAndDataHoraInativacaoIsNull(AGENCIA_SINTETICA, CONTA_SINTETICA + i);
+        }
+        LocalDateTime inicioDoDia = LocalDate.now().atStartOfDay();
+        repository.findByNumeroAgenciaAndNumeroConta(AGENCIA_SINTETICA, CONTA_SINTETICA);
+        repository.findByValorChaveIn(valores);
+        repository.contarAtivasPorConta(Set.of(AGENCIA_SINTETICA), Set.of(CONTA_SINTETICA));
+        repository.countByNumeroAgenciaAndNumeroConta(AGENCIA_SINTETICA, CONTA_SINTETICA);
+        repository.contarInclusoesPorDia(inicioDoDia);
+        repository.contarInativacoesPorDia(inicioDoDia);
+        if (varreduraPorTipo) {
+            repository.findByNomeCorrentistaContainingIgnoreCase("Aquecimento " + lote);
+            repository.contarAtivasPorTipoChave();
+            repository.contarAtivasPorAgencia();
+        }
+    }
+
+}
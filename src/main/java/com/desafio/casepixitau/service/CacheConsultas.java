@@ -0,0 +1,383 @@
+package com.desafio.casepixitau.service;
+
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.TipoChave;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cache dos resultados das consultas de chaves Pix por filtros, por data, por tipo de chave e por
+ * agência e conta.
+ *
+ * Cada entrada é identificada pelo tipo de consulta e pelos parâmetros normalizados e marcada com
+ * as tags (agência/conta, tipo, datas etc.) das chaves que podem fazer parte do resultado. Cada
+ * mutação confirmada remove apenas as entradas marcadas com as tags da chave alterada, no estado
+ * anterior e no novo. Uma consulta que estava em execução durante a remoção de uma de suas tags
+ * não é guardada, para não recolocar no cache um resultado anterior à mutação.
+ *
+ * A memória é limitada pelo peso total das entradas (quantidade de chaves dos resultados), com
+ * remoção das menos usadas recentemente, e cada entrada expira após {@code pix.cache-consultas.ttl-ms},
+ * o que limita a defasagem em relação a mutações feitas por outras instâncias.
+ *
+ * Os acertos não usam o lock: a entrada é lida de um {@link ConcurrentHashMap} e o acesso é
+ * registrado em um buffer, aplicado à ordem de uso sob o lock na próxima inclusão ou remoção.
+ * Com o buffer cheio, os acessos seguintes são descartados até a próxima aplicação, o que torna a
+ * ordem de remoção por peso aproximada sob contenção.
+ */
+@Component
+public class CacheConsultas {
+
+    static final String TAG_GERAL = "geral";
+
+    private static final int FAIXAS_INVALIDACAO = 1024;
+    private static final int ACESSOS_PENDENTES_MAXIMO = 1024;
+
+    private final boolean habilitado;
+    private final long pesoMaximo;
+    private final long ttlNanos;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<ChaveConsulta, Entrada> entradas = new ConcurrentHashMap<>(256);
+    private final ConcurrentLinkedQueue<ChaveConsulta> acessos = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger acessosPendentes = new AtomicInteger();
+
+    // Estado protegido pelo lock: ordem de uso, índice por tag, invalidações e peso.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<ChaveConsulta, Entrada> ordem = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Set<ChaveConsulta>> porTag = new HashMap<>();
+    private final long[] invalidacoes = new long[FAIXAS_INVALIDACAO];
+    private volatile long sequencia;
+    private long peso;
+
+    private final ConcurrentHashMap<String, Metricas> metricas = new ConcurrentHashMap<>();
+
+    /**
+     * Construtor do cache.
+     *
+     * @param habilitado    Indica se os resultados são guardados.
+     * @param pesoMaximo    Soma máxima da quantidade de chaves dos resultados guardados.
+     * @param ttlMs         Tempo máximo de permanência de uma entrada.
+     * @param meterRegistry Registro de métricas.
+     */
+    public CacheConsultas(@Value("${pix.cache-consultas.enabled:true}") boolean habilitado,
+                          @Value("${pix.cache-consultas.peso-maximo:200000}") long pesoMaximo,
+                          @Value("${pix.cache-consultas.ttl-ms:30000}") long ttlMs,
+                          MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.pesoMaximo = pesoMaximo;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("pix.cache-consultas.peso", this, CacheConsultas::getPeso)
+                .description("Quantidade de chaves nos resultados guardados no cache de consultas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retorna o resultado guardado da consulta ou a executa e guarda o resultado.
+     *
+     * @param consulta   Tipo da consulta, usado como tag das métricas.
+     * @param parametros Parâmetros normalizados da consulta.
+     * @param tags       Tags das chaves que podem fazer parte do resultado.
+     * @param execucao   Execução da consulta no repositório.
+     * @return o resultado da consulta, não modificável.
+     */
+    public List<ChavePixResponseDTO> obter(String consulta, List<?> parametros, Set<String> tags,
+                                           Supplier<List<ChavePixResponseDTO>> execucao) {
+        if (!habilitado) {
+            return execucao.get();
+        }
+        Metricas contadores = metricas(consulta);
+        ChaveConsulta chave = new ChaveConsulta(consulta, parametros);
+        // Lida antes da execução: uma invalidação posterior impede que o resultado seja guardado.
+        long inicio = sequencia;
+
+        Entrada entrada = entradas.get(chave);
+        if (entrada != null && System.nanoTime() - entrada.criadaEm() < ttlNanos) {
+            registrarAcesso(chave);
+            contadores.acertos.increment();
+            return entrada.resultado();
+        }
+        if (entrada != null) {
+            removerExpirada(chave, entrada);
+        }
+
+        contadores.faltas.increment();
+        List<ChavePixResponseDTO> resultado = List.copyOf(execucao.get());
+        guardar(chave, tags, resultado, inicio);
+        return resultado;
+    }
+
+    /**
+     * Remove as entradas afetadas pela mutação confirmada de uma chave Pix.
+     *
+     * @param evento Evento de mutação da chave Pix.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChavePixEvento(ChavePixEvento evento) {
+        if (habilitado) {
+            invalidar(tagsDaMutacao(evento));
+        }
+    }
+
+    /**
+     * Remove as entradas marcadas com alguma das tags informadas.
+     *
+     * @param tags Tags afetadas.
+     */
+    public void invalidar(Set<String> tags) {
+        lock.lock();
+        try {
+            sequencia++;
+            for (String tag : tags) {
+                invalidacoes[faixa(tag)] = sequencia;
+                Set<ChaveConsulta> marcadas = porTag.get(tag);
+                if (marcadas != null) {
+                    for (ChaveConsulta chave : new ArrayList<>(marcadas)) {
+                        remover(chave);
+                        metricas(chave.consulta()).invalidacoes.increment();
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove as entradas que podem conter as chaves informadas, retiradas da tabela de chaves sem
+     * evento de mutação (arquivamento).
+     *
+     * @param chaves Chaves retiradas.
+     */
+    public void invalidarChaves(Collection<ChavePix> chaves) {
+        if (!habilitado || chaves.isEmpty()) {
+            return;
+        }
+        Set<String> tags = new HashSet<>();
+        for (ChavePix chave : chaves) {
+            adicionarTags(tags, chave);
+        }
+        invalidar(tags);
+    }
+
+    /**
+     * Remove todas as entradas. Consultas em execução durante a limpeza não são guardadas.
+     */
+    public void limpar() {
+        lock.lock();
+        try {
+            sequencia++;
+            Arrays.fill(invalidacoes, sequencia);
+            entradas.clear();
+            ordem.clear();
+            porTag.clear();
+            acessos.clear();
+            acessosPendentes.set(0);
+            peso = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getPeso() {
+        lock.lock();
+        try {
+            return peso;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void guardar(ChaveConsulta chave, Set<String> tags, List<ChavePixResponseDTO> resultado, long inicio) {
+        long pesoEntrada = 1L + resultado.size();
+        if (pesoEntrada > pesoMaximo) {
+            return;
+        }
+        lock.lock();
+        try {
+            // Uma tag removida durante a execução torna o resultado possivelmente anterior à mutação.
+            for (String tag : tags) {
+                if (invalidacoes[faixa(tag)] > inicio) {
+                    return;
+                }
+            }
+            aplicarAcessos();
+            remover(chave);
+            Entrada entrada = new Entrada(resultado, Set.copyOf(tags), pesoEntrada, System.nanoTime());
+            ordem.put(chave, entrada);
+            entradas.put(chave, entrada);
+            for (String tag : tags) {
+                porTag.computeIfAbsent(tag, t -> new HashSet<>()).add(chave);
+            }
+            peso += pesoEntrada;
+
+            Iterator<Map.Entry<ChaveConsulta, Entrada>> menosUsadas = ordem.entrySet().iterator();
+            while (peso > pesoMaximo && menosUsadas.hasNext()) {
+                Map.Entry<ChaveConsulta, Entrada> antiga = menosUsadas.next();
+                menosUsadas.remove();
+                entradas.remove(antiga.getKey());
+                desindexar(antiga.getKey(), antiga.getValue());
+                metricas(antiga.getKey().consulta()).remocoesPorPeso.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra o acesso de um acerto, sem bloquear. Com o buffer cheio, tenta aplicá-lo se o lock
+     * estiver livre; caso contrário, o acesso é descartado.
+     */
+    private void registrarAcesso(ChaveConsulta chave) {
+        if (acessosPendentes.incrementAndGet() <= ACESSOS_PENDENTES_MAXIMO) {
+            acessos.offer(chave);
+            return;
+        }
+        acessosPendentes.decrementAndGet();
+        if (lock.tryLock()) {
+            try {
+                aplicarAcessos();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Move as entradas acessadas para o fim da ordem de uso. Deve ser chamado com o lock.
+     */
+    private void aplicarAcessos() {
+        ChaveConsulta chave;
+        while ((chave = acessos.poll()) != null) {
+            acessosPendentes.decrementAndGet();
+            ordem.get(chave);
+        }
+    }
+
+    private void removerExpirada(ChaveConsulta chave, Entrada entrada) {
+        lock.lock();
+        try {
+            if (ordem.get(chave) == entrada) {
+                remover(chave);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remover(ChaveConsulta chave) {
+        Entrada entrada = ordem.remove(chave);
+        if (entrada != null) {
+            entradas.remove(chave);
+            desindexar(chave, entrada);
+        }
+    }
+
+    private void desindexar(ChaveConsulta chave, Entrada entrada) {
+        peso -= entrada.peso();
+        for (String tag : entrada.tags()) {
+            Set<ChaveConsulta> marcadas = porTag.get(tag);
+            if (marcadas != null && marcadas.remove(chave) && marcadas.isEmpty()) {
+                porTag.remove(tag);
+            }
+        }
+    }
+
+    private static int faixa(String tag) {
+        return (tag.hashCode() & 0x7fffffff) % FAIXAS_INVALIDACAO;
+    }
+
+    private Metricas metricas(String consulta) {
+        return metricas.computeIfAbsent(consulta, c -> new Metricas(
+                contador("pix.cache-consultas.acessos", c, "resultado", "acerto"),
+                contador("pix.cache-consultas.acessos", c, "resultado", "falta"),
+                contador("pix.cache-consultas.remocoes", c, "motivo", "invalidacao"),
+                contador("pix.cache-consultas.remocoes", c, "motivo", "peso")));
+    }
+
+    private Counter contador(String nome, String consulta, String tag, String valor) {
+        return Counter.builder(nome).tag("consulta", consulta).tag(tag, valor).register(meterRegistry);
+    }
+
+    static String tagTipo(String tipoChave) {
+        TipoChave tipo = TipoChave.deValor(tipoChave);
+        return "tipo:" + (tipo != null ? tipo.getValor() : String.valueOf(tipoChave).toLowerCase(Locale.ROOT));
+    }
+
+    static String tagValor(String valorChave) {
+        return "valor:" + valorChave;
+    }
+
+    static String tagConta(int agencia, int conta) {
+        return "conta:" + agencia + "/" + conta;
+    }
+
+    static String tagAgencia(int agencia) {
+        return "agencia:" + agencia;
+    }
+
+    static String tagInclusao(LocalDate data) {
+        return "inclusao:" + data;
+    }
+
+    static String tagInativacao(LocalDate data) {
+        return "inativacao:" + data;
+    }
+
+    private static Set<String> tagsDaMutacao(ChavePixEvento evento) {
+        Set<String> tags = new HashSet<>();
+        adicionarTags(tags, evento.getChave());
+        ChavePixResponseDTO anterior = evento.getAnterior();
+        if (anterior != null) {
+            tags.add(tagConta(anterior.getNumeroAgencia(), anterior.getNumeroConta()));
+            tags.add(tagAgencia(anterior.getNumeroAgencia()));
+        }
+        return tags;
+    }
+
+    private static void adicionarTags(Set<String> tags, ChavePix chave) {
+        tags.add(TAG_GERAL);
+        tags.add(tagTipo(chave.getTipoChave()));
+        tags.add(tagValor(chave.getValorChave()));
+        tags.add(tagConta(chave.getNumeroAgencia(), chave.getNumeroConta()));
+        tags.add(tagAgencia(chave.getNumeroAgencia()));
+        tags.add(tagInclusao(chave.getDataHoraInclusao().toLocalDate()));
+        if (chave.getDataHoraInativacao() != null) {
+            tags.add(tagInativacao(chave.getDataHoraInativacao().toLocalDate()));
+        }
+    }
+
+    private record ChaveConsulta(String consulta, List<?> parametros) {
+    }
+
+    private record Entrada(List<ChavePixResponseDTO> resultado, Set<String> tags, long peso, long criadaEm) {
+    }
+
+    private record Metricas(Counter acertos, Counter faltas, Counter invalidacoes, Counter remocoesPorPeso) {
+    }
+}
@@ -1,18 +1,28 @@
 package com.desafio.casepixitau.service;
 
+import com.desafio.casepixitau.compartimento.Compartimento;
+import com.desafio.casepixitau.compartimento.TipoCompartimento;
 import com.desafio.casepixitau.dto.ChavePixAlteracaoDTO;
 import com.desafio.casepixitau.dto.ChavePixRequestDTO;
 import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.event.ChavePixEvento;
 import com.desafio.casepixitau.exception.ChavePixException;
 import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.ChavePixArquivada;
+import com.desafio.casepixitau.repository.ChavePixArquivadaRepository;
 import com.desafio.casepixitau.repository.ChavePixRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -22,15 +32,36 @@ import java.util.stream.Collectors;
 @Service
 public class ChavePixService {
 
+    static final int LIMITE_CHAVES_POR_CONTA = 5;
+    static final String MENSAGEM_CHAVE_DUPLICADA = "O valor da chave já está cadastrado.";
+    static final String MENSAGEM_LIMITE_CHAVES = "Limite de chaves atingido para esta conta.";
+
+    private static final Pattern FORMATO_CPF = Pattern.compile("\\d{11}");
+    private static final Pattern FORMATO_CELULAR = Pattern.compile("\\+\\d{1,2}\\d{2,3}\\d{9}");
+
     private final ChavePixRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConsultasCompartilhadas consultas;
+    private final CacheConsultas cache;
+    private final ChavePixArquivadaRepository arquivo;
 
     /**
      * Construtor para injeção de dependência do repositório.
      *
-     * @param repository o repositório para gerenciar as entidades de Chave Pix.
+     * @param repository     o repositório para gerenciar as entidades de Chave Pix.
+     * @param eventPublisher publicador dos eventos de mutação das chaves Pix.
+     * @param consultas      consultas por id e por valor compartilhadas entre requisições concorrentes.
+     * @param cache          cache dos resultados das consultas por filtros, data, tipo e conta.
+     * @param arquivo        arquivo das chaves inativadas há mais tempo que o período de retenção.
      */
-    public ChavePixService(ChavePixRepository repository) {
+    public ChavePixService(ChavePixRepository repository, ApplicationEventPublisher eventPublisher,
+                           ConsultasCompartilhadas consultas, CacheConsultas cache,
+                           ChavePixArquivadaRepository arquivo) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.consultas = consultas;
+        this.cache = cache;
+        this.arquivo = arquivo;
     }
 
     /**
@@ -39,97 +70,103 @@ public class ChavePixService {
      * @param dto o DTO contendo os detalhes da chave Pix a ser criada.
      * @return um DTO de resposta com os detalhes da chave salva.
      */
+    @Compartimento(TipoCompartimento.ESCRITA)
+    @Transactional
     public ChavePixResponseDTO incluir(ChavePixRequestDTO dto) {
+        validarFormatoChave(dto);  // Valida o formato da chave conforme o tipo, antes de consultar o banco.
         validarChaveUnica(dto.getValorChave()); // Valida se a chave é única.
         validarLimiteDeChaves(dto); // Valida se o limite de chaves foi atingido.
-        validarFormatoChave(dto);  // Valida o formato da chave conforme o tipo.
 
-        ChavePix chavePix = new ChavePix();
-        chavePix.setTipoChave(dto.getTipoChave());
-        chavePix.setValorChave(dto.getValorChave());
-        chavePix.setTipoConta(dto.getTipoConta());
-        chavePix.setNumeroAgencia(dto.getNumeroAgencia());
-        chavePix.setNumeroConta(dto.getNumeroConta());
-        chavePix.setNomeCorrentista(dto.getNomeCorrentista());
-        chavePix.setSobrenomeCorrentista(dto.getSobrenomeCorrentista());
-        chavePix.setDataHoraInclusao(LocalDateTime.now()); // Define a data/hora de inclusão.
-
-        ChavePix savedChavePix = repository.save(chavePix); // Persiste a nova chave Pix.
+        ChavePix savedChavePix = repository.save(novaChave(dto)); // Persiste a nova chave Pix.
+        eventPublisher.publishEvent(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, savedChavePix, null));
 
         return toResponseDTO(savedChavePix);
     }
 
     /**
-     * Consulta uma chave Pix pelo seu ID.
+     * Consulta uma chave Pix pelo seu ID. Consultas concorrentes pelo mesmo ID compartilham
+     * uma única ida ao repositório.
+     *
+     * Uma chave ausente da tabela de chaves é procurada no arquivo, na mesma transação somente
+     * leitura. Como a conexão é obtida pelo {@code LazyConnectionDataSourceProxy} apenas no
+     * primeiro comando SQL, as requisições que aguardam a consulta em andamento não retêm
+     * conexões do pool.
      *
      * @param id o identificador único da chave Pix.
      * @return um DTO de resposta com os detalhes da chave encontrada.
      */
+    @Compartimento(TipoCompartimento.LEITURA_PONTUAL)
+    @Transactional(readOnly = true)
     public ChavePixResponseDTO consultarPorId(UUID id) {
-        ChavePix chave = repository.findById(id)
+        return consultas.porId().executar(id, () -> repository.findById(id).map(ChavePixService::toResponseDTO)
+                        .or(() -> arquivo.findById(id).map(ChavePixService::toResponseDTO)))
                 .orElseThrow(() -> new ChavePixException("Chave PIX não encontrada para o ID informado."));
-        return toResponseDTO(chave);
     }
 
     /**
-     * Consulta todas as chaves Pix de um tipo específico.
+     * Consulta todas as chaves Pix de um tipo específico. O resultado é mantido no
+     * {@link CacheConsultas} até a próxima mutação de uma chave do mesmo tipo.
      *
      * @param tipoChave o tipo da chave Pix (ex.: CPF, e-mail).
      * @return uma lista de DTOs de resposta com os detalhes das chaves encontradas.
      */
+    @Compartimento(TipoCompartimento.VARREDURA)
+    @Transactional(readOnly = true)
     public List<ChavePixResponseDTO> consultarPorTipoChave(String tipoChave) {
-        List<ChavePix> chaves = repository.findByTipoChave(tipoChave);
-        return chaves.stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+        return cache.obter("tipo", Arrays.asList(tipoChave), Set.of(CacheConsultas.tagTipo(tipoChave)),
+                () -> repository.findByTipoChave(tipoChave).stream()
+                        .map(ChavePixService::toResponseDTO)
+                        .collect(Collectors.toList()));
     }
 
     /**
-     * Consulta todas as chaves Pix associadas a uma agência e conta específicas.
+     * Consulta todas as chaves Pix associadas a uma agência e conta específicas. O resultado é
+     * mantido no {@link CacheConsultas} até a próxima mutação de uma chave da conta.
      *
      * @param agencia o número da agência.
      * @param conta   o número da conta.
      * @return uma lista de DTOs de resposta com os detalhes das chaves encontradas.
      */
+    @Compartimento(TipoCompartimento.VARREDURA)
+    @Transactional(readOnly = true)
     public List<ChavePixResponseDTO> consultarPorAgenciaEConta(int agencia, int conta) {
-        List<ChavePix> chaves = repository.findByNumeroAgenciaAndNumeroConta(agencia, conta);
+        return cache.obter("conta", List.of(agencia, conta), Set.of(CacheConsultas.tagConta(agencia, conta)), () -> {
+            List<ChavePix> chaves = repository.findByNumeroAgenciaAndNumeroConta(agencia, conta);
 
-        System.out.println("🔍 Consulta por Agência e Conta retornou: " + chaves);
+            System.out.println("🔍 Consulta por Agência e Conta retornou: " + chaves);
 
-        return chaves.stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+            return chaves.stream()
+                    .map(ChavePixService::toResponseDTO)
+                    .collect(Collectors.toList());
+        });
     }
 
     /**
-     * Consulta todas as chaves Pix criadas ou inativadas dentro de um intervalo de datas.
+     * Consulta todas as chaves Pix criadas ou inativadas dentro de um intervalo de datas. O
+     * resultado é mantido no {@link CacheConsultas} até a próxima mutação de uma chave do dia. A
+     * consulta por data de inativação inclui as chaves arquivadas.
      *
      * @param dataInclusao   data de inclusão para filtro (opcional).
      * @param dataInativacao data de inativação para filtro (opcional).
      * @return uma lista de DTOs de resposta com os detalhes das chaves encontradas.
      */
+    @Compartimento(TipoCompartimento.VARREDURA)
+    @Transactional(readOnly = true)
     public List<ChavePixResponseDTO> consultarPorData(LocalDate dataInclusao, LocalDate dataInativacao) {
-        List<ChavePix> chaves;
-
         if (dataInclusao != null && dataInativacao != null) {
             throw new ChavePixException("Não é permitido informar ambas as datas.");
         } else if (dataInclusao != null) {
-            chaves = repository.findByDataHoraInclusaoBetween(
-                    dataInclusao.atStartOfDay(),
-                    dataInclusao.plusDays(1).atStartOfDay()
-            );
+            return cache.obter("inclusao", List.of(dataInclusao), Set.of(CacheConsultas.tagInclusao(dataInclusao)),
+                    () -> repository.findByDataHoraInclusaoBetween(
+                            dataInclusao.atStartOfDay(),
+                            dataInclusao.plusDays(1).atStartOfDay()
+                    ).stream().map(ChavePixService::toResponseDTO).collect(Collectors.toList()));
         } else if (dataInativacao != null) {
-            chaves = repository.findByDataHoraInativacaoBetween(
-                    dataInativacao.atStartOfDay(),
-                    dataInativacao.plusDays(1).atStartOfDay()
-            );
+            return cache.obter("inativacao", List.of(dataInativacao), Set.of(CacheConsultas.tagInativacao(dataInativacao)),
+                    () -> consultarInativadasEntre(dataInativacao.atStartOfDay(), dataInativacao.plusDays(1).atStartOfDay()));
         } else {
             throw new ChavePixException("Data de inclusão ou inativação deve ser informada.");
         }
-
-        return chaves.stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
     }
 
     /**
@@ -139,9 +176,15 @@ public class ChavePixService {
      * @param dto o DTO contendo os novos dados da chave Pix.
      * @return um DTO de resposta com os dados atualizados da chave Pix.
      */
+    @Compartimento(TipoCompartimento.ESCRITA)
+    @Transactional
     public ChavePixResponseDTO alterar(UUID id, ChavePixAlteracaoDTO dto) {
         // Lógica para alterar os dados da chave PIX
-        ChavePix chaveExistente = repository.findById(id)
+        Optional<ChavePix> encontrada = repository.findById(id);
+        if (encontrada.isEmpty() && arquivo.existsById(id)) {
+            throw new ChavePixException("Chave Pix com ID " + id + " está inativa e não pode ser alterada.");
+        }
+        ChavePix chaveExistente = encontrada
                 .orElseThrow(() -> new ChavePixException("Chave Pix não encontrada com o ID: " + id));
 
         // Verifique se a chave está ativa antes de permitir alteração
@@ -149,6 +192,8 @@ public class ChavePixService {
             throw new ChavePixException("Chave Pix com ID " + id + " está inativa e não pode ser alterada.");
         }
 
+        ChavePixResponseDTO anterior = toResponseDTO(chaveExistente);
+
         // Atualiza os campos que podem ser alterados
         chaveExistente.setTipoConta(dto.getTipoConta());
         chaveExistente.setNumeroAgencia(dto.getNumeroAgencia());
@@ -158,77 +203,65 @@ public class ChavePixService {
 
         // Salva a chave atualizada
         ChavePix chaveAtualizada = repository.save(chaveExistente);
+        eventPublisher.publishEvent(new ChavePixEvento(ChavePixEvento.Tipo.ALTERACAO, chaveAtualizada, anterior));
         return toResponseDTO(chaveAtualizada);
     }
 
 
-    private void validarTipoConta(String tipoConta) {
-        if (tipoConta == null || tipoConta.isEmpty()) {
-            throw new ChavePixException("Tipo da conta é obrigatório.");
-        }
-        if (!(tipoConta.equals("corrente") || tipoConta.equals("poupanca"))) {
-            throw new ChavePixException("Tipo da conta deve ser 'corrente' ou 'poupanca'.");
-        }
-        if (tipoConta.length() > 10) {
-            throw new ChavePixException("Tipo da conta não pode ter mais de 10 caracteres.");
-        }
-    }
-
-    private void validarNumeroAgencia(int numeroAgencia) {
-        if (numeroAgencia <= 0 || numeroAgencia > 9999) {
-            throw new ChavePixException("Número da agência deve ser um valor numérico positivo e no máximo 4 dígitos.");
-        }
-    }
-
-    private void validarNumeroConta(int numeroConta) {
-        if (numeroConta <= 0 || numeroConta > 99999999) {
-            throw new ChavePixException("Número da conta deve ser um valor numérico positivo e no máximo 8 dígitos.");
-        }
-    }
-
-    private void validarNomeCorrentista(String nomeCorrentista) {
-        if (nomeCorrentista == null || nomeCorrentista.isEmpty()) {
-            throw new ChavePixException("Nome do correntista é obrigatório.");
-        }
-        if (nomeCorrentista.length() > 30) {
-            throw new ChavePixException("Nome do correntista não pode ter mais de 30 caracteres.");
-        }
-    }
-
-    private void validarSobrenomeCorrentista(String sobrenomeCorrentista) {
-        if (sobrenomeCorrentista != null && sobrenomeCorrentista.length() > 45) {
-            throw new ChavePixException("Sobrenome do correntista não pode ter mais de 45 caracteres.");
-        }
-    }
-
-
     /**
      * Inativa uma chave Pix ativa existente.
      *
      * @param id o identificador único da chave a ser inativada.
      * @return um DTO de resposta com os dados atualizados da chave inativada.
      */
+    @Compartimento(TipoCompartimento.ESCRITA)
+    @Transactional
     public ChavePixResponseDTO inativar(UUID id) {
         // Buscar a chave no repositório
-        ChavePix chave = repository.findById(id)
-                .orElseThrow(() -> new ChavePixException("Chave Pix não encontrada."));
+        Optional<ChavePix> encontrada = repository.findById(id);
+        if (encontrada.isEmpty() && arquivo.existsById(id)) {
+            throw new ChavePixException("A chave já foi desativada.");
+        }
+        ChavePix chave = encontrada.orElseThrow(() -> new ChavePixException("Chave Pix não encontrada."));
 
         // Verificar se a chave já está inativada
         if (chave.getDataHoraInativacao() != null) {
             throw new ChavePixException("A chave já foi desativada.");
         }
 
+        ChavePixResponseDTO anterior = toResponseDTO(chave);
+
         // Registrar a data e hora da solicitação de desativação
         chave.setDataHoraInativacao(LocalDateTime.now());
 
         // Salvar a chave inativada
         ChavePix chaveInativada = repository.save(chave);
+        eventPublisher.publishEvent(new ChavePixEvento(ChavePixEvento.Tipo.INATIVACAO, chaveInativada, anterior));
 
         // Retornar resposta com a data de inativação também no payload
         return toResponseDTO(chaveInativada);
     }
 
 
+    /**
+     * Cria a entidade de uma nova chave Pix a partir da requisição, com a data/hora de inclusão atual.
+     *
+     * @param dto o DTO contendo os detalhes da chave Pix.
+     * @return a entidade ainda não persistida.
+     */
+    static ChavePix novaChave(ChavePixRequestDTO dto) {
+        ChavePix chavePix = new ChavePix();
+        chavePix.setTipoChave(dto.getTipoChave());
+        chavePix.setValorChave(dto.getValorChave());
+        chavePix.setTipoConta(dto.getTipoConta());
+        chavePix.setNumeroAgencia(dto.getNumeroAgencia());
+        chavePix.setNumeroConta(dto.getNumeroConta());
+        chavePix.setNomeCorrentista(dto.getNomeCorrentista());
+        chavePix.setSobrenomeCorrentista(dto.getSobrenomeCorrentista());
+        chavePix.setDataHoraInclusao(LocalDateTime.now()); // Define a data/hora de inclusão.
+        return chavePix;
+    }
+
     /**
      * Valida que o valor informado para a chave Pix é único no sistema.
      *
@@ -237,7 +270,7 @@ public class ChavePixService {
     private void validarChaveUnica(String valorChave) {
         Optional<ChavePix> existente = repository.findByValorChave(valorChave);
         if (existente.isPresent()) {
-            throw new ChavePixException("O valor da chave já está cadastrado.");
+            throw new ChavePixException(MENSAGEM_CHAVE_DUPLICADA);
         }
     }
 
@@ -252,8 +285,8 @@ public class ChavePixService {
                 dto.getNumeroConta()
         );
 
-        if (quantidadeDeChavesAtivas >= 5) {
-            throw new ChavePixException("Limite de chaves atingido para esta conta.");
+        if (quantidadeDeChavesAtivas >= LIMITE_CHAVES_POR_CONTA) {
+            throw new ChavePixException(MENSAGEM_LIMITE_CHAVES);
         }
     }
 
@@ -262,23 +295,20 @@ public class ChavePixService {
      *
      * @param dto o DTO contendo os dados da chave Pix a ser validada.
      */
-    private void validarFormatoChave(ChavePixRequestDTO dto) {
+    static void validarFormatoChave(ChavePixRequestDTO dto) {
         String tipoChave = dto.getTipoChave().toLowerCase();
         String valorChave = dto.getValorChave();
 
         switch (tipoChave) {
             case "cpf":
-                if (!valorChave.matches("\\d{11}") || !validarCPF(valorChave)) {
+                if (!FORMATO_CPF.matcher(valorChave).matches() || !validarCPF(valorChave)) {
                     throw new ChavePixException("CPF inválido.");
                 }
                 break;
             case "email":
-                if (!valorChave.contains("@") || valorChave.length() > 77) {
-                    throw new ChavePixException("E-mail inválido.");
-                }
-                break;
+                break; // Formato e tamanho validados em ChavePixRequestDTO#isEmailValid
             case "celular":
-                if (!valorChave.matches("\\+\\d{1,2}\\d{2,3}\\d{9}")) {
+                if (!FORMATO_CELULAR.matcher(valorChave).matches()) {
                     throw new ChavePixException("Celular inválido: deve conter o código do país iniciando com '+'.");
                 }
                 break;
@@ -293,7 +323,7 @@ public class ChavePixService {
      * @param cpf o número do CPF a ser validado.
      * @return true se o CPF for válido, false caso contrário.
      */
-    private boolean validarCPF(String cpf) {
+    private static boolean validarCPF(String cpf) {
         return !cpf.chars().allMatch(ch -> ch == cpf.charAt(0));
     }
 
@@ -303,7 +333,7 @@ public class ChavePixService {
      * @param chave a entidade a ser convertida.
      * @return um DTO contendo os detalhes da entidade fornecida.
      */
-    private ChavePixResponseDTO toResponseDTO(ChavePix chave) {
+    static ChavePixResponseDTO toResponseDTO(ChavePix chave) {
         ChavePixResponseDTO dto = new ChavePixResponseDTO();
         dto.setId(chave.getId());
         dto.setTipoChave(chave.getTipoChave());
@@ -319,19 +349,117 @@ public class ChavePixService {
         return dto;
     }
 
+    /**
+     * Converte uma chave arquivada para o DTO de resposta, no mesmo formato das chaves da tabela.
+     *
+     * @param chave a chave arquivada.
+     * @return o DTO de resposta.
+     */
+    static ChavePixResponseDTO toResponseDTO(ChavePixArquivada chave) {
+        ChavePixResponseDTO dto = new ChavePixResponseDTO();
+        dto.setId(chave.getId());
+        dto.setTipoChave(chave.getTipoChave());
+        dto.setValorChave(chave.getValorChave());
+        dto.setTipoConta(chave.getTipoConta());
+        dto.setNumeroAgencia(chave.getNumeroAgencia());
+        dto.setNumeroConta(chave.getNumeroConta());
+        dto.setNomeCorrentista(chave.getNomeCorrentista());
+        dto.setSobrenomeCorrentista(chave.getSobrenomeCorrentista());
+        dto.setDataHoraInclusao(chave.getDataHoraInclusao());
+        dto.setDataHoraInativacao(chave.getDataHoraInativacao());
+
+        return dto;
+    }
+
+    /**
+     * Consulta as chaves inativadas no intervalo na tabela de chaves e no arquivo. Uma chave
+     * arquivada entre as duas consultas aparece nas duas e é mantida uma única vez.
+     */
+    private List<ChavePixResponseDTO> consultarInativadasEntre(LocalDateTime inicio, LocalDateTime fim) {
+        List<ChavePixResponseDTO> chaves = repository.findByDataHoraInativacaoBetween(inicio, fim).stream()
+                .map(ChavePixService::toResponseDTO)
+                .collect(Collectors.toList());
+        Set<UUID> ids = chaves.stream().map(ChavePixResponseDTO::getId).collect(Collectors.toSet());
+        arquivo.findByDataHoraInativacaoBetween(inicio, fim).stream()
+                .filter(chave -> !ids.contains(chave.getId()))
+                .map(ChavePixService::toResponseDTO)
+                .forEach(chaves::add);
+        return chaves;
+    }
+
+    @Compartimento(TipoCompartimento.VARREDURA)
+    @Transactional(readOnly = true)
     public List<ChavePixResponseDTO> consultarPorNomeCorrentista(String nomeCorrentista) {
         List<ChavePix> chaves = repository.findByNomeCorrentistaContainingIgnoreCase(nomeCorrentista);
 
         System.out.println("🔍 Consulta por Nome retornou: " + chaves);
 
         return chaves.stream()
-                .map(this::toResponseDTO) // Convertendo as chaves para o formato de resposta
+                .map(ChavePixService::toResponseDTO) // Convertendo as chaves para o formato de resposta
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Resolve uma chave Pix pelo valor: a consulta por filtros apenas com o valor, executada no
+     * compartimento de leituras pontuais em vez do compartimento das varreduras. Um valor ausente
+     * da tabela de chaves é procurado no arquivo, que devolve a chave arquivada mais recente.
+     *
+     * A chamada interna não passa pelo proxy, e a transação de {@link #consultarPorFiltros} não
+     * se aplica: a transação somente leitura é declarada aqui. As consultas declaradas do
+     * repositório, como {@code findByValorChave}, não são transacionais por si.
+     *
+     * @param valorChave o valor da chave Pix.
+     * @return a chave encontrada, ou uma lista vazia.
+     */
+    @Compartimento(TipoCompartimento.LEITURA_PONTUAL)
+    @Transactional(readOnly = true)
+    public List<ChavePixResponseDTO> consultarPorValor(String valorChave) {
+        return consultarPorFiltros(null, valorChave, null, null, null, null);
+    }
+
+    /**
+     * Consulta as chaves Pix pela combinação dos filtros informados. O resultado é mantido no
+     * {@link CacheConsultas}, marcado pelo filtro de igualdade mais seletivo (valor, conta,
+     * agência ou tipo); sem nenhum deles, qualquer mutação o remove.
+     */
+    @Compartimento(TipoCompartimento.VARREDURA)
+    @Transactional(readOnly = true)
     public List<ChavePixResponseDTO> consultarPorFiltros(
             String tipoChave, String valorChave, Integer agencia, Integer conta,
             LocalDate dataInclusao, LocalDate dataInativacao) {
+        return cache.obter("filtros",
+                Arrays.asList(tipoChave, valorChave, agencia, conta, dataInclusao, dataInativacao),
+                Set.of(tagFiltros(tipoChave, valorChave, agencia, conta)),
+                () -> executarConsultaPorFiltros(tipoChave, valorChave, agencia, conta, dataInclusao, dataInativacao));
+    }
+
+    private static String tagFiltros(String tipoChave, String valorChave, Integer agencia, Integer conta) {
+        if (valorChave != null) {
+            return CacheConsultas.tagValor(valorChave);
+        } else if (agencia != null && conta != null) {
+            return CacheConsultas.tagConta(agencia, conta);
+        } else if (agencia != null) {
+            return CacheConsultas.tagAgencia(agencia);
+        } else if (tipoChave != null) {
+            return CacheConsultas.tagTipo(tipoChave);
+        }
+        return CacheConsultas.TAG_GERAL;
+    }
+
+    private List<ChavePixResponseDTO> executarConsultaPorFiltros(
+            String tipoChave, String valorChave, Integer agencia, Integer conta,
+            LocalDate dataInclusao, LocalDate dataInativacao) {
+
+        // Consulta apenas pelo valor da chave: compartilhada entre requisições concorrentes
+        if (valorChave != null && tipoChave == null && agencia == null && conta == null
+                && dataInclusao == null && dataInativacao == null) {
+            return consultas.porValor()
+                    .executar(valorChave, () -> repository.findByValorChave(valorChave).map(ChavePixService::toResponseDTO)
+                            .or(() -> arquivo.findFirstByValorChaveOrderByDataHoraInativacaoDesc(valorChave)
+                                    .map(ChavePixService::toResponseDTO)))
+                    .map(List::of)
+                    .orElseGet(List::of);
+        }
 
         // Convertendo datas para LocalDateTime, pois o repositório espera LocalDateTime
         LocalDateTime dataInclusaoInicio = (dataInclusao != null) ? dataInclusao.atStartOfDay() : null;
@@ -341,7 +469,7 @@ public class ChavePixService {
         List<ChavePix> chaves = repository.buscarPorFiltros(tipoChave, valorChave, agencia, conta, dataInclusaoInicio, dataInativacaoInicio);
 
         return chaves.stream()
-                .map(this::toResponseDTO)
+                .map(ChavePixService::toResponseDTO)
                 .collect(Collectors.toList());
     }
 
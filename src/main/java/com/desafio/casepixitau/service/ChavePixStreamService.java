@@ -0,0 +1,312 @@
+package com.desafio.casepixitau.service;
+
+import com.desafio.casepixitau.dto.ChavePixEventoDTO;
+import com.desafio.casepixitau.event.ChavePixEvento;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serviço responsável por distribuir, via Server-Sent Events, as mutações de chaves Pix
+ * aos consumidores que mantêm cópias locais das chaves.
+ *
+ * Os assinantes são {@link SseEmitter}s (requisições assíncronas), portanto não ocupam uma
+ * thread do servlet enquanto estão ociosos. O estado do stream (sequência, buffer de replay e
+ * lista de assinantes) é manipulado por uma única thread, dispensando sincronização; essa
+ * thread apenas enfileira os eventos de cada assinante, e a escrita nas conexões, que bloqueia
+ * enquanto o cliente não consome, fica com um pool de threads de envio. O assinante com mais
+ * de {@code limitePendentes} envios na fila é desconectado, e um cliente lento não atrasa os demais
+ * nem acumula memória sem limite; ao reconectar, ele retoma pelo Last-Event-ID.
+ *
+ * Os ids dos eventos têm o formato {@code <época>-<sequência>}, com a época gerada a cada
+ * inicialização da aplicação, já que a sequência recomeça a cada inicialização.
+ */
+@Service
+public class ChavePixStreamService {
+
+    private final ScheduledExecutorService executor;
+    private final ExecutorService envio;
+    private final String epoca;
+    private final int tamanhoBufferReplay;
+    private final int limitePendentes;
+    private final long timeoutMs;
+
+    private final Deque<Mensagem> bufferReplay = new ArrayDeque<>();
+    private final List<Assinante> assinantes = new ArrayList<>();
+    private long sequencia;
+
+    /**
+     * Construtor do serviço de stream.
+     *
+     * @param tamanhoBufferReplay Quantidade máxima de eventos mantidos para retomada via Last-Event-ID.
+     * @param timeoutMs           Tempo máximo de uma conexão SSE antes que o cliente precise reconectar.
+     * @param heartbeatMs         Intervalo entre comentários de keep-alive (0 desativa).
+     * @param limitePendentes     Quantidade máxima de envios aguardando na fila de um assinante.
+     * @param threadsEnvio        Threads que escrevem os eventos nas conexões.
+     */
+    public ChavePixStreamService(@Value("${pix.stream.replay-buffer:1024}") int tamanhoBufferReplay,
+                                 @Value("${pix.stream.timeout-ms:1800000}") long timeoutMs,
+                                 @Value("${pix.stream.heartbeat-ms:30000}") long heartbeatMs,
+                                 @Value("${pix.stream.limite-pendentes:256}") int limitePendentes,
+                                 @Value("${pix.stream.threads-envio:4}") int threadsEnvio) {
+        this.tamanhoBufferReplay = tamanhoBufferReplay;
+        this.timeoutMs = timeoutMs;
+        this.limitePendentes = limitePendentes;
+        this.epoca = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pix-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger contador = new AtomicInteger();
+        this.envio = Executors.newFixedThreadPool(threadsEnvio, r -> {
+            Thread thread = new Thread(r, "pix-stream-envio-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (heartbeatMs > 0) {
+            executor.scheduleWithFixedDelay(this::enviarHeartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Cria uma nova assinatura do stream.
+     *
+     * @param ultimoEventoId Último evento recebido pelo cliente (cabeçalho Last-Event-ID), pode ser nulo.
+     * @return o emitter associado à requisição assíncrona.
+     */
+    public SseEmitter assinar(String ultimoEventoId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        registrar(emitter, ultimoEventoId);
+        return emitter;
+    }
+
+    /**
+     * Registra um emitter como assinante, reenviando os eventos do buffer posteriores a
+     * {@code ultimoEventoId}. Caso o evento informado seja de outra época (a aplicação foi
+     * reiniciada), já tenha saído do buffer ou não seja um id válido, o cliente recebe um
+     * evento {@code reset} e deve recarregar suas chaves pela consulta por filtros.
+     *
+     * @param emitter        Emitter que receberá os eventos.
+     * @param ultimoEventoId Último evento recebido pelo cliente, pode ser nulo.
+     */
+    public void registrar(SseEmitter emitter, String ultimoEventoId) {
+        Assinante assinante = new Assinante(emitter);
+        emitter.onCompletion(() -> {
+            assinante.encerrado = true;
+            executor.execute(() -> assinantes.remove(assinante));
+        });
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitter.complete());
+
+        executor.execute(() -> {
+            if (ultimoEventoId != null && !assinante.enfileirar(retomada(ultimoEventoId))) {
+                return;
+            }
+            assinantes.add(assinante);
+        });
+    }
+
+    /**
+     * Recebe as mutações publicadas pelo {@link ChavePixService}. Quando há transação ativa,
+     * o evento só é distribuído após o commit.
+     *
+     * @param evento Evento de mutação da chave Pix.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChavePixEvento(ChavePixEvento evento) {
+        ChavePixEventoDTO dto = new ChavePixEventoDTO(
+                evento.getTipo().name().toLowerCase(),
+                evento.getChave().getVersion(),
+                ChavePixService.toResponseDTO(evento.getChave())
+        );
+        executor.execute(() -> distribuir(dto));
+    }
+
+    /**
+     * Retorna a quantidade de assinantes conectados.
+     *
+     * @return número de assinantes ativos.
+     */
+    public int getQuantidadeAssinantes() {
+        try {
+            return executor.submit(assinantes::size).get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao consultar assinantes do stream.", e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        envio.shutdownNow();
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+    }
+
+    private void distribuir(ChavePixEventoDTO dto) {
+        Mensagem mensagem = new Mensagem(++sequencia, dto);
+        bufferReplay.addLast(mensagem);
+        if (bufferReplay.size() > tamanhoBufferReplay) {
+            bufferReplay.removeFirst();
+        }
+        Envio envioMensagem = emitter -> enviar(emitter, mensagem);
+        assinantes.removeIf(assinante -> !assinante.enfileirar(envioMensagem));
+    }
+
+    /**
+     * Monta o envio inicial de um assinante que informou o Last-Event-ID: os eventos posteriores
+     * do buffer, ou o evento {@code reset} quando não é possível retomar a partir dele.
+     */
+    private Envio retomada(String ultimoEventoId) {
+        long ultimo = sequenciaDaEpocaAtual(ultimoEventoId);
+        Mensagem maisAntiga = bufferReplay.peekFirst();
+        long primeiroDisponivel = maisAntiga != null ? maisAntiga.id : sequencia + 1;
+
+        if (ultimo < 0 || ultimo + 1 < primeiroDisponivel || ultimo > sequencia) {
+            String id = epoca + "-" + sequencia;
+            return emitter -> emitter.send(SseEmitter.event().id(id).name("reset").data(""));
+        }
+
+        List<Mensagem> posteriores = bufferReplay.stream().filter(mensagem -> mensagem.id > ultimo).toList();
+        return emitter -> {
+            for (Mensagem mensagem : posteriores) {
+                enviar(emitter, mensagem);
+            }
+        };
+    }
+
+    /**
+     * Retorna a sequência de um id no formato {@code <época>-<sequência>}, ou -1 quando o id é de
+     * outra época ou inválido.
+     */
+    private long sequenciaDaEpocaAtual(String id) {
+        int separador = id.lastIndexOf('-');
+        if (separador < 0 || !id.substring(0, separador).equals(epoca)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void enviar(SseEmitter emitter, Mensagem mensagem) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(epoca + "-" + mensagem.id)
+                .name(mensagem.dto.getEvento())
+                .data(mensagem.dto));
+    }
+
+    private void enviarHeartbeat() {
+        Envio heartbeat = emitter -> emitter.send(SseEmitter.event().comment("keep-alive"));
+        assinantes.removeIf(assinante -> !assinante.enfileirar(heartbeat));
+    }
+
+    /**
+     * Escrita de um ou mais eventos na conexão de um assinante.
+     */
+    @FunctionalInterface
+    private interface Envio {
+        void enviar(SseEmitter emitter) throws IOException;
+    }
+
+    /**
+     * Assinante conectado, com sua fila de envios. A fila é consumida por no máximo uma thread
+     * de envio por vez, preservando a ordem dos eventos.
+     */
+    private final class Assinante implements Runnable {
+        private final SseEmitter emitter;
+        private final Queue<Envio> pendentes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger quantidadePendentes = new AtomicInteger();
+        private final AtomicBoolean agendado = new AtomicBoolean();
+        private volatile boolean encerrado;
+
+        private Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Enfileira um envio. Chamado apenas pela thread do stream.
+         *
+         * @return false se o assinante foi encerrado, por desconexão ou por exceder o limite de
+         * envios pendentes, e deve sair da lista de assinantes.
+         */
+        private boolean enfileirar(Envio envioAssinante) {
+            if (encerrado) {
+                return false;
+            }
+            if (quantidadePendentes.incrementAndGet() > limitePendentes) {
+                // A conclusão aguarda uma escrita em andamento na conexão: não bloqueia a thread do stream.
+                encerrar();
+                return false;
+            }
+            pendentes.add(envioAssinante);
+            agendar();
+            return true;
+        }
+
+        private void agendar() {
+            if (agendado.compareAndSet(false, true)) {
+                envio.execute(this);
+            }
+        }
+
+        private void encerrar() {
+            encerrado = true;
+            envio.execute(emitter::complete);
+        }
+
+        @Override
+        public void run() {
+            Envio proximo;
+            while ((proximo = pendentes.poll()) != null) {
+                quantidadePendentes.decrementAndGet();
+                if (encerrado) {
+                    continue;
+                }
+                try {
+                    proximo.enviar(emitter);
+                } catch (IOException | IllegalStateException e) {
+                    encerrado = true;
+                    emitter.complete();
+                    executor.execute(() -> assinantes.remove(this));
+                }
+            }
+            agendado.set(false);
+            if (!pendentes.isEmpty()) {
+                agendar();
+            }
+        }
+    }
+
+    /**
+     * Evento já numerado, mantido no buffer de replay.
+     */
+    private static final class Mensagem {
+        private final long id;
+        private final ChavePixEventoDTO dto;
+
+        private Mensagem(long id, ChavePixEventoDTO dto) {
+            this.id = id;
+            this.dto = dto;
+        }
+    }
+}
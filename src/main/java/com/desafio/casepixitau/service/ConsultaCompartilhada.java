@@ -0,0 +1,81 @@
+package com.desafio.casepixitau.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa consultas idênticas e concorrentes em uma única execução ("single flight").
+ *
+ * A primeira chamada de uma chave executa a consulta; as chamadas que chegam enquanto ela está
+ * em andamento aguardam e recebem o mesmo resultado (ou a mesma exceção). Nada é guardado após
+ * o término da execução: a chamada seguinte consulta o repositório novamente.
+ *
+ * @param <K> tipo da chave da consulta.
+ * @param <V> tipo do resultado.
+ */
+public class ConsultaCompartilhada<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+    private final Counter total;
+    private final Counter compartilhadas;
+
+    /**
+     * Construtor da consulta compartilhada.
+     *
+     * @param nome          Nome da consulta, usado como tag das métricas.
+     * @param meterRegistry Registro de métricas.
+     */
+    public ConsultaCompartilhada(String nome, MeterRegistry meterRegistry) {
+        this.total = Counter.builder("pix.consultas.total").tag("consulta", nome)
+                .description("Consultas recebidas").register(meterRegistry);
+        this.compartilhadas = Counter.builder("pix.consultas.compartilhadas").tag("consulta", nome)
+                .description("Consultas atendidas por uma execução já em andamento").register(meterRegistry);
+    }
+
+    /**
+     * Executa a consulta ou aguarda a execução em andamento para a mesma chave.
+     *
+     * @param chave    Chave da consulta.
+     * @param consulta Consulta a executar.
+     * @return o resultado da consulta.
+     */
+    public V executar(K chave, Supplier<V> consulta) {
+        total.increment();
+        CompletableFuture<V> execucao = new CompletableFuture<>();
+        CompletableFuture<V> anterior = emAndamento.putIfAbsent(chave, execucao);
+        if (anterior != null) {
+            compartilhadas.increment();
+            return aguardar(anterior);
+        }
+
+        try {
+            V resultado = consulta.get();
+            execucao.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            execucao.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, execucao);
+        }
+    }
+
+    private static <V> V aguardar(CompletableFuture<V> execucao) {
+        try {
+            return execucao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.desafio.casepixitau.service;
+
+import com.desafio.casepixitau.config.RoteamentoContexto;
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.dto.ConsultaLoteItemDTO;
+import com.desafio.casepixitau.dto.ConsultaLoteRequestDTO;
+import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.ChavePixArquivada;
+import com.desafio.casepixitau.perfil.ContagemSql;
+import com.desafio.casepixitau.perfil.PerfilSql;
+import com.desafio.casepixitau.repository.ChavePixArquivadaRepository;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço de consulta de chaves Pix em lote, por identificadores ou por valores de chave.
+ *
+ * Os itens distintos são divididos em blocos consultados com {@code IN (...)}, executados em
+ * paralelo em um pool limitado. Quando o pool e sua fila estão cheios, o bloco é executado na
+ * própria thread da requisição. Os itens de um bloco ausentes da tabela de chaves são procurados
+ * no arquivo de chaves inativadas; para um valor arquivado mais de uma vez, vale a chave de
+ * inativação mais recente. O resultado mantém a ordem da requisição, com a indicação de não
+ * encontrada para cada item ausente.
+ *
+ * Cada bloco é consultado em uma transação somente leitura, na thread que o executa, de forma
+ * que vai para a réplica de leitura quando ela está configurada, salvo após uma escrita na mesma
+ * requisição (roteamento propagado do {@link RoteamentoContexto}).
+ */
+@Service
+public class ConsultaLoteService {
+
+    private final ChavePixRepository repository;
+    private final ChavePixArquivadaRepository arquivo;
+    private final TransactionTemplate transacaoLeitura;
+    private final ThreadPoolExecutor executor;
+    private final int maximoItens;
+    private final int tamanhoBloco;
+
+    /**
+     * Construtor do serviço de consulta em lote.
+     *
+     * @param repository   Repositório de chaves Pix.
+     * @param arquivo      Arquivo das chaves inativadas há mais tempo que o período de retenção.
+     * @param transactionManager Gerenciador das transações somente leitura de cada bloco.
+     * @param maximoItens  Quantidade máxima de itens por requisição.
+     * @param tamanhoBloco Quantidade máxima de itens por consulta {@code IN (...)}.
+     * @param threads      Quantidade de threads do pool de consultas.
+     */
+    public ConsultaLoteService(ChavePixRepository repository, ChavePixArquivadaRepository arquivo,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${pix.consulta-lote.maximo-itens:50000}") int maximoItens,
+                               @Value("${pix.consulta-lote.tamanho-bloco:1000}") int tamanhoBloco,
+                               @Value("${pix.consulta-lote.threads:4}") int threads) {
+        this.repository = repository;
+        this.arquivo = arquivo;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.maximoItens = maximoItens;
+        this.tamanhoBloco = tamanhoBloco;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                r -> {
+                    Thread thread = new Thread(r, "pix-consulta-lote-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Consulta as chaves Pix informadas.
+     *
+     * @param dto DTO com os identificadores ou os valores das chaves.
+     * @return um item por entrada da requisição, na mesma ordem.
+     */
+    public List<ConsultaLoteItemDTO> consultar(ConsultaLoteRequestDTO dto) {
+        boolean porId = dto.getIds() != null && !dto.getIds().isEmpty();
+        boolean porValor = dto.getValoresChave() != null && !dto.getValoresChave().isEmpty();
+
+        if (porId == porValor) {
+            throw new ChavePixException("Informe apenas uma lista: ids ou valoresChave.");
+        }
+        int quantidade = porId ? dto.getIds().size() : dto.getValoresChave().size();
+        if (quantidade > maximoItens) {
+            throw new ChavePixException("A consulta em lote aceita no máximo " + maximoItens + " itens.");
+        }
+
+        if (porId) {
+            Map<UUID, ChavePixResponseDTO> encontradas = buscar(dto.getIds(), repository::findAllById,
+                    arquivo::findAllById, ChavePixResponseDTO::getId);
+            return montar(dto.getIds(), encontradas);
+        }
+        Map<String, ChavePixResponseDTO> encontradas = buscar(dto.getValoresChave(), repository::findByValorChaveIn,
+                arquivo::findByValorChaveIn, ChavePixResponseDTO::getValorChave);
+        return montar(dto.getValoresChave(), encontradas);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private <K> Map<K, ChavePixResponseDTO> buscar(List<K> itens, Function<Collection<K>, List<ChavePix>> consulta,
+                                                   Function<Collection<K>, List<ChavePixArquivada>> consultaArquivo,
+                                                   Function<ChavePixResponseDTO, K> chave) {
+        List<K> distintos = new ArrayList<>(new LinkedHashSet<>(itens));
+        distintos.remove(null);
+
+        List<ContagemSql> contagensSql = PerfilSql.capturar();
+        Boolean roteamento = RoteamentoContexto.capturar();
+        List<Future<List<ChavePixResponseDTO>>> blocos = new ArrayList<>();
+        for (int inicio = 0; inicio < distintos.size(); inicio += tamanhoBloco) {
+            List<K> bloco = distintos.subList(inicio, Math.min(inicio + tamanhoBloco, distintos.size()));
+            blocos.add(executor.submit(() -> {
+                // Os comandos do bloco contam para a requisição e seguem o seu roteamento
+                // (réplica na transação somente leitura, primário após uma escrita), mesmo executados no pool.
+                List<ContagemSql> anteriores = PerfilSql.restaurar(contagensSql);
+                Boolean roteamentoAnterior = RoteamentoContexto.restaurar(roteamento);
+                try {
+                    return transacaoLeitura.execute(status -> buscarBloco(bloco, consulta, consultaArquivo, chave));
+                } finally {
+                    RoteamentoContexto.restaurar(roteamentoAnterior);
+                    PerfilSql.restaurar(anteriores);
+                }
+            }));
+        }
+
+        Map<K, ChavePixResponseDTO> encontradas = new HashMap<>(distintos.size() * 2);
+        for (Future<List<ChavePixResponseDTO>> bloco : blocos) {
+            for (ChavePixResponseDTO encontrada : aguardar(bloco)) {
+                encontradas.put(chave.apply(encontrada), encontrada);
+            }
+        }
+        return encontradas;
+    }
+
+    /**
+     * Consulta um bloco na tabela de chaves e, para os itens ausentes, no arquivo. As chaves
+     * arquivadas vêm em ordem de inativação, de forma que a mais recente de cada valor prevalece.
+     */
+    private static <K> List<ChavePixResponseDTO> buscarBloco(List<K> bloco, Function<Collection<K>, List<ChavePix>> consulta,
+                                                             Function<Collection<K>, List<ChavePixArquivada>> consultaArquivo,
+                                                             Function<ChavePixResponseDTO, K> chave) {
+        List<ChavePixResponseDTO> encontradas = new ArrayList<>(bloco.size());
+        consulta.apply(bloco).forEach(chavePix -> encontradas.add(ChavePixService.toResponseDTO(chavePix)));
+        if (encontradas.size() < bloco.size()) {
+            List<K> ausentes = new ArrayList<>(bloco);
+            ausentes.removeAll(encontradas.stream().map(chave).collect(Collectors.toSet()));
+            consultaArquivo.apply(ausentes).stream()
+                    .sorted(Comparator.comparing(ChavePixArquivada::getDataHoraInativacao))
+                    .forEach(arquivada -> encontradas.add(ChavePixService.toResponseDTO(arquivada)));
+        }
+        return encontradas;
+    }
+
+    private static <K> List<ConsultaLoteItemDTO> montar(List<K> itens, Map<K, ChavePixResponseDTO> encontradas) {
+        List<ConsultaLoteItemDTO> resultado = new ArrayList<>(itens.size());
+        for (K item : itens) {
+            ChavePixResponseDTO chave = item == null ? null : encontradas.get(item);
+            resultado.add(new ConsultaLoteItemDTO(item == null ? null : item.toString(), chave != null, chave));
+        }
+        return resultado;
+    }
+
+    private static <T> T aguardar(Future<T> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta em lote interrompida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Falha na consulta em lote.", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.desafio.casepixitau.service;
+
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Consultas de chaves Pix por id e por valor compartilhadas entre requisições concorrentes.
+ * A proporção de consultas compartilhadas é exposta em {@code pix.consultas.compartilhadas}
+ * sobre {@code pix.consultas.total}.
+ */
+@Component
+public class ConsultasCompartilhadas {
+
+    private final ConsultaCompartilhada<UUID, Optional<ChavePixResponseDTO>> porId;
+    private final ConsultaCompartilhada<String, Optional<ChavePixResponseDTO>> porValor;
+
+    public ConsultasCompartilhadas(MeterRegistry meterRegistry) {
+        this.porId = new ConsultaCompartilhada<>("id", meterRegistry);
+        this.porValor = new ConsultaCompartilhada<>("valor", meterRegistry);
+    }
+
+    public ConsultaCompartilhada<UUID, Optional<ChavePixResponseDTO>> porId() {
+        return porId;
+    }
+
+    public ConsultaCompartilhada<String, Optional<ChavePixResponseDTO>> porValor() {
+        return porValor;
+    }
+}
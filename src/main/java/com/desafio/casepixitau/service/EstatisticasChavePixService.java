@@ -0,0 +1,323 @@
+package com.desafio.casepixitau.service;
+
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.dto.EstatisticasResponseDTO;
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.EstatisticaChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.repository.EstatisticaChavePixRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Serviço de estatísticas de chaves Pix (ativas por tipo e por agência, inclusões e
+ * inativações por dia).
+ *
+ * Os contadores são mantidos em memória e atualizados de forma incremental pelos eventos de
+ * mutação publicados pelo {@link ChavePixService}, sem nenhum GROUP BY no caminho da consulta.
+ * Os valores são gravados periodicamente na tabela {@code tb_estatisticas_chavespix}, de onde
+ * são recarregados na inicialização, e um job de conferência recalcula os agregados no banco
+ * em horário de baixo movimento, corrigindo eventuais divergências.
+ */
+@Service
+public class EstatisticasChavePixService {
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasChavePixService.class);
+
+    private final ChavePixRepository chavePixRepository;
+    private final EstatisticaChavePixRepository estatisticaRepository;
+    private final Counter divergencias;
+    private final Clock clock;
+    private final int diasRetencao;
+
+    private final Contadores<String> ativasPorTipoChave = new Contadores<>("tipo:", Function.identity());
+    private final Contadores<Integer> ativasPorAgencia = new Contadores<>("agencia:", Integer::valueOf);
+    private final Contadores<LocalDate> inclusoesPorDia = new Contadores<>("inclusao:", LocalDate::parse);
+    private final Contadores<LocalDate> inativacoesPorDia = new Contadores<>("inativacao:", LocalDate::parse);
+
+    private volatile EstatisticasResponseDTO snapshot;
+
+    /**
+     * Construtor do serviço de estatísticas.
+     *
+     * @param chavePixRepository    Repositório de chaves Pix, usado na reconstrução e na conferência.
+     * @param estatisticaRepository Repositório do checkpoint dos contadores.
+     * @param meterRegistry         Registro de métricas.
+     * @param diasRetencao          Quantidade de dias mantidos nos contadores diários.
+     */
+    public EstatisticasChavePixService(ChavePixRepository chavePixRepository,
+                                       EstatisticaChavePixRepository estatisticaRepository,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${pix.estatisticas.dias-retencao:90}") int diasRetencao) {
+        this.chavePixRepository = chavePixRepository;
+        this.estatisticaRepository = estatisticaRepository;
+        this.divergencias = Counter.builder("pix.estatisticas.divergencias")
+                .description("Contadores corrigidos pela conferência das estatísticas")
+                .register(meterRegistry);
+        this.clock = Clock.systemDefaultZone();
+        this.diasRetencao = diasRetencao;
+    }
+
+    /**
+     * Atualiza os contadores a partir das mutações de chaves Pix. Quando há transação ativa,
+     * só é executado após o commit, portanto mutações desfeitas não alteram as estatísticas.
+     *
+     * @param evento Evento de mutação da chave Pix.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChavePixEvento(ChavePixEvento evento) {
+        ChavePix chave = evento.getChave();
+        ChavePixResponseDTO anterior = evento.getAnterior();
+
+        switch (evento.getTipo()) {
+            case INCLUSAO:
+                ativasPorTipoChave.somar(chave.getTipoChave(), 1);
+                ativasPorAgencia.somar(chave.getNumeroAgencia(), 1);
+                inclusoesPorDia.somar(chave.getDataHoraInclusao().toLocalDate(), 1);
+                break;
+            case ALTERACAO:
+                if (anterior != null && anterior.getNumeroAgencia() != chave.getNumeroAgencia()) {
+                    ativasPorAgencia.somar(anterior.getNumeroAgencia(), -1);
+                    ativasPorAgencia.somar(chave.getNumeroAgencia(), 1);
+                }
+                if (anterior != null && !Objects.equals(anterior.getTipoChave(), chave.getTipoChave())) {
+                    ativasPorTipoChave.somar(anterior.getTipoChave(), -1);
+                    ativasPorTipoChave.somar(chave.getTipoChave(), 1);
+                }
+                break;
+            case INATIVACAO:
+                ativasPorTipoChave.somar(chave.getTipoChave(), -1);
+                ativasPorAgencia.somar(chave.getNumeroAgencia(), -1);
+                inativacoesPorDia.somar(chave.getDataHoraInativacao().toLocalDate(), 1);
+                break;
+        }
+    }
+
+    /**
+     * Retorna as estatísticas consolidadas. A consulta apenas devolve a última fotografia dos
+     * contadores, atualizada a cada {@code pix.estatisticas.snapshot-ms}.
+     *
+     * @return DTO com as estatísticas.
+     */
+    public EstatisticasResponseDTO consultar() {
+        EstatisticasResponseDTO atual = snapshot;
+        return atual != null ? atual : atualizarSnapshot();
+    }
+
+    /**
+     * Gera uma nova fotografia dos contadores para as consultas.
+     *
+     * @return a fotografia gerada.
+     */
+    @Scheduled(fixedDelayString = "${pix.estatisticas.snapshot-ms:1000}")
+    public EstatisticasResponseDTO atualizarSnapshot() {
+        EstatisticasResponseDTO novo = new EstatisticasResponseDTO(
+                ativasPorTipoChave.valores(),
+                ativasPorAgencia.valores(),
+                inclusoesPorDia.valores(),
+                inativacoesPorDia.valores(),
+                LocalDateTime.now(clock)
+        );
+        snapshot = novo;
+        return novo;
+    }
+
+    /**
+     * Reconstrói os contadores na inicialização a partir do último checkpoint. Se ainda não
+     * houver checkpoint, os contadores são calculados uma única vez a partir da tabela de chaves.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        List<EstatisticaChavePix> checkpoint = estatisticaRepository.findAll();
+        if (checkpoint.isEmpty()) {
+            verificarConsistencia();
+        } else {
+            for (EstatisticaChavePix estatistica : checkpoint) {
+                carregar(estatistica);
+            }
+        }
+        atualizarSnapshot();
+        log.info("Estatísticas de chaves Pix reconstruídas a partir de {} registros de checkpoint", checkpoint.size());
+    }
+
+    /**
+     * Grava no checkpoint os contadores alterados desde a última gravação e descarta os
+     * contadores diários fora do período de retenção.
+     */
+    @Scheduled(fixedDelayString = "${pix.estatisticas.checkpoint-ms:60000}")
+    @PreDestroy
+    public void checkpoint() {
+        LocalDate limite = LocalDate.now(clock).minusDays(diasRetencao);
+        List<String> expirados = new ArrayList<>();
+        expirados.addAll(inclusoesPorDia.removerAnteriores(limite));
+        expirados.addAll(inativacoesPorDia.removerAnteriores(limite));
+
+        LocalDateTime agora = LocalDateTime.now(clock);
+        List<EstatisticaChavePix> alterados = new ArrayList<>();
+        ativasPorTipoChave.drenarAlterados(agora, alterados);
+        ativasPorAgencia.drenarAlterados(agora, alterados);
+        inclusoesPorDia.drenarAlterados(agora, alterados);
+        inativacoesPorDia.drenarAlterados(agora, alterados);
+
+        if (!alterados.isEmpty()) {
+            estatisticaRepository.saveAll(alterados);
+        }
+        if (!expirados.isEmpty()) {
+            estatisticaRepository.deleteAllById(expirados);
+        }
+    }
+
+    /**
+     * Recalcula os agregados na tabela de chaves e corrige os contadores divergentes.
+     *
+     * Executado em transação de escrita para que as consultas sejam feitas no primário, e não
+     * em uma réplica possivelmente atrasada. Mutações concorrentes podem gerar uma correção
+     * transitória, desfeita pela conferência seguinte.
+     */
+    @Scheduled(cron = "${pix.estatisticas.conferencia-cron:0 30 4 * * *}")
+    @Transactional
+    public void verificarConsistencia() {
+        LocalDateTime inicio = LocalDate.now(clock).minusDays(diasRetencao).atStartOfDay();
+
+        long corrigidos = ativasPorTipoChave.conferir(agrupar(chavePixRepository.contarAtivasPorTipoChave(), String.class))
+                + ativasPorAgencia.conferir(agrupar(chavePixRepository.contarAtivasPorAgencia(), Integer.class))
+                + inclusoesPorDia.conferir(agrupar(chavePixRepository.contarInclusoesPorDia(inicio), LocalDate.class))
+                + inativacoesPorDia.conferir(agrupar(chavePixRepository.contarInativacoesPorDia(inicio), LocalDate.class));
+
+        if (corrigidos > 0) {
+            divergencias.increment(corrigidos);
+            log.warn("Conferência das estatísticas de chaves Pix corrigiu {} contadores", corrigidos);
+        }
+    }
+
+    /**
+     * Converte o resultado de um GROUP BY em mapa, somando as linhas de mesma chave (com a
+     * tabela fragmentada, cada shard devolve o seu próprio agrupamento).
+     */
+    private static <K> Map<K, Long> agrupar(List<Object[]> linhas, Class<K> tipoChave) {
+        Map<K, Long> agrupado = new HashMap<>();
+        for (Object[] linha : linhas) {
+            agrupado.merge(tipoChave.cast(linha[0]), ((Number) linha[1]).longValue(), Long::sum);
+        }
+        return agrupado;
+    }
+
+    private void carregar(EstatisticaChavePix estatistica) {
+        String chave = estatistica.getChave();
+        for (Contadores<?> contadores : List.of(ativasPorTipoChave, ativasPorAgencia, inclusoesPorDia, inativacoesPorDia)) {
+            if (chave.startsWith(contadores.prefixo)) {
+                contadores.carregar(chave.substring(contadores.prefixo.length()), estatistica.getValor());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Contador de uma dimensão. A escrita no caminho da requisição é apenas um incremento em
+     * {@link LongAdder} e a marcação do contador como alterado para o próximo checkpoint.
+     */
+    private static final class Contadores<K extends Comparable<? super K>> {
+        private final String prefixo;
+        private final Function<String, K> conversor;
+        private final ConcurrentHashMap<K, Contador> valores = new ConcurrentHashMap<>();
+
+        private Contadores(String prefixo, Function<String, K> conversor) {
+            this.prefixo = prefixo;
+            this.conversor = conversor;
+        }
+
+        private void somar(K chave, long delta) {
+            Contador contador = valores.get(chave);
+            if (contador == null) {
+                contador = valores.computeIfAbsent(chave, k -> new Contador());
+            }
+            contador.valor.add(delta);
+            if (!contador.alterado) {
+                contador.alterado = true;
+            }
+        }
+
+        private void carregar(String chave, long valor) {
+            Contador contador = valores.computeIfAbsent(conversor.apply(chave), k -> new Contador());
+            contador.valor.reset();
+            contador.valor.add(valor);
+        }
+
+        private Map<K, Long> valores() {
+            Map<K, Long> resultado = new TreeMap<>();
+            valores.forEach((chave, contador) -> {
+                long valor = contador.valor.sum();
+                if (valor != 0) {
+                    resultado.put(chave, valor);
+                }
+            });
+            return resultado;
+        }
+
+        private long conferir(Map<K, Long> esperado) {
+            long corrigidos = 0;
+            for (K chave : valores.keySet()) {
+                esperado.putIfAbsent(chave, 0L);
+            }
+            for (Map.Entry<K, Long> entrada : esperado.entrySet()) {
+                Contador contador = valores.get(entrada.getKey());
+                long atual = contador == null ? 0 : contador.valor.sum();
+                if (atual != entrada.getValue()) {
+                    somar(entrada.getKey(), entrada.getValue() - atual);
+                    corrigidos++;
+                }
+            }
+            return corrigidos;
+        }
+
+        private void drenarAlterados(LocalDateTime agora, List<EstatisticaChavePix> destino) {
+            valores.forEach((chave, contador) -> {
+                if (contador.alterado) {
+                    contador.alterado = false;
+                    destino.add(new EstatisticaChavePix(prefixo + chave, contador.valor.sum(), agora));
+                }
+            });
+        }
+
+        private List<String> removerAnteriores(K limite) {
+            List<String> removidos = new ArrayList<>();
+            valores.keySet().removeIf(chave -> {
+                if (chave.compareTo(limite) < 0) {
+                    removidos.add(prefixo + chave);
+                    return true;
+                }
+                return false;
+            });
+            return removidos;
+        }
+    }
+
+    private static final class Contador {
+        private final LongAdder valor = new LongAdder();
+        private volatile boolean alterado;
+    }
+}
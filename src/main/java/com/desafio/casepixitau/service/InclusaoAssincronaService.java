@@ -0,0 +1,325 @@
+package com.desafio.casepixitau.service;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.dto.InclusaoAssincronaDTO;
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.exception.CompartimentoSaturadoException;
+import com.desafio.casepixitau.exception.JournalIndisponivelException;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.util.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço de inclusão assíncrona de chaves Pix, com gravação em grupo.
+ *
+ * A requisição tem o formato da chave validado e entra numa fila limitada, recebendo um id de
+ * acompanhamento. Uma única thread gravadora retira da fila tudo o que se acumulou (até o tamanho
+ * do grupo) e grava o grupo numa só transação: uma consulta {@code IN (...)} pelos valores já
+ * cadastrados, uma contagem das chaves ativas das contas do grupo, agrupada por conta, e os
+ * {@code INSERT}s enviados em lote pelo JDBC. As regras
+ * da inclusão síncrona valem dentro do grupo: um valor repetido no grupo é recusado a partir da
+ * segunda ocorrência e o limite de chaves por conta considera as chaves já aceitas no grupo.
+ *
+ * Se a transação do grupo falhar (por exemplo, uma inclusão síncrona concorrente do mesmo valor
+ * violou a restrição única), o grupo é regravado pedido a pedido, cada um em sua transação, e só
+ * o pedido em conflito é recusado. A situação de cada pedido fica disponível para consulta até o
+ * fim da retenção.
+ *
+ * A fila e as situações ficam apenas em memória, e a entrega é "no máximo uma vez". No
+ * encerramento normal, a fila é gravada antes de a aplicação parar (até 30 segundos). Numa queda
+ * abrupta, os pedidos pendentes são perdidos sem aviso, e o id de acompanhamento deixa de ser
+ * conhecido.
+ */
+@Service
+@ConditionalOnProperty(name = "pix.inclusao-assincrona.enabled", havingValue = "true")
+public class InclusaoAssincronaService {
+
+    private static final Logger log = LoggerFactory.getLogger(InclusaoAssincronaService.class);
+
+    static final String PENDENTE = "PENDENTE";
+    static final String CONCLUIDA = "CONCLUIDA";
+    static final String RECUSADA = "RECUSADA";
+
+    private final ChavePixRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transacao;
+    private final BlockingQueue<Pedido> fila;
+    private final Map<UUID, Acompanhamento> acompanhamentos = new ConcurrentHashMap<>();
+    private final int tamanhoGrupo;
+    private final long retencaoNanos;
+    private final Counter concluidas;
+    private final Counter recusadas;
+    private final DistributionSummary tamanhoGrupos;
+    private final Timer gravacao;
+
+    private volatile boolean aceitando = true;
+    private Thread gravadora;
+
+    /**
+     * Construtor do serviço de inclusão assíncrona.
+     *
+     * @param repository         Repositório de chaves Pix.
+     * @param eventPublisher     Publicador dos eventos de inclusão.
+     * @param transactionManager Gerenciador das transações de gravação dos grupos.
+     * @param capacidadeFila     Pedidos aguardando gravação; com a fila cheia, a inclusão é recusada com 503.
+     * @param tamanhoGrupo       Quantidade máxima de pedidos gravados por transação.
+     * @param retencaoMs         Tempo pelo qual a situação de um pedido concluído ou recusado é mantida.
+     * @param meterRegistry      Registro de métricas.
+     */
+    public InclusaoAssincronaService(ChavePixRepository repository, ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${pix.inclusao-assincrona.capacidade-fila:10000}") int capacidadeFila,
+                                     @Value("${pix.inclusao-assincrona.tamanho-grupo:500}") int tamanhoGrupo,
+                                     @Value("${pix.inclusao-assincrona.retencao-ms:600000}") long retencaoMs,
+                                     MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.fila = new LinkedBlockingQueue<>(capacidadeFila);
+        this.tamanhoGrupo = tamanhoGrupo;
+        this.retencaoNanos = TimeUnit.MILLISECONDS.toNanos(retencaoMs);
+
+        Gauge.builder("pix.inclusao-assincrona.fila", fila, BlockingQueue::size).register(meterRegistry);
+        this.concluidas = Counter.builder("pix.inclusao-assincrona.pedidos")
+                .tag("situacao", "concluida").register(meterRegistry);
+        this.recusadas = Counter.builder("pix.inclusao-assincrona.pedidos")
+                .tag("situacao", "recusada").register(meterRegistry);
+        this.tamanhoGrupos = DistributionSummary.builder("pix.inclusao-assincrona.grupo").register(meterRegistry);
+        this.gravacao = Timer.builder("pix.inclusao-assincrona.gravacao").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        gravadora = new Thread(this::gravar, "pix-inclusao-assincrona");
+        gravadora.setDaemon(true);
+        gravadora.start();
+    }
+
+    /**
+     * Valida o formato da chave e enfileira o pedido de inclusão.
+     *
+     * @param dto o DTO contendo os detalhes da chave Pix a ser criada.
+     * @return a situação inicial ({@code PENDENTE}) com o id de acompanhamento.
+     * @throws ChavePixException se o formato da chave for inválido.
+     * @throws CompartimentoSaturadoException se a fila estiver cheia ou o serviço estiver encerrando.
+     */
+    public InclusaoAssincronaDTO enfileirar(ChavePixRequestDTO dto) {
+        ChavePixService.validarFormatoChave(dto);
+
+        UUID id = UuidV7.gerar();
+        Acompanhamento pendente = new Acompanhamento(PENDENTE, null, null, 0);
+        acompanhamentos.put(id, pendente);
+        if (!aceitando || !fila.offer(new Pedido(id, dto))) {
+            acompanhamentos.remove(id);
+            throw new CompartimentoSaturadoException("Fila de inclusões cheia. Tente novamente em instantes.");
+        }
+        return pendente.toDTO(id);
+    }
+
+    /**
+     * Consulta a situação de um pedido de inclusão.
+     *
+     * @param id o id de acompanhamento devolvido na inclusão.
+     * @return a situação do pedido, ou vazio se o id for desconhecido ou já tiver expirado.
+     */
+    public Optional<InclusaoAssincronaDTO> consultar(UUID id) {
+        return Optional.ofNullable(acompanhamentos.get(id)).map(a -> a.toDTO(id));
+    }
+
+    /**
+     * @return a quantidade de pedidos aguardando gravação.
+     */
+    public int getPendentes() {
+        return fila.size();
+    }
+
+    /**
+     * Remove as situações de pedidos concluídos ou recusados há mais tempo que a retenção.
+     */
+    @Scheduled(fixedDelayString = "${pix.inclusao-assincrona.limpeza-ms:60000}")
+    public void limparExpirados() {
+        long agora = System.nanoTime();
+        acompanhamentos.values().removeIf(a -> !PENDENTE.equals(a.situacao()) && agora - a.concluidoEm() > retencaoNanos);
+    }
+
+    /**
+     * Deixa de aceitar pedidos e aguarda a gravação dos que já estão na fila.
+     */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        aceitando = false;
+        gravadora.join(TimeUnit.SECONDS.toMillis(30));
+        if (!fila.isEmpty()) {
+            log.warn("Inclusão assíncrona encerrada com {} pedidos não gravados.", fila.size());
+        }
+    }
+
+    private void gravar() {
+        List<Pedido> grupo = new ArrayList<>(tamanhoGrupo);
+        while (aceitando || !fila.isEmpty()) {
+            try {
+                Pedido primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                grupo.add(primeiro);
+                fila.drainTo(grupo, tamanhoGrupo - 1);
+                gravarGrupo(grupo);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falha inesperada na gravação de um grupo de inclusões.", e);
+            } finally {
+                grupo.clear();
+            }
+        }
+    }
+
+    /**
+     * Grava o grupo numa transação; se ela falhar, grava os pedidos um a um.
+     */
+    void gravarGrupo(List<Pedido> grupo) {
+        tamanhoGrupos.record(grupo.size());
+        long inicio = System.nanoTime();
+        try {
+            aplicar(grupo, transacao.execute(status -> processar(grupo)));
+        } catch (JournalIndisponivelException e) {
+            // Transação confirmada sem registro no journal: não repete os pedidos, que seriam duplicados.
+            log.error("Falha ao registrar no journal o grupo de {} inclusões.", grupo.size(), e);
+            aplicar(grupo, grupo.stream().map(pedido -> recusada(e.getMessage())).toList());
+        } catch (RuntimeException e) {
+            log.debug("Transação do grupo de {} inclusões falhou; gravando pedido a pedido.", grupo.size(), e);
+            for (Pedido pedido : grupo) {
+                List<Pedido> individual = List.of(pedido);
+                try {
+                    aplicar(individual, transacao.execute(status -> processar(individual)));
+                } catch (DataIntegrityViolationException erro) {
+                    aplicar(individual, List.of(recusada(ChavePixService.MENSAGEM_CHAVE_DUPLICADA)));
+                } catch (RuntimeException erro) {
+                    log.error("Falha ao incluir a chave Pix do pedido {}.", pedido.id(), erro);
+                    aplicar(individual, List.of(recusada("Erro ao incluir a chave Pix.")));
+                }
+            }
+        } finally {
+            gravacao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Aplica as regras de unicidade e de limite por conta aos pedidos, na ordem de chegada, e
+     * insere as chaves aceitas. Deve ser executado dentro da transação do grupo.
+     */
+    private List<Acompanhamento> processar(List<Pedido> grupo) {
+        Set<String> cadastrados = repository.findByValorChaveIn(grupo.stream()
+                        .map(p -> p.dto().getValorChave()).collect(Collectors.toSet()))
+                .stream().map(ChavePix::getValorChave).collect(Collectors.toCollection(HashSet::new));
+        Map<Long, Long> ativasPorConta = new HashMap<>();
+        repository.contarAtivasPorConta(
+                grupo.stream().map(p -> p.dto().getNumeroAgencia()).collect(Collectors.toSet()),
+                grupo.stream().map(p -> p.dto().getNumeroConta()).collect(Collectors.toSet()))
+                .forEach(linha -> ativasPorConta.put(conta((Integer) linha[0], (Integer) linha[1]), (Long) linha[2]));
+
+        List<Acompanhamento> resultados = new ArrayList<>(grupo.size());
+        List<ChavePix> novas = new ArrayList<>(grupo.size());
+        for (Pedido pedido : grupo) {
+            ChavePixRequestDTO dto = pedido.dto();
+            if (cadastrados.contains(dto.getValorChave())) {
+                resultados.add(recusada(ChavePixService.MENSAGEM_CHAVE_DUPLICADA));
+                continue;
+            }
+            long conta = conta(dto.getNumeroAgencia(), dto.getNumeroConta());
+            long ativas = ativasPorConta.getOrDefault(conta, 0L);
+            if (ativas >= ChavePixService.LIMITE_CHAVES_POR_CONTA) {
+                resultados.add(recusada(ChavePixService.MENSAGEM_LIMITE_CHAVES));
+                continue;
+            }
+            cadastrados.add(dto.getValorChave());
+            ativasPorConta.put(conta, ativas + 1);
+
+            ChavePix chave = ChavePixService.novaChave(dto);
+            novas.add(chave);
+            resultados.add(new Acompanhamento(CONCLUIDA, null, null, 0));
+        }
+
+        repository.saveAll(novas);
+        repository.flush();
+
+        int indice = 0;
+        for (int i = 0; i < resultados.size(); i++) {
+            if (CONCLUIDA.equals(resultados.get(i).situacao())) {
+                ChavePix chave = novas.get(indice++);
+                eventPublisher.publishEvent(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave, null));
+                resultados.set(i, new Acompanhamento(CONCLUIDA, ChavePixService.toResponseDTO(chave), null, 0));
+            }
+        }
+        return resultados;
+    }
+
+    private void aplicar(List<Pedido> grupo, List<Acompanhamento> resultados) {
+        long agora = System.nanoTime();
+        for (int i = 0; i < grupo.size(); i++) {
+            Acompanhamento resultado = resultados.get(i);
+            acompanhamentos.put(grupo.get(i).id(),
+                    new Acompanhamento(resultado.situacao(), resultado.chave(), resultado.mensagem(), agora));
+            (CONCLUIDA.equals(resultado.situacao()) ? concluidas : recusadas).increment();
+        }
+    }
+
+    private static long conta(int agencia, int conta) {
+        return ((long) agencia << 32) | (conta & 0xFFFFFFFFL);
+    }
+
+    private static Acompanhamento recusada(String mensagem) {
+        return new Acompanhamento(RECUSADA, null, mensagem, 0);
+    }
+
+    /**
+     * Pedido de inclusão aguardando gravação.
+     */
+    record Pedido(UUID id, ChavePixRequestDTO dto) {
+    }
+
+    /**
+     * Situação de um pedido; {@code concluidoEm} é o instante ({@link System#nanoTime()}) da conclusão.
+     */
+    private record Acompanhamento(String situacao, ChavePixResponseDTO chave, String mensagem, long concluidoEm) {
+
+        InclusaoAssincronaDTO toDTO(UUID id) {
+            return new InclusaoAssincronaDTO(id, situacao, chave, mensagem);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.desafio.casepixitau.sharding;
+
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.OrdenacaoChavePix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Camada de fragmentação sob o {@code ChavePixRepository}.
+ *
+ * Envolve o repositório JPA e decide, por método, onde cada chamada é executada:
+ * <ul>
+ *     <li>operações de uma agência (inclusão, contagem do limite, consulta por agência e conta)
+ *     vão para um único shard;</li>
+ *     <li>operações por id ou por valor da chave consultam o {@link IndiceGlobalChaves} para
+ *     localizar o shard;</li>
+ *     <li>as demais consultas são executadas em paralelo em todos os shards e os resultados
+ *     são combinados e ordenados pela data de inclusão, ou pelo {@code Sort} informado.</li>
+ * </ul>
+ *
+ * A troca de agência para outro shard copia a chave para o destino e a remove da origem; se a
+ * remoção falhar ou a transação for desfeita, a cópia é removida.
+ */
+public class ChavePixRepositoryFragmentado implements InvocationHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ChavePixRepositoryFragmentado.class);
+
+    private static final Comparator<ChavePix> ORDEM = Comparator
+            .comparing(ChavePix::getDataHoraInclusao, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ChavePix::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Object delegate;
+    private final FragmentacaoChavePix fragmentacao;
+
+    private ChavePixRepositoryFragmentado(Object delegate, FragmentacaoChavePix fragmentacao) {
+        this.delegate = delegate;
+        this.fragmentacao = fragmentacao;
+    }
+
+    /**
+     * Cria o proxy fragmentado para o repositório informado.
+     *
+     * @param delegate     Repositório JPA original.
+     * @param fragmentacao Primitivas de execução sobre os shards.
+     * @return proxy que implementa as mesmas interfaces do repositório original.
+     */
+    public static Object criar(Object delegate, FragmentacaoChavePix fragmentacao) {
+        Class<?>[] interfaces = Arrays.stream(delegate.getClass().getInterfaces())
+                .filter(Repository.class::isAssignableFrom)
+                .toArray(Class<?>[]::new);
+        return Proxy.newProxyInstance(delegate.getClass().getClassLoader(), interfaces,
+                new ChavePixRepositoryFragmentado(delegate, fragmentacao));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invocar(method, args);
+        }
+        if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        }
+
+        String nome = method.getName();
+        switch (nome) {
+            case "save":
+                return salvar(method, (ChavePix) args[0]);
+            case "saveAll":
+                List<ChavePix> salvas = new ArrayList<>();
+                for (Object chave : (Iterable<?>) args[0]) {
+                    salvas.add(salvar(method.getDeclaringClass().getMethod("save", Object.class), (ChavePix) chave));
+                }
+                return salvas;
+            case "findById":
+            case "existsById":
+                return porId(method, args, (UUID) args[0]);
+            case "deleteById":
+                porId(method, args, (UUID) args[0]);
+                fragmentacao.getIndice().removerPorId((UUID) args[0]);
+                return null;
+            case "delete":
+                ChavePix removida = (ChavePix) args[0];
+                porId(method, args, removida.getId());
+                fragmentacao.getIndice().removerPorId(removida.getId());
+                return null;
+            case "deleteAllById":
+                Method deleteById = method.getDeclaringClass().getMethod("deleteById", Object.class);
+                for (Object id : (Iterable<?>) args[0]) {
+                    invoke(proxy, deleteById, new Object[]{id});
+                }
+                return null;
+            case "deleteAll":
+                if (args == null || args.length == 0) {
+                    fragmentacao.getIndice().limpar();
+                    return emTodos(method, args);
+                }
+                Method delete = method.getDeclaringClass().getMethod("delete", Object.class);
+                for (Object chave : (Iterable<?>) args[0]) {
+                    invoke(proxy, delete, new Object[]{chave});
+                }
+                return null;
+            case "flush":
+                return invocar(method, args);
+            case "findByValorChave":
+                Optional<Integer> shard = fragmentacao.getIndice().shardPorValor((String) args[0]);
+                if (shard.isEmpty()) {
+                    return Optional.empty();
+                }
+                return fragmentacao.executarNoShard(shard.get(), () -> invocar(method, args));
+            case "buscarPorFiltros":
+                if (args[2] != null) {
+                    return noShardDaAgencia((Integer) args[2], method, args);
+                }
+                return emTodos(method, args);
+            case "findAll":
+                if (args != null && args.length == 1 && args[0] instanceof Sort sort) {
+                    List<ChavePix> todas = new ArrayList<>();
+                    fragmentacao.executarEmTodos(() -> invocar(method, args)).forEach(r -> todas.addAll((List<ChavePix>) r));
+                    todas.sort(sort.isSorted() ? OrdenacaoChavePix.comparador(sort) : ORDEM);
+                    return todas;
+                }
+                if (args != null && args.length == 1 && args[0] instanceof Pageable pageable) {
+                    return pagina(method, pageable);
+                }
+                return emTodos(method, args);
+            default:
+                if (nome.contains("ByNumeroAgencia") && args != null && args[0] instanceof Integer) {
+                    return noShardDaAgencia((Integer) args[0], method, args);
+                }
+                return emTodos(method, args);
+        }
+    }
+
+    /**
+     * Página sobre todos os shards: cada shard devolve as primeiras {@code (página + 1) * tamanho}
+     * chaves na ordem pedida, as listas são combinadas e a página é recortada do resultado. Sem
+     * ordenação, usa a data de inclusão e o id, para que as páginas sejam estáveis.
+     */
+    @SuppressWarnings("unchecked")
+    private Page<ChavePix> pagina(Method method, Pageable pageable) throws Exception {
+        if (pageable.isUnpaged()) {
+            List<ChavePix> todas = new ArrayList<>();
+            fragmentacao.executarEmTodos(() -> invocar(method, new Object[]{pageable}))
+                    .forEach(r -> todas.addAll(((Page<ChavePix>) r).getContent()));
+            todas.sort(pageable.getSort().isSorted() ? OrdenacaoChavePix.comparador(pageable.getSort()) : ORDEM);
+            return new PageImpl<>(todas);
+        }
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("dataHoraInclusao", "id");
+        long limite = pageable.getOffset() + pageable.getPageSize();
+        Pageable prefixo = PageRequest.of(0, (int) Math.min(limite, Integer.MAX_VALUE), sort);
+        List<ChavePix> combinadas = new ArrayList<>();
+        long total = 0;
+        for (Object resultado : fragmentacao.executarEmTodos(() -> invocar(method, new Object[]{prefixo}))) {
+            Page<ChavePix> parcial = (Page<ChavePix>) resultado;
+            combinadas.addAll(parcial.getContent());
+            total += parcial.getTotalElements();
+        }
+        combinadas.sort(OrdenacaoChavePix.comparador(sort));
+        int inicio = (int) Math.min(pageable.getOffset(), combinadas.size());
+        int fim = (int) Math.min(limite, combinadas.size());
+        return new PageImpl<>(combinadas.subList(inicio, fim), pageable, total);
+    }
+
+    private ChavePix salvar(Method method, ChavePix chave) throws Exception {
+        int destino = fragmentacao.shardDaAgencia(chave.getNumeroAgencia());
+        IndiceGlobalChaves indice = fragmentacao.getIndice();
+
+        if (chave.getId() == null) {
+            indice.reservar(chave.getValorChave(), destino);
+            liberarReservaSeDesfeita(chave.getValorChave());
+            try {
+                ChavePix salva = fragmentacao.executarNoShard(destino, () -> (ChavePix) invocar(method, new Object[]{chave}));
+                indice.associarId(salva.getValorChave(), salva.getId());
+                return salva;
+            } catch (Exception e) {
+                indice.liberar(chave.getValorChave());
+                throw e;
+            }
+        }
+
+        int origem = indice.shardPorId(chave.getId()).orElse(destino);
+        if (origem == destino) {
+            return fragmentacao.executarNoShard(destino, () -> (ChavePix) invocar(method, new Object[]{chave}));
+        }
+
+        // Troca de agência para outro shard: copia a linha para o destino e remove da origem.
+        ChavePix movida = copiar(chave);
+        movida.setVersion(chave.getVersion() == null ? 0L : chave.getVersion() + 1);
+        fragmentacao.copiarParaShard(movida, destino);
+        Method delete = method.getDeclaringClass().getMethod("delete", Object.class);
+        try {
+            fragmentacao.executarNoShard(origem, () -> invocar(delete, new Object[]{chave}));
+        } catch (Exception e) {
+            desfazerCopia(movida, destino, e);
+            throw e;
+        }
+        concluirMovimento(movida, origem, destino);
+        return movida;
+    }
+
+    /**
+     * Conclui a troca de shard conforme o desfecho da remoção na origem. A cópia no destino é
+     * gravada fora da transação; com transação ativa, o índice só passa a apontar para o destino
+     * após o commit, e a cópia é removida se a transação for desfeita. Desfecho desconhecido deixa
+     * a chave nos dois shards e é registrado para reconciliação.
+     */
+    private void concluirMovimento(ChavePix movida, int origem, int destino) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            fragmentacao.getIndice().mover(movida.getId(), destino);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    fragmentacao.getIndice().mover(movida.getId(), destino);
+                } else if (status == STATUS_ROLLED_BACK) {
+                    desfazerCopia(movida, destino, null);
+                } else {
+                    log.error("Desfecho desconhecido ao mover a chave {} do shard {} para o shard {}; " +
+                            "a chave pode estar nos dois shards.", movida.getId(), origem, destino);
+                }
+            }
+        });
+    }
+
+    private void desfazerCopia(ChavePix movida, int destino, Exception causa) {
+        try {
+            fragmentacao.removerDoShard(movida.getId(), movida.getVersion(), destino);
+        } catch (RuntimeException e) {
+            log.error("Falha ao remover a cópia da chave {} do shard {}; a chave pode estar nos dois shards.",
+                    movida.getId(), destino, e);
+            if (causa != null) {
+                causa.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Libera a reserva no índice global caso a transação que incluiu a chave seja desfeita,
+     * inclusive por falhas no flush durante o commit.
+     */
+    private void liberarReservaSeDesfeita(String valorChave) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        fragmentacao.getIndice().liberar(valorChave);
+                    }
+                }
+            });
+        }
+    }
+
+    private Object porId(Method method, Object[] args, UUID id) throws Exception {
+        Optional<Integer> shard = id == null ? Optional.empty() : fragmentacao.getIndice().shardPorId(id);
+        if (shard.isEmpty()) {
+            return vazio(method);
+        }
+        return fragmentacao.executarNoShard(shard.get(), () -> invocar(method, args));
+    }
+
+    private Object noShardDaAgencia(int agencia, Method method, Object[] args) throws Exception {
+        return fragmentacao.executarNoShard(fragmentacao.shardDaAgencia(agencia), () -> invocar(method, args));
+    }
+
+    private Object emTodos(Method method, Object[] args) throws Exception {
+        List<Object> resultados = fragmentacao.executarEmTodos(() -> invocar(method, args));
+        Class<?> retorno = method.getReturnType();
+
+        if (Collection.class.isAssignableFrom(retorno) || Iterable.class.equals(retorno)) {
+            List<Object> combinados = new ArrayList<>();
+            resultados.forEach(r -> ((Iterable<?>) r).forEach(combinados::add));
+            if (combinados.stream().allMatch(ChavePix.class::isInstance)) {
+                combinados.sort((a, b) -> ORDEM.compare((ChavePix) a, (ChavePix) b));
+            }
+            return combinados;
+        }
+        if (retorno == long.class || retorno == Long.class) {
+            return resultados.stream().mapToLong(r -> (Long) r).sum();
+        }
+        if (retorno == boolean.class || retorno == Boolean.class) {
+            return resultados.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (retorno == Optional.class) {
+            return resultados.stream().map(Optional.class::cast).filter(Optional::isPresent).findFirst().orElse(Optional.empty());
+        }
+        if (retorno == void.class) {
+            return null;
+        }
+        throw new IllegalStateException("Retorno sem combinação entre shards: " + method);
+    }
+
+    private Object invocar(Method method, Object[] args) throws Exception {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof Exception) {
+                throw (Exception) causa;
+            }
+            throw (Error) causa;
+        }
+    }
+
+    private static Object vazio(Method method) {
+        Class<?> retorno = method.getReturnType();
+        if (retorno == Optional.class) {
+            return Optional.empty();
+        }
+        if (retorno == boolean.class) {
+            return false;
+        }
+        return null;
+    }
+
+    private static ChavePix copiar(ChavePix origem) {
+        ChavePix copia = new ChavePix();
+        copia.setId(origem.getId());
+        copia.setTipoChave(origem.getTipoChave());
+        copia.setValorChave(origem.getValorChave());
+        copia.setTipoConta(origem.getTipoConta());
+        copia.setNumeroAgencia(origem.getNumeroAgencia());
+        copia.setNumeroConta(origem.getNumeroConta());
+        copia.setNomeCorrentista(origem.getNomeCorrentista());
+        copia.setSobrenomeCorrentista(origem.getSobrenomeCorrentista());
+        copia.setDataHoraInclusao(origem.getDataHoraInclusao());
+        copia.setDataHoraInativacao(origem.getDataHoraInativacao());
+        return copia;
+    }
+}
@@ -0,0 +1,156 @@
+package com.desafio.casepixitau.sharding;
+
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.TipoChave;
+import com.desafio.casepixitau.model.TipoConta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Primitivas de execução sobre os shards de chaves Pix: roteamento de operações de uma única
+ * agência e execução paralela (scatter-gather) das consultas que abrangem todos os shards.
+ */
+public class FragmentacaoChavePix {
+
+    private final List<DataSource> shards;
+    private final ShardResolver resolver;
+    private final IndiceGlobalChaves indice;
+    private final ExecutorService executor;
+
+    /**
+     * Construtor da fragmentação.
+     *
+     * @param shards   Pools de conexão de cada shard, na ordem dos índices.
+     * @param resolver Função de particionamento por agência.
+     * @param indice   Índice global de valores de chave.
+     * @param executor Pool limitado usado nas consultas paralelas.
+     */
+    public FragmentacaoChavePix(List<DataSource> shards, ShardResolver resolver,
+                                IndiceGlobalChaves indice, ExecutorService executor) {
+        this.shards = shards;
+        this.resolver = resolver;
+        this.indice = indice;
+        this.executor = executor;
+    }
+
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    public int getQuantidadeShards() {
+        return shards.size();
+    }
+
+    public IndiceGlobalChaves getIndice() {
+        return indice;
+    }
+
+    /**
+     * Retorna o shard responsável pela agência.
+     *
+     * @param numeroAgencia Número da agência.
+     * @return índice do shard.
+     */
+    public int shardDaAgencia(int numeroAgencia) {
+        return resolver.resolver(numeroAgencia, shards.size());
+    }
+
+    /**
+     * Executa a operação no shard informado. Se a transação corrente já estiver vinculada a outro
+     * shard, a operação é executada em outra thread, fora da transação.
+     *
+     * @param shard   Índice do shard.
+     * @param chamada Operação a executar.
+     * @return o resultado da operação.
+     */
+    public <T> T executarNoShard(int shard, Callable<T> chamada) throws Exception {
+        Integer vinculado = ShardContexto.vinculadoATransacao();
+        if (vinculado != null && vinculado != shard) {
+            return aguardar(executor.submit(() -> ShardContexto.executar(shard, chamada)));
+        }
+        if (vinculado == null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            ShardContexto.vincularATransacao(shard);
+        }
+        return ShardContexto.executar(shard, chamada);
+    }
+
+    /**
+     * Executa a operação em todos os shards, em paralelo.
+     *
+     * @param chamada Operação a executar em cada shard.
+     * @return os resultados, na ordem dos shards.
+     */
+    public <T> List<T> executarEmTodos(Callable<T> chamada) throws Exception {
+        List<Future<T>> futuros = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            futuros.add(executor.submit(() -> ShardContexto.executar(shard, chamada)));
+        }
+        List<T> resultados = new ArrayList<>(shards.size());
+        for (Future<T> futuro : futuros) {
+            resultados.add(aguardar(futuro));
+        }
+        return resultados;
+    }
+
+    /**
+     * Copia a linha de uma chave para outro shard, usada quando a alteração troca a agência
+     * para uma agência de outro shard. A remoção do shard de origem é feita pelo chamador.
+     *
+     * @param chave       Chave com os dados já alterados.
+     * @param shardDestino Shard que passará a armazenar a chave.
+     */
+    public void copiarParaShard(ChavePix chave, int shardDestino) {
+        new JdbcTemplate(shards.get(shardDestino)).update(
+                "INSERT INTO tb_chavespix (id, tipo_chave, valor_chave, hash_valor_chave, tipo_conta, numero_agencia, " +
+                        "numero_conta, nome_correntista, sobrenome_correntista, data_hora_inclusao, data_hora_inativacao, version) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                chave.getId(), TipoChave.deValor(chave.getTipoChave()).getCodigo(), chave.getValorChave(), chave.getHashValorChave(),
+                TipoConta.deValor(chave.getTipoConta()).getCodigo(),
+                chave.getNumeroAgencia(), chave.getNumeroConta(), chave.getNomeCorrentista(),
+                chave.getSobrenomeCorrentista(), chave.getDataHoraInclusao(), chave.getDataHoraInativacao(),
+                chave.getVersion());
+    }
+
+    /**
+     * Remove do shard a cópia de uma chave gravada por {@link #copiarParaShard}, usada para
+     * desfazer a troca de shard. Só remove a linha com a versão da cópia, preservando alterações
+     * posteriores.
+     *
+     * @param id     Id da chave.
+     * @param versao Versão gravada na cópia.
+     * @param shard  Shard que recebeu a cópia.
+     */
+    public void removerDoShard(UUID id, long versao, int shard) {
+        new JdbcTemplate(shards.get(shard)).update("DELETE FROM tb_chavespix WHERE id = ? AND version = ?", id, versao);
+    }
+
+    /**
+     * Fecha os pools de conexão dos shards.
+     */
+    public void fechar() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable) {
+                ((AutoCloseable) shard).close();
+            }
+        }
+    }
+
+    private static <T> T aguardar(Future<T> futuro) throws Exception {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            throw causa instanceof Exception ? (Exception) causa : e;
+        }
+    }
+}
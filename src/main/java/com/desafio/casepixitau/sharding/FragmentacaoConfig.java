@@ -0,0 +1,126 @@
+package com.desafio.casepixitau.sharding;
+
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuração da fragmentação da tabela de chaves por agência entre vários bancos.
+ *
+ * Ativada por {@code pix.sharding.enabled=true}. Os shards são informados em {@code pix.sharding.urls}
+ * (separados por vírgula) e o índice global de valores fica no banco de {@code spring.datasource.*}.
+ * Não pode ser combinada com o roteamento para réplica de leitura ({@code pix.datasource.replica.enabled}):
+ * as duas configurações definem o {@code dataSource} primário, e a inicialização falha se ambas estiverem ativas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pix.sharding.enabled", havingValue = "true")
+public class FragmentacaoConfig {
+
+    /**
+     * Construtor da configuração da fragmentação.
+     *
+     * @param replica Indica se o roteamento para réplica de leitura está habilitado.
+     */
+    public FragmentacaoConfig(@Value("${pix.datasource.replica.enabled:false}") boolean replica) {
+        if (replica) {
+            throw new IllegalStateException("A fragmentação da tabela de chaves não é suportada com a réplica de leitura: "
+                    + "use pix.datasource.replica.enabled=false com pix.sharding.enabled=true.");
+        }
+    }
+
+    @Bean
+    public HikariDataSource diretorioDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("diretorio");
+        new ResourceDatabasePopulator(new ClassPathResource("db/sharding/schema-diretorio.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(FragmentacaoChavePix fragmentacao) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(fragmentacao.getShards()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ShardResolver shardResolver() {
+        return new ModuloAgenciaShardResolver();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService fragmentacaoExecutor(@Value("${pix.sharding.threads:16}") int threads) {
+        AtomicInteger contador = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 64),
+                r -> {
+                    Thread thread = new Thread(r, "pix-shard-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean(destroyMethod = "fechar")
+    public FragmentacaoChavePix fragmentacaoChavePix(@Value("${pix.sharding.urls}") List<String> urls,
+                                                     @Value("${pix.sharding.username:}") String username,
+                                                     @Value("${pix.sharding.password:}") String password,
+                                                     @Value("${pix.sharding.pool-size:10}") int poolSize,
+                                                     ShardResolver resolver,
+                                                     @Qualifier("diretorioDataSource") DataSource diretorio,
+                                                     @Qualifier("fragmentacaoExecutor") ExecutorService executor) {
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("db/sharding/schema-shard.sql"));
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSource.setPoolName("shard-" + shards.size());
+            dataSource.setMaximumPoolSize(poolSize);
+            schema.execute(dataSource);
+            shards.add(dataSource);
+        }
+        return new FragmentacaoChavePix(shards, resolver, new IndiceGlobalChaves(diretorio), executor);
+    }
+
+    /**
+     * Envolve os repositórios de chaves Pix com a camada de fragmentação.
+     */
+    @Bean
+    public static BeanPostProcessor fragmentacaoRepositoryPostProcessor(ObjectProvider<FragmentacaoChavePix> fragmentacao) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ChavePixRepository) {
+                    return ChavePixRepositoryFragmentado.criar(bean, fragmentacao.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
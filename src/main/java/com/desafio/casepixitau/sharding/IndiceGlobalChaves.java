@@ -0,0 +1,114 @@
+package com.desafio.casepixitau.sharding;
+
+import com.desafio.casepixitau.exception.ChavePixException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Índice global, mantido no banco de diretório, que associa cada valor de chave ao seu id e shard.
+ *
+ * Garante a unicidade de {@code valorChave} entre todos os shards e permite localizar o shard
+ * de uma chave a partir do id ou do valor sem consultar todos os bancos.
+ */
+public class IndiceGlobalChaves {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Construtor do índice global.
+     *
+     * @param diretorio DataSource do banco de diretório.
+     */
+    public IndiceGlobalChaves(DataSource diretorio) {
+        this.jdbcTemplate = new JdbcTemplate(diretorio);
+    }
+
+    /**
+     * Reserva o valor da chave para o shard informado.
+     *
+     * @param valorChave Valor da chave Pix.
+     * @param shard      Shard que receberá a chave.
+     * @throws ChavePixException se o valor já estiver reservado.
+     */
+    public void reservar(String valorChave, int shard) {
+        try {
+            jdbcTemplate.update("INSERT INTO tb_chavespix_indice (valor_chave, shard) VALUES (?, ?)", valorChave, shard);
+        } catch (DuplicateKeyException e) {
+            throw new ChavePixException("O valor da chave já está cadastrado.");
+        }
+    }
+
+    /**
+     * Associa o id gerado na inclusão ao valor reservado.
+     *
+     * @param valorChave Valor da chave Pix.
+     * @param id         Identificador da chave.
+     */
+    public void associarId(String valorChave, UUID id) {
+        jdbcTemplate.update("UPDATE tb_chavespix_indice SET id = ? WHERE valor_chave = ?", id, valorChave);
+    }
+
+    /**
+     * Atualiza o shard de uma chave que mudou de agência.
+     *
+     * @param id    Identificador da chave.
+     * @param shard Novo shard.
+     */
+    public void mover(UUID id, int shard) {
+        jdbcTemplate.update("UPDATE tb_chavespix_indice SET shard = ? WHERE id = ?", shard, id);
+    }
+
+    /**
+     * Remove a entrada do índice pelo valor da chave.
+     *
+     * @param valorChave Valor da chave Pix.
+     */
+    public void liberar(String valorChave) {
+        jdbcTemplate.update("DELETE FROM tb_chavespix_indice WHERE valor_chave = ?", valorChave);
+    }
+
+    /**
+     * Remove a entrada do índice pelo id da chave.
+     *
+     * @param id Identificador da chave.
+     */
+    public void removerPorId(UUID id) {
+        jdbcTemplate.update("DELETE FROM tb_chavespix_indice WHERE id = ?", id);
+    }
+
+    /**
+     * Localiza o shard de uma chave pelo id.
+     *
+     * @param id Identificador da chave.
+     * @return o shard, se a chave estiver indexada.
+     */
+    public Optional<Integer> shardPorId(UUID id) {
+        return primeiro(jdbcTemplate.queryForList("SELECT shard FROM tb_chavespix_indice WHERE id = ?", Integer.class, id));
+    }
+
+    /**
+     * Localiza o shard de uma chave pelo valor.
+     *
+     * @param valorChave Valor da chave Pix.
+     * @return o shard, se a chave estiver indexada.
+     */
+    public Optional<Integer> shardPorValor(String valorChave) {
+        return primeiro(jdbcTemplate.queryForList("SELECT shard FROM tb_chavespix_indice WHERE valor_chave = ?", Integer.class, valorChave));
+    }
+
+    /**
+     * Remove todas as entradas do índice.
+     */
+    public void limpar() {
+        jdbcTemplate.update("DELETE FROM tb_chavespix_indice");
+    }
+
+    private static Optional<Integer> primeiro(List<Integer> shards) {
+        return shards.isEmpty() ? Optional.empty() : Optional.of(shards.get(0));
+    }
+}
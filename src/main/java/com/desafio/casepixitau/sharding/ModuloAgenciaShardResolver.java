@@ -0,0 +1,12 @@
+package com.desafio.casepixitau.sharding;
+
+/**
+ * Estratégia padrão de particionamento: resto da divisão do número da agência pela quantidade de shards.
+ */
+public class ModuloAgenciaShardResolver implements ShardResolver {
+
+    @Override
+    public int resolver(int numeroAgencia, int quantidadeShards) {
+        return Math.floorMod(numeroAgencia, quantidadeShards);
+    }
+}
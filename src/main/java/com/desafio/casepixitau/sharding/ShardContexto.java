@@ -0,0 +1,87 @@
+package com.desafio.casepixitau.sharding;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Guarda o shard alvo da thread corrente e o shard ao qual a transação corrente ficou vinculada.
+ *
+ * Uma transação JPA usa uma única conexão; por isso, depois que a primeira operação de uma transação
+ * escolhe um shard, todas as demais (inclusive o flush no commit) são roteadas para o mesmo shard.
+ * Não deve ser instanciada.
+ */
+public final class ShardContexto {
+
+    private static final ThreadLocal<Integer> SHARD_ATUAL = new ThreadLocal<>();
+    private static final Object CHAVE_TRANSACAO = new Object();
+
+    /**
+     * Construtor privado para evitar instanciamento da classe.
+     */
+    private ShardContexto() {
+        throw new UnsupportedOperationException("Classe utilitária não pode ser instanciada.");
+    }
+
+    /**
+     * Retorna o shard a ser usado pela próxima conexão obtida na thread corrente.
+     *
+     * @return índice do shard, ou nulo se nenhum estiver definido.
+     */
+    public static Integer atual() {
+        Integer shard = SHARD_ATUAL.get();
+        if (shard == null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            shard = (Integer) TransactionSynchronizationManager.getResource(CHAVE_TRANSACAO);
+        }
+        return shard;
+    }
+
+    /**
+     * Retorna o shard vinculado à transação corrente.
+     *
+     * @return índice do shard, ou nulo se não houver transação ou vínculo.
+     */
+    public static Integer vinculadoATransacao() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        return (Integer) TransactionSynchronizationManager.getResource(CHAVE_TRANSACAO);
+    }
+
+    /**
+     * Vincula a transação corrente ao shard informado, até o seu término.
+     *
+     * @param shard Índice do shard.
+     */
+    public static void vincularATransacao(int shard) {
+        TransactionSynchronizationManager.bindResource(CHAVE_TRANSACAO, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CHAVE_TRANSACAO);
+            }
+        });
+    }
+
+    /**
+     * Executa a chamada com o shard informado definido na thread corrente.
+     *
+     * @param shard   Índice do shard.
+     * @param chamada Operação a executar.
+     * @return o resultado da operação.
+     */
+    public static <T> T executar(int shard, Callable<T> chamada) throws Exception {
+        Integer anterior = SHARD_ATUAL.get();
+        SHARD_ATUAL.set(shard);
+        try {
+            return chamada.call();
+        } finally {
+            if (anterior == null) {
+                SHARD_ATUAL.remove();
+            } else {
+                SHARD_ATUAL.set(anterior);
+            }
+        }
+    }
+}
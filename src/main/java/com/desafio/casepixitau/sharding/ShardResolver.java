@@ -0,0 +1,20 @@
+package com.desafio.casepixitau.sharding;
+
+/**
+ * Função de particionamento das contas entre os shards.
+ *
+ * Todas as chaves de uma mesma agência ficam no mesmo shard, de modo que as operações
+ * de uma conta (inclusão, contagem do limite e consulta por agência e conta) tocam um único banco.
+ * Para trocar a estratégia basta declarar outro bean que implemente esta interface.
+ */
+public interface ShardResolver {
+
+    /**
+     * Retorna o shard responsável pela agência informada.
+     *
+     * @param numeroAgencia    Número da agência.
+     * @param quantidadeShards Quantidade total de shards configurados.
+     * @return índice do shard, entre 0 (inclusive) e {@code quantidadeShards} (exclusive).
+     */
+    int resolver(int numeroAgencia, int quantidadeShards);
+}
@@ -0,0 +1,35 @@
+package com.desafio.casepixitau.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource que encaminha cada conexão ao shard definido no {@link ShardContexto}.
+ * Sem shard definido, usa o shard 0.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Construtor do DataSource de roteamento entre shards.
+     *
+     * @param shards Pools de conexão de cada shard, na ordem dos índices.
+     */
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        Map<Object, Object> destinos = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            destinos.put(i, shards.get(i));
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContexto.atual();
+    }
+}
@@ -0,0 +1,295 @@
+package com.desafio.casepixitau.snapshot;
+
+import com.desafio.casepixitau.model.ChavePix;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Arquivo de snapshot binário do diretório de chaves Pix, para a carga inicial de novos nós e
+ * réplicas sem reenviar as chaves pela API.
+ *
+ * Formato:
+ * <pre>
+ * cabeçalho: assinatura "PIXC" (int), versão do formato (int), quantidade máxima de chaves por bloco (int)
+ * bloco:     quantidade de chaves (int), tamanho codificado (int), tamanho comprimido (int),
+ *            CRC32C do conteúdo comprimido (int), conteúdo comprimido (Deflate)
+ * final:     0 (int), total de chaves (long)
+ * </pre>
+ * O conteúdo de cada bloco é a codificação colunar de {@link CodecColunarChavePix}. Como cada
+ * bloco tem o seu próprio CRC e é comprimido de forma independente, a carga lê os blocos em
+ * sequência e os confere, descomprime e decodifica em paralelo. O arquivo é gravado em um
+ * temporário, sincronizado e renomeado, de forma que um snapshot incompleto nunca é carregado.
+ */
+public class ArquivoSnapshotChavePix {
+
+    private static final int ASSINATURA = 0x50495843; // "PIXC"
+    private static final int VERSAO_FORMATO = 1;
+    private static final int TAMANHO_MAXIMO_BLOCO = 256 * 1024 * 1024;
+
+    private final int tamanhoBloco;
+    private final int threads;
+
+    /**
+     * Construtor do arquivo de snapshot.
+     *
+     * @param tamanhoBloco Quantidade máxima de chaves por bloco na gravação.
+     * @param threads      Quantidade de threads que decodificam os blocos na carga.
+     */
+    public ArquivoSnapshotChavePix(int tamanhoBloco, int threads) {
+        this.tamanhoBloco = tamanhoBloco;
+        this.threads = threads;
+    }
+
+    /**
+     * Grava um snapshot.
+     *
+     * @param destino Arquivo do snapshot.
+     * @param fonte   Função que entrega cada chave do diretório ao consumidor recebido.
+     * @return a quantidade de chaves gravadas.
+     */
+    public long gravar(Path destino, Consumer<Consumer<ChavePix>> fonte) throws IOException {
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        long quantidade;
+
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16));
+            saida.writeInt(ASSINATURA);
+            saida.writeInt(VERSAO_FORMATO);
+            saida.writeInt(tamanhoBloco);
+
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            List<ChavePix> bloco = new ArrayList<>(tamanhoBloco);
+            long[] contador = {0};
+            IOException[] erro = {null};
+            try {
+                fonte.accept(chave -> {
+                    if (erro[0] != null) {
+                        return;
+                    }
+                    bloco.add(chave);
+                    if (bloco.size() == tamanhoBloco) {
+                        try {
+                            contador[0] += escreverBloco(saida, deflater, bloco);
+                        } catch (IOException e) {
+                            erro[0] = e;
+                        }
+                    }
+                });
+                if (erro[0] != null) {
+                    throw erro[0];
+                }
+                contador[0] += escreverBloco(saida, deflater, bloco);
+            } finally {
+                deflater.end();
+            }
+            quantidade = contador[0];
+            saida.writeInt(0);
+            saida.writeLong(quantidade);
+            saida.flush();
+            canal.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return quantidade;
+    }
+
+    /**
+     * Carrega um snapshot, entregando as chaves de cada bloco ao destino assim que o bloco é
+     * decodificado. O destino é chamado em paralelo pelas threads da carga, sem ordem entre os
+     * blocos; uma falha no destino interrompe a carga e é relançada. Ao retornar, ou ao lançar a
+     * falha, nenhuma thread da carga continua entregando blocos ao destino.
+     *
+     * @param origem  Arquivo do snapshot.
+     * @param destino Consumidor das chaves de cada bloco.
+     * @return a quantidade de chaves carregadas.
+     * @throws IOException se o arquivo estiver incompleto ou algum bloco estiver corrompido.
+     */
+    public long carregar(Path origem, Consumer<List<ChavePix>> destino) throws IOException {
+        AtomicInteger numero = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "snapshot-carga-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Limita os blocos lidos e ainda não decodificados, e portanto a memória da carga.
+        Semaphore pendentes = new Semaphore(threads * 2);
+        AtomicReference<Throwable> falha = new AtomicReference<>();
+        List<Future<?>> blocos = new ArrayList<>();
+        long quantidade = 0;
+
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(origem), 1 << 16))) {
+            if (entrada.readInt() != ASSINATURA || entrada.readInt() != VERSAO_FORMATO) {
+                throw new IOException("Arquivo " + origem + " não é um snapshot de chaves Pix.");
+            }
+            int maximoChaves = entrada.readInt();
+            int chavesBloco;
+            while ((chavesBloco = entrada.readInt()) != 0) {
+                int indice = blocos.size();
+                int chaves = chavesBloco;
+                int tamanho = entrada.readInt();
+                int comprimido = entrada.readInt();
+                int crc = entrada.readInt();
+                if (chaves < 0 || chaves > maximoChaves || tamanho < 0 || tamanho > TAMANHO_MAXIMO_BLOCO
+                        || comprimido < 0 || comprimido > TAMANHO_MAXIMO_BLOCO) {
+                    throw new IOException("Cabeçalho do bloco " + indice + " do snapshot corrompido.");
+                }
+                byte[] conteudo = new byte[comprimido];
+                entrada.readFully(conteudo);
+                quantidade += chaves;
+
+                pendentes.acquireUninterruptibly();
+                if (falha.get() != null) {
+                    pendentes.release();
+                    break;
+                }
+                blocos.add(executor.submit(() -> {
+                    try {
+                        destino.accept(lerBloco(indice, conteudo, crc, tamanho, chaves));
+                    } catch (IOException | RuntimeException | Error e) {
+                        falha.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        pendentes.release();
+                    }
+                    return null;
+                }));
+            }
+            if (falha.get() == null && entrada.readLong() != quantidade) {
+                throw new IOException("Total de chaves do snapshot diverge da soma dos blocos.");
+            }
+            aguardar(blocos);
+        } catch (EOFException e) {
+            throw new IOException("Snapshot " + origem + " incompleto.", e);
+        } finally {
+            executor.shutdownNow();
+            aguardarTermino(executor);
+        }
+        return quantidade;
+    }
+
+    private int escreverBloco(DataOutputStream saida, Deflater deflater, List<ChavePix> bloco) throws IOException {
+        int quantidade = bloco.size();
+        if (quantidade == 0) {
+            return 0;
+        }
+        byte[] codificado = CodecColunarChavePix.codificar(bloco);
+        bloco.clear();
+
+        deflater.reset();
+        deflater.setInput(codificado);
+        deflater.finish();
+        byte[] comprimido = new byte[codificado.length + codificado.length / 1000 + 64];
+        int tamanho = 0;
+        while (!deflater.finished()) {
+            if (tamanho == comprimido.length) {
+                comprimido = Arrays.copyOf(comprimido, comprimido.length * 2);
+            }
+            tamanho += deflater.deflate(comprimido, tamanho, comprimido.length - tamanho);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(comprimido, 0, tamanho);
+
+        saida.writeInt(quantidade);
+        saida.writeInt(codificado.length);
+        saida.writeInt(tamanho);
+        saida.writeInt((int) crc.getValue());
+        saida.write(comprimido, 0, tamanho);
+        return quantidade;
+    }
+
+    private static List<ChavePix> lerBloco(int indice, byte[] comprimido, int crcEsperado, int tamanho, int chaves)
+            throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(comprimido);
+        if ((int) crc.getValue() != crcEsperado) {
+            throw new IOException("Bloco " + indice + " do snapshot corrompido: CRC32C divergente.");
+        }
+        byte[] codificado = new byte[tamanho];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(comprimido);
+            int lidos = 0;
+            while (lidos < tamanho && !inflater.finished()) {
+                int n = inflater.inflate(codificado, lidos, tamanho - lidos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                lidos += n;
+            }
+            if (lidos != tamanho || !inflater.finished()) {
+                throw new IOException("Bloco " + indice + " do snapshot com tamanho divergente.");
+            }
+            return CodecColunarChavePix.decodificar(codificado, tamanho, chaves);
+        } catch (DataFormatException | IllegalArgumentException e) {
+            throw new IOException("Bloco " + indice + " do snapshot corrompido.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void aguardarTermino(ExecutorService executor) {
+        boolean interrompida = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrompida = true;
+            }
+        }
+        if (interrompida) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void aguardar(List<Future<?>> blocos) throws IOException {
+        try {
+            for (Future<?> bloco : blocos) {
+                bloco.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga do snapshot interrompida.", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException io) {
+                throw io;
+            }
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("Falha na carga do snapshot.", causa);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.desafio.casepixitau.snapshot;
+
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.TipoChave;
+import com.desafio.casepixitau.model.TipoConta;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Codificação colunar de um bloco de chaves Pix, usada no arquivo de snapshot binário.
+ *
+ * Cada atributo é gravado em uma coluna contígua, na ordem das chaves do bloco, o que aproxima
+ * valores parecidos e favorece a compressão do bloco:
+ * <ul>
+ *     <li>id: parte alta como diferença para a chave anterior (os UUIDv7 de um mesmo período
+ *     diferem pouco) e parte baixa com os 8 bytes originais;</li>
+ *     <li>versão, agência e conta como inteiros de tamanho variável;</li>
+ *     <li>tipo da chave e tipo da conta como o código persistido de um byte;</li>
+ *     <li>inclusão como diferença de segundos para a chave anterior, mais os nanossegundos, e
+ *     inativação como diferença de segundos para a inclusão ({@code 0} para nulo);</li>
+ *     <li>textos como a coluna de tamanhos ({@code 0} para nulo, senão tamanho + 1) seguida da
+ *     coluna com os bytes UTF-8 concatenados.</li>
+ * </ul>
+ * Datas são tratadas em UTC, como em {@code CodecChavePix}.
+ */
+final class CodecColunarChavePix {
+
+    private CodecColunarChavePix() {
+    }
+
+    static byte[] codificar(List<ChavePix> chaves) {
+        Saida saida = new Saida(chaves.size() * 128);
+
+        long anterior = 0;
+        for (ChavePix chave : chaves) {
+            long alta = chave.getId().getMostSignificantBits();
+            saida.varLongZigZag(alta - anterior);
+            anterior = alta;
+        }
+        for (ChavePix chave : chaves) {
+            saida.longFixo(chave.getId().getLeastSignificantBits());
+        }
+        for (ChavePix chave : chaves) {
+            saida.varLong(chave.getVersion() == null ? 0 : chave.getVersion());
+        }
+        for (ChavePix chave : chaves) {
+            saida.byteFixo(TipoChave.deValor(chave.getTipoChave()).getCodigo());
+        }
+        for (ChavePix chave : chaves) {
+            saida.byteFixo(TipoConta.deValor(chave.getTipoConta()).getCodigo());
+        }
+        for (ChavePix chave : chaves) {
+            saida.varLongZigZag(chave.getNumeroAgencia());
+        }
+        for (ChavePix chave : chaves) {
+            saida.varLongZigZag(chave.getNumeroConta());
+        }
+
+        anterior = 0;
+        for (ChavePix chave : chaves) {
+            long segundos = chave.getDataHoraInclusao().toEpochSecond(ZoneOffset.UTC);
+            saida.varLongZigZag(segundos - anterior);
+            saida.varLong(chave.getDataHoraInclusao().getNano());
+            anterior = segundos;
+        }
+        for (ChavePix chave : chaves) {
+            LocalDateTime inativacao = chave.getDataHoraInativacao();
+            if (inativacao == null) {
+                saida.varLong(0);
+            } else {
+                long diferenca = inativacao.toEpochSecond(ZoneOffset.UTC)
+                        - chave.getDataHoraInclusao().toEpochSecond(ZoneOffset.UTC);
+                saida.varLong(zigZag(diferenca) + 1);
+                saida.varLong(inativacao.getNano());
+            }
+        }
+
+        escreverTextos(saida, chaves, ChavePix::getValorChave);
+        escreverTextos(saida, chaves, ChavePix::getNomeCorrentista);
+        escreverTextos(saida, chaves, ChavePix::getSobrenomeCorrentista);
+        return saida.bytes();
+    }
+
+    static List<ChavePix> decodificar(byte[] bloco, int tamanho, int quantidade) {
+        Entrada entrada = new Entrada(bloco, tamanho);
+        long[] altas = new long[quantidade];
+        long anterior = 0;
+        for (int i = 0; i < quantidade; i++) {
+            anterior += entrada.varLongZigZag();
+            altas[i] = anterior;
+        }
+        List<ChavePix> chaves = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            ChavePix chave = new ChavePix();
+            chave.setId(new UUID(altas[i], entrada.longFixo()));
+            chaves.add(chave);
+        }
+        for (ChavePix chave : chaves) {
+            chave.setVersion(entrada.varLong());
+        }
+        for (ChavePix chave : chaves) {
+            chave.setTipoChave(TipoChave.deCodigo(entrada.byteFixo()).getValor());
+        }
+        for (ChavePix chave : chaves) {
+            chave.setTipoConta(TipoConta.deCodigo(entrada.byteFixo()).getValor());
+        }
+        for (ChavePix chave : chaves) {
+            chave.setNumeroAgencia((int) entrada.varLongZigZag());
+        }
+        for (ChavePix chave : chaves) {
+            chave.setNumeroConta((int) entrada.varLongZigZag());
+        }
+
+        anterior = 0;
+        for (ChavePix chave : chaves) {
+            anterior += entrada.varLongZigZag();
+            chave.setDataHoraInclusao(LocalDateTime.ofEpochSecond(anterior, (int) entrada.varLong(), ZoneOffset.UTC));
+        }
+        for (ChavePix chave : chaves) {
+            long diferenca = entrada.varLong();
+            if (diferenca != 0) {
+                long segundos = chave.getDataHoraInclusao().toEpochSecond(ZoneOffset.UTC) + desfazerZigZag(diferenca - 1);
+                chave.setDataHoraInativacao(LocalDateTime.ofEpochSecond(segundos, (int) entrada.varLong(), ZoneOffset.UTC));
+            }
+        }
+
+        String[] textos = lerTextos(entrada, quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            chaves.get(i).setValorChave(textos[i]);
+        }
+        textos = lerTextos(entrada, quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            chaves.get(i).setNomeCorrentista(textos[i]);
+        }
+        textos = lerTextos(entrada, quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            chaves.get(i).setSobrenomeCorrentista(textos[i]);
+        }
+        if (entrada.restante() != 0) {
+            throw new IllegalArgumentException("Bloco com " + entrada.restante() + " bytes além das colunas.");
+        }
+        return chaves;
+    }
+
+    private static void escreverTextos(Saida saida, List<ChavePix> chaves, Function<ChavePix, String> atributo) {
+        byte[][] bytes = new byte[chaves.size()][];
+        for (int i = 0; i < bytes.length; i++) {
+            String texto = atributo.apply(chaves.get(i));
+            bytes[i] = texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+            saida.varLong(bytes[i] == null ? 0 : bytes[i].length + 1L);
+        }
+        for (byte[] texto : bytes) {
+            if (texto != null) {
+                saida.bytes(texto);
+            }
+        }
+    }
+
+    private static String[] lerTextos(Entrada entrada, int quantidade) {
+        int[] tamanhos = new int[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            tamanhos[i] = (int) entrada.varLong() - 1;
+        }
+        String[] textos = new String[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            if (tamanhos[i] >= 0) {
+                textos[i] = entrada.texto(tamanhos[i]);
+            }
+        }
+        return textos;
+    }
+
+    private static long zigZag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long desfazerZigZag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    /**
+     * Buffer de escrita que cresce conforme a necessidade.
+     */
+    private static final class Saida {
+        private byte[] bytes;
+        private int posicao;
+
+        private Saida(int capacidade) {
+            this.bytes = new byte[Math.max(capacidade, 64)];
+        }
+
+        private void garantir(int adicional) {
+            if (posicao + adicional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, posicao + adicional));
+            }
+        }
+
+        private void byteFixo(int valor) {
+            garantir(1);
+            bytes[posicao++] = (byte) valor;
+        }
+
+        private void longFixo(long valor) {
+            garantir(8);
+            for (int deslocamento = 56; deslocamento >= 0; deslocamento -= 8) {
+                bytes[posicao++] = (byte) (valor >>> deslocamento);
+            }
+        }
+
+        private void varLong(long valor) {
+            garantir(10);
+            while ((valor & ~0x7FL) != 0) {
+                bytes[posicao++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            bytes[posicao++] = (byte) valor;
+        }
+
+        private void varLongZigZag(long valor) {
+            varLong(zigZag(valor));
+        }
+
+        private void bytes(byte[] valor) {
+            garantir(valor.length);
+            System.arraycopy(valor, 0, bytes, posicao, valor.length);
+            posicao += valor.length;
+        }
+
+        private byte[] bytes() {
+            return Arrays.copyOf(bytes, posicao);
+        }
+    }
+
+    /**
+     * Leitura sequencial de um bloco. Leituras além do fim lançam {@link IllegalArgumentException}.
+     */
+    private static final class Entrada {
+        private final byte[] bytes;
+        private final int fim;
+        private int posicao;
+
+        private Entrada(byte[] bytes, int fim) {
+            this.bytes = bytes;
+            this.fim = fim;
+        }
+
+        private void exigir(int quantidade) {
+            if (quantidade < 0 || posicao + quantidade > fim) {
+                throw new IllegalArgumentException("Bloco truncado na posição " + posicao + ".");
+            }
+        }
+
+        private short byteFixo() {
+            exigir(1);
+            return bytes[posicao++];
+        }
+
+        private long longFixo() {
+            exigir(8);
+            long valor = 0;
+            for (int i = 0; i < 8; i++) {
+                valor = (valor << 8) | (bytes[posicao++] & 0xFF);
+            }
+            return valor;
+        }
+
+        private long varLong() {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+                exigir(1);
+                byte b = bytes[posicao++];
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+            throw new IllegalArgumentException("Inteiro de tamanho variável inválido na posição " + posicao + ".");
+        }
+
+        private long varLongZigZag() {
+            return desfazerZigZag(varLong());
+        }
+
+        private String texto(int tamanho) {
+            exigir(tamanho);
+            String texto = new String(bytes, posicao, tamanho, StandardCharsets.UTF_8);
+            posicao += tamanho;
+            return texto;
+        }
+
+        private int restante() {
+            return fim - posicao;
+        }
+    }
+}
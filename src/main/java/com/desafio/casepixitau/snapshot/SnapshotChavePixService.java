@@ -0,0 +1,244 @@
+package com.desafio.casepixitau.snapshot;
+
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.journal.JournalChavePixService;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.TipoChave;
+import com.desafio.casepixitau.model.TipoConta;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.repository.ChavePixRepositoryMemoria;
+import com.desafio.casepixitau.service.CacheConsultas;
+import com.desafio.casepixitau.service.EstatisticasChavePixService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Exportação e importação do diretório de chaves Pix em snapshot binário
+ * ({@link ArquivoSnapshotChavePix}), usadas na carga inicial de novos ambientes, nós e réplicas.
+ *
+ * A exportação percorre {@code tb_chavespix} em uma única consulta de leitura com cursor
+ * ({@code fetchSize}), sem carregar a tabela em memória. A importação decodifica os blocos em
+ * paralelo e grava cada bloco com {@code INSERT} em lote na sua própria transação; no perfil
+ * {@code memoria}, as chaves são restauradas diretamente no repositório em memória. Se a
+ * importação falhar, as chaves dos blocos já gravados são removidas, e o diretório volta a ficar
+ * vazio para uma nova tentativa. Ao final, o cache de consultas é limpo e as estatísticas são
+ * recalculadas, pois a carga não publica eventos de mutação; pelo mesmo motivo, com o journal
+ * habilitado, as chaves importadas são registradas nele como inclusões, depois da carga.
+ *
+ * O snapshot contém apenas a tabela de chaves (não inclui o arquivo de chaves inativadas) e a
+ * importação exige o diretório vazio e sem outras gravações durante a carga, como na linha de
+ * comando ({@link SnapshotComandos}), que roda antes de a aplicação receber tráfego. Não é
+ * suportado com a fragmentação da tabela de chaves: com {@code pix.sharding.enabled=true}, a
+ * inicialização falha se um comando de snapshot estiver configurado, e a importação é recusada.
+ */
+@Service
+public class SnapshotChavePixService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotChavePixService.class);
+
+    private static final String SELECT = "SELECT id, tipo_chave, valor_chave, tipo_conta, numero_agencia, " +
+            "numero_conta, nome_correntista, sobrenome_correntista, data_hora_inclusao, data_hora_inativacao, " +
+            "version FROM tb_chavespix";
+    private static final String DELETE = "DELETE FROM tb_chavespix";
+    private static final String INSERT = "INSERT INTO tb_chavespix (id, tipo_chave, valor_chave, hash_valor_chave, " +
+            "tipo_conta, numero_agencia, numero_conta, nome_correntista, sobrenome_correntista, data_hora_inclusao, " +
+            "data_hora_inativacao, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ChavePixRepository repository;
+    private final ChavePixRepositoryMemoria memoria;
+    private final CacheConsultas cache;
+    private final EstatisticasChavePixService estatisticas;
+    private final JournalChavePixService journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final TransactionTemplate transacaoLeitura;
+    private final ArquivoSnapshotChavePix arquivo;
+    private final int loteInsercao;
+    private final boolean fragmentacao;
+
+    /**
+     * Construtor do serviço de snapshot.
+     *
+     * @param repository         Repositório de chaves Pix, usado para conferir se o diretório está vazio.
+     * @param memoria            Repositório em memória, presente apenas no perfil {@code memoria}.
+     * @param cache              Cache de consultas, limpo após a importação.
+     * @param estatisticas       Serviço de estatísticas, recalculadas após a importação.
+     * @param journal            Journal de mutações, presente apenas com {@code pix.journal.enabled=true}.
+     * @param dataSource         DataSource da tabela de chaves.
+     * @param transactionManager Gerenciador das transações da exportação e de cada bloco importado.
+     * @param tamanhoBloco       Quantidade máxima de chaves por bloco do snapshot.
+     * @param threads            Quantidade de threads que decodificam e gravam os blocos na importação.
+     * @param loteInsercao       Quantidade de chaves por lote de {@code INSERT} enviado ao banco.
+     * @param fragmentacao       Indica se a fragmentação da tabela de chaves está habilitada.
+     * @param comando            Comando de snapshot da linha de comando, vazio se não houver.
+     */
+    public SnapshotChavePixService(ChavePixRepository repository,
+                                   ObjectProvider<ChavePixRepositoryMemoria> memoria,
+                                   CacheConsultas cache,
+                                   EstatisticasChavePixService estatisticas,
+                                   ObjectProvider<JournalChavePixService> journal,
+                                   DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${pix.snapshot.tamanho-bloco:8192}") int tamanhoBloco,
+                                   @Value("${pix.snapshot.threads:4}") int threads,
+                                   @Value("${pix.snapshot.lote-insercao:1000}") int loteInsercao,
+                                   @Value("${pix.sharding.enabled:false}") boolean fragmentacao,
+                                   @Value("${pix.snapshot.comando:}") String comando) {
+        if (fragmentacao && !comando.isBlank()) {
+            throw new IllegalStateException("O snapshot não é suportado com a fragmentação da tabela de chaves: "
+                    + "remova pix.snapshot.comando ou use pix.sharding.enabled=false.");
+        }
+        this.repository = repository;
+        this.memoria = memoria.getIfAvailable();
+        this.cache = cache;
+        this.estatisticas = estatisticas;
+        this.journal = journal.getIfAvailable();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(tamanhoBloco);
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.arquivo = new ArquivoSnapshotChavePix(tamanhoBloco, threads);
+        this.loteInsercao = loteInsercao;
+        this.fragmentacao = fragmentacao;
+    }
+
+    /**
+     * Exporta todas as chaves Pix para um snapshot.
+     *
+     * @param destino Arquivo do snapshot, substituído se existir.
+     * @return a quantidade de chaves exportadas.
+     */
+    public long exportar(Path destino) throws IOException {
+        long inicio = System.nanoTime();
+        long quantidade;
+        if (memoria != null) {
+            quantidade = arquivo.gravar(destino, memoria::paraCada);
+        } else {
+            try {
+                quantidade = transacaoLeitura.execute(status -> {
+                    try {
+                        return arquivo.gravar(destino, consumidor ->
+                                jdbcTemplate.query(SELECT, (RowCallbackHandler) rs -> consumidor.accept(mapear(rs))));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        log.info("Snapshot {} exportado com {} chaves Pix ({} bytes) em {} ms.", destino, quantidade,
+                Files.size(destino), (System.nanoTime() - inicio) / 1_000_000);
+        return quantidade;
+    }
+
+    /**
+     * Importa as chaves Pix de um snapshot para o diretório vazio. Em caso de falha, as chaves já
+     * gravadas são removidas antes de a falha ser relançada.
+     *
+     * @param origem Arquivo do snapshot.
+     * @return a quantidade de chaves importadas.
+     * @throws IllegalStateException se a fragmentação estiver habilitada ou o diretório de chaves não estiver vazio.
+     */
+    public long importar(Path origem) throws IOException {
+        if (fragmentacao) {
+            throw new IllegalStateException("O snapshot não pode ser importado com a fragmentação da tabela de chaves.");
+        }
+        if (repository.count() > 0) {
+            throw new IllegalStateException("O snapshot só pode ser importado com o diretório de chaves Pix vazio.");
+        }
+        long inicio = System.nanoTime();
+        long quantidade;
+        try {
+            if (memoria != null) {
+                quantidade = arquivo.carregar(origem, lote -> lote.forEach(memoria::restaurar));
+            } else {
+                quantidade = arquivo.carregar(origem, this::inserir);
+            }
+        } catch (IOException | RuntimeException e) {
+            desfazer(origem, e);
+            throw e;
+        }
+        if (journal != null) {
+            arquivo.carregar(origem, lote -> journal.registrar(ChavePixEvento.Tipo.INCLUSAO, lote));
+        }
+        cache.limpar();
+        estatisticas.verificarConsistencia();
+        log.info("Snapshot {} importado com {} chaves Pix em {} ms.", origem, quantidade,
+                (System.nanoTime() - inicio) / 1_000_000);
+        return quantidade;
+    }
+
+    private void inserir(List<ChavePix> lote) {
+        transacao.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, lote, loteInsercao, (ps, chave) -> {
+            ps.setObject(1, chave.getId());
+            ps.setShort(2, TipoChave.deValor(chave.getTipoChave()).getCodigo());
+            ps.setString(3, chave.getValorChave());
+            ps.setLong(4, chave.getHashValorChave());
+            ps.setShort(5, TipoConta.deValor(chave.getTipoConta()).getCodigo());
+            ps.setInt(6, chave.getNumeroAgencia());
+            ps.setInt(7, chave.getNumeroConta());
+            ps.setString(8, chave.getNomeCorrentista());
+            ps.setString(9, chave.getSobrenomeCorrentista());
+            ps.setObject(10, chave.getDataHoraInclusao(), Types.TIMESTAMP);
+            ps.setObject(11, chave.getDataHoraInativacao(), Types.TIMESTAMP);
+            ps.setLong(12, chave.getVersion() == null ? 0 : chave.getVersion());
+        }));
+    }
+
+    /**
+     * Remove as chaves gravadas por uma importação que falhou. O diretório estava vazio no início
+     * da importação, portanto todas as chaves presentes vieram do snapshot.
+     */
+    private void desfazer(Path origem, Exception causa) {
+        try {
+            if (memoria != null) {
+                memoria.deleteAll();
+            } else {
+                transacao.executeWithoutResult(status -> jdbcTemplate.update(DELETE));
+            }
+            log.warn("Importação do snapshot {} falhou; as chaves já gravadas foram removidas.", origem);
+        } catch (RuntimeException e) {
+            causa.addSuppressed(e);
+        } finally {
+            cache.limpar();
+        }
+    }
+
+    private static ChavePix mapear(ResultSet rs) throws SQLException {
+        ChavePix chave = new ChavePix();
+        chave.setId(rs.getObject(1, UUID.class));
+        chave.setTipoChave(TipoChave.deCodigo(rs.getShort(2)).getValor());
+        chave.setValorChave(rs.getString(3));
+        chave.setTipoConta(TipoConta.deCodigo(rs.getShort(4)).getValor());
+        chave.setNumeroAgencia(rs.getInt(5));
+        chave.setNumeroConta(rs.getInt(6));
+        chave.setNomeCorrentista(rs.getString(7));
+        chave.setSobrenomeCorrentista(rs.getString(8));
+        chave.setDataHoraInclusao(rs.getObject(9, LocalDateTime.class));
+        chave.setDataHoraInativacao(rs.getObject(10, LocalDateTime.class));
+        long versao = rs.getLong(11);
+        chave.setVersion(rs.wasNull() ? 0 : versao);
+        return chave;
+    }
+}
@@ -0,0 +1,71 @@
+package com.desafio.casepixitau.snapshot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Comandos de snapshot do diretório de chaves Pix na linha de comando do jar da aplicação:
+ * <pre>
+ * java -jar case-pix-itau.jar --pix.snapshot.comando=exportar --pix.snapshot.arquivo=chaves.pixsnap
+ * java -jar case-pix-itau.jar --pix.snapshot.comando=importar --pix.snapshot.arquivo=chaves.pixsnap
+ * </pre>
+ * O comando roda antes dos demais {@link ApplicationRunner} (como o aquecimento) e, portanto,
+ * antes de a aplicação ficar pronta para o tráfego. Com {@code pix.snapshot.encerrar=true}
+ * (padrão), a aplicação é encerrada ao final, com código de saída 0; com {@code false}, ela segue
+ * atendendo, o que permite subir um nó no perfil {@code memoria} já carregado pelo snapshot. Uma
+ * falha no comando interrompe a inicialização.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "pix.snapshot.comando")
+public class SnapshotComandos implements ApplicationRunner {
+
+    private final SnapshotChavePixService service;
+    private final ConfigurableApplicationContext contexto;
+    private final String comando;
+    private final Path arquivo;
+    private final boolean encerrar;
+
+    /**
+     * Construtor dos comandos de snapshot.
+     *
+     * @param service  Serviço de exportação e importação do snapshot.
+     * @param contexto Contexto da aplicação, fechado ao final do comando.
+     * @param comando  Comando executado: {@code exportar} ou {@code importar}.
+     * @param arquivo  Arquivo do snapshot.
+     * @param encerrar Indica se a aplicação é encerrada ao final do comando.
+     */
+    public SnapshotComandos(SnapshotChavePixService service, ConfigurableApplicationContext contexto,
+                            @Value("${pix.snapshot.comando}") String comando,
+                            @Value("${pix.snapshot.arquivo}") Path arquivo,
+                            @Value("${pix.snapshot.encerrar:true}") boolean encerrar) {
+        this.service = service;
+        this.contexto = contexto;
+        this.comando = comando;
+        this.arquivo = arquivo;
+        this.encerrar = encerrar;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        switch (comando) {
+            case "exportar" -> service.exportar(arquivo);
+            case "importar" -> service.importar(arquivo);
+            default -> throw new IllegalArgumentException(
+                    "Comando de snapshot desconhecido: " + comando + " (use exportar ou importar).");
+        }
+        if (encerrar) {
+            System.exit(SpringApplication.exit(contexto));
+        }
+    }
+}
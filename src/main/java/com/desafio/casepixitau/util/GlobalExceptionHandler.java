@@ -1,5 +1,10 @@
 package com.desafio.casepixitau.util;
 
+import com.desafio.casepixitau.dto.ErrorResponseDTO;
+import com.desafio.casepixitau.exception.CompartimentoSaturadoException;
+import com.desafio.casepixitau.exception.JournalIndisponivelException;
+import com.desafio.casepixitau.exception.LimiteExcedidoException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -39,4 +44,43 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Manipula requisições recusadas pelo limite de escritas por agência/conta.
+     *
+     * @param ex Exceção lançada pelo limitador.
+     * @return ResponseEntity com status 429 e o cabeçalho Retry-After.
+     */
+    @ExceptionHandler(LimiteExcedidoException.class)
+    public ResponseEntity<ErrorResponseDTO> handleLimiteExcedido(LimiteExcedidoException ex) {
+        return ResponseEntity.status(HttpStatusCodes.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getEsperaSegundos()))
+                .body(new ErrorResponseDTO(ex.getMessage()));
+    }
+
+    /**
+     * Manipula operações recusadas por um compartimento saturado (fila cheia ou espera esgotada).
+     *
+     * @param ex Exceção lançada pelo compartimento.
+     * @return ResponseEntity com status 503 e o cabeçalho Retry-After.
+     */
+    @ExceptionHandler(CompartimentoSaturadoException.class)
+    public ResponseEntity<ErrorResponseDTO> handleCompartimentoSaturado(CompartimentoSaturadoException ex) {
+        return ResponseEntity.status(HttpStatusCodes.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponseDTO(ex.getMessage()));
+    }
+
+    /**
+     * Manipula mutações que não puderam ser registradas no journal. A resposta de erro do
+     * servidor não é armazenada pela idempotência, e o cliente pode repetir a requisição.
+     *
+     * @param ex Exceção lançada pelo journal.
+     * @return ResponseEntity com status 500.
+     */
+    @ExceptionHandler(JournalIndisponivelException.class)
+    public ResponseEntity<ErrorResponseDTO> handleJournalIndisponivel(JournalIndisponivelException ex) {
+        return ResponseEntity.status(HttpStatusCodes.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponseDTO(ex.getMessage()));
+    }
+}
@@ -9,9 +9,14 @@ import org.springframework.http.HttpStatus;
 public final class HttpStatusCodes {
 
     public static final HttpStatus SUCCESS = HttpStatus.OK;
+    public static final HttpStatus ACCEPTED = HttpStatus.ACCEPTED;
     public static final HttpStatus UNPROCESSABLE_ENTITY = HttpStatus.UNPROCESSABLE_ENTITY;
     public static final HttpStatus NOT_FOUND = HttpStatus.NOT_FOUND;
     public static final HttpStatus BAD_REQUEST = HttpStatus.BAD_REQUEST;
+    public static final HttpStatus CONFLICT = HttpStatus.CONFLICT;
+    public static final HttpStatus TOO_MANY_REQUESTS = HttpStatus.TOO_MANY_REQUESTS;
+    public static final HttpStatus SERVICE_UNAVAILABLE = HttpStatus.SERVICE_UNAVAILABLE;
+    public static final HttpStatus INTERNAL_SERVER_ERROR = HttpStatus.INTERNAL_SERVER_ERROR;
 
     /**
      * Construtor privado para evitar instanciamento da classe.
@@ -0,0 +1,17 @@
+package com.desafio.casepixitau.util;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um id de entidade gerado como UUID versão 7 pelo {@link UuidV7}, salvo quando já atribuído.
+ */
+@IdGeneratorType(UuidV7.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface IdUuidV7 {
+}
@@ -0,0 +1,37 @@
+package com.desafio.casepixitau.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.security.Principal;
+
+/**
+ * Classe utilitária que identifica o cliente de uma requisição a partir de dados que ele não
+ * escolhe livremente: o usuário autenticado, quando houver, ou o endereço remoto da conexão.
+ * Atrás de um proxy reverso, o endereço remoto só reflete o cliente com
+ * {@code server.forward-headers-strategy} configurado.
+ * Não deve ser instanciada.
+ */
+public final class IdentidadeCliente {
+
+    /**
+     * Construtor privado para evitar instanciamento da classe.
+     * Lança uma UnsupportedOperationException caso alguém tente instanciar.
+     */
+    private IdentidadeCliente() {
+        throw new UnsupportedOperationException("Classe utilitária não pode ser instanciada.");
+    }
+
+    /**
+     * Retorna a identidade do cliente da requisição.
+     *
+     * @param request Requisição HTTP.
+     * @return {@code usuario:<nome>} para requisições autenticadas ou {@code ip:<endereço>} nas demais.
+     */
+    public static String de(HttpServletRequest request) {
+        Principal usuario = request.getUserPrincipal();
+        if (usuario != null && usuario.getName() != null) {
+            return "usuario:" + usuario.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,31 @@
+-- Migração das colunas tipo_chave e tipo_conta de texto para códigos SMALLINT
+-- (TipoChave: cpf=1, email=2, celular=3; TipoConta: corrente=1, poupança=2).
+-- Vale para a tabela particionada (db/postgres/schema.sql) e para os shards
+-- (db/sharding/schema-shard.sql). Pode ser executada mais de uma vez:
+--   psql -d db_pix -f migracao-codigos-tipo.sql
+--
+-- O ALTER TABLE reescreve a tabela e os índices sob bloqueio exclusivo; executar em janela de
+-- manutenção, com a aplicação parada ou ainda na versão anterior fora do ar.
+
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_name = 'tb_chavespix' AND column_name = 'tipo_chave'
+        ORDER BY table_schema = current_schema() DESC LIMIT 1) <> 'smallint' THEN
+
+        IF EXISTS (SELECT 1 FROM tb_chavespix
+                   WHERE lower(tipo_chave) NOT IN ('cpf', 'email', 'celular')
+                      OR lower(tipo_conta) NOT IN ('corrente', 'poupança', 'poupanca')) THEN
+            RAISE EXCEPTION 'tb_chavespix contém tipo_chave ou tipo_conta sem código correspondente';
+        END IF;
+
+        ALTER TABLE tb_chavespix
+            ALTER COLUMN tipo_chave TYPE SMALLINT USING CASE lower(tipo_chave)
+                WHEN 'cpf' THEN 1 WHEN 'email' THEN 2 WHEN 'celular' THEN 3 END,
+            ALTER COLUMN tipo_conta TYPE SMALLINT USING CASE lower(tipo_conta)
+                WHEN 'corrente' THEN 1 WHEN 'poupança' THEN 2 WHEN 'poupanca' THEN 2 END;
+    END IF;
+END
+$$;
+
+ANALYZE tb_chavespix;
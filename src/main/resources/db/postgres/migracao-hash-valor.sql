@@ -0,0 +1,24 @@
+-- Inclusão da coluna hash_valor_chave (HashValorChave: 8 primeiros bytes do MD5 do valor em
+-- minúsculas) e troca do índice de busca por valor. Vale para a tabela particionada
+-- (db/postgres/schema.sql) e para os shards (db/sharding/schema-shard.sql), e pode ser executada
+-- mais de uma vez:
+--   psql -d db_pix -f migracao-hash-valor.sql
+--
+-- O lower() do PostgreSQL coincide com o da aplicação para valores ASCII (CPF, celular e e-mails
+-- usuais). O UPDATE reescreve todas as linhas; executar em janela de manutenção.
+
+ALTER TABLE tb_chavespix ADD COLUMN IF NOT EXISTS hash_valor_chave BIGINT;
+
+UPDATE tb_chavespix
+SET hash_valor_chave = ('x' || substr(md5(lower(valor_chave)), 1, 16))::bit(64)::bigint
+WHERE hash_valor_chave IS NULL;
+
+ALTER TABLE tb_chavespix ALTER COLUMN hash_valor_chave SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ix_chavespix_hash_valor ON tb_chavespix (hash_valor_chave);
+
+-- Índice de busca da tabela particionada, substituído pelo índice do hash. A unicidade do valor
+-- continua garantida por tb_chavespix_valor (ou pela restrição UNIQUE nos shards).
+DROP INDEX IF EXISTS ix_chavespix_valor;
+
+ANALYZE tb_chavespix;
@@ -0,0 +1,125 @@
+-- Tabela de chaves Pix particionada por mês de inclusão.
+-- As partições mensais são criadas pelo ParticionamentoPostgresJob logo após este script, antes de
+-- qualquer carga (importação de snapshot, tráfego); a partição padrão só recebe linhas de meses
+-- ainda sem partição, que fn_chavespix_criar_particao move ao criar a partição do mês.
+-- Separador de comandos: @@ (os corpos de função usam ';').
+-- tipo_chave e tipo_conta guardam os códigos de TipoChave e TipoConta; bancos criados com as
+-- colunas em texto são convertidos por migracao-codigos-tipo.sql.
+-- As buscas por valor usam o índice de hash_valor_chave (HashValorChave); bancos criados sem a
+-- coluna devem executar migracao-hash-valor.sql antes da nova versão.
+
+CREATE TABLE IF NOT EXISTS tb_chavespix (
+    id UUID NOT NULL,
+    tipo_chave SMALLINT NOT NULL,
+    valor_chave VARCHAR(77) NOT NULL,
+    hash_valor_chave BIGINT NOT NULL,
+    tipo_conta SMALLINT NOT NULL,
+    numero_agencia INTEGER NOT NULL,
+    numero_conta INTEGER NOT NULL,
+    nome_correntista VARCHAR(255) NOT NULL,
+    sobrenome_correntista VARCHAR(255),
+    data_hora_inclusao TIMESTAMP(6) NOT NULL,
+    data_hora_inativacao TIMESTAMP(6),
+    version BIGINT,
+    -- A chave primária precisa conter a chave de partição. Por isso a busca só por id (findById,
+    -- alteração e inativação) não elimina partições: consulta o índice da chave primária de cada
+    -- partição, com custo proporcional à quantidade de partições (meses com dados, anteriores e futuros)
+    PRIMARY KEY (id, data_hora_inclusao)
+) PARTITION BY RANGE (data_hora_inclusao)@@
+
+CREATE TABLE IF NOT EXISTS tb_chavespix_padrao PARTITION OF tb_chavespix DEFAULT@@
+
+-- Índices declarados na tabela pai são criados em cada partição (atual e futuras).
+CREATE INDEX IF NOT EXISTS ix_chavespix_inclusao ON tb_chavespix (data_hora_inclusao)@@
+CREATE INDEX IF NOT EXISTS ix_chavespix_inativacao ON tb_chavespix (data_hora_inativacao)@@
+CREATE INDEX IF NOT EXISTS ix_chavespix_agencia_conta ON tb_chavespix (numero_agencia, numero_conta)@@
+CREATE INDEX IF NOT EXISTS ix_chavespix_hash_valor ON tb_chavespix (hash_valor_chave)@@
+CREATE INDEX IF NOT EXISTS ix_chavespix_tipo ON tb_chavespix (tipo_chave)@@
+
+-- Restrições UNIQUE em tabelas particionadas precisam conter a chave de partição, portanto a
+-- unicidade global de valor_chave é garantida por uma tabela auxiliar mantida por trigger.
+CREATE TABLE IF NOT EXISTS tb_chavespix_valor (
+    valor_chave VARCHAR(77) NOT NULL PRIMARY KEY,
+    id UUID NOT NULL
+)@@
+
+CREATE OR REPLACE FUNCTION fn_chavespix_valor_unico() RETURNS trigger AS $$
+BEGIN
+    -- Linhas movidas entre partições por fn_chavespix_criar_particao mantêm o valor já registrado.
+    IF current_setting('pix.movendo_particao', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO tb_chavespix_valor (valor_chave, id) VALUES (NEW.valor_chave, NEW.id);
+    ELSIF TG_OP = 'UPDATE' AND NEW.valor_chave <> OLD.valor_chave THEN
+        UPDATE tb_chavespix_valor SET valor_chave = NEW.valor_chave WHERE valor_chave = OLD.valor_chave;
+    ELSIF TG_OP = 'DELETE' THEN
+        DELETE FROM tb_chavespix_valor WHERE valor_chave = OLD.valor_chave;
+        RETURN OLD;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql@@
+
+DROP TRIGGER IF EXISTS tg_chavespix_valor_unico ON tb_chavespix@@
+
+CREATE TRIGGER tg_chavespix_valor_unico
+    AFTER INSERT OR UPDATE OF valor_chave OR DELETE ON tb_chavespix
+    FOR EACH ROW EXECUTE FUNCTION fn_chavespix_valor_unico()@@
+
+-- Cria a partição de um mês, se ainda não existir. A criação falha enquanto a partição padrão tiver
+-- linhas do intervalo, então elas são retiradas da padrão antes e gravadas na nova partição depois,
+-- na mesma transação e com a partição padrão bloqueada.
+CREATE OR REPLACE FUNCTION fn_chavespix_criar_particao(nome TEXT, inicio DATE, fim DATE) RETURNS void AS $$
+BEGIN
+    IF to_regclass(nome) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    LOCK TABLE tb_chavespix_padrao IN ACCESS EXCLUSIVE MODE;
+    IF to_regclass(nome) IS NOT NULL THEN
+        RETURN; -- Criada por outra instância enquanto aguardava o bloqueio
+    END IF;
+    PERFORM set_config('pix.movendo_particao', 'on', true);
+    CREATE TEMP TABLE tmp_chavespix_movidas ON COMMIT DROP AS
+        SELECT * FROM tb_chavespix_padrao WHERE data_hora_inclusao >= inicio AND data_hora_inclusao < fim;
+    DELETE FROM tb_chavespix_padrao WHERE data_hora_inclusao >= inicio AND data_hora_inclusao < fim;
+    EXECUTE format('CREATE TABLE %I PARTITION OF tb_chavespix FOR VALUES FROM (%L) TO (%L)', nome, inicio, fim);
+    EXECUTE format('INSERT INTO %I SELECT * FROM tmp_chavespix_movidas', nome);
+    DROP TABLE tmp_chavespix_movidas;
+    PERFORM set_config('pix.movendo_particao', 'off', true);
+END;
+$$ LANGUAGE plpgsql@@
+
+-- Arquivo das chaves inativadas há mais tempo que o período de retenção (ArquivamentoJob).
+-- Não é particionado nem tem valor único: um valor arquivado pode ser cadastrado de novo.
+CREATE TABLE IF NOT EXISTS tb_chavespix_arquivo (
+    id UUID NOT NULL PRIMARY KEY,
+    tipo_chave SMALLINT NOT NULL,
+    valor_chave VARCHAR(77) NOT NULL,
+    tipo_conta SMALLINT NOT NULL,
+    numero_agencia INTEGER NOT NULL,
+    numero_conta INTEGER NOT NULL,
+    nome_correntista VARCHAR(255) NOT NULL,
+    sobrenome_correntista VARCHAR(255),
+    data_hora_inclusao TIMESTAMP(6) NOT NULL,
+    data_hora_inativacao TIMESTAMP(6) NOT NULL,
+    data_hora_arquivamento TIMESTAMP(6) NOT NULL
+)@@
+
+CREATE INDEX IF NOT EXISTS ix_chavespix_arquivo_inativacao ON tb_chavespix_arquivo (data_hora_inativacao)@@
+CREATE INDEX IF NOT EXISTS ix_chavespix_arquivo_valor ON tb_chavespix_arquivo (valor_chave)@@
+
+CREATE TABLE IF NOT EXISTS tb_estatisticas_chavespix (
+    chave VARCHAR(40) NOT NULL PRIMARY KEY,
+    valor BIGINT NOT NULL,
+    data_hora_atualizacao TIMESTAMP(6) NOT NULL
+)@@
+
+CREATE TABLE IF NOT EXISTS tb_idempotencia (
+    chave VARCHAR(400) NOT NULL PRIMARY KEY,
+    impressao VARCHAR(64) NOT NULL,
+    status INTEGER NOT NULL,
+    content_type VARCHAR(100),
+    corpo BYTEA NOT NULL,
+    data_hora_expiracao TIMESTAMP(6) NOT NULL
+)@@
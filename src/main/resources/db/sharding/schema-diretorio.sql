@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS tb_chavespix_indice (
+    valor_chave VARCHAR(77) NOT NULL PRIMARY KEY,
+    id UUID,
+    shard INTEGER NOT NULL
+);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_chavespix_indice_id ON tb_chavespix_indice (id);
@@ -0,0 +1,35 @@
+CREATE TABLE IF NOT EXISTS tb_chavespix (
+    id UUID NOT NULL PRIMARY KEY,
+    tipo_chave SMALLINT NOT NULL,
+    valor_chave VARCHAR(255) NOT NULL UNIQUE,
+    hash_valor_chave BIGINT NOT NULL,
+    tipo_conta SMALLINT NOT NULL,
+    numero_agencia INTEGER NOT NULL,
+    numero_conta INTEGER NOT NULL,
+    nome_correntista VARCHAR(255) NOT NULL,
+    sobrenome_correntista VARCHAR(255),
+    data_hora_inclusao TIMESTAMP(6) NOT NULL,
+    data_hora_inativacao TIMESTAMP(6),
+    version BIGINT
+);
+CREATE INDEX IF NOT EXISTS ix_chavespix_hash_valor ON tb_chavespix (hash_valor_chave);
+CREATE INDEX IF NOT EXISTS ix_chavespix_agencia_conta ON tb_chavespix (numero_agencia, numero_conta);
+CREATE INDEX IF NOT EXISTS ix_chavespix_inclusao ON tb_chavespix (data_hora_inclusao);
+CREATE INDEX IF NOT EXISTS ix_chavespix_inativacao ON tb_chavespix (data_hora_inativacao);
+-- Arquivo das chaves inativadas (ArquivamentoJob); o job não roda com a fragmentação, mas as
+-- consultas por id e por data de inativação também procuram no arquivo.
+CREATE TABLE IF NOT EXISTS tb_chavespix_arquivo (
+    id UUID NOT NULL PRIMARY KEY,
+    tipo_chave SMALLINT NOT NULL,
+    valor_chave VARCHAR(255) NOT NULL,
+    tipo_conta SMALLINT NOT NULL,
+    numero_agencia INTEGER NOT NULL,
+    numero_conta INTEGER NOT NULL,
+    nome_correntista VARCHAR(255) NOT NULL,
+    sobrenome_correntista VARCHAR(255),
+    data_hora_inclusao TIMESTAMP(6) NOT NULL,
+    data_hora_inativacao TIMESTAMP(6) NOT NULL,
+    data_hora_arquivamento TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS ix_chavespix_arquivo_inativacao ON tb_chavespix_arquivo (data_hora_inativacao);
+CREATE INDEX IF NOT EXISTS ix_chavespix_arquivo_valor ON tb_chavespix_arquivo (valor_chave);
@@ -0,0 +1,205 @@
+package com.desafio.casepixitau;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark da latência no primeiro minuto após a prontidão, com e sem o aquecimento.
+ *
+ * Cada variante sobe a aplicação em uma JVM nova ({@code pix.aquecimento.enabled=true/false}),
+ * aguarda {@code /actuator/health/readiness} responder 200 e dispara requisições em malha aberta
+ * (inclusões, consultas por id e por conta), com a latência medida a partir do instante planejado.
+ * O relatório separa os primeiros 10 segundos, o restante do minuto e o minuto inteiro, além do
+ * tempo até a prontidão e das respostas diferentes de 200.
+ *
+ * Fica fora do build padrão. Execução:
+ * <pre>
+ * mvn test -Pcarga -Dtest=AquecimentoBenchmarkTests -Daquecimento.taxa=50 -Daquecimento.duracao-segundos=60
+ * </pre>
+ */
+@Tag("carga")
+class AquecimentoBenchmarkTests {
+
+    private static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final long INICIO_SEGUNDOS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compararPrimeiroMinutoComESemAquecimento() throws Exception {
+        int taxa = Integer.getInteger("aquecimento.taxa", 50);
+        int duracao = Integer.getInteger("aquecimento.duracao-segundos", 60);
+
+        Variante sem = executar(false, taxa, duracao);
+        Variante com = executar(true, taxa, duracao);
+
+        System.out.printf("%nPrimeiro minuto após a prontidão (%d req/s, %d s; latência em ms)%n", taxa, duracao);
+        System.out.printf("  %-15s %10s %26s %26s %26s %7s%n", "", "prontidão",
+                "0-10 s p50/p99/máx", "10 s-fim p50/p99/máx", "total p50/p99/máx", "erros");
+        imprimir("sem aquecimento", sem);
+        imprimir("com aquecimento", com);
+
+        // Sem aquecimento, parte das primeiras requisições pode ser recusada com 503 (compartimentos
+        // saturados); os erros fazem parte do resultado e não invalidam a medição.
+        assertTrue(sem.inicio().getTotalCount() > 0 && com.inicio().getTotalCount() > 0);
+    }
+
+    private Variante executar(boolean aquecimento, int taxa, int duracao) throws Exception {
+        int porta;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            porta = socket.getLocalPort();
+        }
+        Path log = Path.of("target", "carga", "aquecimento-" + aquecimento + ".log");
+        Files.createDirectories(log.getParent());
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process processo = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                CasePixItauApplication.class.getName(),
+                "--server.port=" + porta,
+                "--pix.aquecimento.enabled=" + aquecimento,
+                "--pix.limite-taxa.enabled=false",
+                "--pix.limite-concorrencia.enabled=false")
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor)
+                    .connectTimeout(Duration.ofSeconds(5)).build();
+            long inicio = System.nanoTime();
+            aguardarProntidao(client, porta, processo);
+            double prontidao = (System.nanoTime() - inicio) / 1e9;
+            return disparar(client, porta, taxa, duracao, prontidao);
+        } finally {
+            executor.shutdownNow();
+            processo.destroy();
+            if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+                processo.destroyForcibly();
+            }
+        }
+    }
+
+    private void aguardarProntidao(HttpClient client, int porta, Process processo) throws Exception {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5)).GET().build();
+        long limite = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (System.nanoTime() < limite) {
+            assertTrue(processo.isAlive(), "A aplicação encerrou antes da prontidão.");
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (java.io.IOException e) {
+                // Servidor ainda não escuta a porta.
+            }
+            Thread.sleep(20);
+        }
+        fail("A aplicação não ficou pronta em 5 minutos.");
+    }
+
+    /**
+     * Dispara, na taxa fixa, uma inclusão a cada quatro requisições; as demais consultam por id ou
+     * por conta uma chave já incluída.
+     */
+    private Variante disparar(HttpClient client, int porta, int taxa, int duracao, double prontidao) {
+        Histogram inicioMinuto = new ConcurrentHistogram(LATENCIA_MAXIMA_MICROS, 3);
+        Histogram restante = new ConcurrentHistogram(LATENCIA_MAXIMA_MICROS, 3);
+        LongAdder erros = new LongAdder();
+        List<String[]> incluidas = new CopyOnWriteArrayList<>();
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / taxa;
+        long limiteInicio = TimeUnit.SECONDS.toNanos(INICIO_SEGUNDOS);
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Void>> pendentes = new ArrayList<>();
+
+        for (long i = 0; i < (long) taxa * duracao; i++) {
+            long planejado = inicio + i * intervalo;
+            long espera = planejado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            HttpRequest request;
+            int agencia = (int) (i % 9000) + 1;
+            int conta = (int) i + 1;
+            if (i % 4 == 0 || incluidas.isEmpty()) {
+                String corpo = "{\"tipoChave\":\"email\",\"valorChave\":\"primeiro-minuto-" + i + "-"
+                        + UUID.randomUUID().toString().substring(0, 8) + "@email.com\",\"tipoConta\":\"corrente\","
+                        + "\"numeroAgencia\":" + agencia + ",\"numeroConta\":" + conta + ",\"nomeCorrentista\":\"Carga\"}";
+                request = requisicao(porta, "/api/pix").header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(corpo)).build();
+            } else {
+                String[] alvo = incluidas.get(ThreadLocalRandom.current().nextInt(incluidas.size()));
+                request = i % 2 == 0
+                        ? requisicao(porta, "/api/pix/filtros/" + alvo[0]).GET().build()
+                        : requisicao(porta, "/api/pix/filtros?agencia=" + alvo[1] + "&conta=" + alvo[2]).GET().build();
+            }
+            Histogram histograma = planejado - inicio < limiteInicio ? inicioMinuto : restante;
+            pendentes.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .handle((response, erro) -> {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - planejado);
+                        histograma.recordValue(Math.min(Math.max(micros, 1), LATENCIA_MAXIMA_MICROS));
+                        if (erro != null || response.statusCode() != 200) {
+                            erros.increment();
+                        } else if (request.method().equals("POST")) {
+                            registrar(response.body(), incluidas);
+                        }
+                        return null;
+                    }));
+            pendentes.removeIf(CompletableFuture::isDone);
+        }
+        CompletableFuture.allOf(pendentes.toArray(new CompletableFuture[0])).join();
+        return new Variante(prontidao, inicioMinuto, restante, erros.sum());
+    }
+
+    private void registrar(String corpo, List<String[]> incluidas) {
+        try {
+            var chave = objectMapper.readTree(corpo);
+            incluidas.add(new String[]{chave.get("id").asText(), chave.get("numeroAgencia").asText(),
+                    chave.get("numeroConta").asText()});
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpRequest.Builder requisicao(int porta, String caminho) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho)).timeout(Duration.ofSeconds(30));
+    }
+
+    private static void imprimir(String nome, Variante variante) {
+        Histogram total = variante.inicio().copy();
+        total.add(variante.restante());
+        System.out.printf("  %-15s %9.1fs %26s %26s %26s %7d%n", nome, variante.prontidao(),
+                percentis(variante.inicio()), percentis(variante.restante()), percentis(total), variante.erros());
+    }
+
+    private static String percentis(Histogram histograma) {
+        return String.format("%.1f/%.1f/%.1f", histograma.getValueAtPercentile(50) / 1000.0,
+                histograma.getValueAtPercentile(99) / 1000.0, histograma.getMaxValue() / 1000.0);
+    }
+
+    private record Variante(double prontidao, Histogram inicio, Histogram restante, long erros) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.EstatisticasResponseDTO;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.service.AquecimentoService;
+import com.desafio.casepixitau.service.CacheConsultas;
+import com.desafio.casepixitau.service.ChavePixService;
+import com.desafio.casepixitau.service.EstatisticasChavePixService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes do aquecimento executado antes da prontidão da aplicação.
+ */
+@SpringBootTest(properties = {"pix.limite-taxa.enabled=false", "pix.aquecimento.enabled=true"})
+@AutoConfigureMockMvc
+class AquecimentoTests {
+
+    @Autowired
+    private AquecimentoService aquecimento;
+
+    @Autowired
+    private ChavePixService service;
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    @Autowired
+    private EstatisticasChavePixService estatisticas;
+
+    @Autowired
+    private CacheConsultas cache;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void deveFicarProntaAposAquecimento() throws Exception {
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+        assertTrue(meterRegistry.get("pix.aquecimento.duracao").gauge().value() >= 0);
+
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    /**
+     * As consultas do serviço passam pelas threads dos compartimentos, que também são aquecidas.
+     */
+    @Test
+    void deveAquecerAsThreadsDosCompartimentos() {
+        long leiturasAntes = executadasNoCompartimento("leitura-pontual");
+        long varredurasAntes = executadasNoCompartimento("varredura");
+
+        aquecimento.run(null);
+
+        assertTrue(executadasNoCompartimento("leitura-pontual") > leiturasAntes);
+        assertTrue(executadasNoCompartimento("varredura") > varredurasAntes);
+    }
+
+    /**
+     * O aquecimento é somente leitura: nenhuma chave, contagem ou resultado de consulta sobrevive a
+     * ele, e as chaves reais continuam visíveis.
+     */
+    @Test
+    void naoDeveDeixarEfeitosDoTrafegoSintetico() {
+        service.incluir(new ChavePixRequestDTO("email", "real@email.com", "corrente", 1234, 5678, "Maria", null));
+        service.consultarPorAgenciaEConta(1234, 5678);
+        EstatisticasResponseDTO antes = estatisticas.atualizarSnapshot();
+
+        aquecimento.run(null);
+
+        assertEquals(1, repository.count());
+        assertEquals(0, cache.getPeso());
+        EstatisticasResponseDTO depois = estatisticas.atualizarSnapshot();
+        assertEquals(antes.getAtivasPorTipoChave(), depois.getAtivasPorTipoChave());
+        assertEquals(antes.getAtivasPorAgencia(), depois.getAtivasPorAgencia());
+        assertEquals(antes.getInclusoesPorDia(), depois.getInclusoesPorDia());
+        assertEquals(antes.getInativacoesPorDia(), depois.getInativacoesPorDia());
+        assertEquals(1, service.consultarPorAgenciaEConta(1234, 5678).size());
+    }
+
+    private long executadasNoCompartimento(String compartimento) {
+        return meterRegistry.get("pix.compartimento.espera").tag("compartimento", compartimento).timer().count();
+    }
+}
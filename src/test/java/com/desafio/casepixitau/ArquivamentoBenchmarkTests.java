@@ -0,0 +1,188 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.job.ArquivamentoJob;
+import com.desafio.casepixitau.journal.JournalChavePixService;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixArquivadaRepository;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.service.CacheConsultas;
+import com.desafio.casepixitau.service.ChavePixService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de um ano simulado de rotatividade de chaves, com e sem o arquivamento.
+ *
+ * A cada dia simulado são incluídas {@code arquivamento.inclusoes-por-dia} chaves e inativadas
+ * {@code arquivamento.inativacoes-por-dia} chaves ativas sorteadas, com as datas do dia simulado.
+ * Com o arquivamento, o job roda ao fim de cada dia com o limite de {@code arquivamento.dias-inativa}
+ * dias. A cada 30 dias são medidos o tamanho da tabela de chaves e a latência, no repositório, das
+ * buscas do caminho quente: por id, por valor e a contagem de chaves ativas da conta (limite por
+ * conta). Ao final, mede a consulta por id de chaves arquivadas pelo serviço (busca no arquivo).
+ *
+ * Fica fora do build padrão. Execução:
+ * <pre>
+ * mvn test -Pcarga -Dtest=ArquivamentoBenchmarkTests -Darquivamento.inclusoes-por-dia=500 \
+ *     -Darquivamento.inativacoes-por-dia=400 -Darquivamento.dias-inativa=90
+ * </pre>
+ */
+@Tag("carga")
+@SpringBootTest(properties = {"pix.limite-taxa.enabled=false", "pix.aquecimento.enabled=false", "logging.level.root=WARN"})
+class ArquivamentoBenchmarkTests {
+
+    private static final int DIAS = 365;
+    private static final int AMOSTRAS = 2000;
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    @Autowired
+    private ChavePixArquivadaRepository arquivo;
+
+    @Autowired
+    private ChavePixService service;
+
+    @Autowired
+    private CacheConsultas cache;
+
+    @Autowired
+    private ObjectProvider<JournalChavePixService> journal;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void simularUmAnoDeRotatividade() {
+        int inclusoes = Integer.getInteger("arquivamento.inclusoes-por-dia", 500);
+        int inativacoes = Integer.getInteger("arquivamento.inativacoes-por-dia", 400);
+        int diasInativa = Integer.getInteger("arquivamento.dias-inativa", 90);
+
+        List<Medicao> sem = simular(null, diasInativa, inclusoes, inativacoes);
+        ArquivamentoJob job = new ArquivamentoJob(arquivo, cache, journal, transactionManager, diasInativa, 500, 0, false,
+                new SimpleMeterRegistry());
+        List<Medicao> com = simular(job, diasInativa, inclusoes, inativacoes);
+
+        System.out.printf("%nUm ano simulado: %d inclusões e %d inativações por dia, arquivamento após %d dias "
+                + "(latência em µs, p50/p99)%n", inclusoes, inativacoes, diasInativa);
+        System.out.printf("  %4s | %15s | %8s | %19s | %19s | %19s%n", "dia", "tabela sem/com", "arquivo",
+                "por id sem | com", "por valor sem | com", "ativas conta sem|com");
+        for (int i = 0; i < sem.size(); i++) {
+            Medicao s = sem.get(i);
+            Medicao c = com.get(i);
+            System.out.printf("  %4d | %7d/%7d | %8d | %9s|%9s | %9s|%9s | %9s|%9s%n", s.dia(), s.tabela(), c.tabela(),
+                    c.arquivo(), percentis(s.porId()), percentis(c.porId()), percentis(s.porValor()),
+                    percentis(c.porValor()), percentis(s.ativasConta()), percentis(c.ativasConta()));
+        }
+
+        List<UUID> arquivadas = jdbcTemplate.queryForList("SELECT id FROM tb_chavespix_arquivo", UUID.class)
+                .subList(0, AMOSTRAS);
+        Histogram noArquivo = medir(arquivadas, id -> service.consultarPorId(id));
+        System.out.printf("  consulta por id de chave arquivada (serviço, busca no arquivo): %s µs%n", percentis(noArquivo));
+
+        Medicao ultimaSem = sem.get(sem.size() - 1);
+        Medicao ultimaCom = com.get(com.size() - 1);
+        assertEquals(ultimaSem.tabela(), ultimaCom.tabela() + ultimaCom.arquivo());
+        assertTrue(ultimaCom.arquivo() > 0);
+    }
+
+    private List<Medicao> simular(ArquivamentoJob job, int diasInativa, int inclusoes, int inativacoes) {
+        jdbcTemplate.execute("DELETE FROM tb_chavespix");
+        jdbcTemplate.execute("DELETE FROM tb_chavespix_arquivo");
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Random random = new Random(42);
+        List<ChavePix> ativas = new ArrayList<>();
+        List<Medicao> medicoes = new ArrayList<>();
+        LocalDateTime inicio = LocalDateTime.now().minusDays(DIAS).withNano(0);
+        int sequencia = 0;
+
+        for (int dia = 1; dia <= DIAS; dia++) {
+            LocalDateTime data = inicio.plusDays(dia);
+            List<ChavePix> novas = new ArrayList<>();
+            for (int i = 0; i < inclusoes; i++, sequencia++) {
+                ChavePix chave = new ChavePix();
+                chave.setTipoChave("email");
+                chave.setValorChave("ano" + sequencia + "@email.com");
+                chave.setTipoConta("corrente");
+                chave.setNumeroAgencia(1 + sequencia % 5000);
+                chave.setNumeroConta(1 + sequencia / 5000);
+                chave.setNomeCorrentista("Correntista");
+                chave.setDataHoraInclusao(data.plusSeconds(i));
+                novas.add(chave);
+            }
+            transacao.executeWithoutResult(status -> repository.saveAll(novas));
+            ativas.addAll(novas);
+
+            List<Object[]> inativadas = new ArrayList<>();
+            for (int i = 0; i < inativacoes && !ativas.isEmpty(); i++) {
+                int sorteada = random.nextInt(ativas.size());
+                ChavePix chave = ativas.get(sorteada);
+                ativas.set(sorteada, ativas.get(ativas.size() - 1));
+                ativas.remove(ativas.size() - 1);
+                inativadas.add(new Object[]{Timestamp.valueOf(data.plusHours(12).plusSeconds(i)), chave.getId()});
+            }
+            jdbcTemplate.batchUpdate("UPDATE tb_chavespix SET data_hora_inativacao = ? WHERE id = ?", inativadas);
+
+            if (job != null) {
+                job.arquivarInativadasAntes(data.plusDays(1).minusDays(diasInativa));
+            }
+            if (dia % 30 == 0 || dia == DIAS) {
+                medicoes.add(medir(dia, ativas, random));
+            }
+        }
+        return medicoes;
+    }
+
+    private Medicao medir(int dia, List<ChavePix> ativas, Random random) {
+        List<ChavePix> amostra = new ArrayList<>();
+        for (int i = 0; i < AMOSTRAS; i++) {
+            amostra.add(ativas.get(random.nextInt(ativas.size())));
+        }
+        Histogram porId = medir(amostra, chave -> repository.findById(chave.getId()).orElseThrow());
+        Histogram porValor = medir(amostra, chave -> repository.findByValorChave(chave.getValorChave()).orElseThrow());
+        Histogram ativasConta = medir(amostra, chave -> repository.countByNumeroAgenciaAndNumeroContaAndDataHoraInativacaoIsNull(
+                chave.getNumeroAgencia(), chave.getNumeroConta()));
+        long tabela = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_chavespix", Long.class);
+        long arquivadas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_chavespix_arquivo", Long.class);
+        return new Medicao(dia, tabela, arquivadas, porId, porValor, ativasConta);
+    }
+
+    private static <T> Histogram medir(List<T> amostra, Consumer<T> busca) {
+        Histogram histograma = new Histogram(TimeUnit.SECONDS.toMicros(10), 3);
+        for (T item : amostra) {
+            long inicio = System.nanoTime();
+            busca.accept(item);
+            histograma.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio)));
+        }
+        return histograma;
+    }
+
+    private static String percentis(Histogram histograma) {
+        return histograma.getValueAtPercentile(50) + "/" + histograma.getValueAtPercentile(99);
+    }
+
+    private record Medicao(int dia, long tabela, long arquivo, Histogram porId, Histogram porValor,
+                           Histogram ativasConta) {
+    }
+}
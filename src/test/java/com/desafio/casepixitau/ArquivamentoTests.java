@@ -0,0 +1,153 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixAlteracaoDTO;
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.dto.ConsultaLoteItemDTO;
+import com.desafio.casepixitau.dto.ConsultaLoteRequestDTO;
+import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.job.ArquivamentoJob;
+import com.desafio.casepixitau.journal.JournalChavePixService;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixArquivadaRepository;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.service.CacheConsultas;
+import com.desafio.casepixitau.service.ChavePixService;
+import com.desafio.casepixitau.service.ConsultaLoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do arquivamento das chaves inativadas e das consultas que procuram no arquivo.
+ */
+@SpringBootTest(properties = "pix.limite-taxa.enabled=false")
+class ArquivamentoTests {
+
+    @Autowired
+    private ChavePixService service;
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    @Autowired
+    private ChavePixArquivadaRepository arquivo;
+
+    @Autowired
+    private CacheConsultas cache;
+
+    @Autowired
+    private ConsultaLoteService consultaLote;
+
+    @Autowired
+    private ObjectProvider<JournalChavePixService> journal;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime agora = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        arquivo.deleteAll();
+    }
+
+    /**
+     * Lotes de duas chaves: as três inativadas antes do limite são movidas, as demais ficam na
+     * tabela de chaves, e uma nova execução não encontra mais nada.
+     */
+    @Test
+    void deveArquivarEmLotesApenasInativadasAntesDoLimite() {
+        inativadaEm("antiga1@email.com", agora.minusDays(200));
+        inativadaEm("antiga2@email.com", agora.minusDays(200));
+        inativadaEm("antiga3@email.com", agora.minusDays(190));
+        inativadaEm("recente@email.com", agora.minusDays(10));
+        service.incluir(request("ativa@email.com"));
+        ArquivamentoJob job = job();
+
+        assertEquals(3, job.arquivarInativadasAntes(agora.minusDays(180)));
+        assertEquals(0, job.arquivarInativadasAntes(agora.minusDays(180)));
+
+        assertEquals(2, repository.count());
+        assertEquals(3, arquivo.count());
+        assertTrue(repository.findByValorChave("recente@email.com").isPresent());
+    }
+
+    @Test
+    void deveConsultarArquivadasPorIdValorEDataDeInativacao() {
+        LocalDateTime inativacao = agora.minusDays(200).toLocalDate().atTime(10, 0);
+        UUID arquivada = inativadaEm("arquivada@email.com", inativacao);
+        UUID naTabela = inativadaEm("tabela@email.com", inativacao.plusHours(1));
+        List<ChavePixResponseDTO> daConta = service.consultarPorAgenciaEConta(1234, 5678);
+        assertEquals(2, daConta.size());
+
+        assertEquals(1, job().arquivarInativadasAntes(inativacao.plusMinutes(30)));
+
+        ChavePixResponseDTO porId = service.consultarPorId(arquivada);
+        assertEquals("arquivada@email.com", porId.getValorChave());
+        assertEquals("corrente", porId.getTipoConta());
+        assertNotNull(porId.getDataHoraInativacao());
+
+        List<ChavePixResponseDTO> porData = service.consultarPorData(null, inativacao.toLocalDate());
+        assertEquals(2, porData.size());
+        assertTrue(porData.stream().anyMatch(c -> c.getId().equals(arquivada)));
+        assertTrue(porData.stream().anyMatch(c -> c.getId().equals(naTabela)));
+
+        // O resultado da conta guardado no cache antes do arquivamento foi invalidado.
+        assertEquals(List.of(naTabela), service.consultarPorAgenciaEConta(1234, 5678).stream()
+                .map(ChavePixResponseDTO::getId).toList());
+
+        ChavePixException inativa = assertThrows(ChavePixException.class, () -> service.inativar(arquivada));
+        assertEquals("A chave já foi desativada.", inativa.getMessage());
+        ChavePixAlteracaoDTO alteracao = new ChavePixAlteracaoDTO();
+        alteracao.setTipoConta("corrente");
+        alteracao.setNumeroAgencia(1234);
+        alteracao.setNumeroConta(5678);
+        alteracao.setNomeCorrentista("Maria");
+        ChavePixException alterada = assertThrows(ChavePixException.class, () -> service.alterar(arquivada, alteracao));
+        assertTrue(alterada.getMessage().contains("está inativa"));
+
+        // As consultas por valor, isolada e em lote, também encontram a chave arquivada.
+        assertEquals(List.of(arquivada), service.consultarPorValor("arquivada@email.com").stream()
+                .map(ChavePixResponseDTO::getId).toList());
+        List<ConsultaLoteItemDTO> lote = consultaLote.consultar(
+                new ConsultaLoteRequestDTO(null, List.of("tabela@email.com", "arquivada@email.com", "ausente@email.com")));
+        assertEquals(List.of(true, true, false), lote.stream().map(ConsultaLoteItemDTO::isEncontrada).toList());
+        assertEquals(arquivada, lote.get(1).getChave().getId());
+        assertTrue(consultaLote.consultar(new ConsultaLoteRequestDTO(List.of(arquivada), null)).get(0).isEncontrada());
+
+        // O valor arquivado deixa de existir na tabela de chaves e pode ser cadastrado de novo; a
+        // consulta por valor passa a devolver a chave da tabela.
+        ChavePixResponseDTO recadastrada = service.incluir(request("arquivada@email.com"));
+        assertNotEquals(arquivada, recadastrada.getId());
+        assertEquals(List.of(recadastrada.getId()), service.consultarPorValor("arquivada@email.com").stream()
+                .map(ChavePixResponseDTO::getId).toList());
+    }
+
+    private ArquivamentoJob job() {
+        return new ArquivamentoJob(arquivo, cache, journal, transactionManager, 180, 2, 0, false, new SimpleMeterRegistry());
+    }
+
+    private UUID inativadaEm(String email, LocalDateTime inativacao) {
+        UUID id = service.incluir(request(email)).getId();
+        ChavePix chave = repository.findById(id).orElseThrow();
+        chave.setDataHoraInativacao(inativacao);
+        repository.save(chave);
+        return id;
+    }
+
+    private static ChavePixRequestDTO request(String email) {
+        return new ChavePixRequestDTO("email", email, "corrente", 1234, 5678, "Maria", null);
+    }
+}
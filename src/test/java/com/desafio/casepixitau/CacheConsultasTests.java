@@ -0,0 +1,154 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.service.CacheConsultas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do cache de resultados de consultas invalidado por tags.
+ */
+public class CacheConsultasTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    /**
+     * Consultas repetidas são atendidas pelo cache e contabilizadas como acertos.
+     */
+    @Test
+    public void testAcertoEFalta() {
+        CacheConsultas cache = new CacheConsultas(true, 1000, 60000, registry);
+
+        List<ChavePixResponseDTO> primeiro = obter(cache, "conta", List.of(1, 2), "conta:1/2", 3);
+        List<ChavePixResponseDTO> segundo = obter(cache, "conta", List.of(1, 2), "conta:1/2", 3);
+
+        assertSame(primeiro, segundo);
+        assertEquals(1, execucoes.get());
+        assertEquals(1.0, registry.get("pix.cache-consultas.acessos").tags("consulta", "conta", "resultado", "acerto").counter().count());
+        assertEquals(1.0, registry.get("pix.cache-consultas.acessos").tags("consulta", "conta", "resultado", "falta").counter().count());
+        assertThrows(UnsupportedOperationException.class, () -> segundo.add(new ChavePixResponseDTO()));
+    }
+
+    /**
+     * A alteração de uma chave remove apenas as entradas das contas de origem e destino, do tipo e das datas afetadas.
+     */
+    @Test
+    public void testInvalidacaoPorTags() {
+        CacheConsultas cache = new CacheConsultas(true, 1000, 60000, registry);
+        obter(cache, "conta", List.of(1, 2), "conta:1/2", 1);
+        obter(cache, "conta", List.of(3, 4), "conta:3/4", 1);
+        obter(cache, "conta", List.of(5, 6), "conta:5/6", 1);
+        obter(cache, "tipo", List.of("cpf"), "tipo:cpf", 1);
+        obter(cache, "inclusao", List.of("2025-01-10"), "inclusao:2025-01-10", 1);
+        obter(cache, "filtros", List.of("agencia=9"), "agencia:9", 1);
+        assertEquals(6, execucoes.get());
+
+        ChavePix chave = chave(3, 4);
+        ChavePixResponseDTO anterior = new ChavePixResponseDTO();
+        anterior.setNumeroAgencia(1);
+        anterior.setNumeroConta(2);
+        cache.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.ALTERACAO, chave, anterior));
+
+        obter(cache, "conta", List.of(1, 2), "conta:1/2", 1);
+        obter(cache, "conta", List.of(3, 4), "conta:3/4", 1);
+        obter(cache, "tipo", List.of("cpf"), "tipo:cpf", 1);
+        obter(cache, "inclusao", List.of("2025-01-10"), "inclusao:2025-01-10", 1);
+        assertEquals(10, execucoes.get());
+
+        obter(cache, "conta", List.of(5, 6), "conta:5/6", 1);
+        obter(cache, "filtros", List.of("agencia=9"), "agencia:9", 1);
+        assertEquals(10, execucoes.get());
+        assertEquals(2.0, registry.get("pix.cache-consultas.remocoes").tags("consulta", "conta", "motivo", "invalidacao").counter().count());
+    }
+
+    /**
+     * Um resultado obtido durante a invalidação de uma de suas tags não é guardado.
+     */
+    @Test
+    public void testConsultaConcorrenteComMutacaoNaoEGuardada() {
+        CacheConsultas cache = new CacheConsultas(true, 1000, 60000, registry);
+
+        cache.obter("conta", List.of(1, 2), Set.of("conta:1/2"), () -> {
+            execucoes.incrementAndGet();
+            cache.invalidar(Set.of("conta:1/2"));
+            return resultado(1);
+        });
+        obter(cache, "conta", List.of(1, 2), "conta:1/2", 1);
+
+        assertEquals(2, execucoes.get());
+    }
+
+    /**
+     * O peso total é limitado, removendo as entradas usadas há mais tempo.
+     */
+    @Test
+    public void testRemocaoPorPeso() {
+        CacheConsultas cache = new CacheConsultas(true, 30, 60000, registry);
+        obter(cache, "tipo", List.of("cpf"), "tipo:cpf", 9);
+        obter(cache, "tipo", List.of("email"), "tipo:email", 9);
+        obter(cache, "tipo", List.of("cpf"), "tipo:cpf", 9);
+        obter(cache, "tipo", List.of("celular"), "tipo:celular", 9);
+        assertEquals(30, cache.getPeso());
+
+        obter(cache, "tipo", List.of("aleatorio"), "tipo:aleatorio", 9);
+        assertEquals(30, cache.getPeso());
+        assertEquals(4, execucoes.get());
+
+        obter(cache, "tipo", List.of("cpf"), "tipo:cpf", 9);
+        assertEquals(4, execucoes.get());
+        obter(cache, "tipo", List.of("email"), "tipo:email", 9);
+        assertEquals(5, execucoes.get());
+        assertTrue(registry.get("pix.cache-consultas.remocoes").tags("consulta", "tipo", "motivo", "peso").counter().count() >= 1);
+    }
+
+    /**
+     * Entradas expiradas e o cache desabilitado executam a consulta novamente.
+     */
+    @Test
+    public void testExpiracaoECacheDesabilitado() {
+        CacheConsultas expirado = new CacheConsultas(true, 1000, 0, registry);
+        obter(expirado, "tipo", List.of("cpf"), "tipo:cpf", 1);
+        obter(expirado, "tipo", List.of("cpf"), "tipo:cpf", 1);
+        assertEquals(2, execucoes.get());
+
+        CacheConsultas desabilitado = new CacheConsultas(false, 1000, 60000, new SimpleMeterRegistry());
+        obter(desabilitado, "tipo", List.of("cpf"), "tipo:cpf", 1);
+        obter(desabilitado, "tipo", List.of("cpf"), "tipo:cpf", 1);
+        assertEquals(4, execucoes.get());
+    }
+
+    private List<ChavePixResponseDTO> obter(CacheConsultas cache, String consulta, List<?> parametros, String tag, int tamanho) {
+        return cache.obter(consulta, parametros, Set.of(tag), () -> {
+            execucoes.incrementAndGet();
+            return resultado(tamanho);
+        });
+    }
+
+    private static List<ChavePixResponseDTO> resultado(int tamanho) {
+        return new ArrayList<>(Collections.nCopies(tamanho, new ChavePixResponseDTO()));
+    }
+
+    private static ChavePix chave(int agencia, int conta) {
+        ChavePix chave = new ChavePix();
+        chave.setId(UUID.randomUUID());
+        chave.setTipoChave("cpf");
+        chave.setValorChave("12345678901");
+        chave.setNumeroAgencia(agencia);
+        chave.setNumeroConta(conta);
+        chave.setDataHoraInclusao(LocalDateTime.of(2025, 1, 10, 12, 0));
+        return chave;
+    }
+}
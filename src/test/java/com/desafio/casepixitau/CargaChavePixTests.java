@@ -0,0 +1,326 @@
+package com.desafio.casepixitau;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga ponta a ponta da API de chaves Pix (Tomcat, Jackson, validação, JPA e H2).
+ *
+ * Sobe a aplicação em porta aleatória e dispara requisições em malha aberta: as chegadas seguem
+ * uma taxa fixa, independentemente das respostas, e a latência é medida a partir do instante
+ * planejado de cada requisição, evitando a omissão coordenada. As latências são registradas em
+ * HdrHistogram por operação e o relatório (p50/p99/p99.9, vazão e taxa de erros) é impresso e
+ * gravado em JSON para comparação entre versões.
+ *
+ * Fica fora do build padrão. Execução:
+ * <pre>
+ * mvn test -Pcarga -Dcarga.taxa=500 -Dcarga.duracao-segundos=60 \
+ *     -Dcarga.mix=incluir:20,consultar:50,filtrar:20,alterar:5,inativar:5
+ * </pre>
+ * Propriedades: {@code carga.taxa} (requisições por segundo), {@code carga.duracao-segundos},
+ * {@code carga.aquecimento-segundos}, {@code carga.chaves-iniciais}, {@code carga.mix} e
+ * {@code carga.relatorio} (arquivo JSON, padrão {@code target/carga/relatorio-carga.json}).
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"pix.limite-taxa.enabled=false", "logging.level.root=WARN"})
+class CargaChavePixTests {
+
+    private static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final List<String> OPERACOES = List.of("incluir", "consultar", "filtrar", "alterar", "inativar");
+
+    @LocalServerPort
+    private int porta;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger sequencia = new AtomicInteger();
+    private final AtomicInteger indiceAtivas = new AtomicInteger();
+    private final ConcurrentHashMap<Integer, Chave> ativas = new ConcurrentHashMap<>();
+    private final Map<String, Resultado> resultados = new LinkedHashMap<>();
+    private volatile boolean medindo;
+
+    private HttpClient client;
+
+    @Test
+    void executarCarga() throws Exception {
+        int taxa = Integer.getInteger("carga.taxa", 200);
+        int duracao = Integer.getInteger("carga.duracao-segundos", 30);
+        int aquecimento = Integer.getInteger("carga.aquecimento-segundos", 5);
+        int chavesIniciais = Integer.getInteger("carga.chaves-iniciais", 500);
+        Map<String, Integer> mix = mix(System.getProperty("carga.mix", "incluir:20,consultar:50,filtrar:20,alterar:5,inativar:5"));
+        Path relatorio = Path.of(System.getProperty("carga.relatorio", "target/carga/relatorio-carga.json"));
+
+        OPERACOES.forEach(operacao -> resultados.put(operacao, new Resultado()));
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+
+        for (int i = 0; i < chavesIniciais; i++) {
+            enviar("incluir", System.nanoTime()).join();
+        }
+
+        disparar(taxa, aquecimento, mix);
+        medindo = true;
+        long inicio = System.nanoTime();
+        disparar(taxa, duracao, mix);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        medindo = false;
+
+        executor.shutdown();
+        Map<String, Object> relatorioJson = relatorio(taxa, segundos, mix);
+        Files.createDirectories(relatorio.toAbsolutePath().getParent());
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(relatorio.toFile(), relatorioJson);
+        System.out.println("Relatório JSON: " + relatorio.toAbsolutePath());
+
+        assertTrue(resultados.values().stream().mapToLong(r -> r.latencias.getTotalCount()).sum() > 0);
+    }
+
+    /**
+     * Dispara requisições na taxa fixa durante o período informado e aguarda as respostas pendentes.
+     */
+    private void disparar(int taxa, int segundos, Map<String, Integer> mix) {
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / taxa;
+        long inicio = System.nanoTime();
+        long total = (long) taxa * segundos;
+        int pesoTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+        List<CompletableFuture<Void>> pendentes = new ArrayList<>();
+
+        for (long i = 0; i < total; i++) {
+            long planejado = inicio + i * intervalo;
+            long espera = planejado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            pendentes.add(enviar(sortear(mix, pesoTotal), planejado));
+            pendentes.removeIf(CompletableFuture::isDone);
+        }
+        CompletableFuture.allOf(pendentes.toArray(new CompletableFuture[0])).join();
+    }
+
+    private CompletableFuture<Void> enviar(String operacao, long planejado) {
+        HttpRequest request;
+        Chave alvo = null;
+        switch (operacao) {
+            case "incluir":
+                request = incluir(sequencia.incrementAndGet());
+                break;
+            case "inativar":
+                alvo = retirarAtiva();
+                request = alvo == null ? null : requisicao("/api/pix/" + alvo.id).DELETE().build();
+                break;
+            default:
+                alvo = sortearAtiva();
+                if (alvo == null) {
+                    request = null;
+                } else if (operacao.equals("consultar")) {
+                    request = requisicao("/api/pix/filtros/" + alvo.id).GET().build();
+                } else if (operacao.equals("filtrar")) {
+                    request = requisicao("/api/pix/filtros?agencia=" + alvo.agencia + "&conta=" + alvo.conta).GET().build();
+                } else {
+                    request = alterar(alvo);
+                }
+        }
+
+        Resultado resultado = resultados.get(operacao);
+        if (request == null) {
+            resultado.ignoradas.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, erro) -> {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - planejado);
+                    boolean sucesso = erro == null && response.statusCode() == 200;
+                    if (medindo) {
+                        resultado.latencias.recordValue(Math.min(Math.max(micros, 1), LATENCIA_MAXIMA_MICROS));
+                        if (!sucesso) {
+                            resultado.erros.increment();
+                        }
+                    }
+                    if (sucesso && operacao.equals("incluir")) {
+                        registrarInclusao(response.body());
+                    }
+                    return null;
+                });
+    }
+
+    private HttpRequest incluir(int n) {
+        String corpo = "{\"tipoChave\":\"email\",\"valorChave\":\"carga" + n + "-" + UUID.randomUUID().toString().substring(0, 8)
+                + "@email.com\",\"tipoConta\":\"corrente\",\"numeroAgencia\":" + (n % 9999 + 1)
+                + ",\"numeroConta\":" + (n % 99_999_999 + 1) + ",\"nomeCorrentista\":\"Carga\"}";
+        return requisicao("/api/pix").header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo)).build();
+    }
+
+    private HttpRequest alterar(Chave chave) {
+        String corpo = "{\"tipoConta\":\"poupança\",\"numeroAgencia\":" + chave.agencia + ",\"numeroConta\":" + chave.conta
+                + ",\"nomeCorrentista\":\"Carga\",\"sobrenomeCorrentista\":\"Alterada\"}";
+        return requisicao("/api/pix/" + chave.id).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(corpo)).build();
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho)).timeout(Duration.ofSeconds(30));
+    }
+
+    private void registrarInclusao(String corpo) {
+        try {
+            JsonNode json = objectMapper.readTree(corpo);
+            Chave chave = new Chave(json.get("id").asText(), json.get("numeroAgencia").asInt(), json.get("numeroConta").asInt());
+            ativas.put(indiceAtivas.getAndIncrement(), chave);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Chave sortearAtiva() {
+        for (int tentativa = 0; tentativa < 8; tentativa++) {
+            Chave chave = ativas.get(ThreadLocalRandom.current().nextInt(indiceAtivas.get() + 1));
+            if (chave != null) {
+                return chave;
+            }
+        }
+        return null;
+    }
+
+    private Chave retirarAtiva() {
+        for (int tentativa = 0; tentativa < 8; tentativa++) {
+            int indice = ThreadLocalRandom.current().nextInt(indiceAtivas.get() + 1);
+            Chave chave = ativas.remove(indice);
+            if (chave != null) {
+                return chave;
+            }
+        }
+        return null;
+    }
+
+    private static String sortear(Map<String, Integer> mix, int pesoTotal) {
+        int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (Map.Entry<String, Integer> entrada : mix.entrySet()) {
+            sorteio -= entrada.getValue();
+            if (sorteio < 0) {
+                return entrada.getKey();
+            }
+        }
+        throw new IllegalStateException("Mix de operações inválido.");
+    }
+
+    private static Map<String, Integer> mix(String configuracao) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String item : configuracao.split(",")) {
+            String[] partes = item.trim().split(":");
+            if (!OPERACOES.contains(partes[0])) {
+                throw new IllegalArgumentException("Operação desconhecida no mix: " + partes[0]);
+            }
+            mix.put(partes[0], Integer.parseInt(partes[1]));
+        }
+        return mix;
+    }
+
+    private Map<String, Object> relatorio(int taxa, double segundos, Map<String, Integer> mix) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("dataHora", LocalDateTime.now().toString());
+        json.put("taxaPlanejada", taxa);
+        json.put("duracaoSegundos", segundos);
+        json.put("mix", mix);
+
+        Histogram geral = new Histogram(LATENCIA_MAXIMA_MICROS, 3);
+        long errosGerais = 0;
+        Map<String, Object> operacoes = new LinkedHashMap<>();
+        System.out.printf("%n%-10s %9s %10s %9s %9s %9s %9s %8s%n",
+                "operação", "total", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "máx ms", "erros %");
+        for (Map.Entry<String, Resultado> entrada : resultados.entrySet()) {
+            Histogram latencias = entrada.getValue().latencias;
+            long erros = entrada.getValue().erros.sum();
+            geral.add(latencias);
+            errosGerais += erros;
+            if (latencias.getTotalCount() > 0) {
+                operacoes.put(entrada.getKey(), resumo(latencias, erros, segundos, entrada.getValue().ignoradas.sum()));
+                imprimir(entrada.getKey(), latencias, erros, segundos);
+            }
+        }
+        imprimir("total", geral, errosGerais, segundos);
+        json.put("operacoes", operacoes);
+        json.put("total", resumo(geral, errosGerais, segundos, 0));
+        return json;
+    }
+
+    private static Map<String, Object> resumo(Histogram latencias, long erros, double segundos, long ignoradas) {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        long total = latencias.getTotalCount();
+        resumo.put("requisicoes", total);
+        resumo.put("ignoradas", ignoradas);
+        resumo.put("vazao", total / segundos);
+        resumo.put("taxaErros", total == 0 ? 0 : (double) erros / total);
+        resumo.put("p50Ms", latencias.getValueAtPercentile(50) / 1000.0);
+        resumo.put("p99Ms", latencias.getValueAtPercentile(99) / 1000.0);
+        resumo.put("p999Ms", latencias.getValueAtPercentile(99.9) / 1000.0);
+        resumo.put("maximoMs", latencias.getMaxValue() / 1000.0);
+        return resumo;
+    }
+
+    private static void imprimir(String operacao, Histogram latencias, long erros, double segundos) {
+        long total = latencias.getTotalCount();
+        System.out.printf("%-10s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %8.2f%n", operacao, total, total / segundos,
+                latencias.getValueAtPercentile(50) / 1000.0, latencias.getValueAtPercentile(99) / 1000.0,
+                latencias.getValueAtPercentile(99.9) / 1000.0, latencias.getMaxValue() / 1000.0,
+                total == 0 ? 0 : 100.0 * erros / total);
+    }
+
+    /**
+     * Latências e erros de uma operação.
+     */
+    private static final class Resultado {
+        private final Histogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA_MICROS, 3);
+        private final LongAdder erros = new LongAdder();
+        private final LongAdder ignoradas = new LongAdder();
+    }
+
+    /**
+     * Chave ativa conhecida pelo gerador, alvo de consultas, alterações e inativações.
+     */
+    private static final class Chave {
+        private final String id;
+        private final int agencia;
+        private final int conta;
+
+        private Chave(String id, int agencia, int conta) {
+            this.id = id;
+            this.agencia = agencia;
+            this.conta = conta;
+        }
+    }
+}
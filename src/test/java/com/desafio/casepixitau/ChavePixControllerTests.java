@@ -183,6 +183,14 @@ class ChavePixControllerTests {
                 .andExpect(jsonPath("$[0]").exists());
     }
 
+    @Test
+    void testConsultarPorFiltrosTipoChaveDesconhecido() throws Exception {
+        mockMvc.perform(get("/api/pix/filtros?tipo=xyz"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errorMessage").value("Tipo de chave inválido."));
+        verifyNoInteractions(chavePixService);
+    }
+
     @Test
     void testConsultarPorFiltrosAgenciaConta() throws Exception {
         when(chavePixService.consultarPorFiltros(any(), any(), eq(1234), eq(567890), any(), any()))
@@ -193,6 +201,17 @@ class ChavePixControllerTests {
                 .andExpect(jsonPath("$[0]").exists());
     }
 
+    @Test
+    void testConsultarPorFiltrosSomenteValor() throws Exception {
+        when(chavePixService.consultarPorValor("fulano@email.com"))
+                .thenReturn(Collections.singletonList(new ChavePixResponseDTO()));
+
+        mockMvc.perform(get("/api/pix/filtros?valor=fulano@email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").exists());
+        verify(chavePixService, never()).consultarPorFiltros(any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     void testConsultarPorId_Inexistente() throws Exception {
         UUID chaveId = UUID.randomUUID();
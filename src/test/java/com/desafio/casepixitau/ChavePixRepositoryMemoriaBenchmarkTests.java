@@ -0,0 +1,121 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.repository.ChavePixRepositoryMemoria;
+import com.desafio.casepixitau.repository.H2ChavePixRepository;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara a latência das operações do repositório de chaves Pix no caminho JPA sobre H2 e no
+ * repositório em memória. Executado apenas no perfil Maven {@code carga}:
+ * <pre>mvn test -Pcarga -Dtest=ChavePixRepositoryMemoriaBenchmarkTests -Dbenchmark.chaves=20000</pre>
+ *
+ * Cada chamada ao repositório JPA roda em sua própria transação, como nas chamadas do serviço.
+ */
+@Tag("carga")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ChavePixRepositoryMemoriaBenchmarkTests {
+
+    private static final int CHAVES = Integer.getInteger("benchmark.chaves", 20_000);
+    private static final int CONSULTAS = Integer.getInteger("benchmark.consultas", 20_000);
+    private static final int CONTAS = CHAVES / 4;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private H2ChavePixRepository h2;
+
+    @Test
+    public void compararLatencias() {
+        Map<String, Map<String, Histogram>> resultados = new LinkedHashMap<>();
+        resultados.put("h2-jpa", medir(h2));
+        resultados.put("memoria", medir(new ChavePixRepositoryMemoria()));
+
+        System.out.printf("%n%-16s %-8s %10s %10s %10s%n", "operação", "motor", "média(µs)", "p50(µs)", "p99(µs)");
+        for (String operacao : resultados.get("memoria").keySet()) {
+            resultados.forEach((motor, porOperacao) -> {
+                Histogram h = porOperacao.get(operacao);
+                System.out.printf("%-16s %-8s %10.1f %10d %10d%n", operacao, motor, h.getMean(),
+                        h.getValueAtPercentile(50), h.getValueAtPercentile(99));
+            });
+        }
+    }
+
+    private Map<String, Histogram> medir(ChavePixRepository repository) {
+        repository.deleteAll();
+        List<UUID> ids = new ArrayList<>(CHAVES);
+        Map<String, Histogram> histogramas = new LinkedHashMap<>();
+
+        histogramas.put("save", executar(CHAVES, i -> ids.add(repository.save(chave(i)).getId())));
+        assertEquals(CHAVES, repository.count());
+
+        // Aquecimento das consultas antes da medição.
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        for (int i = 0; i < CONSULTAS / 4; i++) {
+            repository.findByValorChave("chave" + aleatorio.nextInt(CHAVES) + "@email.com");
+            repository.findByNumeroAgenciaAndNumeroConta(1, aleatorio.nextInt(CONTAS));
+        }
+
+        histogramas.put("findById", executar(CONSULTAS,
+                i -> repository.findById(ids.get(aleatorio.nextInt(CHAVES)))));
+        histogramas.put("findByValor", executar(CONSULTAS,
+                i -> repository.findByValorChave("chave" + aleatorio.nextInt(CHAVES) + "@email.com")));
+        histogramas.put("porConta", executar(CONSULTAS,
+                i -> repository.findByNumeroAgenciaAndNumeroConta(1, aleatorio.nextInt(CONTAS))));
+        histogramas.put("countAtivas", executar(CONSULTAS,
+                i -> repository.countByNumeroAgenciaAndNumeroContaAndDataHoraInativacaoIsNull(1, aleatorio.nextInt(CONTAS))));
+        histogramas.put("inclusaoEntre", executar(CONSULTAS, i -> {
+            LocalDateTime inicio = BASE.plusMinutes(aleatorio.nextInt(CHAVES));
+            repository.findByDataHoraInclusaoBetween(inicio, inicio.plusMinutes(10));
+        }));
+        histogramas.put("buscarFiltros", executar(CONSULTAS,
+                i -> repository.buscarPorFiltros("email", null, 1, aleatorio.nextInt(CONTAS), null, null)));
+        histogramas.put("alterar", executar(CONSULTAS / 4, i -> {
+            ChavePix chave = repository.findById(ids.get(aleatorio.nextInt(CHAVES))).orElseThrow();
+            chave.setNomeCorrentista("Nome" + i);
+            repository.save(chave);
+        }));
+        repository.deleteAll();
+        return histogramas;
+    }
+
+    private static Histogram executar(int vezes, IntConsumer operacao) {
+        Histogram histograma = new Histogram(3);
+        for (int i = 0; i < vezes; i++) {
+            long inicio = System.nanoTime();
+            operacao.accept(i);
+            histograma.recordValue(Math.max(1, (System.nanoTime() - inicio) / 1_000));
+        }
+        return histograma;
+    }
+
+    private static ChavePix chave(int i) {
+        ChavePix chave = new ChavePix();
+        chave.setTipoChave("email");
+        chave.setValorChave("chave" + i + "@email.com");
+        chave.setTipoConta("corrente");
+        chave.setNumeroAgencia(1);
+        chave.setNumeroConta(i % CONTAS);
+        chave.setNomeCorrentista("Nome");
+        chave.setDataHoraInclusao(BASE.plusMinutes(i));
+        return chave;
+    }
+}
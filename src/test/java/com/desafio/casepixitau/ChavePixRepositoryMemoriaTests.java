@@ -0,0 +1,229 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.repository.ChavePixRepositoryMemoria;
+import com.desafio.casepixitau.service.ChavePixService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do repositório de chaves Pix em memória, com a aplicação no perfil {@code memoria}.
+ */
+@SpringBootTest
+@ActiveProfiles("memoria")
+public class ChavePixRepositoryMemoriaTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    @Autowired
+    private ChavePixService service;
+
+    @BeforeEach
+    public void setup() {
+        repository.deleteAll();
+    }
+
+    /**
+     * O perfil substitui o repositório JPA e o serviço funciona sobre o repositório em memória.
+     */
+    @Test
+    public void testPerfilUsaRepositorioEmMemoria() {
+        assertInstanceOf(ChavePixRepositoryMemoria.class, repository);
+
+        ChavePixRequestDTO dto = new ChavePixRequestDTO();
+        dto.setTipoChave("email");
+        dto.setValorChave("memoria@email.com");
+        dto.setTipoConta("corrente");
+        dto.setNumeroAgencia(1234);
+        dto.setNumeroConta(5678);
+        dto.setNomeCorrentista("Ana");
+
+        ChavePixResponseDTO incluida = service.incluir(dto);
+        assertEquals("memoria@email.com", service.consultarPorId(incluida.getId()).getValorChave());
+        assertEquals(1, service.consultarPorAgenciaEConta(1234, 5678).size());
+    }
+
+    /**
+     * O valor da chave é único, como a restrição da tabela.
+     */
+    @Test
+    public void testValorChaveUnico() {
+        repository.save(chave("unico@email.com", 1, 1, BASE));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.save(chave("unico@email.com", 2, 2, BASE)));
+        assertEquals(1, repository.count());
+    }
+
+    /**
+     * A versão segue o {@code @Version}: cópia desatualizada é rejeitada e gravação sem mudança não incrementa.
+     */
+    @Test
+    public void testVersaoOtimista() {
+        ChavePix salva = repository.save(chave("versao@email.com", 1, 1, BASE));
+        assertEquals(0L, salva.getVersion());
+
+        ChavePix primeira = repository.findById(salva.getId()).orElseThrow();
+        ChavePix segunda = repository.findById(salva.getId()).orElseThrow();
+
+        primeira.setNomeCorrentista("Bia");
+        assertEquals(1L, repository.save(primeira).getVersion());
+
+        segunda.setNomeCorrentista("Carla");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.save(segunda));
+
+        assertEquals(1L, repository.save(repository.findById(salva.getId()).orElseThrow()).getVersion());
+        assertEquals("Bia", repository.findById(salva.getId()).orElseThrow().getNomeCorrentista());
+    }
+
+    /**
+     * As consultas por conta, por data e por filtros acompanham as alterações das chaves.
+     */
+    @Test
+    public void testIndicesSecundarios() {
+        ChavePix a = repository.save(chave("a@email.com", 10, 100, BASE));
+        repository.save(chave("b@email.com", 10, 100, BASE.plusDays(1)));
+        repository.save(chave("c@email.com", 20, 200, BASE.plusDays(2)));
+
+        a.setDataHoraInativacao(BASE.plusDays(3));
+        repository.save(a);
+
+        assertEquals(2, repository.findByNumeroAgenciaAndNumeroConta(10, 100).size());
+        assertEquals(1, repository.countByNumeroAgenciaAndNumeroContaAndDataHoraInativacaoIsNull(10, 100));
+        List<Object[]> porConta = repository.contarAtivasPorConta(List.of(10, 20), List.of(100, 200));
+        assertEquals(2, porConta.size());
+        assertTrue(porConta.stream().anyMatch(l -> l[0].equals(10) && l[1].equals(100) && l[2].equals(1L)));
+        assertEquals(2, repository.findByDataHoraInclusaoBetween(BASE, BASE.plusDays(1)).size());
+        assertEquals(List.of("a@email.com"), valores(repository.findByDataHoraInativacaoBetween(BASE, BASE.plusDays(5))));
+        assertEquals(List.of("c@email.com"),
+                valores(repository.buscarPorFiltros("email", null, null, null, BASE.plusDays(2), null)));
+        assertEquals(List.of("b@email.com"),
+                valores(repository.buscarPorFiltros(null, null, 10, 100, BASE.plusHours(1), null)));
+
+        a.setNumeroConta(300);
+        repository.save(a);
+        assertEquals(1, repository.findByNumeroAgenciaAndNumeroConta(10, 100).size());
+        assertEquals(1, repository.countByNumeroAgenciaAndNumeroConta(10, 300));
+
+        List<Object[]> inclusoes = repository.contarInclusoesPorDia(BASE.plusDays(1));
+        assertEquals(2, inclusoes.size());
+        assertTrue(inclusoes.stream().allMatch(linha -> (Long) linha[1] == 1L));
+        assertEquals(LocalDate.of(2025, 3, 13), repository.contarInativacoesPorDia(BASE).get(0)[0]);
+
+        repository.deleteById(a.getId());
+        assertTrue(repository.findByValorChave("a@email.com").isEmpty());
+        assertTrue(repository.findByDataHoraInativacaoBetween(BASE, BASE.plusDays(5)).isEmpty());
+    }
+
+    /**
+     * O tipo de chave das consultas é comparado como no JPA, sem diferenciar maiúsculas.
+     */
+    @Test
+    public void testTipoChaveSemDiferenciarMaiusculas() {
+        repository.save(chave("a@email.com", 10, 100, BASE));
+
+        assertEquals(List.of("a@email.com"), valores(repository.findByTipoChave("EMAIL")));
+        assertEquals(List.of("a@email.com"),
+                valores(repository.buscarPorFiltros("Email", null, 10, null, null, null)));
+        assertTrue(repository.findByTipoChave("cpf").isEmpty());
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> repository.findByTipoChave("aleatoria"));
+    }
+
+    /**
+     * Inclusões concorrentes com o mesmo valor: apenas uma é gravada.
+     */
+    @Test
+    public void testInclusoesConcorrentesComMesmoValor() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Boolean>> tarefas = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int conta = i;
+                tarefas.add(() -> {
+                    try {
+                        repository.save(chave("disputada@email.com", 1, conta, BASE));
+                        return true;
+                    } catch (DataIntegrityViolationException e) {
+                        return false;
+                    }
+                });
+            }
+            int gravadas = 0;
+            for (Future<Boolean> resultado : executor.invokeAll(tarefas)) {
+                gravadas += resultado.get() ? 1 : 0;
+            }
+            assertEquals(1, gravadas);
+            assertEquals(1, repository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A ordenação e a paginação seguem o {@code ORDER BY}: critérios em sequência, nulos por último
+     * na ordem ascendente e propriedade inexistente rejeitada.
+     */
+    @Test
+    public void testOrdenacaoEPaginacao() {
+        repository.save(chave("c@email.com", 2, 1, BASE));
+        repository.save(chave("a@email.com", 1, 1, BASE.plusMinutes(1)));
+        repository.save(chave("b@email.com", 1, 1, BASE.plusMinutes(2)));
+        ChavePix inativa = repository.save(chave("d@email.com", 1, 2, BASE));
+        inativa.setDataHoraInativacao(BASE.plusDays(1));
+        repository.save(inativa);
+
+        Sort porAgenciaEValor = Sort.by(Sort.Order.asc("numeroAgencia"), Sort.Order.desc("valorChave"));
+        assertEquals(List.of("d@email.com", "b@email.com", "a@email.com", "c@email.com"),
+                repository.findAll(porAgenciaEValor).stream().map(ChavePix::getValorChave).toList());
+        assertEquals("d@email.com", repository.findAll(Sort.by("dataHoraInativacao")).get(0).getValorChave());
+
+        Page<ChavePix> pagina = repository.findAll(PageRequest.of(1, 3, porAgenciaEValor));
+        assertEquals(4, pagina.getTotalElements());
+        assertEquals(List.of("c@email.com"), pagina.getContent().stream().map(ChavePix::getValorChave).toList());
+
+        assertThrows(PropertyReferenceException.class, () -> repository.findAll(Sort.by("inexistente")));
+    }
+
+    private static ChavePix chave(String valor, int agencia, int conta, LocalDateTime inclusao) {
+        ChavePix chave = new ChavePix();
+        chave.setTipoChave("email");
+        chave.setValorChave(valor);
+        chave.setTipoConta("corrente");
+        chave.setNumeroAgencia(agencia);
+        chave.setNumeroConta(conta);
+        chave.setNomeCorrentista("Ana");
+        chave.setDataHoraInclusao(inclusao);
+        return chave;
+    }
+
+    private static List<String> valores(List<ChavePix> chaves) {
+        return chaves.stream().map(ChavePix::getValorChave).sorted().toList();
+    }
+}
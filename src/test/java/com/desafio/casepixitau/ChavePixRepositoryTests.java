@@ -1,12 +1,19 @@
 package com.desafio.casepixitau;
 
 import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.HashValorChave;
+import com.desafio.casepixitau.model.TipoChave;
+import com.desafio.casepixitau.model.TipoConta;
 import com.desafio.casepixitau.repository.H2ChavePixRepository;
+import com.desafio.casepixitau.util.UuidV7;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataAccessException;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +31,9 @@ public class ChavePixRepositoryTests {
     @Autowired
     private H2ChavePixRepository repository; // Repositório que será testado
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private ChavePix chavePix; // Objeto de teste que será usado nos métodos
 
     /**
@@ -127,4 +137,109 @@ public class ChavePixRepositoryTests {
         List<ChavePix> found = repository.findByDataHoraInativacaoBetween(start, end);
         assertFalse(found.isEmpty());
     }
+
+    /**
+     * Testa as contagens agrupadas usadas na conferência das estatísticas.
+     */
+    @Test
+    public void testContagensAgrupadas() {
+        List<Object[]> porTipo = repository.contarAtivasPorTipoChave();
+        assertEquals(1, porTipo.size());
+        assertEquals("email", porTipo.get(0)[0]);
+        assertEquals(1L, porTipo.get(0)[1]);
+
+        List<Object[]> porDia = repository.contarInclusoesPorDia(LocalDateTime.now().minusDays(1));
+        assertEquals(1, porDia.size());
+        assertEquals(LocalDate.now(), porDia.get(0)[0]);
+    }
+
+    /**
+     * Testa a busca de chaves Pix por uma lista de valores.
+     */
+    @Test
+    public void testFindByValorChaveIn() {
+        List<ChavePix> found = repository.findByValorChaveIn(List.of("teste@email.com", "inexistente@email.com"));
+        assertEquals(1, found.size());
+        assertEquals(chavePix.getId(), found.get(0).getId());
+    }
+
+    /**
+     * Testa a geração de ids UUID versão 7 crescentes e a inclusão direta de chaves com id atribuído.
+     */
+    @Test
+    public void testIdUuidV7EInclusaoComIdAtribuido() {
+        assertEquals(7, chavePix.getId().version());
+        assertFalse(chavePix.isNew());
+
+        ChavePix outra = new ChavePix();
+        outra.setTipoChave("email");
+        outra.setValorChave("outra@email.com");
+        outra.setTipoConta("corrente");
+        outra.setNumeroAgencia(1234);
+        outra.setNumeroConta(567890);
+        outra.setNomeCorrentista("Maria");
+        outra.setDataHoraInclusao(LocalDateTime.now());
+        outra.setId(UuidV7.gerar());
+
+        // Inserida com persist (mesma instância), sem o merge que consultaria o id antes.
+        assertSame(outra, repository.save(outra));
+        assertTrue(outra.getId().compareTo(chavePix.getId()) > 0);
+        assertEquals(2, repository.count());
+    }
+
+    /**
+     * Testa a gravação dos tipos de chave e de conta como códigos numéricos e as consultas por tipo.
+     */
+    @Test
+    public void testTiposGravadosComoCodigos() {
+        Object[] colunas = (Object[]) entityManager.getEntityManager()
+                .createNativeQuery("SELECT tipo_chave, tipo_conta FROM tb_chavespix WHERE id = ?1")
+                .setParameter(1, chavePix.getId())
+                .getSingleResult();
+        assertEquals(TipoChave.EMAIL.getCodigo(), ((Number) colunas[0]).shortValue());
+        assertEquals(TipoConta.CORRENTE.getCodigo(), ((Number) colunas[1]).shortValue());
+
+        entityManager.clear();
+        ChavePix lida = repository.findById(chavePix.getId()).orElseThrow();
+        assertEquals("email", lida.getTipoChave());
+        assertEquals("corrente", lida.getTipoConta());
+        assertEquals(1, repository.findByTipoChave("EMAIL").size());
+        assertThrows(DataAccessException.class, () -> repository.findByTipoChave("inexistente"));
+        assertThrows(DataAccessException.class,
+                () -> repository.buscarPorFiltros("inexistente", null, null, null, null, null));
+        assertTrue(repository.buscarPorFiltros("cpf", null, null, null, null, null).isEmpty());
+    }
+
+    /**
+     * Testa o hash persistido do valor da chave e a resolução de colisões pela comparação do valor.
+     */
+    @Test
+    public void testBuscaPorHashDoValor() {
+        // 8 primeiros bytes de md5("a"), como no SQL de migracao-hash-valor.sql.
+        assertEquals(0x0cc175b9c0f1b6a8L, HashValorChave.calcular("A"));
+        assertEquals(HashValorChave.calcular("teste@email.com"), chavePix.getHashValorChave());
+
+        ChavePix colidente = new ChavePix();
+        colidente.setTipoChave("email");
+        colidente.setValorChave("colidente@email.com");
+        colidente.setTipoConta("corrente");
+        colidente.setNumeroAgencia(1234);
+        colidente.setNumeroConta(567890);
+        colidente.setNomeCorrentista("Maria");
+        colidente.setDataHoraInclusao(LocalDateTime.now());
+        repository.save(colidente);
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE tb_chavespix SET hash_valor_chave = ?1 WHERE id = ?2")
+                .setParameter(1, chavePix.getHashValorChave())
+                .setParameter(2, colidente.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        // As duas linhas têm o mesmo hash; a comparação do valor devolve apenas a buscada.
+        assertEquals(chavePix.getId(), repository.findByValorChave("teste@email.com").orElseThrow().getId());
+        assertTrue(repository.findByValorChave("TESTE@email.com").isEmpty());
+        assertEquals(1, repository.findByValorChaveIn(List.of("teste@email.com")).size());
+        assertEquals(1, repository.buscarPorFiltros(null, "teste@email.com", null, null, null, null).size());
+    }
 }
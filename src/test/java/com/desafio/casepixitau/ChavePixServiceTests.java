@@ -1,18 +1,26 @@
 package com.desafio.casepixitau;
 
 import com.desafio.casepixitau.dto.*;
+import com.desafio.casepixitau.event.ChavePixEvento;
 import com.desafio.casepixitau.exception.ChavePixException;
 import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixArquivadaRepository;
 import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.service.CacheConsultas;
 import com.desafio.casepixitau.service.ChavePixService;
+import com.desafio.casepixitau.service.ConsultasCompartilhadas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,6 +34,18 @@ class ChavePixServiceTests {
     @Mock
     private ChavePixRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChavePixArquivadaRepository arquivo;
+
+    @Spy
+    private ConsultasCompartilhadas consultas = new ConsultasCompartilhadas(new SimpleMeterRegistry());
+
+    @Spy
+    private CacheConsultas cache = new CacheConsultas(true, 1000, 30000, new SimpleMeterRegistry());
+
     @InjectMocks
     private ChavePixService service;
 
@@ -50,6 +70,16 @@ class ChavePixServiceTests {
 
         assertDoesNotThrow(() -> service.incluir(requestValido));
         verify(repository, times(1)).save(any());
+        verify(eventPublisher).publishEvent(argThat((Object e) ->
+                e instanceof ChavePixEvento && ((ChavePixEvento) e).getTipo() == ChavePixEvento.Tipo.INCLUSAO));
+    }
+
+    @Test
+    void incluir_NaoDevePublicarEvento_QuandoChaveDuplicada() {
+        when(repository.findByValorChave(any())).thenReturn(Optional.of(new ChavePix()));
+
+        assertThrows(ChavePixException.class, () -> service.incluir(requestValido));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -82,6 +112,22 @@ class ChavePixServiceTests {
         assertThrows(ChavePixException.class, () -> service.consultarPorId(id));
     }
 
+    @Test
+    void consultarPorTipoChave_DeveSerInvalidada_QuandoTipoInformadoEmMaiusculas() {
+        when(repository.findByTipoChave("EMAIL")).thenReturn(List.of());
+        ChavePix chave = new ChavePix();
+        chave.setTipoChave("email");
+        chave.setValorChave("fulano@email.com");
+        chave.setDataHoraInclusao(LocalDateTime.now());
+
+        service.consultarPorTipoChave("EMAIL");
+        service.consultarPorTipoChave("EMAIL");
+        cache.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave, null));
+        service.consultarPorTipoChave("EMAIL");
+
+        verify(repository, times(2)).findByTipoChave("EMAIL");
+    }
+
     @Test
     void alterar_DeveAtualizarChave_QuandoDadosValidos() {
         UUID id = UUID.randomUUID();
@@ -127,17 +173,21 @@ class ChavePixServiceTests {
     @Test
     void validarFormatoChave_DeveLancarExcecao_QuandoCpfInvalido() {
         requestValido.setValorChave("11111111111");
-        when(repository.findByValorChave(any())).thenReturn(Optional.empty());
 
         assertThrows(ChavePixException.class, () -> service.incluir(requestValido));
+        verifyNoInteractions(repository);
     }
 
     @Test
-    void validarFormatoChave_DeveLancarExcecao_QuandoEmailInvalido() {
+    void validarFormatoChave_DeveRecusarNoDTO_QuandoEmailInvalido() {
         requestValido.setTipoChave("email");
         requestValido.setValorChave("emailinvalido");
-        when(repository.findByValorChave(any())).thenReturn(Optional.empty());
+        assertFalse(requestValido.isEmailValid());
 
-        assertThrows(ChavePixException.class, () -> service.incluir(requestValido));
+        requestValido.setValorChave("a".repeat(70) + "@email.com");
+        assertFalse(requestValido.isEmailValid());
+
+        requestValido.setValorChave("fulano@email.com");
+        assertTrue(requestValido.isEmailValid());
     }
 }
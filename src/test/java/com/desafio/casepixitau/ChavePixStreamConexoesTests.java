@@ -0,0 +1,136 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.service.ChavePixStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do stream (SSE) de alterações de chaves Pix com assinantes conectados por HTTP ao
+ * Tomcat em porta aleatória, passando pelo controller, pelo {@code SseEmitter} e pelas threads
+ * de envio do {@link ChavePixStreamService}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"pix.limite-taxa.enabled=false", "pix.limite-concorrencia.enabled=false",
+                "logging.level.root=WARN"})
+@DirtiesContext
+class ChavePixStreamConexoesTests {
+
+    private static final int ASSINANTES = 5_000;
+    private static final int CONEXOES_POR_VEZ = 100;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ChavePixStreamService streamService;
+
+    @Test
+    void deveEntregarEventosACincoMilConexoesSse() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/pix/stream"))
+                .header("Accept", "text/event-stream").build();
+
+        List<Leitor> leitores = new ArrayList<>();
+        try {
+            // Conexões abertas em grupos, dentro da fila de aceite do conector; a resposta só termina
+            // com o fim do stream, então cada grupo aguarda o registro dos assinantes no serviço
+            List<CompletableFuture<HttpResponse<Void>>> respostas = new ArrayList<>();
+            for (int inicio = 0; inicio < ASSINANTES; inicio += CONEXOES_POR_VEZ) {
+                for (int i = 0; i < CONEXOES_POR_VEZ; i++) {
+                    Leitor leitor = new Leitor();
+                    leitores.add(leitor);
+                    respostas.add(client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(leitor)));
+                }
+                int conectados = inicio + CONEXOES_POR_VEZ;
+                aguardar(() -> streamService.getQuantidadeAssinantes() == conectados);
+            }
+
+            streamService.onChavePixEvento(evento(ChavePixEvento.Tipo.INCLUSAO));
+            streamService.onChavePixEvento(evento(ChavePixEvento.Tipo.ALTERACAO));
+            streamService.onChavePixEvento(evento(ChavePixEvento.Tipo.INATIVACAO));
+
+            aguardar(() -> leitores.stream().allMatch(leitor -> leitor.eventos.size() == 3));
+            assertTrue(leitores.stream().allMatch(
+                    leitor -> leitor.eventos.equals(List.of("inclusao", "alteracao", "inativacao"))));
+            assertTrue(respostas.stream().noneMatch(CompletableFuture::isDone));
+        } finally {
+            leitores.forEach(Leitor::cancelar);
+        }
+    }
+
+    private static ChavePixEvento evento(ChavePixEvento.Tipo tipo) {
+        ChavePix chave = new ChavePix();
+        chave.setId(UUID.randomUUID());
+        chave.setTipoChave("email");
+        chave.setValorChave("stream@email.com");
+        chave.setDataHoraInclusao(LocalDateTime.now());
+        chave.setVersion(0L);
+        return new ChavePixEvento(tipo, chave, null);
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida dentro do tempo limite");
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Leitor das linhas de uma conexão SSE, que registra os nomes dos eventos recebidos.
+     */
+    private static final class Leitor implements Flow.Subscriber<String> {
+        private final List<String> eventos = new CopyOnWriteArrayList<>();
+        private volatile Flow.Subscription assinatura;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            assinatura = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String linha) {
+            if (linha.startsWith("event:")) {
+                eventos.add(linha.substring("event:".length()).trim());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        private void cancelar() {
+            if (assinatura != null) {
+                assinatura.cancel();
+            }
+        }
+    }
+}
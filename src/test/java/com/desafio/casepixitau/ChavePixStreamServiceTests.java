@@ -0,0 +1,196 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.service.ChavePixStreamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o {@link ChavePixStreamService}.
+ *
+ * Os emitters utilizados apenas contam/registram os eventos enviados, sem conexão HTTP real; a
+ * entrega a assinantes conectados por HTTP está em {@link ChavePixStreamConexoesTests}.
+ */
+class ChavePixStreamServiceTests {
+
+    private ChavePixStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new ChavePixStreamService(4, 60_000, 0, 16, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.encerrar();
+    }
+
+    @Test
+    void deveReenviarEventosPosterioresAoUltimoEventoId() {
+        List<String> ids = publicar(3);
+
+        EmitterContador emitter = new EmitterContador();
+        streamService.registrar(emitter, ids.get(0));
+
+        aguardar(() -> emitter.enviados.get() == 2);
+        assertEquals(ids.subList(1, 3), emitter.ids);
+        assertEquals(2, streamService.getQuantidadeAssinantes());
+    }
+
+    @Test
+    void deveEnviarResetQuandoUltimoEventoIdSaiuDoBuffer() {
+        List<String> ids = publicar(6);
+
+        EmitterContador emitter = new EmitterContador();
+        streamService.registrar(emitter, ids.get(0));
+
+        aguardar(() -> emitter.enviados.get() == 1);
+        assertEquals(List.of("reset"), emitter.nomes);
+        assertEquals(2, streamService.getQuantidadeAssinantes());
+    }
+
+    @Test
+    void deveEnviarResetQuandoUltimoEventoIdForDeOutraEpoca() {
+        List<String> ids = publicar(1);
+        streamService.encerrar();
+        streamService = new ChavePixStreamService(4, 60_000, 0, 16, 2); // Reinício da aplicação
+        List<String> idsReinicio = publicar(2);
+        assertEquals(ids.get(0).substring(ids.get(0).lastIndexOf('-')),
+                idsReinicio.get(0).substring(idsReinicio.get(0).lastIndexOf('-')));
+
+        EmitterContador emitter = new EmitterContador();
+        streamService.registrar(emitter, ids.get(0)); // Mesma sequência, época anterior
+
+        aguardar(() -> emitter.enviados.get() == 1);
+        assertEquals(List.of("reset"), emitter.nomes);
+        assertEquals(idsReinicio.get(1), emitter.ids.get(0));
+
+        streamService.onChavePixEvento(evento(ChavePixEvento.Tipo.INCLUSAO));
+        aguardar(() -> emitter.enviados.get() == 2);
+    }
+
+    @Test
+    void deveEnviarResetQuandoUltimoEventoIdForInvalido() {
+        publicar(1);
+
+        EmitterContador emitter = new EmitterContador();
+        streamService.registrar(emitter, "500");
+
+        aguardar(() -> emitter.enviados.get() == 1);
+        assertEquals(List.of("reset"), emitter.nomes);
+    }
+
+    @Test
+    void deveRemoverAssinanteQuandoEnvioFalhar() {
+        EmitterContador emitter = new EmitterContador();
+        emitter.falhar = true;
+        streamService.registrar(emitter, null);
+
+        streamService.onChavePixEvento(evento(ChavePixEvento.Tipo.INCLUSAO));
+        streamService.onChavePixEvento(evento(ChavePixEvento.Tipo.INCLUSAO));
+
+        aguardar(() -> streamService.getQuantidadeAssinantes() == 0);
+    }
+
+    @Test
+    void deveDesconectarAssinanteLentoSemAtrasarOsDemais() throws Exception {
+        streamService.encerrar();
+        streamService = new ChavePixStreamService(4, 60_000, 0, 2, 2);
+        CountDownLatch liberar = new CountDownLatch(1);
+        EmitterContador lento = new EmitterContador();
+        lento.bloqueio = liberar;
+        EmitterContador rapido = new EmitterContador();
+        streamService.registrar(lento, null);
+        streamService.registrar(rapido, null);
+
+        streamService.onChavePixEvento(evento(ChavePixEvento.Tipo.INCLUSAO));
+        aguardar(() -> lento.enviados.get() == 1); // Bloqueado na escrita do primeiro evento
+        for (int i = 2; i <= 4; i++) {
+            int enviados = i;
+            streamService.onChavePixEvento(evento(ChavePixEvento.Tipo.ALTERACAO));
+            aguardar(() -> rapido.enviados.get() == enviados);
+        }
+
+        aguardar(() -> streamService.getQuantidadeAssinantes() == 1);
+        liberar.countDown();
+        assertEquals(1, lento.enviados.get());
+    }
+
+    private List<String> publicar(int quantidade) {
+        EmitterContador observador = new EmitterContador();
+        streamService.registrar(observador, null);
+        for (int i = 0; i < quantidade; i++) {
+            streamService.onChavePixEvento(evento(ChavePixEvento.Tipo.INCLUSAO));
+        }
+        aguardar(() -> observador.enviados.get() == quantidade);
+        return observador.ids;
+    }
+
+    private static ChavePixEvento evento(ChavePixEvento.Tipo tipo) {
+        ChavePix chave = new ChavePix();
+        chave.setId(UUID.randomUUID());
+        chave.setTipoChave("email");
+        chave.setValorChave("teste@email.com");
+        chave.setDataHoraInclusao(LocalDateTime.now());
+        chave.setVersion(0L);
+        return new ChavePixEvento(tipo, chave, null);
+    }
+
+    private static void aguardar(BooleanSupplier condicao) {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida dentro do tempo limite");
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Emitter que apenas contabiliza os eventos recebidos.
+     */
+    private static class EmitterContador extends SseEmitter {
+        private final AtomicInteger enviados = new AtomicInteger();
+        private final List<String> nomes = new CopyOnWriteArrayList<>();
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+        private volatile boolean falhar;
+        private volatile CountDownLatch bloqueio;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (falhar) {
+                throw new IllegalStateException("Conexão encerrada");
+            }
+            List<String> linhas = builder.build().stream().map(d -> String.valueOf(d.getData()))
+                    .flatMap(String::lines).toList();
+            campo(linhas, "event:").forEach(nomes::add);
+            campo(linhas, "id:").forEach(ids::add);
+            enviados.incrementAndGet();
+            if (bloqueio != null) {
+                try {
+                    bloqueio.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private static Stream<String> campo(List<String> linhas, String prefixo) {
+            return linhas.stream().filter(linha -> linha.startsWith(prefixo))
+                    .map(linha -> linha.substring(prefixo.length()).trim());
+        }
+    }
+}
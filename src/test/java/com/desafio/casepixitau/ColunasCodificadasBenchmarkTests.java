@@ -0,0 +1,185 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.model.TipoChave;
+import com.desafio.casepixitau.model.TipoConta;
+import com.desafio.casepixitau.util.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara o tamanho das linhas, o tamanho do índice por tipo e data de inclusão e a velocidade de
+ * varredura da tabela de chaves com os tipos em texto, em códigos SMALLINT e em códigos com as
+ * datas em microssegundos desde a época (BIGINT). Executado apenas no perfil Maven {@code carga}:
+ * <pre>mvn test -Pcarga -Dtest=ColunasCodificadasBenchmarkTests -Dbenchmark.colunas.linhas=10000000</pre>
+ *
+ * Por padrão usa H2 em arquivo ({@code DISK_SPACE_USED}, tabela e índices juntos). Para medir no
+ * PostgreSQL ({@code pg_relation_size} da tabela e do índice):
+ * <pre>-Dbenchmark.colunas.url=jdbc:postgresql://localhost:5432/pix -Dbenchmark.colunas.usuario=... -Dbenchmark.colunas.senha=...</pre>
+ */
+@Tag("carga")
+public class ColunasCodificadasBenchmarkTests {
+
+    private static final int LINHAS = Integer.getInteger("benchmark.colunas.linhas", 1_000_000);
+    private static final int LOTE = 1_000;
+    private static final int VARREDURAS = 5;
+    private static final String URL = System.getProperty("benchmark.colunas.url");
+    private static final String USUARIO = System.getProperty("benchmark.colunas.usuario", "sa");
+    private static final String SENHA = System.getProperty("benchmark.colunas.senha", "");
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @TempDir
+    Path diretorio;
+
+    private enum Variante {
+        TEXTO("VARCHAR(255)", "TIMESTAMP(6)"),
+        CODIGOS("SMALLINT", "TIMESTAMP(6)"),
+        CODIGOS_EPOCH("SMALLINT", "BIGINT");
+
+        final String tipoTipos;
+        final String tipoDatas;
+
+        Variante(String tipoTipos, String tipoDatas) {
+            this.tipoTipos = tipoTipos;
+            this.tipoDatas = tipoDatas;
+        }
+
+        String tabela() {
+            return "tb_benchmark_colunas_" + name().toLowerCase();
+        }
+    }
+
+    @Test
+    public void compararCodificacoes() throws SQLException {
+        String url = URL != null ? URL : "jdbc:h2:file:" + diretorio.resolve("colunas").toAbsolutePath();
+        try (Connection conexao = DriverManager.getConnection(url, USUARIO, SENHA)) {
+            System.out.printf("%n%-14s %10s %12s %12s %14s %12s%n",
+                    "variante", "linhas", "tabela(MB)", "indice(MB)", "bytes/linha", "varredura(ms)");
+            for (Variante variante : Variante.values()) {
+                medir(conexao, variante);
+            }
+        }
+    }
+
+    private void medir(Connection conexao, Variante variante) throws SQLException {
+        String tabela = variante.tabela();
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + tabela);
+            statement.execute("CREATE TABLE " + tabela + " (id UUID PRIMARY KEY, tipo_chave " + variante.tipoTipos
+                    + " NOT NULL, valor_chave VARCHAR(77) NOT NULL, tipo_conta " + variante.tipoTipos
+                    + " NOT NULL, numero_agencia INTEGER NOT NULL, numero_conta INTEGER NOT NULL, "
+                    + "nome_correntista VARCHAR(255) NOT NULL, sobrenome_correntista VARCHAR(255), "
+                    + "data_hora_inclusao " + variante.tipoDatas + " NOT NULL, data_hora_inativacao " + variante.tipoDatas
+                    + ", version BIGINT)");
+        }
+        conexao.setAutoCommit(false);
+        try (PreparedStatement insert = conexao.prepareStatement("INSERT INTO " + tabela
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < LINHAS; i++) {
+                TipoChave tipoChave = TipoChave.values()[i % TipoChave.values().length];
+                TipoConta tipoConta = TipoConta.values()[i % TipoConta.values().length];
+                LocalDateTime inclusao = BASE.plusSeconds(i);
+                insert.setObject(1, UuidV7.gerar());
+                definirTipo(insert, 2, variante, tipoChave.getValor(), tipoChave.getCodigo());
+                insert.setString(3, "chave" + i + "@email.com");
+                definirTipo(insert, 4, variante, tipoConta.getValor(), tipoConta.getCodigo());
+                insert.setInt(5, i % 9999 + 1);
+                insert.setInt(6, i);
+                insert.setString(7, "Nome");
+                insert.setString(8, "Sobrenome");
+                definirData(insert, 9, variante, inclusao);
+                definirData(insert, 10, variante, i % 10 == 0 ? inclusao.plusDays(1) : null);
+                insert.setLong(11, 0);
+                insert.addBatch();
+                if ((i + 1) % LOTE == 0 || i == LINHAS - 1) {
+                    insert.executeBatch();
+                    conexao.commit();
+                }
+            }
+        }
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("CREATE INDEX ix_" + tabela + "_tipo ON " + tabela + " (tipo_chave, data_hora_inclusao)");
+        }
+        conexao.commit();
+
+        double tabelaMb;
+        double indiceMb;
+        if (URL != null) {
+            tabelaMb = tamanho(conexao, "SELECT pg_relation_size('" + tabela + "')");
+            indiceMb = tamanho(conexao, "SELECT pg_relation_size('ix_" + tabela + "_tipo')");
+        } else {
+            tabelaMb = tamanho(conexao, "SELECT DISK_SPACE_USED('" + tabela.toUpperCase() + "')");
+            indiceMb = Double.NaN;
+        }
+
+        // Varredura completa: filtro sem índice sobre o tipo da conta e o número da conta.
+        long melhor = Long.MAX_VALUE;
+        long encontradas = 0;
+        try (PreparedStatement consulta = conexao.prepareStatement(
+                "SELECT COUNT(*) FROM " + tabela + " WHERE tipo_conta = ? AND numero_conta >= ?")) {
+            definirTipo(consulta, 1, variante, TipoConta.POUPANCA.getValor(), TipoConta.POUPANCA.getCodigo());
+            for (int i = 0; i < VARREDURAS; i++) {
+                // Limite diferente a cada execução, para o H2 não reaproveitar o resultado anterior.
+                consulta.setInt(2, -i);
+                long inicio = System.nanoTime();
+                try (ResultSet resultado = consulta.executeQuery()) {
+                    resultado.next();
+                    encontradas = resultado.getLong(1);
+                }
+                melhor = Math.min(melhor, System.nanoTime() - inicio);
+            }
+        }
+        conexao.commit();
+        assertEquals(LINHAS / 2, encontradas);
+
+        System.out.printf("%-14s %10d %12.1f %12.1f %14.1f %12d%n", variante.name().toLowerCase(), LINHAS,
+                tabelaMb, indiceMb, tabelaMb * 1e6 / LINHAS, melhor / 1_000_000);
+
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP TABLE " + tabela);
+        }
+        conexao.commit();
+    }
+
+    private static void definirTipo(PreparedStatement statement, int indice, Variante variante, String valor, short codigo)
+            throws SQLException {
+        if (variante == Variante.TEXTO) {
+            statement.setString(indice, valor);
+        } else {
+            statement.setShort(indice, codigo);
+        }
+    }
+
+    private static void definirData(PreparedStatement statement, int indice, Variante variante, LocalDateTime data)
+            throws SQLException {
+        if (variante == Variante.CODIGOS_EPOCH) {
+            if (data == null) {
+                statement.setNull(indice, java.sql.Types.BIGINT);
+            } else {
+                statement.setLong(indice, data.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + data.getNano() / 1_000);
+            }
+        } else {
+            statement.setTimestamp(indice, data == null ? null : Timestamp.valueOf(data));
+        }
+    }
+
+    private static double tamanho(Connection conexao, String sql) throws SQLException {
+        try (Statement statement = conexao.createStatement(); ResultSet resultado = statement.executeQuery(sql)) {
+            resultado.next();
+            return resultado.getLong(1) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.compartimento.Compartimento;
+import com.desafio.casepixitau.compartimento.CompartimentoAspect;
+import com.desafio.casepixitau.compartimento.CompartimentoEstanque;
+import com.desafio.casepixitau.compartimento.TipoCompartimento;
+import com.desafio.casepixitau.config.RoteamentoContexto;
+import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.exception.CompartimentoSaturadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes dos compartimentos (bulkheads) do serviço de chaves Pix.
+ */
+class CompartimentoTests {
+
+    private final ExecutorService requisicoes = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void encerrar() {
+        requisicoes.shutdownNow();
+        RoteamentoContexto.limpar();
+    }
+
+    @Test
+    void deveRecusarComFilaCheia() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CompartimentoEstanque compartimento = new CompartimentoEstanque("teste", 1, 1, 5_000, meterRegistry);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        Future<String> primeira = requisicoes.submit(() -> compartimento.executar(() -> aguardar(liberar)));
+        aguardarAtivas(compartimento, 1.0 / 2);
+        Future<String> segunda = requisicoes.submit(() -> compartimento.executar(() -> "ok"));
+        aguardarAtivas(compartimento, 2.0 / 2);
+
+        assertThrows(CompartimentoSaturadoException.class, () -> compartimento.executar(() -> "recusada"));
+        assertEquals(1, meterRegistry.get("pix.compartimento.recusadas").tag("motivo", "fila-cheia").counter().count());
+        assertEquals(1.0, meterRegistry.get("pix.compartimento.saturacao").gauge().value());
+
+        liberar.countDown();
+        assertEquals("ok", primeira.get(5, TimeUnit.SECONDS));
+        assertEquals("ok", segunda.get(5, TimeUnit.SECONDS));
+        compartimento.encerrar();
+    }
+
+    @Test
+    void deveRetirarDaFilaQuandoEsperaEsgota() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CompartimentoEstanque compartimento = new CompartimentoEstanque("teste", 1, 10, 50, meterRegistry);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicBoolean executada = new AtomicBoolean();
+
+        Future<String> primeira = requisicoes.submit(() -> compartimento.executar(() -> aguardar(liberar)));
+        aguardarAtivas(compartimento, 1.0 / 11);
+
+        assertThrows(CompartimentoSaturadoException.class, () -> compartimento.executar(() -> {
+            executada.set(true);
+            return "atrasada";
+        }));
+        liberar.countDown();
+        assertEquals("ok", primeira.get(5, TimeUnit.SECONDS));
+        assertEquals("ok", compartimento.executar(() -> "ok"));
+
+        assertFalse(executada.get());
+        assertEquals(1, meterRegistry.get("pix.compartimento.recusadas").tag("motivo", "espera-esgotada").counter().count());
+        compartimento.encerrar();
+    }
+
+    /**
+     * Interrompida a thread da requisição, a operação ainda na fila é abandonada; a já iniciada é
+     * aguardada e o resultado chega ao chamador, com a interrupção mantida na thread.
+     */
+    @Test
+    void deveAguardarOperacaoIniciadaQuandoInterrompida() throws Exception {
+        CompartimentoEstanque compartimento = new CompartimentoEstanque("teste", 1, 10, 5_000, new SimpleMeterRegistry());
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicReference<String> resultado = new AtomicReference<>();
+        AtomicBoolean interrompida = new AtomicBoolean();
+        AtomicBoolean executada = new AtomicBoolean();
+        AtomicReference<Exception> erroNaFila = new AtomicReference<>();
+
+        Thread primeira = new Thread(() -> {
+            try {
+                resultado.set(compartimento.executar(() -> {
+                    iniciada.countDown();
+                    return aguardar(liberar);
+                }));
+                interrompida.set(Thread.currentThread().isInterrupted());
+            } catch (Exception e) {
+                resultado.set(e.toString());
+            }
+        });
+        primeira.start();
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+        Thread naFila = new Thread(() -> {
+            try {
+                compartimento.executar(() -> {
+                    executada.set(true);
+                    return "na fila";
+                });
+            } catch (Exception e) {
+                erroNaFila.set(e);
+            }
+        });
+        naFila.start();
+        aguardarAtivas(compartimento, 2.0 / 11);
+
+        primeira.interrupt();
+        naFila.interrupt();
+        naFila.join(5_000);
+        Thread.sleep(50);
+        liberar.countDown();
+        primeira.join(5_000);
+
+        assertEquals("ok", resultado.get());
+        assertTrue(interrompida.get());
+        assertInstanceOf(InterruptedException.class, erroNaFila.get());
+        assertEquals("ok", compartimento.executar(() -> "ok"));
+        assertFalse(executada.get());
+        compartimento.encerrar();
+    }
+
+    @Test
+    void leituraPontualNaoDeveEsperarPelasVarreduras() throws Exception {
+        CompartimentoAspect aspect = new CompartimentoAspect(2, 10, 1_000, 1, 10, 1_000, 1, 1, 60_000,
+                new SimpleMeterRegistry());
+        ServicoExemplo alvo = new ServicoExemplo();
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(alvo);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(aspect);
+        ServicoExemplo servico = fabrica.getProxy();
+
+        // Varreduras ocupam a única thread e a fila do compartimento.
+        Future<String> varredura = requisicoes.submit(servico::varredura);
+        Future<String> naFila = requisicoes.submit(servico::varredura);
+        assertTrue(alvo.varredurasIniciadas.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        long inicio = System.nanoTime();
+        String thread = servico.leitura();
+        assertTrue(thread.startsWith("pix-compartimento-leitura-pontual-"), thread);
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(1));
+        assertThrows(CompartimentoSaturadoException.class, servico::varredura);
+
+        // Exceções do serviço chegam ao chamador sem alteração; o roteamento volta para a requisição.
+        assertThrows(ChavePixException.class, servico::escritaInvalida);
+        assertFalse(RoteamentoContexto.escritaRealizada());
+        servico.escrita();
+        assertTrue(RoteamentoContexto.escritaRealizada());
+
+        alvo.liberarVarreduras.countDown();
+        assertEquals("varredura", varredura.get(5, TimeUnit.SECONDS));
+        assertEquals("varredura", naFila.get(5, TimeUnit.SECONDS));
+        aspect.encerrar();
+    }
+
+    private static String aguardar(CountDownLatch liberar) throws InterruptedException {
+        assertTrue(liberar.await(5, TimeUnit.SECONDS));
+        return "ok";
+    }
+
+    private static void aguardarAtivas(CompartimentoEstanque compartimento, double saturacao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (compartimento.getSaturacao() < saturacao && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(saturacao, compartimento.getSaturacao(), 1e-9);
+    }
+
+    static class ServicoExemplo {
+
+        final CountDownLatch varredurasIniciadas = new CountDownLatch(1);
+        final CountDownLatch liberarVarreduras = new CountDownLatch(1);
+
+        @Compartimento(TipoCompartimento.VARREDURA)
+        public String varredura() throws InterruptedException {
+            varredurasIniciadas.countDown();
+            assertTrue(liberarVarreduras.await(5, TimeUnit.SECONDS));
+            return "varredura";
+        }
+
+        @Compartimento(TipoCompartimento.LEITURA_PONTUAL)
+        public String leitura() {
+            return Thread.currentThread().getName();
+        }
+
+        @Compartimento(TipoCompartimento.ESCRITA)
+        public void escrita() {
+            RoteamentoContexto.marcarEscrita();
+        }
+
+        @Compartimento(TipoCompartimento.ESCRITA)
+        public void escritaInvalida() {
+            throw new ChavePixException("Chave inválida.");
+        }
+    }
+}
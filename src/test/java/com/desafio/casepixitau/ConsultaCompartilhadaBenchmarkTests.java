@@ -0,0 +1,137 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.service.ConsultaCompartilhada;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Microbenchmark (JMH) da {@link ConsultaCompartilhada} com chaves sorteadas por uma distribuição
+ * Zipf (expoente 1, poucas chaves muito consultadas): 16 threads consultam 1000 chaves, com e sem o
+ * agrupamento das consultas concorrentes idênticas, com a consulta ao banco simulada por uma espera.
+ * Com espera zero mede o custo do agrupamento; com espera, o ganho de vazão e a redução das idas ao
+ * banco (contador {@code idasAoBanco}, em idas por segundo).
+ * Executado apenas no perfil Maven {@code carga}:
+ * <pre>mvn test -Pcarga -Dtest=ConsultaCompartilhadaBenchmarkTests</pre>
+ */
+@Tag("carga")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class ConsultaCompartilhadaBenchmarkTests {
+
+    private static final int CHAVES = 1_000;
+    private static final int AMOSTRAS = 4_096;
+
+    @Param({"true", "false"})
+    public boolean compartilhada;
+
+    @Param({"0", "500"})
+    public long latenciaMicros;
+
+    private ConsultaCompartilhada<Integer, String> consulta;
+    private String[] resultados;
+
+    @Test
+    public void executar() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConsultaCompartilhadaBenchmarkTests.class.getName() + "\\.")
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        consulta = new ConsultaCompartilhada<>("valor", new SimpleMeterRegistry());
+        resultados = new String[CHAVES + 1];
+        for (int k = 1; k <= CHAVES; k++) {
+            resultados[k] = "chave-" + k;
+        }
+    }
+
+    @Benchmark
+    public String consultar(Sorteio sorteio, Idas idas) {
+        int chave = sorteio.proxima();
+        return compartilhada
+                ? consulta.executar(chave, () -> banco(chave, idas))
+                : banco(chave, idas);
+    }
+
+    private String banco(int chave, Idas idas) {
+        idas.idasAoBanco++;
+        if (latenciaMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latenciaMicros));
+        }
+        return resultados[chave];
+    }
+
+    /**
+     * Sequência de chaves Zipf de cada thread, sorteada antes da medição.
+     */
+    @State(Scope.Thread)
+    public static class Sorteio {
+        private final int[] chaves = new int[AMOSTRAS];
+        private int posicao;
+
+        @Setup(Level.Trial)
+        public void sortear() {
+            Random random = new Random(Thread.currentThread().getId());
+            double harmonico = 0;
+            for (int k = 1; k <= CHAVES; k++) {
+                harmonico += 1.0 / k;
+            }
+            for (int i = 0; i < AMOSTRAS; i++) {
+                double alvo = random.nextDouble() * harmonico;
+                double acumulado = 0;
+                int k = 1;
+                while (k < CHAVES && (acumulado += 1.0 / k) < alvo) {
+                    k++;
+                }
+                chaves[i] = k;
+            }
+        }
+
+        int proxima() {
+            posicao = (posicao + 1) & (AMOSTRAS - 1);
+            return chaves[posicao];
+        }
+    }
+
+    /**
+     * Idas ao banco feitas pela thread, reportadas pelo JMH por segundo, ao lado da vazão.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Idas {
+        public long idasAoBanco;
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            idasAoBanco = 0;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.service.ConsultaCompartilhada;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a {@link ConsultaCompartilhada}.
+ */
+class ConsultaCompartilhadaTests {
+
+    @Test
+    void deveCompartilharConsultasConcorrentesComDistribuicaoZipf() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConsultaCompartilhada<Integer, String> consulta = new ConsultaCompartilhada<>("valor", meterRegistry);
+        ConcurrentHashMap<Integer, AtomicInteger> idasAoBanco = new ConcurrentHashMap<>();
+        int threads = 64;
+        int consultasPorThread = 50;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long semente = t;
+            futuros.add(pool.submit(() -> {
+                Random random = new Random(semente);
+                inicio.await();
+                for (int i = 0; i < consultasPorThread; i++) {
+                    int chave = zipf(random, 1_000);
+                    String resultado = consulta.executar(chave, () -> {
+                        idasAoBanco.computeIfAbsent(chave, k -> new AtomicInteger()).incrementAndGet();
+                        dormir(2);
+                        return "chave-" + chave;
+                    });
+                    assertEquals("chave-" + chave, resultado);
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int total = threads * consultasPorThread;
+        int consultasAoBanco = idasAoBanco.values().stream().mapToInt(AtomicInteger::get).sum();
+        double compartilhadas = meterRegistry.get("pix.consultas.compartilhadas").counter().count();
+
+        assertEquals(total, meterRegistry.get("pix.consultas.total").counter().count());
+        assertEquals(total, consultasAoBanco + (int) compartilhadas);
+        assertTrue(consultasAoBanco < total * 0.8,
+                "Esperada redução de consultas ao banco, obtido " + consultasAoBanco + " de " + total);
+    }
+
+    @Test
+    void deveRepassarExcecaoAosQueAguardam() throws Exception {
+        ConsultaCompartilhada<String, String> consulta = new ConsultaCompartilhada<>("id", new SimpleMeterRegistry());
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<String> primeira = pool.submit(() -> consulta.executar("a", () -> {
+            emAndamento.countDown();
+            aguardar(liberar);
+            throw new IllegalStateException("falha no banco");
+        }));
+        assertTrue(emAndamento.await(5, TimeUnit.SECONDS));
+        Future<String> segunda = pool.submit(() -> consulta.executar("a", () -> "não executada"));
+        Thread.sleep(50);
+        liberar.countDown();
+
+        Exception e1 = assertThrows(Exception.class, () -> primeira.get(5, TimeUnit.SECONDS));
+        Exception e2 = assertThrows(Exception.class, () -> segunda.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e1.getCause());
+        assertInstanceOf(IllegalStateException.class, e2.getCause());
+        pool.shutdown();
+
+        assertEquals("nova", consulta.executar("a", () -> "nova"));
+    }
+
+    /**
+     * Sorteia uma chave em [1, n] com distribuição aproximadamente Zipf (expoente 1).
+     */
+    private static int zipf(Random random, int n) {
+        double harmonico = Math.log(n) + 0.5772;
+        double alvo = random.nextDouble() * harmonico;
+        double acumulado = 0;
+        for (int k = 1; k <= n; k++) {
+            acumulado += 1.0 / k;
+            if (acumulado >= alvo) {
+                return k;
+            }
+        }
+        return n;
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.config.RoteamentoContexto;
+import com.desafio.casepixitau.dto.ConsultaLoteItemDTO;
+import com.desafio.casepixitau.dto.ConsultaLoteRequestDTO;
+import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.ChavePixArquivada;
+import com.desafio.casepixitau.repository.ChavePixArquivadaRepository;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.service.ConsultaLoteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para o {@link ConsultaLoteService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConsultaLoteServiceTests {
+
+    @Mock
+    private ChavePixRepository repository;
+
+    @Mock
+    private ChavePixArquivadaRepository arquivo;
+
+    private ConsultaLoteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ConsultaLoteService(repository, arquivo, mock(PlatformTransactionManager.class), 100, 10, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    void deveRetornarResultadosNaOrdemDaRequisicaoComNaoEncontradas() {
+        List<String> valores = IntStream.range(0, 25).mapToObj(i -> "chave" + i + "@email.com").collect(Collectors.toList());
+        when(repository.findByValorChaveIn(any())).thenAnswer(invocation -> {
+            Collection<String> bloco = invocation.getArgument(0);
+            return bloco.stream().filter(v -> !v.startsWith("chave1")).map(ConsultaLoteServiceTests::chave).collect(Collectors.toList());
+        });
+
+        List<ConsultaLoteItemDTO> resultado = service.consultar(new ConsultaLoteRequestDTO(null, valores));
+
+        assertEquals(25, resultado.size());
+        for (int i = 0; i < valores.size(); i++) {
+            assertEquals(valores.get(i), resultado.get(i).getConsulta());
+            boolean esperada = !valores.get(i).startsWith("chave1");
+            assertEquals(esperada, resultado.get(i).isEncontrada());
+            assertEquals(esperada ? valores.get(i) : null,
+                    resultado.get(i).getChave() == null ? null : resultado.get(i).getChave().getValorChave());
+        }
+        verify(repository, times(3)).findByValorChaveIn(any());
+    }
+
+    @Test
+    void deveConsultarIdsRepetidosUmaUnicaVez() {
+        UUID id = UUID.randomUUID();
+        ChavePix chave = chave("teste@email.com");
+        chave.setId(id);
+        when(repository.findAllById(any())).thenReturn(List.of(chave));
+
+        List<ConsultaLoteItemDTO> resultado = service.consultar(new ConsultaLoteRequestDTO(List.of(id, id, id), null));
+
+        assertEquals(3, resultado.size());
+        assertTrue(resultado.stream().allMatch(ConsultaLoteItemDTO::isEncontrada));
+        verify(repository).findAllById(argThat((Iterable<UUID> ids) -> ((Collection<UUID>) ids).size() == 1));
+    }
+
+    @Test
+    void deveProcurarNoArquivoApenasOsValoresAusentesDaTabela() {
+        when(repository.findByValorChaveIn(any())).thenReturn(List.of(chave("tabela@email.com")));
+        ChavePixArquivada antiga = arquivada("arquivada@email.com", LocalDateTime.now().minusDays(400));
+        ChavePixArquivada recente = arquivada("arquivada@email.com", LocalDateTime.now().minusDays(200));
+        when(arquivo.findByValorChaveIn(any())).thenReturn(List.of(recente, antiga));
+
+        List<ConsultaLoteItemDTO> resultado = service.consultar(
+                new ConsultaLoteRequestDTO(null, List.of("tabela@email.com", "arquivada@email.com")));
+
+        assertTrue(resultado.get(0).isEncontrada());
+        assertEquals(recente.getId(), resultado.get(1).getChave().getId());
+        verify(arquivo).findByValorChaveIn(List.of("arquivada@email.com"));
+    }
+
+    /**
+     * Após uma escrita na requisição, os blocos executados no pool também leem do primário.
+     */
+    @Test
+    void devePropagarRoteamentoDaRequisicaoParaOsBlocos() {
+        List<Boolean> roteamentos = Collections.synchronizedList(new ArrayList<>());
+        when(repository.findByValorChaveIn(any())).thenAnswer(invocation -> {
+            roteamentos.add(RoteamentoContexto.escritaRealizada());
+            return List.of();
+        });
+        List<String> valores = IntStream.range(0, 20).mapToObj(i -> "chave" + i + "@email.com").collect(Collectors.toList());
+
+        RoteamentoContexto.marcarEscrita();
+        try {
+            service.consultar(new ConsultaLoteRequestDTO(null, valores));
+        } finally {
+            RoteamentoContexto.limpar();
+        }
+        service.consultar(new ConsultaLoteRequestDTO(null, valores));
+
+        assertEquals(List.of(true, true, false, false), roteamentos);
+    }
+
+    @Test
+    void deveRecusarRequisicaoComAmbasAsListasOuAcimaDoLimite() {
+        assertThrows(ChavePixException.class,
+                () -> service.consultar(new ConsultaLoteRequestDTO(List.of(UUID.randomUUID()), List.of("a"))));
+        assertThrows(ChavePixException.class, () -> service.consultar(new ConsultaLoteRequestDTO()));
+
+        List<String> excedente = new ArrayList<>();
+        IntStream.range(0, 101).forEach(i -> excedente.add("valor" + i));
+        assertThrows(ChavePixException.class, () -> service.consultar(new ConsultaLoteRequestDTO(null, excedente)));
+        verifyNoInteractions(repository);
+    }
+
+    private static ChavePixArquivada arquivada(String valor, LocalDateTime inativacao) {
+        ChavePixArquivada chave = mock(ChavePixArquivada.class);
+        when(chave.getId()).thenReturn(UUID.randomUUID());
+        when(chave.getValorChave()).thenReturn(valor);
+        when(chave.getDataHoraInativacao()).thenReturn(inativacao);
+        return chave;
+    }
+
+    private static ChavePix chave(String valor) {
+        ChavePix chave = new ChavePix();
+        chave.setId(UUID.randomUUID());
+        chave.setTipoChave("email");
+        chave.setValorChave(valor);
+        chave.setDataHoraInclusao(LocalDateTime.now());
+        return chave;
+    }
+}
@@ -0,0 +1,137 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.repository.EstatisticaChavePixRepository;
+import com.desafio.casepixitau.service.EstatisticasChavePixService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Microbenchmark (JMH) do custo acrescentado ao caminho de escrita pelo listener de estatísticas
+ * ({@link EstatisticasChavePixService#onChavePixEvento}): inclusão, alteração com troca de agência e
+ * inativação, com as chaves concentradas em uma agência ou espalhadas por milhares, em uma thread e
+ * em quatro threads concorrentes.
+ * Executado apenas no perfil Maven {@code carga}:
+ * <pre>mvn test -Pcarga -Dtest=EstatisticasBenchmarkTests</pre>
+ */
+@Tag("carga")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstatisticasBenchmarkTests {
+
+    private static final String[] TIPOS = {"cpf", "email", "celular"};
+
+    @Param({"1", "5000"})
+    public int agencias;
+
+    private EstatisticasChavePixService service;
+    private ChavePixEvento[] inclusoes;
+    private ChavePixEvento[] alteracoes;
+    private ChavePixEvento[] inativacoes;
+
+    @Test
+    public void executar() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EstatisticasBenchmarkTests.class.getName() + "\\.")
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        service = new EstatisticasChavePixService(mock(ChavePixRepository.class),
+                mock(EstatisticaChavePixRepository.class), new SimpleMeterRegistry(), 90);
+        inclusoes = new ChavePixEvento[agencias];
+        alteracoes = new ChavePixEvento[agencias];
+        inativacoes = new ChavePixEvento[agencias];
+        for (int i = 0; i < agencias; i++) {
+            ChavePix chave = chave(TIPOS[i % TIPOS.length], i + 1);
+            inclusoes[i] = new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave, null);
+
+            ChavePix alterada = chave(chave.getTipoChave(), chave.getNumeroAgencia() + agencias);
+            ChavePixResponseDTO anterior = new ChavePixResponseDTO();
+            anterior.setTipoChave(chave.getTipoChave());
+            anterior.setNumeroAgencia(chave.getNumeroAgencia());
+            alteracoes[i] = new ChavePixEvento(ChavePixEvento.Tipo.ALTERACAO, alterada, anterior);
+
+            ChavePix inativada = chave(chave.getTipoChave(), chave.getNumeroAgencia());
+            inativada.setDataHoraInativacao(LocalDateTime.now());
+            inativacoes[i] = new ChavePixEvento(ChavePixEvento.Tipo.INATIVACAO, inativada, null);
+            service.onChavePixEvento(inclusoes[i]);
+        }
+    }
+
+    @Benchmark
+    public void inclusao(Sequencia sequencia) {
+        service.onChavePixEvento(inclusoes[sequencia.proxima(agencias)]);
+    }
+
+    @Benchmark
+    public void alteracaoDeAgencia(Sequencia sequencia) {
+        service.onChavePixEvento(alteracoes[sequencia.proxima(agencias)]);
+    }
+
+    @Benchmark
+    public void inativacao(Sequencia sequencia) {
+        service.onChavePixEvento(inativacoes[sequencia.proxima(agencias)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void inclusaoConcorrente(Sequencia sequencia) {
+        service.onChavePixEvento(inclusoes[sequencia.proxima(agencias)]);
+    }
+
+    private static ChavePix chave(String tipoChave, int agencia) {
+        ChavePix chave = new ChavePix();
+        chave.setId(UUID.randomUUID());
+        chave.setTipoChave(tipoChave);
+        chave.setValorChave(UUID.randomUUID().toString());
+        chave.setNumeroAgencia(agencia);
+        chave.setNumeroConta(1);
+        chave.setDataHoraInclusao(LocalDateTime.now());
+        return chave;
+    }
+
+    /**
+     * Posição de cada thread na lista de eventos.
+     */
+    @State(Scope.Thread)
+    public static class Sequencia {
+        private int posicao;
+
+        int proxima(int quantidade) {
+            posicao = posicao + 1 < quantidade ? posicao + 1 : 0;
+            return posicao;
+        }
+    }
+}
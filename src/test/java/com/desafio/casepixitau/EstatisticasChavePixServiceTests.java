@@ -0,0 +1,144 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.dto.EstatisticasResponseDTO;
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.model.EstatisticaChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.repository.EstatisticaChavePixRepository;
+import com.desafio.casepixitau.service.EstatisticasChavePixService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para o {@link EstatisticasChavePixService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class EstatisticasChavePixServiceTests {
+
+    @Mock
+    private ChavePixRepository chavePixRepository;
+
+    @Mock
+    private EstatisticaChavePixRepository estatisticaRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EstatisticasChavePixService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EstatisticasChavePixService(chavePixRepository, estatisticaRepository, meterRegistry, 90);
+    }
+
+    @Test
+    void deveAtualizarContadoresPelosEventos() {
+        ChavePix chave = chave("email", 1234);
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave, null));
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave("cpf", 1234), null));
+
+        ChavePixResponseDTO anterior = anterior(chave);
+        chave.setNumeroAgencia(4321);
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.ALTERACAO, chave, anterior));
+
+        anterior = anterior(chave);
+        chave.setDataHoraInativacao(LocalDateTime.now());
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INATIVACAO, chave, anterior));
+
+        EstatisticasResponseDTO estatisticas = service.atualizarSnapshot();
+        LocalDate hoje = LocalDate.now();
+        assertEquals(Map.of("cpf", 1L), estatisticas.getAtivasPorTipoChave());
+        assertEquals(Map.of(1234, 1L), estatisticas.getAtivasPorAgencia());
+        assertEquals(Map.of(hoje, 2L), estatisticas.getInclusoesPorDia());
+        assertEquals(Map.of(hoje, 1L), estatisticas.getInativacoesPorDia());
+    }
+
+    @Test
+    void deveGravarApenasContadoresAlteradosNoCheckpoint() {
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave("email", 1234), null));
+
+        service.checkpoint();
+        service.checkpoint();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EstatisticaChavePix>> captor = ArgumentCaptor.forClass(List.class);
+        verify(estatisticaRepository, times(1)).saveAll(captor.capture());
+        assertEquals(3, captor.getValue().size());
+        assertTrue(captor.getValue().stream().anyMatch(e -> e.getChave().equals("agencia:1234") && e.getValor() == 1));
+    }
+
+    @Test
+    void deveReconstruirContadoresAPartirDoCheckpoint() {
+        LocalDateTime agora = LocalDateTime.now();
+        when(estatisticaRepository.findAll()).thenReturn(List.of(
+                new EstatisticaChavePix("tipo:email", 7, agora),
+                new EstatisticaChavePix("agencia:1234", 7, agora),
+                new EstatisticaChavePix("inclusao:" + LocalDate.now(), 3, agora)));
+
+        service.reconstruir();
+
+        EstatisticasResponseDTO estatisticas = service.consultar();
+        assertEquals(Map.of("email", 7L), estatisticas.getAtivasPorTipoChave());
+        assertEquals(Map.of(1234, 7L), estatisticas.getAtivasPorAgencia());
+        assertEquals(Map.of(LocalDate.now(), 3L), estatisticas.getInclusoesPorDia());
+        verify(chavePixRepository, never()).contarAtivasPorTipoChave();
+    }
+
+    @Test
+    void deveCorrigirDivergenciasSomandoResultadosDosShards() {
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave("email", 1234), null));
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave("cpf", 99), null));
+
+        when(chavePixRepository.contarAtivasPorTipoChave()).thenReturn(linhas(
+                new Object[]{"email", 2L}, new Object[]{"email", 1L}));
+        when(chavePixRepository.contarAtivasPorAgencia()).thenReturn(linhas(new Object[]{1234, 3L}));
+        when(chavePixRepository.contarInclusoesPorDia(any())).thenReturn(linhas(new Object[]{LocalDate.now(), 2L}));
+        when(chavePixRepository.contarInativacoesPorDia(any())).thenReturn(linhas());
+
+        service.verificarConsistencia();
+
+        EstatisticasResponseDTO estatisticas = service.atualizarSnapshot();
+        assertEquals(Map.of("email", 3L), estatisticas.getAtivasPorTipoChave());
+        assertEquals(Map.of(1234, 3L), estatisticas.getAtivasPorAgencia());
+        assertEquals(4, meterRegistry.get("pix.estatisticas.divergencias").counter().count());
+    }
+
+    private static List<Object[]> linhas(Object[]... linhas) {
+        return new ArrayList<>(List.of(linhas));
+    }
+
+    private static ChavePixResponseDTO anterior(ChavePix chave) {
+        ChavePixResponseDTO dto = new ChavePixResponseDTO();
+        dto.setTipoChave(chave.getTipoChave());
+        dto.setNumeroAgencia(chave.getNumeroAgencia());
+        return dto;
+    }
+
+    private static ChavePix chave(String tipoChave, int agencia) {
+        ChavePix chave = new ChavePix();
+        chave.setId(UUID.randomUUID());
+        chave.setTipoChave(tipoChave);
+        chave.setValorChave(UUID.randomUUID().toString());
+        chave.setNumeroAgencia(agencia);
+        chave.setNumeroConta(1);
+        chave.setDataHoraInclusao(LocalDateTime.now());
+        return chave;
+    }
+}
@@ -0,0 +1,161 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.service.ChavePixService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark da vazão do serviço de chaves com a tabela fragmentada em 1, 2, 4 e 8 shards H2 locais.
+ *
+ * Para cada quantidade de shards é iniciada uma aplicação com bancos em memória próprios. Clientes em
+ * malha fechada incluem chaves de agências sorteadas durante a duração da fase de inclusão e, em
+ * seguida, consultam por id e por agência e conta as chaves incluídas durante a fase de consulta. O
+ * limite por cliente e os compartimentos ficam desligados, para medir o caminho até os shards.
+ * Com bancos em memória no mesmo processo, o ganho medido vem da menor contenção por shard (pool de
+ * conexões e travas do H2), e não de máquinas adicionais.
+ *
+ * Fica fora do build padrão. Execução:
+ * <pre>
+ * mvn test -Pcarga -Dtest=FragmentacaoBenchmarkTests -Dfragmentacao.clientes=16 -Dfragmentacao.duracao-segundos=10
+ * </pre>
+ */
+@Tag("carga")
+class FragmentacaoBenchmarkTests {
+
+    private static final int[] QUANTIDADES_SHARDS = {1, 2, 4, 8};
+    private static final int AGENCIAS = 1000;
+
+    private final AtomicInteger sequencia = new AtomicInteger();
+
+    @Test
+    void compararVazaoPorQuantidadeDeShards() throws Exception {
+        int clientes = Integer.getInteger("fragmentacao.clientes", 16);
+        int duracao = Integer.getInteger("fragmentacao.duracao-segundos", 10);
+        int aquecimento = Integer.getInteger("fragmentacao.aquecimento-segundos", 3);
+
+        List<Medicao> medicoes = new ArrayList<>();
+        for (int shards : QUANTIDADES_SHARDS) {
+            try (ConfigurableApplicationContext contexto = iniciar(shards)) {
+                ChavePixService service = contexto.getBean(ChavePixService.class);
+                incluir(service, clientes, aquecimento, new ConcurrentLinkedQueue<>());
+
+                Queue<ChavePixResponseDTO> incluidas = new ConcurrentLinkedQueue<>();
+                Fase inclusao = incluir(service, clientes, duracao, incluidas);
+                Fase consulta = consultar(service, clientes, duracao, new ArrayList<>(incluidas));
+                medicoes.add(new Medicao(shards, inclusao, consulta));
+            }
+        }
+
+        System.out.printf("%nVazão por quantidade de shards H2 (%d clientes, %d s por fase)%n", clientes, duracao);
+        System.out.printf("  %6s | %14s | %14s | %8s%n", "shards", "inclusões/s", "consultas/s", "erros");
+        for (Medicao medicao : medicoes) {
+            System.out.printf("  %6d | %14.0f | %14.0f | %8d%n", medicao.shards(), medicao.inclusao().vazao(),
+                    medicao.consulta().vazao(), medicao.inclusao().erros() + medicao.consulta().erros());
+        }
+
+        for (Medicao medicao : medicoes) {
+            assertEquals(0, medicao.inclusao().erros());
+            assertEquals(0, medicao.consulta().erros());
+            assertTrue(medicao.inclusao().sucesso() > 0);
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciar(int shards) {
+        String prefixo = "bench" + shards + "-";
+        String urls = IntStream.range(0, shards)
+                .mapToObj(i -> "jdbc:h2:mem:" + prefixo + "shard" + i + ";DB_CLOSE_DELAY=-1")
+                .collect(Collectors.joining(","));
+        return new SpringApplicationBuilder(CasePixItauApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--pix.sharding.enabled=true",
+                        "--pix.sharding.urls=" + urls,
+                        "--pix.sharding.username=sa",
+                        "--spring.datasource.url=jdbc:h2:mem:" + prefixo + "diretorio",
+                        "--pix.arquivamento.enabled=false",
+                        "--pix.limite-taxa.enabled=false",
+                        "--pix.compartimentos.enabled=false",
+                        "--pix.aquecimento.enabled=false",
+                        "--logging.level.root=WARN");
+    }
+
+    private Fase incluir(ChavePixService service, int clientes, int segundos, Queue<ChavePixResponseDTO> incluidas)
+            throws Exception {
+        return executar(clientes, segundos, () -> incluidas.add(service.incluir(request(sequencia.incrementAndGet()))));
+    }
+
+    private static Fase consultar(ChavePixService service, int clientes, int segundos, List<ChavePixResponseDTO> incluidas)
+            throws Exception {
+        return executar(clientes, segundos, () -> {
+            ChavePixResponseDTO chave = incluidas.get(ThreadLocalRandom.current().nextInt(incluidas.size()));
+            service.consultarPorId(chave.getId());
+            service.consultarPorAgenciaEConta(chave.getNumeroAgencia(), chave.getNumeroConta());
+        });
+    }
+
+    private static Fase executar(int clientes, int segundos, Runnable operacao) throws Exception {
+        LongAdder sucesso = new LongAdder();
+        LongAdder erros = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        long inicio = System.nanoTime();
+        long fim = inicio + TimeUnit.SECONDS.toNanos(segundos);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int c = 0; c < clientes; c++) {
+            futuros.add(executor.submit(() -> {
+                while (System.nanoTime() < fim) {
+                    try {
+                        operacao.run();
+                        sucesso.increment();
+                    } catch (RuntimeException e) {
+                        erros.increment();
+                    }
+                }
+            }));
+        }
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+        executor.shutdown();
+        return new Fase((System.nanoTime() - inicio) / 1e9, sucesso.sum(), erros.sum());
+    }
+
+    private static ChavePixRequestDTO request(int n) {
+        ChavePixRequestDTO dto = new ChavePixRequestDTO();
+        dto.setTipoChave("email");
+        dto.setValorChave("fragmentacao" + n + "@email.com");
+        dto.setTipoConta("corrente");
+        dto.setNumeroAgencia(1 + n % AGENCIAS);
+        dto.setNumeroConta(1 + n / AGENCIAS);
+        dto.setNomeCorrentista("Correntista");
+        return dto;
+    }
+
+    private record Fase(double segundos, long sucesso, long erros) {
+        double vazao() {
+            return sucesso / segundos;
+        }
+    }
+
+    private record Medicao(int shards, Fase inclusao, Fase consulta) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixAlteracaoDTO;
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.exception.ChavePixException;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.service.ChavePixService;
+import com.desafio.casepixitau.sharding.FragmentacaoChavePix;
+import com.desafio.casepixitau.snapshot.SnapshotChavePixService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração da fragmentação por agência usando três bancos H2 como shards.
+ */
+@SpringBootTest(properties = {
+        "pix.sharding.enabled=true",
+        "pix.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "pix.sharding.username=sa",
+        "pix.arquivamento.enabled=false"
+})
+class FragmentacaoChavePixTests {
+
+    @Autowired
+    private ChavePixService service;
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    @Autowired
+    private FragmentacaoChavePix fragmentacao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SnapshotChavePixService snapshot;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void deveGravarCadaAgenciaNoSeuShard() {
+        service.incluir(request("11144477735", 3));
+        service.incluir(request("52998224725", 4));
+        service.incluir(request("39053344705", 5));
+
+        assertEquals(1, contarNoShard(0));
+        assertEquals(1, contarNoShard(1));
+        assertEquals(1, contarNoShard(2));
+    }
+
+    @Test
+    void deveLocalizarChavePorIdEValorEmQualquerShard() {
+        ChavePixResponseDTO incluida = service.incluir(request("11144477735", 4));
+
+        assertEquals("11144477735", service.consultarPorId(incluida.getId()).getValorChave());
+        assertTrue(repository.findByValorChave("11144477735").isPresent());
+        assertEquals(1, service.consultarPorAgenciaEConta(4, 123456).size());
+    }
+
+    @Test
+    void deveGarantirUnicidadeEntreShards() {
+        service.incluir(request("11144477735", 3));
+
+        ChavePixRequestDTO outraAgencia = request("11144477735", 4);
+        assertThrows(ChavePixException.class, () -> service.incluir(outraAgencia));
+        assertEquals(0, contarNoShard(1));
+    }
+
+    @Test
+    void deveCombinarResultadosDeTodosOsShardsOrdenadosPorInclusao() {
+        service.incluir(request("11144477735", 5));
+        service.incluir(request("52998224725", 3));
+        service.incluir(request("39053344705", 4));
+
+        List<ChavePixResponseDTO> porTipo = service.consultarPorFiltros("cpf", null, null, null, null, null);
+        assertEquals(List.of("11144477735", "52998224725", "39053344705"),
+                porTipo.stream().map(ChavePixResponseDTO::getValorChave).toList());
+        assertEquals(3, service.consultarPorData(LocalDate.now(), null).size());
+    }
+
+    @Test
+    void deveMoverChaveQuandoAgenciaMudaDeShard() {
+        ChavePixResponseDTO incluida = service.incluir(request("11144477735", 3));
+
+        ChavePixAlteracaoDTO alteracao = new ChavePixAlteracaoDTO();
+        alteracao.setTipoConta("corrente");
+        alteracao.setNumeroAgencia(4);
+        alteracao.setNumeroConta(654321);
+        alteracao.setNomeCorrentista("Fulano");
+        service.alterar(incluida.getId(), alteracao);
+
+        assertEquals(0, contarNoShard(0));
+        assertEquals(1, contarNoShard(1));
+        assertEquals(4, service.consultarPorId(incluida.getId()).getNumeroAgencia());
+
+        service.inativar(incluida.getId());
+        assertEquals(1, service.consultarPorData(null, LocalDate.now()).size());
+    }
+
+    /**
+     * Transação desfeita após a troca de shard remove a cópia do destino e mantém a chave na origem.
+     */
+    @Test
+    void deveDesfazerCopiaQuandoTransacaoDaTrocaDeShardForDesfeita() {
+        ChavePixResponseDTO incluida = service.incluir(request("11144477735", 3));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ChavePix chave = repository.findById(incluida.getId()).orElseThrow();
+            chave.setNumeroAgencia(4);
+            repository.save(chave);
+            assertEquals(1, contarNoShard(1));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, contarNoShard(0));
+        assertEquals(0, contarNoShard(1));
+        assertEquals(3, service.consultarPorId(incluida.getId()).getNumeroAgencia());
+    }
+
+    /**
+     * Ordenação e paginação combinam os shards; remoção por entidades e por ids localiza cada shard.
+     */
+    @Test
+    void devePaginarERemoverEmTodosOsShards() {
+        ChavePixResponseDTO a = service.incluir(request("11144477735", 5));
+        ChavePixResponseDTO b = service.incluir(request("52998224725", 3));
+        ChavePixResponseDTO c = service.incluir(request("39053344705", 4));
+
+        Sort porValor = Sort.by("valorChave");
+        assertEquals(List.of("11144477735", "39053344705", "52998224725"),
+                repository.findAll(porValor).stream().map(ChavePix::getValorChave).toList());
+        Page<ChavePix> pagina = repository.findAll(PageRequest.of(1, 2, porValor));
+        assertEquals(3, pagina.getTotalElements());
+        assertEquals(List.of("52998224725"), pagina.getContent().stream().map(ChavePix::getValorChave).toList());
+
+        repository.deleteAll(repository.findAllById(List.of(a.getId(), b.getId())));
+        repository.deleteAllById(List.of(c.getId()));
+        assertEquals(0, repository.count());
+        assertTrue(repository.findByValorChave("39053344705").isEmpty());
+    }
+
+    /**
+     * Fragmentação e réplica de leitura definem o {@code dataSource} primário: a inicialização falha com as duas.
+     */
+    @Test
+    void deveRecusarInicializacaoComFragmentacaoEReplica() {
+        SpringApplicationBuilder aplicacao = new SpringApplicationBuilder(CasePixItauApplication.class)
+                .web(WebApplicationType.NONE);
+        String[] argumentos = {"--pix.sharding.enabled=true",
+                "--pix.sharding.urls=jdbc:h2:mem:shard-replica;DB_CLOSE_DELAY=-1",
+                "--pix.sharding.username=sa",
+                "--pix.arquivamento.enabled=false",
+                "--pix.datasource.replica.enabled=true",
+                "--pix.datasource.replica.url=jdbc:h2:mem:replica-fragmentacao",
+                "--logging.level.root=OFF"};
+
+        Throwable erro = assertThrows(Exception.class, () -> aplicacao.run(argumentos));
+        while (erro.getCause() != null && !(erro instanceof IllegalStateException)) {
+            erro = erro.getCause();
+        }
+        assertInstanceOf(IllegalStateException.class, erro);
+        assertTrue(erro.getMessage().contains("pix.datasource.replica.enabled=false"));
+    }
+
+    /**
+     * O snapshot não é suportado com a fragmentação: a importação é recusada, e um comando de snapshot
+     * configurado impede a inicialização.
+     */
+    @Test
+    void deveRecusarSnapshotComFragmentacao() {
+        assertThrows(IllegalStateException.class, () -> snapshot.importar(Path.of("chaves.pixsnap")));
+        assertThrows(IllegalStateException.class, () -> new SnapshotChavePixService(null, null, null, null, null,
+                null, null, 8192, 4, 1000, true, "importar"));
+    }
+
+    private int contarNoShard(int shard) {
+        return new JdbcTemplate(fragmentacao.getShards().get(shard))
+                .queryForObject("SELECT COUNT(*) FROM tb_chavespix", Integer.class);
+    }
+
+    private static ChavePixRequestDTO request(String cpf, int agencia) {
+        ChavePixRequestDTO dto = new ChavePixRequestDTO();
+        dto.setTipoChave("cpf");
+        dto.setValorChave(cpf);
+        dto.setTipoConta("corrente");
+        dto.setNumeroAgencia(agencia);
+        dto.setNumeroConta(123456);
+        dto.setNomeCorrentista("Fulano");
+        return dto;
+    }
+}
@@ -0,0 +1,136 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.model.HashValorChave;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara o tamanho do índice e a latência da busca por valor da chave com o índice sobre o
+ * próprio valor (VARCHAR) e com o índice sobre o hash de 64 bits seguido da comparação do valor.
+ * Executado apenas no perfil Maven {@code carga}:
+ * <pre>mvn test -Pcarga -Dtest=HashValorChaveBenchmarkTests -Dbenchmark.hash.chaves=10000000</pre>
+ *
+ * Por padrão usa H2 em arquivo ({@code DISK_SPACE_USED}, tabela e índices juntos). Para medir no
+ * PostgreSQL ({@code pg_relation_size} do índice):
+ * <pre>-Dbenchmark.hash.url=jdbc:postgresql://localhost:5432/pix -Dbenchmark.hash.usuario=... -Dbenchmark.hash.senha=...</pre>
+ */
+@Tag("carga")
+public class HashValorChaveBenchmarkTests {
+
+    private static final int CHAVES = Integer.getInteger("benchmark.hash.chaves", 1_000_000);
+    private static final int CONSULTAS = Integer.getInteger("benchmark.hash.consultas", 200_000);
+    private static final int LOTE = 1_000;
+    private static final String URL = System.getProperty("benchmark.hash.url");
+    private static final String USUARIO = System.getProperty("benchmark.hash.usuario", "sa");
+    private static final String SENHA = System.getProperty("benchmark.hash.senha", "");
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    public void compararIndices() throws SQLException {
+        String url = URL != null ? URL : "jdbc:h2:file:" + diretorio.resolve("hash").toAbsolutePath();
+        try (Connection conexao = DriverManager.getConnection(url, USUARIO, SENHA)) {
+            System.out.printf("%n%-8s %10s %12s %10s %10s %10s%n", "índice", "chaves", "tamanho(MB)", "média(µs)", "p50(µs)", "p99(µs)");
+            medir(conexao, false);
+            medir(conexao, true);
+        }
+    }
+
+    private void medir(Connection conexao, boolean porHash) throws SQLException {
+        String tabela = porHash ? "tb_benchmark_hash" : "tb_benchmark_valor";
+        String indice = "ix_" + tabela;
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + tabela);
+            statement.execute("CREATE TABLE " + tabela + " (id UUID PRIMARY KEY, valor_chave VARCHAR(77) NOT NULL"
+                    + (porHash ? ", hash_valor_chave BIGINT NOT NULL)" : ")"));
+        }
+        conexao.setAutoCommit(false);
+        try (PreparedStatement insert = conexao.prepareStatement(porHash
+                ? "INSERT INTO " + tabela + " VALUES (?, ?, ?)"
+                : "INSERT INTO " + tabela + " VALUES (?, ?)")) {
+            for (int i = 0; i < CHAVES; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, valor(i));
+                if (porHash) {
+                    insert.setLong(3, HashValorChave.calcular(valor(i)));
+                }
+                insert.addBatch();
+                if ((i + 1) % LOTE == 0 || i == CHAVES - 1) {
+                    insert.executeBatch();
+                    conexao.commit();
+                }
+            }
+        }
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("CREATE INDEX " + indice + " ON " + tabela + (porHash ? " (hash_valor_chave)" : " (valor_chave)"));
+        }
+        conexao.commit();
+
+        double tamanhoMb = URL != null
+                ? tamanho(conexao, "SELECT pg_relation_size('" + indice + "')")
+                : tamanho(conexao, "SELECT DISK_SPACE_USED('" + tabela.toUpperCase() + "')");
+
+        Histogram histograma = new Histogram(3);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        try (PreparedStatement consulta = conexao.prepareStatement(porHash
+                ? "SELECT id FROM " + tabela + " WHERE hash_valor_chave = ? AND valor_chave = ?"
+                : "SELECT id FROM " + tabela + " WHERE valor_chave = ?")) {
+            for (int i = 0; i < CONSULTAS; i++) {
+                String valor = valor(aleatorio.nextInt(CHAVES));
+                long inicio = System.nanoTime();
+                if (porHash) {
+                    consulta.setLong(1, HashValorChave.calcular(valor));
+                    consulta.setString(2, valor);
+                } else {
+                    consulta.setString(1, valor);
+                }
+                int encontradas = 0;
+                try (ResultSet resultado = consulta.executeQuery()) {
+                    while (resultado.next()) {
+                        encontradas++;
+                    }
+                }
+                // Metade inicial descartada como aquecimento.
+                if (i >= CONSULTAS / 2) {
+                    histograma.recordValue(Math.max(1, (System.nanoTime() - inicio) / 1_000));
+                }
+                assertEquals(1, encontradas);
+            }
+        }
+        conexao.commit();
+
+        System.out.printf("%-8s %10d %12.1f %10.1f %10d %10d%n", porHash ? "hash" : "valor", CHAVES, tamanhoMb,
+                histograma.getMean(), histograma.getValueAtPercentile(50), histograma.getValueAtPercentile(99));
+
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP TABLE " + tabela);
+        }
+        conexao.commit();
+    }
+
+    private static String valor(int i) {
+        return "correntista.nome.sobrenome" + i + "@provedor-de-email.com.br";
+    }
+
+    private static double tamanho(Connection conexao, String sql) throws SQLException {
+        try (Statement statement = conexao.createStatement(); ResultSet resultado = statement.executeQuery(sql)) {
+            resultado.next();
+            return resultado.getLong(1) / 1e6;
+        }
+    }
+}
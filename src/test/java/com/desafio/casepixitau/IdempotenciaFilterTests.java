@@ -0,0 +1,205 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.idempotencia.IdempotenciaFilter;
+import com.desafio.casepixitau.idempotencia.IdempotenciaStore;
+import com.desafio.casepixitau.model.RespostaIdempotente;
+import com.desafio.casepixitau.repository.RespostaIdempotenteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para o {@link IdempotenciaFilter} e o {@link IdempotenciaStore}.
+ */
+class IdempotenciaFilterTests {
+
+    private static final String CORPO = "{\"valorChave\":\"teste@email.com\"}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotenciaStore store;
+    private IdempotenciaFilter filter;
+    private AtomicInteger execucoes;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotenciaStore(mock(RespostaIdempotenteRepository.class), 100, 3600, false);
+        filter = new IdempotenciaFilter(store, new ObjectMapper(), meterRegistry, 5_000);
+        execucoes = new AtomicInteger();
+    }
+
+    @Test
+    void deveReutilizarRespostaSemExecutarNovamente() throws Exception {
+        MockHttpServletResponse primeira = executar(requisicao("chave-1", CORPO), cadeia(200, 0));
+        MockHttpServletResponse repetida = executar(requisicao("chave-1", CORPO), cadeia(200, 0));
+
+        assertEquals(1, execucoes.get());
+        assertEquals(200, repetida.getStatus());
+        assertEquals(primeira.getContentAsString(), repetida.getContentAsString());
+        assertEquals("true", repetida.getHeader(IdempotenciaFilter.CABECALHO_REPETIDA));
+        assertEquals(1, meterRegistry.get("pix.idempotencia.requisicoes").tag("resultado", "reutilizada").counter().count());
+    }
+
+    @Test
+    void deveRecusarChaveReutilizadaComOutroCorpo() throws Exception {
+        executar(requisicao("chave-1", CORPO), cadeia(200, 0));
+        MockHttpServletResponse resposta = executar(requisicao("chave-1", "{}"), cadeia(200, 0));
+
+        assertEquals(1, execucoes.get());
+        assertEquals(422, resposta.getStatus());
+    }
+
+    @Test
+    void naoDeveArmazenarErroDoServidor() throws Exception {
+        executar(requisicao("chave-1", CORPO), cadeia(503, 0));
+        MockHttpServletResponse resposta = executar(requisicao("chave-1", CORPO), cadeia(200, 0));
+
+        assertEquals(2, execucoes.get());
+        assertEquals(200, resposta.getStatus());
+    }
+
+    @Test
+    void devePermitirNovaTentativaAposLimiteExcedido() throws Exception {
+        MockHttpServletResponse recusada = executar(requisicao("chave-1", CORPO), cadeia(429, 0));
+        MockHttpServletResponse resposta = executar(requisicao("chave-1", CORPO), cadeia(201, 0));
+
+        assertEquals(429, recusada.getStatus());
+        assertEquals(2, execucoes.get());
+        assertEquals(201, resposta.getStatus());
+        assertNull(resposta.getHeader(IdempotenciaFilter.CABECALHO_REPETIDA));
+
+        executar(requisicao("chave-2", CORPO), cadeia(409, 0));
+        executar(requisicao("chave-2", CORPO), cadeia(408, 0));
+        executar(requisicao("chave-2", CORPO), cadeia(200, 0));
+        assertEquals(5, execucoes.get());
+    }
+
+    @Test
+    void deveArmazenarErroDefinitivoDoCliente() throws Exception {
+        executar(requisicao("chave-1", CORPO), cadeia(404, 0));
+        MockHttpServletResponse repetida = executar(requisicao("chave-1", CORPO), cadeia(200, 0));
+
+        assertEquals(1, execucoes.get());
+        assertEquals(404, repetida.getStatus());
+        assertEquals("true", repetida.getHeader(IdempotenciaFilter.CABECALHO_REPETIDA));
+    }
+
+    @Test
+    void naoDeveCompartilharChaveEntreClientes() throws Exception {
+        executar(requisicao("chave-1", CORPO), cadeia(200, 0));
+        MockHttpServletRequest outroCliente = requisicao("chave-1", CORPO);
+        outroCliente.setRemoteAddr("10.0.0.2");
+        MockHttpServletResponse resposta = executar(outroCliente, cadeia(200, 0));
+        MockHttpServletRequest autenticado = requisicao("chave-1", CORPO);
+        autenticado.setUserPrincipal(() -> "integrador");
+        executar(autenticado, cadeia(200, 0));
+
+        assertEquals(3, execucoes.get());
+        assertNull(resposta.getHeader(IdempotenciaFilter.CABECALHO_REPETIDA));
+    }
+
+    @Test
+    void deveIgnorarRequisicaoSemCabecalho() throws Exception {
+        executar(requisicao(null, CORPO), cadeia(200, 0));
+        executar(requisicao(null, CORPO), cadeia(200, 0));
+
+        assertEquals(2, execucoes.get());
+        assertEquals(0, store.getQuantidadeEmMemoria());
+    }
+
+    @Test
+    void deveAguardarExecucaoEmAndamentoComMesmaChave() throws Exception {
+        int concorrentes = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(concorrentes);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> respostas = new ArrayList<>();
+        for (int i = 0; i < concorrentes; i++) {
+            respostas.add(pool.submit(() -> {
+                inicio.await();
+                return executar(requisicao("chave-1", CORPO), cadeia(200, 200));
+            }));
+        }
+        inicio.countDown();
+        for (Future<MockHttpServletResponse> resposta : respostas) {
+            assertEquals(200, resposta.get(10, TimeUnit.SECONDS).getStatus());
+        }
+        pool.shutdown();
+
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void deveDescartarRespostasExcedentes() {
+        for (int i = 0; i < 150; i++) {
+            store.salvar("chave-" + i, "", 200, null, new byte[0]);
+        }
+
+        assertEquals(100, store.getQuantidadeEmMemoria());
+        assertNull(store.buscar("chave-0"));
+        assertNotNull(store.buscar("chave-149"));
+    }
+
+    @Test
+    void deveBuscarNoBancoQuandoAusenteEmMemoria() {
+        RespostaIdempotenteRepository repository = mock(RespostaIdempotenteRepository.class);
+        RespostaIdempotente armazenada = new RespostaIdempotente("chave-1", "", 200, null, new byte[0],
+                LocalDateTime.now().plusHours(1));
+        when(repository.findById("chave-1")).thenReturn(Optional.of(armazenada));
+        IdempotenciaStore storeComBanco = new IdempotenciaStore(repository, 100, 3600, true);
+
+        assertSame(armazenada, storeComBanco.buscar("chave-1"));
+        assertSame(armazenada, storeComBanco.buscar("chave-1"));
+        verify(repository, times(1)).findById("chave-1");
+    }
+
+    private MockHttpServletResponse executar(MockHttpServletRequest request, FilterChain cadeia) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, cadeia);
+        return response;
+    }
+
+    private static MockHttpServletRequest requisicao(String chave, String corpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/pix");
+        if (chave != null) {
+            request.addHeader(IdempotenciaFilter.CABECALHO, chave);
+        }
+        request.setContentType("application/json");
+        request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private FilterChain cadeia(int status, long duracaoMs) {
+        return (request, response) -> {
+            int execucao = execucoes.incrementAndGet();
+            String corpo = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            try {
+                Thread.sleep(duracaoMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ((HttpServletResponse) response).setStatus(status);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"execucao\":" + execucao + ",\"tamanho\":" + corpo.length() + "}");
+        };
+    }
+}
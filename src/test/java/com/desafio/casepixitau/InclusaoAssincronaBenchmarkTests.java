@@ -0,0 +1,172 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.InclusaoAssincronaDTO;
+import com.desafio.casepixitau.service.InclusaoAssincronaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark da vazão sustentada de inclusões: {@code POST /api/pix} síncrono contra o mesmo
+ * endpoint com {@code Prefer: respond-async} (gravação em grupo).
+ *
+ * Clientes em malha fechada enviam inclusões de chaves distintas (quatro por conta) durante a
+ * duração de cada fase. Na fase síncrona contam as respostas 200; na assíncrona, as inclusões
+ * concluídas, medidas até a gravação do último pedido aceito, e não até o último 202. Respostas
+ * 503 (fila cheia) fazem o cliente aguardar antes de reenviar. Os limites por cliente e de
+ * concorrência ficam desligados, para medir o caminho de gravação.
+ *
+ * Fica fora do build padrão. Execução:
+ * <pre>
+ * mvn test -Pcarga -Dtest=InclusaoAssincronaBenchmarkTests -Dinclusao.clientes=32 -Dinclusao.duracao-segundos=20
+ * </pre>
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"pix.limite-taxa.enabled=false", "pix.limite-concorrencia.enabled=false", "logging.level.root=WARN"})
+class InclusaoAssincronaBenchmarkTests {
+
+    private static final int CHAVES_POR_CONTA = 4;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private InclusaoAssincronaService inclusaoAssincrona;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger sequencia = new AtomicInteger();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void compararVazaoSincronaEAssincrona() throws Exception {
+        int clientes = Integer.getInteger("inclusao.clientes", 32);
+        int duracao = Integer.getInteger("inclusao.duracao-segundos", 20);
+        int aquecimento = Integer.getInteger("inclusao.aquecimento-segundos", 5);
+
+        executar(clientes, aquecimento, false, new ConcurrentLinkedQueue<>());
+        Queue<UUID> aquecidas = new ConcurrentLinkedQueue<>();
+        executar(clientes, aquecimento, true, aquecidas);
+        aguardar(aquecidas);
+
+        Fase sincrona = executar(clientes, duracao, false, new ConcurrentLinkedQueue<>());
+
+        Queue<UUID> aceitas = new ConcurrentLinkedQueue<>();
+        Fase assincrona = executar(clientes, duracao, true, aceitas);
+        int concluidas = aguardar(aceitas);
+        long fim = System.nanoTime();
+        double segundosAssincrona = (fim - assincrona.inicio()) / 1e9;
+
+        double vazaoSincrona = sincrona.sucesso() / sincrona.segundos();
+        double vazaoAssincrona = concluidas / segundosAssincrona;
+        System.out.printf("%nInclusões sustentadas (%d clientes, %d s por fase)%n", clientes, duracao);
+        System.out.printf("  síncrona:   %8.0f inclusões/s (%d concluídas, %d erros)%n",
+                vazaoSincrona, sincrona.sucesso(), sincrona.erros());
+        System.out.printf("  assíncrona: %8.0f inclusões/s (%d aceitas, %d concluídas, %d recusas 503, %d erros; "
+                        + "%.1f s até a última gravação)%n",
+                vazaoAssincrona, aceitas.size(), concluidas, assincrona.saturadas(), assincrona.erros(), segundosAssincrona);
+        System.out.printf("  ganho:      %8.2fx%n", vazaoAssincrona / vazaoSincrona);
+
+        assertEquals(0, sincrona.erros());
+        assertEquals(0, assincrona.erros());
+        assertEquals(aceitas.size(), concluidas, "Todas as inclusões aceitas devem ser concluídas.");
+    }
+
+    private Fase executar(int clientes, int segundos, boolean assincrona, Queue<UUID> aceitas) throws Exception {
+        LongAdder sucesso = new LongAdder();
+        LongAdder saturadas = new LongAdder();
+        LongAdder erros = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        long inicio = System.nanoTime();
+        long fim = inicio + TimeUnit.SECONDS.toNanos(segundos);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int c = 0; c < clientes; c++) {
+            futuros.add(executor.submit(() -> {
+                while (System.nanoTime() < fim) {
+                    HttpResponse<String> resposta = client.send(requisicao(assincrona), HttpResponse.BodyHandlers.ofString());
+                    int status = resposta.statusCode();
+                    if (status == 200) {
+                        sucesso.increment();
+                    } else if (status == 202) {
+                        sucesso.increment();
+                        aceitas.add(UUID.fromString(objectMapper.readTree(resposta.body()).get("idAcompanhamento").asText()));
+                    } else if (status == 503) {
+                        saturadas.increment();
+                        Thread.sleep(50);
+                    } else {
+                        erros.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+        executor.shutdown();
+        return new Fase(inicio, (System.nanoTime() - inicio) / 1e9, sucesso.sum(), saturadas.sum(), erros.sum());
+    }
+
+    private HttpRequest requisicao(boolean assincrona) throws Exception {
+        int n = sequencia.incrementAndGet();
+        String corpo = objectMapper.writeValueAsString(Map.of(
+                "tipoChave", "email",
+                "valorChave", "inclusao" + n + "@email.com",
+                "tipoConta", "corrente",
+                "numeroAgencia", 1 + n % 9000,
+                "numeroConta", 1 + n / (9000 * CHAVES_POR_CONTA),
+                "nomeCorrentista", "Correntista"));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/pix"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo));
+        if (assincrona) {
+            builder.header("Prefer", "respond-async");
+        }
+        return builder.build();
+    }
+
+    /**
+     * Aguarda a gravação de todos os pedidos aceitos.
+     *
+     * @return a quantidade de inclusões concluídas.
+     */
+    private int aguardar(Queue<UUID> aceitas) throws InterruptedException {
+        int concluidas = 0;
+        for (UUID id : aceitas) {
+            InclusaoAssincronaDTO situacao;
+            while ("PENDENTE".equals((situacao = inclusaoAssincrona.consultar(id).orElseThrow()).getSituacao())) {
+                Thread.sleep(1);
+            }
+            if ("CONCLUIDA".equals(situacao.getSituacao())) {
+                concluidas++;
+            }
+        }
+        return concluidas;
+    }
+
+    private record Fase(long inicio, double segundos, long sucesso, long saturadas, long erros) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.InclusaoAssincronaDTO;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.service.ChavePixService;
+import com.desafio.casepixitau.service.InclusaoAssincronaService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes de integração da inclusão assíncrona com gravação em grupo.
+ */
+@SpringBootTest(properties = "pix.limite-taxa.enabled=false")
+@AutoConfigureMockMvc
+class InclusaoAssincronaTests {
+
+    @Autowired
+    private InclusaoAssincronaService inclusaoAssincrona;
+
+    @Autowired
+    private ChavePixService service;
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    /**
+     * Os pedidos são avaliados na ordem de chegada: valor repetido e sexta chave da conta são
+     * recusados, mesmo que cheguem no mesmo grupo das chaves aceitas.
+     */
+    @Test
+    void deveAplicarUnicidadeELimitePorContaEntrePedidos() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            ids.add(inclusaoAssincrona.enfileirar(request("cliente" + i + "@email.com", 10, 100)).getIdAcompanhamento());
+        }
+        UUID repetida = inclusaoAssincrona.enfileirar(request("cliente1@email.com", 20, 200)).getIdAcompanhamento();
+
+        for (int i = 0; i < 5; i++) {
+            InclusaoAssincronaDTO concluida = aguardar(ids.get(i));
+            assertEquals("CONCLUIDA", concluida.getSituacao());
+            assertEquals("cliente" + (i + 1) + "@email.com", concluida.getChave().getValorChave());
+            assertNotNull(concluida.getChave().getId());
+        }
+        InclusaoAssincronaDTO sexta = aguardar(ids.get(5));
+        assertEquals("RECUSADA", sexta.getSituacao());
+        assertEquals("Limite de chaves atingido para esta conta.", sexta.getMensagem());
+        InclusaoAssincronaDTO duplicada = aguardar(repetida);
+        assertEquals("RECUSADA", duplicada.getSituacao());
+        assertEquals("O valor da chave já está cadastrado.", duplicada.getMensagem());
+
+        assertEquals(5, repository.countByNumeroAgenciaAndNumeroContaAndDataHoraInativacaoIsNull(10, 100));
+        assertEquals(0, repository.countByNumeroAgenciaAndNumeroConta(20, 200));
+    }
+
+    /**
+     * Chaves já cadastradas pela inclusão síncrona contam para a unicidade e para o limite.
+     */
+    @Test
+    void deveConsiderarChavesJaCadastradas() throws Exception {
+        for (int i = 1; i <= 4; i++) {
+            service.incluir(request("sincrona" + i + "@email.com", 30, 300));
+        }
+
+        UUID duplicada = inclusaoAssincrona.enfileirar(request("sincrona1@email.com", 40, 400)).getIdAcompanhamento();
+        UUID quinta = inclusaoAssincrona.enfileirar(request("assincrona5@email.com", 30, 300)).getIdAcompanhamento();
+        UUID sexta = inclusaoAssincrona.enfileirar(request("assincrona6@email.com", 30, 300)).getIdAcompanhamento();
+
+        assertEquals("RECUSADA", aguardar(duplicada).getSituacao());
+        assertEquals("CONCLUIDA", aguardar(quinta).getSituacao());
+        assertEquals("Limite de chaves atingido para esta conta.", aguardar(sexta).getMensagem());
+        assertEquals(1, service.consultarPorValor("assincrona5@email.com").size());
+    }
+
+    /**
+     * {@code Prefer: respond-async} seleciona a inclusão assíncrona: 202 com o endereço da situação.
+     * Sem o cabeçalho, a inclusão continua síncrona.
+     */
+    @Test
+    void deveResponderAceitoEConsultarSituacao() throws Exception {
+        String corpo = mockMvc.perform(post("/api/pix")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("http@email.com", 50, 500))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.situacao").value("PENDENTE"))
+                .andReturn().getResponse().getContentAsString();
+        UUID id = UUID.fromString(objectMapper.readTree(corpo).get("idAcompanhamento").asText());
+
+        aguardar(id);
+        mockMvc.perform(get("/api/pix/inclusoes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.situacao").value("CONCLUIDA"))
+                .andExpect(jsonPath("$.chave.valorChave").value("http@email.com"))
+                .andExpect(jsonPath("$.mensagem").doesNotExist());
+
+        mockMvc.perform(get("/api/pix/inclusoes/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/pix")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("sem-arroba", 50, 500))))
+                .andExpect(status().isUnprocessableEntity());
+
+        String sincrona = mockMvc.perform(post("/api/pix")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("sincrona@email.com", 50, 500))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode chave = objectMapper.readTree(sincrona);
+        assertEquals("sincrona@email.com", chave.get("valorChave").asText());
+    }
+
+    /**
+     * {@code respond-async} é reconhecida junto a outras preferências; outras preferências sozinhas
+     * mantêm a inclusão síncrona.
+     */
+    @Test
+    void deveReconhecerRespondAsyncEntreOutrasPreferencias() throws Exception {
+        mockMvc.perform(post("/api/pix")
+                        .header("Prefer", "respond-async, wait=10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("prefer1@email.com", 51, 510))))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/api/pix")
+                        .header("Prefer", "wait=10", "Respond-Async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("prefer2@email.com", 51, 510))))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/api/pix")
+                        .header("Prefer", "handling=lenient, wait=10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("prefer3@email.com", 51, 510))))
+                .andExpect(status().isOk());
+    }
+
+    private InclusaoAssincronaDTO aguardar(UUID id) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < limite) {
+            InclusaoAssincronaDTO situacao = inclusaoAssincrona.consultar(id).orElseThrow();
+            if (!"PENDENTE".equals(situacao.getSituacao())) {
+                return situacao;
+            }
+            Thread.sleep(10);
+        }
+        fail("Inclusão " + id + " não foi gravada.");
+        return null;
+    }
+
+    private static ChavePixRequestDTO request(String email, int agencia, int conta) {
+        return new ChavePixRequestDTO("email", email, "corrente", agencia, conta, "Correntista", null);
+    }
+}
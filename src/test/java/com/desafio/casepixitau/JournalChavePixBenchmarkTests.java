@@ -0,0 +1,145 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.journal.JournalChavePix;
+import com.desafio.casepixitau.journal.JournalChavePixService;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepositoryMemoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mede a vazão de gravação do journal de chaves Pix e o tempo de recuperação a partir de snapshot
+ * e journal. Executado apenas no perfil Maven {@code carga}:
+ * <pre>mvn test -Pcarga -Dtest=JournalChavePixBenchmarkTests -Dbenchmark.journal.chaves=1000000</pre>
+ */
+@Tag("carga")
+public class JournalChavePixBenchmarkTests {
+
+    private static final int REGISTROS = Integer.getInteger("benchmark.journal.registros", 200_000);
+    private static final int CHAVES = Integer.getInteger("benchmark.journal.chaves", 200_000);
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    public void vazaoDeGravacao() throws Exception {
+        System.out.printf("%n%-22s %8s %12s %12s %14s%n", "modo", "threads", "registros", "registros/s", "registros/fsync");
+        int execucao = 0;
+        for (boolean aguardar : new boolean[]{false, true}) {
+            for (int threads : new int[]{1, 4, 16}) {
+                int registros = aguardar ? Math.max(REGISTROS / 10, threads) : REGISTROS;
+                try (JournalChavePix journal = new JournalChavePix(diretorio.resolve("vazao-" + execucao++), 64 * 1024 * 1024)) {
+                    long inicio = System.nanoTime();
+                    executar(threads, registros / threads, journal, aguardar);
+                    journal.aguardarDuravel(journal.getUltimaSequencia());
+                    double segundos = (System.nanoTime() - inicio) / 1e9;
+                    System.out.printf("%-22s %8d %12d %12.0f %14.1f%n",
+                            aguardar ? "aguardando fsync" : "sem aguardar fsync", threads, journal.getUltimaSequencia(),
+                            journal.getUltimaSequencia() / segundos,
+                            (double) journal.getUltimaSequencia() / Math.max(1, journal.getSincronizacoes()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tempoDeRecuperacao() throws IOException {
+        ChavePixRepositoryMemoria origem = new ChavePixRepositoryMemoria();
+        JournalChavePixService service = service(origem);
+        for (int i = 0; i < CHAVES; i++) {
+            ChavePix chave = origem.save(chave(i));
+            service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave, null));
+        }
+        long inicio = System.nanoTime();
+        service.gravarSnapshot();
+        long snapshotMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        int cauda = CHAVES / 10;
+        for (int i = 0; i < cauda; i++) {
+            ChavePix chave = origem.findById(new UUID(0, i)).orElseThrow();
+            chave.setDataHoraInativacao(BASE.plusDays(1));
+            origem.save(chave);
+            service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INATIVACAO, chave, null));
+        }
+        service.fechar();
+        // Libera o repositório de origem para que a recuperação não dispute memória com ele.
+        origem = null;
+        service = null;
+        System.gc();
+
+        ChavePixRepositoryMemoria recuperado = new ChavePixRepositoryMemoria();
+        inicio = System.nanoTime();
+        service(recuperado).fechar();
+        long recuperacaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(CHAVES, recuperado.count());
+        assertEquals(cauda, recuperado.findByDataHoraInativacaoBetween(BASE, BASE.plusDays(2)).size());
+        System.out.printf("%nchaves=%d snapshot=%d ms; recuperação (snapshot + %d registros do journal)=%d ms (%.0f chaves/s)%n",
+                CHAVES, snapshotMs, cauda, recuperacaoMs, CHAVES * 1000.0 / Math.max(1, recuperacaoMs));
+    }
+
+    private JournalChavePixService service(ChavePixRepositoryMemoria repository) throws IOException {
+        JournalChavePixService service = new JournalChavePixService(diretorio.resolve("recuperacao"), 64, false,
+                new StaticListableBeanFactory(Map.of("memoria", repository)).getBeanProvider(ChavePixRepositoryMemoria.class),
+                new SimpleMeterRegistry());
+        service.recuperar();
+        return service;
+    }
+
+    private static void executar(int threads, int porThread, JournalChavePix journal, boolean aguardar) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t * porThread;
+                futuros.add(executor.submit(() -> {
+                    for (int i = 0; i < porThread; i++) {
+                        long sequencia = journal.anexar(ChavePixEvento.Tipo.INCLUSAO, chave(base + i));
+                        if (aguardar) {
+                            journal.aguardarDuravel(sequencia);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ChavePix chave(int i) {
+        ChavePix chave = new ChavePix();
+        chave.setId(new UUID(0, i));
+        chave.setTipoChave("email");
+        chave.setValorChave("chave" + i + "@email.com");
+        chave.setTipoConta("corrente");
+        chave.setNumeroAgencia(1000 + i % 100);
+        chave.setNumeroConta(i);
+        chave.setNomeCorrentista("Nome");
+        chave.setSobrenomeCorrentista("Sobrenome");
+        chave.setDataHoraInclusao(BASE.plusSeconds(i));
+        chave.setVersion(0L);
+        return chave;
+    }
+}
@@ -0,0 +1,77 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.journal.JournalChavePixHealthIndicator;
+import com.desafio.casepixitau.journal.JournalChavePixService;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes da falha do journal de chaves Pix: a requisição cuja mutação não chega ao disco falha,
+ * e o indicador de saúde do journal fica DOWN.
+ */
+@SpringBootTest(properties = {"pix.journal.enabled=true", "pix.limite-taxa.enabled=false"})
+@AutoConfigureMockMvc
+@DirtiesContext
+class JournalChavePixFalhaTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JournalChavePixService journal;
+
+    @Autowired
+    private JournalChavePixHealthIndicator saude;
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void diretorio(DynamicPropertyRegistry registry) throws IOException {
+        String diretorio = Files.createTempDirectory("journal-falha").toString();
+        registry.add("pix.journal.diretorio", () -> diretorio);
+    }
+
+    @Test
+    void deveFalharARequisicaoQuandoOFsyncFalhar() throws Exception {
+        repository.deleteAll();
+        mockMvc.perform(post("/api/pix").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("antes@email.com"))))
+                .andExpect(status().isOk());
+        assertEquals(Status.UP, saude.health().getStatus());
+
+        // Estado deixado pela thread de sincronização quando o force() do segmento falha.
+        ReflectionTestUtils.setField(ReflectionTestUtils.getField(journal, "journal"), "falha",
+                new IOException("fsync falhou"));
+
+        mockMvc.perform(post("/api/pix").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("depois@email.com"))))
+                .andExpect(status().isInternalServerError());
+        assertEquals(Status.DOWN, saude.health().getStatus());
+    }
+
+    private static ChavePixRequestDTO request(String email) {
+        return new ChavePixRequestDTO("email", email, "corrente", 70, 700, "Correntista", null);
+    }
+}
@@ -0,0 +1,287 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.event.ChavePixEvento;
+import com.desafio.casepixitau.journal.JournalChavePix;
+import com.desafio.casepixitau.journal.JournalChavePixService;
+import com.desafio.casepixitau.journal.RegistroJournal;
+import com.desafio.casepixitau.journal.SnapshotsChavePix;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepositoryMemoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do journal de mutações de chaves Pix, dos snapshots e da recuperação do repositório em memória.
+ */
+public class JournalChavePixTests {
+
+    private static final int SEGMENTO = 16 * 1024;
+
+    @TempDir
+    Path diretorio;
+
+    /**
+     * Os registros são relidos com o conteúdo original e a sequência continua após reabrir o journal.
+     */
+    @Test
+    public void testAnexarEReabrir() throws IOException {
+        ChavePix chave = chave(1);
+        chave.setSobrenomeCorrentista(null);
+        chave.setDataHoraInativacao(LocalDateTime.of(2025, 5, 6, 7, 8, 9, 123456789));
+
+        try (JournalChavePix journal = new JournalChavePix(diretorio, SEGMENTO)) {
+            assertEquals(1, journal.anexar(ChavePixEvento.Tipo.INCLUSAO, chave));
+            assertEquals(2, journal.anexar(ChavePixEvento.Tipo.INATIVACAO, chave));
+        }
+        try (JournalChavePix journal = new JournalChavePix(diretorio, SEGMENTO)) {
+            assertEquals(2, journal.getUltimaSequencia());
+            assertEquals(3, journal.anexar(ChavePixEvento.Tipo.ALTERACAO, chave));
+
+            List<RegistroJournal> registros = ler(journal, 1);
+            assertEquals(List.of(1L, 2L, 3L), registros.stream().map(RegistroJournal::sequencia).toList());
+            assertEquals(ChavePixEvento.Tipo.INATIVACAO, registros.get(1).tipo());
+            assertEquals(chave.toString(), registros.get(1).chave().toString());
+        }
+    }
+
+    /**
+     * Segmentos cheios são rotacionados e os já cobertos por snapshot podem ser removidos.
+     */
+    @Test
+    public void testRotacaoERemocaoDeSegmentos() throws IOException {
+        try (JournalChavePix journal = new JournalChavePix(diretorio, SEGMENTO)) {
+            for (int i = 0; i < 500; i++) {
+                journal.anexar(ChavePixEvento.Tipo.INCLUSAO, chave(i));
+            }
+            long segmentos = segmentos();
+            assertTrue(segmentos > 3);
+
+            assertEquals(List.of(301L, 302L), ler(journal, 301).stream().limit(2).map(RegistroJournal::sequencia).toList());
+            assertEquals(200, ler(journal, 301).size());
+
+            assertTrue(journal.removerSegmentosAte(300) > 0);
+            assertTrue(segmentos() < segmentos);
+            assertEquals(200, ler(journal, 301).size());
+        }
+    }
+
+    /**
+     * Um registro corrompido no final do journal é descartado e a sequência continua a partir do último válido.
+     */
+    @Test
+    public void testFinalCorrompidoDescartado() throws IOException {
+        try (JournalChavePix journal = new JournalChavePix(diretorio, SEGMENTO)) {
+            for (int i = 0; i < 3; i++) {
+                journal.anexar(ChavePixEvento.Tipo.INCLUSAO, chave(i));
+            }
+        }
+        Path segmento;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmento = arquivos.filter(p -> p.getFileName().toString().startsWith("journal-")).findFirst().orElseThrow();
+        }
+        long tamanhoRegistro = tamanhoPrimeiroRegistro(segmento);
+        try (RandomAccessFile arquivo = new RandomAccessFile(segmento.toFile(), "rw")) {
+            long ultimoByte = 3 * tamanhoRegistro - 1;
+            arquivo.seek(ultimoByte);
+            int original = arquivo.read();
+            arquivo.seek(ultimoByte);
+            arquivo.write(original ^ 0xFF);
+        }
+
+        try (JournalChavePix journal = new JournalChavePix(diretorio, SEGMENTO)) {
+            assertEquals(2, journal.getUltimaSequencia());
+            journal.anexar(ChavePixEvento.Tipo.INCLUSAO, chave(9));
+            assertEquals(List.of(1L, 2L, 3L), ler(journal, 1).stream().map(RegistroJournal::sequencia).toList());
+            assertEquals("chave9@email.com", ler(journal, 3).get(0).chave().getValorChave());
+        }
+    }
+
+    /**
+     * Escritores concorrentes que aguardam a durabilidade compartilham as sincronizações com o disco.
+     */
+    @Test
+    public void testGroupCommit() throws Exception {
+        int threads = 8;
+        int porThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (JournalChavePix journal = new JournalChavePix(diretorio, 1024 * 1024)) {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t * porThread;
+                futuros.add(executor.submit(() -> {
+                    for (int i = 0; i < porThread; i++) {
+                        long sequencia = journal.anexar(ChavePixEvento.Tipo.INCLUSAO, chave(base + i));
+                        journal.aguardarDuravel(sequencia);
+                        assertTrue(journal.getSequenciaDuravel() >= sequencia);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+            assertEquals(threads * porThread, journal.getSequenciaDuravel());
+            assertTrue(journal.getSincronizacoes() < threads * porThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Um snapshot corrompido é ignorado e o anterior é carregado.
+     */
+    @Test
+    public void testSnapshotCorrompidoUsaAnterior() throws IOException {
+        SnapshotsChavePix snapshots = new SnapshotsChavePix(diretorio);
+        snapshots.gravar(10, consumidor -> consumidor.accept(chave(1)));
+        snapshots.gravar(20, consumidor -> {
+            consumidor.accept(chave(1));
+            consumidor.accept(chave(2));
+        });
+
+        List<ChavePix> carregadas = new ArrayList<>();
+        assertEquals(20, snapshots.carregarUltimo(carregadas::add));
+        assertEquals(2, carregadas.size());
+
+        Path ultimo = diretorio.resolve(String.format("snapshot-%020d.bin", 20));
+        byte[] conteudo = Files.readAllBytes(ultimo);
+        conteudo[conteudo.length - 20] ^= 0x01;
+        Files.write(ultimo, conteudo);
+
+        carregadas.clear();
+        assertEquals(10, snapshots.carregarUltimo(carregadas::add));
+        assertEquals("chave1@email.com", carregadas.get(carregadas.size() - 1).getValorChave());
+    }
+
+    /**
+     * O repositório em memória é reconstruído a partir do snapshot e do final do journal.
+     */
+    @Test
+    public void testRecuperacaoDoRepositorioEmMemoria() throws IOException {
+        ChavePixRepositoryMemoria repository = new ChavePixRepositoryMemoria();
+        JournalChavePixService service = service(repository);
+
+        List<ChavePix> chaves = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ChavePix chave = repository.save(chave(i));
+            service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave, null));
+            chaves.add(chave);
+        }
+        service.gravarSnapshot();
+
+        for (ChavePix chave : chaves.subList(0, 10)) {
+            chave.setDataHoraInativacao(LocalDateTime.of(2025, 2, 1, 10, 0));
+            repository.save(chave);
+            service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INATIVACAO, chave, null));
+        }
+        service.fechar();
+
+        ChavePixRepositoryMemoria recuperado = new ChavePixRepositoryMemoria();
+        service(recuperado).fechar();
+
+        assertEquals(50, recuperado.count());
+        assertEquals(10, recuperado.findByDataHoraInativacaoBetween(
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 12, 31, 0, 0)).size());
+        ChavePix inativada = recuperado.findById(chaves.get(0).getId()).orElseThrow();
+        assertEquals(1L, inativada.getVersion());
+        assertEquals(repository.findById(chaves.get(0).getId()).orElseThrow().toString(), inativada.toString());
+    }
+
+    /**
+     * Sem o repositório em memória, o snapshot é gerado a partir do anterior e do journal, e as
+     * chaves registradas como removidas (arquivadas) deixam de constar nele.
+     */
+    @Test
+    public void testCompactacaoComRemocoes() throws IOException {
+        JournalChavePixService service = service(null);
+        List<ChavePix> chaves = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            chaves.add(chave(i));
+        }
+        service.registrar(ChavePixEvento.Tipo.INCLUSAO, chaves);
+        service.gravarSnapshot();
+
+        ChavePix alterada = chave(5);
+        alterada.setNomeCorrentista("Alterado");
+        alterada.setVersion(1L);
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.ALTERACAO, alterada, null));
+        service.registrar(ChavePixEvento.Tipo.REMOCAO, chaves.subList(0, 3));
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, chave(20), null));
+        ChavePix incluidaERemovida = chave(21);
+        service.onChavePixEvento(new ChavePixEvento(ChavePixEvento.Tipo.INCLUSAO, incluidaERemovida, null));
+        service.registrar(ChavePixEvento.Tipo.REMOCAO, List.of(incluidaERemovida));
+        service.gravarSnapshot();
+        service.fechar();
+
+        List<ChavePix> carregadas = new ArrayList<>();
+        new SnapshotsChavePix(diretorio).carregarUltimo(carregadas::add);
+        assertEquals(18, carregadas.size());
+        List<UUID> ids = carregadas.stream().map(ChavePix::getId).toList();
+        assertFalse(ids.contains(chave(0).getId()));
+        assertFalse(ids.contains(chave(21).getId()));
+        assertTrue(ids.contains(chave(20).getId()));
+        assertEquals("Alterado", carregadas.stream().filter(c -> c.getId().equals(alterada.getId()))
+                .findFirst().orElseThrow().getNomeCorrentista());
+    }
+
+    private JournalChavePixService service(ChavePixRepositoryMemoria repository) throws IOException {
+        ObjectProvider<ChavePixRepositoryMemoria> provider = new StaticListableBeanFactory(
+                repository == null ? Map.of() : Map.of("memoria", repository))
+                .getBeanProvider(ChavePixRepositoryMemoria.class);
+        JournalChavePixService service = new JournalChavePixService(diretorio, 1, true, provider, new SimpleMeterRegistry());
+        service.recuperar();
+        return service;
+    }
+
+    private static List<RegistroJournal> ler(JournalChavePix journal, long aPartirDe) throws IOException {
+        List<RegistroJournal> registros = new ArrayList<>();
+        journal.ler(aPartirDe, Long.MAX_VALUE, registros::add);
+        return registros;
+    }
+
+    private long segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(p -> p.getFileName().toString().startsWith("journal-")).count();
+        }
+    }
+
+    private static long tamanhoPrimeiroRegistro(Path segmento) throws IOException {
+        try (RandomAccessFile arquivo = new RandomAccessFile(segmento.toFile(), "r")) {
+            return arquivo.readInt() + 2L * Integer.BYTES;
+        }
+    }
+
+    private static ChavePix chave(int i) {
+        ChavePix chave = new ChavePix();
+        chave.setId(new UUID(0, i));
+        chave.setTipoChave("email");
+        chave.setValorChave("chave" + i + "@email.com");
+        chave.setTipoConta("corrente");
+        chave.setNumeroAgencia(1000 + i % 10);
+        chave.setNumeroConta(i);
+        chave.setNomeCorrentista("Nome" + i);
+        chave.setSobrenomeCorrentista("Sobrenome");
+        chave.setDataHoraInclusao(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+        chave.setVersion(0L);
+        return chave;
+    }
+}
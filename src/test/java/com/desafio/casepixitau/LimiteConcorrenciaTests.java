@@ -0,0 +1,221 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.limitacao.LimiteConcorrencia;
+import com.desafio.casepixitau.limitacao.LimiteConcorrenciaFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do limite adaptativo de requisições simultâneas.
+ */
+class LimiteConcorrenciaTests {
+
+    private static final long MILISSEGUNDO = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void deveReservarParteDoLimiteParaPrioritarias() {
+        LimiteConcorrencia limite = new LimiteConcorrencia(10, 10, 10, 0.5, 1.5, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limite.tentarAdmitir(false));
+        }
+        assertFalse(limite.tentarAdmitir(false));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limite.tentarAdmitir(true));
+        }
+        assertFalse(limite.tentarAdmitir(true));
+        assertEquals(10, limite.getEmAndamento());
+    }
+
+    @Test
+    void deveAjustarLimitePelaLatencia() {
+        LimiteConcorrencia limite = new LimiteConcorrencia(20, 4, 200, 0.5, 1.5, 100_000);
+
+        // Sem fila e com o limite em uso, o limite cresce.
+        for (int i = 0; i < 10; i++) {
+            rodada(limite, 10 * MILISSEGUNDO);
+        }
+        int crescido = limite.getLimite();
+        assertTrue(crescido > 20, "limite " + crescido);
+
+        // Latência cinco vezes maior (banco lento): o limite cai.
+        for (int i = 0; i < 5; i++) {
+            rodada(limite, 50 * MILISSEGUNDO);
+        }
+        assertTrue(limite.getLimite() < crescido / 2, "limite " + limite.getLimite());
+
+        // Erros do servidor reduzem o limite até o mínimo.
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limite.tentarAdmitir(true));
+            limite.liberar(true, 10 * MILISSEGUNDO, true);
+        }
+        assertEquals(4, limite.getLimite());
+    }
+
+    /**
+     * Varreduras lentas de baixa prioridade, com latência estável, não são lidas como fila: o limite
+     * continua crescendo com as prioritárias rápidas.
+     */
+    @Test
+    void latenciaDeBaixaPrioridadeNaoDeveReduzirLimite() {
+        LimiteConcorrencia limite = new LimiteConcorrencia(20, 4, 200, 0.5, 1.5, 100_000);
+
+        for (int i = 0; i < 10; i++) {
+            int prioritarias = 0;
+            int baixas = 0;
+            while (limite.tentarAdmitir(false)) {
+                baixas++;
+            }
+            while (limite.tentarAdmitir(true)) {
+                prioritarias++;
+            }
+            for (int j = 0; j < Math.max(prioritarias, baixas); j++) {
+                if (j < prioritarias) {
+                    limite.liberar(true, 5 * MILISSEGUNDO, false);
+                }
+                if (j < baixas) {
+                    limite.liberar(false, 200 * MILISSEGUNDO, false);
+                }
+            }
+        }
+        assertTrue(limite.getLimite() > 20, "limite " + limite.getLimite());
+    }
+
+    @Test
+    void naoDeveCrescerSemUso() {
+        LimiteConcorrencia limite = new LimiteConcorrencia(20, 4, 200, 0.5, 1.5, 1000);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limite.tentarAdmitir(true));
+            limite.liberar(true, 10 * MILISSEGUNDO, false);
+        }
+        assertEquals(20, limite.getLimite());
+    }
+
+    @Test
+    void filtroDeveResponder503ComRetryAfter() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LimiteConcorrencia limite = new LimiteConcorrencia(2, 2, 2, 0.5, 1.5, 1000);
+        LimiteConcorrenciaFilter filter = new LimiteConcorrenciaFilter(limite, new ObjectMapper(), meterRegistry);
+        assertTrue(limite.tentarAdmitir(true));
+
+        MockHttpServletResponse filtros = executar(filter, new MockHttpServletRequest("GET", "/api/pix/filtros"));
+        MockHttpServletRequest porValor = new MockHttpServletRequest("GET", "/api/pix/filtros");
+        porValor.setParameter("valor", "fulano@email.com");
+        MockHttpServletResponse resolucao = executar(filter, porValor);
+
+        assertEquals(503, filtros.getStatus());
+        assertEquals("1", filtros.getHeader("Retry-After"));
+        assertEquals(200, resolucao.getStatus());
+        assertEquals(1, meterRegistry.get("pix.limite-concorrencia.descartadas").tag("prioridade", "baixa").counter().count());
+        assertEquals(0, meterRegistry.get("pix.limite-concorrencia.descartadas").tag("prioridade", "alta").counter().count());
+        assertEquals(1, limite.getEmAndamento());
+
+        MockHttpServletResponse stream = executar(filter, new MockHttpServletRequest("GET", "/api/pix/stream"));
+        assertEquals(200, stream.getStatus());
+    }
+
+    /**
+     * Banco simulado com 4 conexões e 20 ms por consulta, sob 32 clientes em laço fechado: sem o
+     * limite, as requisições esperam na fila do pool; com ele, o excedente recebe 503 e o p99 das
+     * admitidas fica próximo da latência do banco. Leva alguns segundos e depende da máquina, por isso
+     * fica no perfil {@code carga}.
+     */
+    @Tag("carga")
+    @Test
+    void p99DeveFicarLimitadoComLatenciaNoBanco() throws Exception {
+        Histogram semLimite = medir(null);
+        LimiteConcorrencia limite = new LimiteConcorrencia(20, 4, 200, 0.5, 1.5, 1000);
+        Histogram comLimite = medir(new LimiteConcorrenciaFilter(limite, new ObjectMapper(), new SimpleMeterRegistry()));
+
+        long p99Sem = semLimite.getValueAtPercentile(99);
+        long p99Com = comLimite.getValueAtPercentile(99);
+        assertTrue(p99Com < 100, "p99 com limite: " + p99Com + " ms");
+        assertTrue(p99Sem > 2 * p99Com, "p99 sem limite: " + p99Sem + " ms, com limite: " + p99Com + " ms");
+        assertTrue(limite.getLimite() < 20, "limite " + limite.getLimite());
+    }
+
+    private static Histogram medir(LimiteConcorrenciaFilter filter) throws InterruptedException {
+        Semaphore conexoes = new Semaphore(4, true);
+        FilterChain banco = (request, response) -> {
+            try {
+                conexoes.acquire();
+                try {
+                    Thread.sleep(20);
+                } finally {
+                    conexoes.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Histogram histograma = new Histogram(3);
+        AtomicLong descartadas = new AtomicLong();
+        long medirAPartirDe = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1500);
+        long fim = medirAPartirDe + TimeUnit.MILLISECONDS.toNanos(1500);
+
+        ExecutorService clientes = Executors.newFixedThreadPool(32);
+        for (int c = 0; c < 32; c++) {
+            clientes.submit(() -> {
+                while (System.nanoTime() < fim) {
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pix/filtros/1");
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    long inicio = System.nanoTime();
+                    if (filter == null) {
+                        banco.doFilter(request, response);
+                    } else {
+                        filter.doFilter(request, response, banco);
+                    }
+                    if (response.getStatus() == 503) {
+                        descartadas.incrementAndGet();
+                        Thread.sleep(10);
+                    } else if (inicio >= medirAPartirDe) {
+                        synchronized (histograma) {
+                            histograma.recordValue((System.nanoTime() - inicio) / MILISSEGUNDO);
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        clientes.shutdown();
+        assertTrue(clientes.awaitTermination(30, TimeUnit.SECONDS));
+        assertTrue(histograma.getTotalCount() > 0);
+        assertEquals(filter != null, descartadas.get() > 0);
+        return histograma;
+    }
+
+    private static MockHttpServletResponse executar(LimiteConcorrenciaFilter filter, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    /**
+     * Ocupa todo o limite atual e libera as requisições com o mesmo tempo de resposta.
+     */
+    private static void rodada(LimiteConcorrencia limite, long rttNanos) {
+        int admitidas = 0;
+        while (limite.tentarAdmitir(true)) {
+            admitidas++;
+        }
+        for (int i = 0; i < admitidas; i++) {
+            limite.liberar(true, rttNanos, false);
+        }
+    }
+}
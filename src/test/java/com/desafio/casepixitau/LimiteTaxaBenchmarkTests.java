@@ -0,0 +1,95 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.limitacao.LimitadorTaxa;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark (JMH) do custo de admissão do {@link LimitadorTaxa}: busca do bucket da chave e
+ * compare-and-set do instante teórico de chegada. Mede requisições admitidas e recusadas, com uma
+ * única chave (todas as threads disputando o mesmo bucket) e com milhares de chaves, em uma thread
+ * e em quatro threads concorrentes.
+ * Executado apenas no perfil Maven {@code carga}:
+ * <pre>mvn test -Pcarga -Dtest=LimiteTaxaBenchmarkTests</pre>
+ */
+@Tag("carga")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LimiteTaxaBenchmarkTests {
+
+    @Param({"1", "10000"})
+    public int chaves;
+
+    @Param({"admitida", "recusada"})
+    public String resultado;
+
+    private LimitadorTaxa limitador;
+    private String[] identificacoes;
+
+    @Test
+    public void executar() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LimiteTaxaBenchmarkTests.class.getName() + "\\.")
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        // Admitida: reposição de um token por nanossegundo, o bucket nunca esgota; recusada: um token por
+        // mil segundos, esgotado na primeira requisição de cada chave
+        limitador = "admitida".equals(resultado)
+                ? new LimitadorTaxa(1_000_000, 1e9)
+                : new LimitadorTaxa(1, 0.001);
+        identificacoes = new String[chaves];
+        for (int i = 0; i < chaves; i++) {
+            identificacoes[i] = "10.0." + (i / 256) + "." + (i % 256);
+            limitador.tentarConsumir(identificacoes[i]);
+        }
+    }
+
+    @Benchmark
+    public long admitir(Sequencia sequencia) {
+        return limitador.tentarConsumir(identificacoes[sequencia.proxima(chaves)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long admitirConcorrente(Sequencia sequencia) {
+        return limitador.tentarConsumir(identificacoes[sequencia.proxima(chaves)]);
+    }
+
+    /**
+     * Posição de cada thread na lista de chaves.
+     */
+    @State(Scope.Thread)
+    public static class Sequencia {
+        private int posicao;
+
+        int proxima(int quantidade) {
+            posicao = posicao + 1 < quantidade ? posicao + 1 : 0;
+            return posicao;
+        }
+    }
+}
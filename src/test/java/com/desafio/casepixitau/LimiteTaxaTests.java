@@ -0,0 +1,147 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.exception.LimiteExcedidoException;
+import com.desafio.casepixitau.limitacao.LimitadorTaxa;
+import com.desafio.casepixitau.limitacao.LimiteTaxaFilter;
+import com.desafio.casepixitau.limitacao.LimitesTaxa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do limite de requisições por token bucket.
+ */
+class LimiteTaxaTests {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void deveAdmitirRajadaERecusarExcedente() {
+        LimitadorTaxa limitador = new LimitadorTaxa(5, 1);
+        long agora = 1_000 * SEGUNDO;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limitador.tentarConsumir("cliente", agora));
+        }
+        long espera = limitador.tentarConsumir("cliente", agora);
+        assertEquals(SEGUNDO, espera);
+
+        assertEquals(0, limitador.tentarConsumir("cliente", agora + espera));
+        assertEquals(0, limitador.tentarConsumir("outro-cliente", agora));
+    }
+
+    @Test
+    void naoDeveAdmitirAlemDaCapacidadeComSessentaEQuatroThreads() throws Exception {
+        LimitadorTaxa limitador = new LimitadorTaxa(1_000, 0.001);
+        AtomicInteger admitidas = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch fim = new CountDownLatch(64);
+        for (int t = 0; t < 64; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 100; i++) {
+                    if (limitador.tentarConsumir("cliente") == 0) {
+                        admitidas.incrementAndGet();
+                    }
+                }
+                fim.countDown();
+            });
+        }
+        assertTrue(fim.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+
+        assertEquals(1_000, admitidas.get());
+    }
+
+    @Test
+    void deveDescartarBucketsOciosos() {
+        LimitadorTaxa limitador = new LimitadorTaxa(2, 1);
+        long agora = 1_000 * SEGUNDO;
+        limitador.tentarConsumir("ocioso", agora);
+        limitador.tentarConsumir("ativo", agora + 10 * SEGUNDO);
+        limitador.tentarConsumir("ativo", agora + 10 * SEGUNDO);
+
+        limitador.removerOciosos(5 * SEGUNDO, agora + 12 * SEGUNDO);
+
+        assertEquals(1, limitador.getQuantidadeBuckets());
+    }
+
+    @Test
+    void deveRecusarEscritaPorContaComRetryAfter() {
+        LimitesTaxa limites = new LimitesTaxa(10, 10, 10, 10, 1, 0.5, 60_000, 1_000, new SimpleMeterRegistry());
+        limites.admitirConta(1234, 567890);
+
+        LimiteExcedidoException e = assertThrows(LimiteExcedidoException.class, () -> limites.admitirConta(1234, 567890));
+        assertEquals(2, e.getEsperaSegundos());
+        assertDoesNotThrow(() -> limites.admitirConta(1234, 111111));
+    }
+
+    @Test
+    void filtroDeveResponder429ComRetryAfter() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LimitesTaxa limites = new LimitesTaxa(1, 1, 1, 1, 1, 1, 60_000, 1_000, meterRegistry);
+        LimiteTaxaFilter filter = new LimiteTaxaFilter(limites, new ObjectMapper());
+
+        MockHttpServletResponse primeira = executarComo(filter, "10.0.0.1", "integrador-a");
+        MockHttpServletResponse segunda = executarComo(filter, "10.0.0.1", "integrador-b");
+        MockHttpServletResponse outroCliente = executarComo(filter, "10.0.0.2", "integrador-a");
+
+        assertEquals(200, primeira.getStatus());
+        assertEquals(429, segunda.getStatus()); // Trocar X-Client-Id não gera um novo limite
+        assertEquals("1", segunda.getHeader("Retry-After"));
+        assertEquals(200, outroCliente.getStatus());
+        assertEquals(1, meterRegistry.get("pix.limite-taxa.recusadas").tag("limite", "escrita").counter().count());
+    }
+
+    @Test
+    void consultaEmLoteDeveContarComoConsultaApenasNoCaminhoDoEndpoint() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LimitesTaxa limites = new LimitesTaxa(1, 1, 1, 1, 1, 1, 60_000, 1_000, meterRegistry);
+        LimiteTaxaFilter filter = new LimiteTaxaFilter(limites, new ObjectMapper());
+
+        assertEquals(200, executar(filter, "POST", "/api/pix/consulta-lote").getStatus());
+        assertEquals(200, executar(filter, "POST", "/api/pix").getStatus());
+        assertEquals(429, executar(filter, "POST", "/api/pix/outro/consulta-lote").getStatus());
+        assertEquals(1, meterRegistry.get("pix.limite-taxa.recusadas").tag("limite", "escrita").counter().count());
+    }
+
+    @Test
+    void deveDividirBucketDeExcedenteAcimaDoMaximoDeChaves() {
+        LimitadorTaxa limitador = new LimitadorTaxa(2, 1, 2);
+        long agora = 1_000 * SEGUNDO;
+        limitador.tentarConsumir("a", agora);
+        limitador.tentarConsumir("b", agora);
+
+        assertEquals(0, limitador.tentarConsumir("c", agora));
+        assertEquals(0, limitador.tentarConsumir("d", agora));
+        assertTrue(limitador.tentarConsumir("e", agora) > 0);
+        assertEquals(2, limitador.getQuantidadeBuckets());
+        assertEquals(0, limitador.tentarConsumir("a", agora));
+    }
+
+    private static MockHttpServletResponse executar(LimiteTaxaFilter filter, String metodo, String caminho) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, caminho);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletResponse executarComo(LimiteTaxaFilter filter, String endereco, String cabecalho) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/pix");
+        request.setRemoteAddr(endereco);
+        request.addHeader("X-Client-Id", cabecalho);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
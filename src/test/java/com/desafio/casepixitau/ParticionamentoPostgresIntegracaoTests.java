@@ -0,0 +1,110 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.job.ParticionamentoPostgresJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do schema particionado (db/postgres/schema.sql), da trigger de valor único e do
+ * {@link ParticionamentoPostgresJob} em um PostgreSQL real, num schema temporário.
+ *
+ * Só executa com um banco informado:
+ * <pre>
+ * mvn test -Dtest=ParticionamentoPostgresIntegracaoTests -Dpix.teste.postgres.url=jdbc:postgresql://localhost:5432/db_pix \
+ *     -Dpix.teste.postgres.usuario=postgres -Dpix.teste.postgres.senha=root
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "pix.teste.postgres.url", matches = ".+")
+class ParticionamentoPostgresIntegracaoTests {
+
+    private static final YearMonth MES_SEM_PARTICAO = YearMonth.of(2020, 1);
+
+    private final String schema = "pix_teste_" + UUID.randomUUID().toString().replace("-", "");
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource(System.getProperty("pix.teste.postgres.url"),
+                System.getProperty("pix.teste.postgres.usuario", "postgres"),
+                System.getProperty("pix.teste.postgres.senha", "root"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SCHEMA " + schema);
+        jdbcTemplate.execute("SET search_path TO " + schema);
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/postgres/schema.sql"));
+        populator.setSeparator("@@");
+        populator.execute(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA " + schema + " CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    void deveMoverLinhasDaParticaoPadraoAoCriarAParticaoDoMes() {
+        inserir("a@email.com", MES_SEM_PARTICAO.atDay(10).atStartOfDay());
+        inserir("b@email.com", MES_SEM_PARTICAO.atEndOfMonth().atTime(23, 59));
+        inserir("c@email.com", MES_SEM_PARTICAO.plusMonths(1).atDay(1).atStartOfDay());
+        assertEquals(3, contar("tb_chavespix_padrao"));
+
+        jdbcTemplate.execute(ParticionamentoPostgresJob.comandoDeCriacao(MES_SEM_PARTICAO));
+        jdbcTemplate.execute(ParticionamentoPostgresJob.comandoDeCriacao(MES_SEM_PARTICAO));
+
+        assertEquals(2, contar("tb_chavespix_p2020_01"));
+        assertEquals(1, contar("tb_chavespix_padrao"));
+        assertEquals(3, contar("tb_chavespix_valor"));
+        assertEquals(3, contar("tb_chavespix"));
+    }
+
+    @Test
+    void deveManterValorUnicoEntreParticoesComATrigger() {
+        inserir("unico@email.com", MES_SEM_PARTICAO.atDay(1).atStartOfDay());
+        jdbcTemplate.execute(ParticionamentoPostgresJob.comandoDeCriacao(MES_SEM_PARTICAO));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> inserir("unico@email.com", LocalDateTime.of(2021, 6, 1, 0, 0)));
+
+        jdbcTemplate.update("DELETE FROM tb_chavespix WHERE valor_chave = 'unico@email.com'");
+        assertEquals(0, contar("tb_chavespix_valor"));
+        inserir("unico@email.com", LocalDateTime.of(2021, 6, 1, 0, 0));
+    }
+
+    @Test
+    void deveCriarAsParticoesAoRedorDoMesCorrente() {
+        new ParticionamentoPostgresJob(jdbcTemplate, 1, 3).criarParticoes();
+
+        for (int i = -1; i <= 3; i++) {
+            String nome = "tb_chavespix_p" + YearMonth.now().plusMonths(i).toString().replace("-", "_");
+            assertNotNull(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, nome), nome);
+        }
+    }
+
+    private void inserir(String valor, LocalDateTime inclusao) {
+        jdbcTemplate.update("INSERT INTO tb_chavespix (id, tipo_chave, valor_chave, hash_valor_chave, tipo_conta, " +
+                        "numero_agencia, numero_conta, nome_correntista, data_hora_inclusao, version) " +
+                        "VALUES (?, 3, ?, ?, 1, 1, 1, 'Ana', ?, 0)",
+                UUID.randomUUID(), valor, (long) valor.hashCode(), Timestamp.valueOf(inclusao));
+    }
+
+    private int contar(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + tabela, Integer.class);
+    }
+}
@@ -0,0 +1,38 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.job.ParticionamentoPostgresJob;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a geração dos comandos de particionamento do {@link ParticionamentoPostgresJob}.
+ */
+class ParticionamentoPostgresJobTests {
+
+    @Test
+    void deveGerarParticaoMensalComIntervaloSemiAberto() {
+        assertEquals("SELECT fn_chavespix_criar_particao('tb_chavespix_p2026_10', " +
+                        "DATE '2026-10-01', DATE '2026-11-01')",
+                ParticionamentoPostgresJob.comandoDeCriacao(YearMonth.of(2026, 10)));
+    }
+
+    @Test
+    void deveVirarOAnoNaParticaoDeDezembro() {
+        assertTrue(ParticionamentoPostgresJob.comandoDeCriacao(YearMonth.of(2026, 12))
+                .endsWith("DATE '2026-12-01', DATE '2027-01-01')"));
+    }
+
+    @Test
+    void deveGerarMesesAnterioresCorrenteEFuturos() {
+        List<String> comandos = ParticionamentoPostgresJob.comandosDeCriacao(YearMonth.of(2026, 1), 1, 3);
+
+        assertEquals(5, comandos.size());
+        assertTrue(comandos.get(0).contains("tb_chavespix_p2025_12"));
+        assertTrue(comandos.get(1).contains("tb_chavespix_p2026_01"));
+        assertTrue(comandos.get(4).contains("tb_chavespix_p2026_04"));
+    }
+}
@@ -0,0 +1,199 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixAlteracaoDTO;
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.dto.ConsultaLentaDTO;
+import com.desafio.casepixitau.perfil.ConsultasLentas;
+import com.desafio.casepixitau.perfil.ContagemSql;
+import com.desafio.casepixitau.perfil.PerfilSql;
+import com.desafio.casepixitau.perfil.PerfilSqlListener;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.service.ChavePixService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes do perfil dos comandos SQL: orçamento de comandos por operação do serviço de chaves Pix,
+ * contagem por requisição e captura dos comandos lentos.
+ *
+ * Os orçamentos são os comandos atuais de cada operação; uma ida a mais ao banco quebra o build.
+ */
+@SpringBootTest(properties = {"pix.limite-taxa.enabled=false", "pix.perfil-sql.enabled=true",
+        "management.endpoints.web.exposure.include=health,consultaslentas"})
+@AutoConfigureMockMvc
+class PerfilSqlTests {
+
+    @Autowired
+    private ChavePixService service;
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConsultasLentas consultasLentas;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void deveManterOrcamentoDeComandosPorOperacao() {
+        // Valor já cadastrado, chaves ativas da conta e INSERT.
+        ChavePixResponseDTO incluida = medir("incluir", 3, () -> service.incluir(request("orcamento@email.com")));
+        medir("consultarPorId", 1, () -> service.consultarPorId(incluida.getId()));
+        medir("consultarPorValor", 1, () -> service.consultarPorValor("orcamento@email.com"));
+        // Carga da entidade e UPDATE, sem SELECT adicional do merge.
+        medir("alterar", 2, () -> service.alterar(incluida.getId(), alteracao()));
+        medir("inativar", 2, () -> service.inativar(incluida.getId()));
+    }
+
+    /**
+     * A requisição conta os comandos executados na thread do compartimento, e o método do serviço
+     * é registrado nas métricas por operação.
+     */
+    @Test
+    void deveContarComandosDaRequisicao() throws Exception {
+        ChavePixResponseDTO incluida = service.incluir(request("requisicao@email.com"));
+
+        mockMvc.perform(get("/api/pix/filtros/" + incluida.getId())).andExpect(status().isOk());
+        mockMvc.perform(put("/api/pix/" + incluida.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(alteracao())))
+                .andExpect(status().isOk());
+
+        assertTrue(meterRegistry.get("pix.sql.operacao.comandos")
+                .tag("escopo", "requisicao").tag("operacao", "GET /api/pix/filtros/{id}")
+                .summary().totalAmount() >= 1);
+        double requisicao = meterRegistry.get("pix.sql.operacao.comandos")
+                .tag("escopo", "requisicao").tag("operacao", "PUT /api/pix/{id}").summary().totalAmount();
+        double servico = meterRegistry.get("pix.sql.operacao.comandos")
+                .tag("escopo", "servico").tag("operacao", "ChavePixService.alterar").summary().max();
+        assertTrue(requisicao >= servico && servico >= 1, "requisição: " + requisicao + ", serviço: " + servico);
+    }
+
+    /**
+     * Os comandos lentos ficam no buffer com os parâmetros mascarados e a operação, limitados à capacidade.
+     */
+    @Test
+    void deveGuardarComandosLentosComParametros() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:perfil_sql;DB_CLOSE_DELAY=-1");
+        ConsultasLentas lentas = new ConsultasLentas(2);
+        PerfilSqlListener listener = new PerfilSqlListener(lentas, 0, new SimpleMeterRegistry());
+        DataSource dataSource = ProxyDataSourceBuilder.create(h2)
+                .listener(listener).methodListener(listener).proxyResultSet().build();
+
+        ContagemSql contagem = PerfilSql.iniciar("teste");
+        try (Connection conexao = dataSource.getConnection()) {
+            try (Statement statement = conexao.createStatement()) {
+                statement.execute("CREATE TABLE t (id INT, nome VARCHAR(20))");
+            }
+            try (PreparedStatement insert = conexao.prepareStatement("INSERT INTO t VALUES (?, ?)")) {
+                for (int i = 1; i <= 3; i++) {
+                    insert.setInt(1, i);
+                    insert.setString(2, "nome" + i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement select = conexao.prepareStatement("SELECT nome FROM t WHERE id >= ?")) {
+                select.setInt(1, 2);
+                try (ResultSet resultado = select.executeQuery()) {
+                    while (resultado.next()) {
+                        assertNotNull(resultado.getString(1));
+                    }
+                }
+            }
+        } finally {
+            PerfilSql.encerrar(contagem);
+        }
+
+        assertEquals(3, contagem.getComandos());
+        assertEquals(5, contagem.getLinhas());
+
+        List<ConsultaLentaDTO> registradas = lentas.listar();
+        assertEquals(2, registradas.size());
+        ConsultaLentaDTO select = registradas.get(0);
+        assertEquals(List.of("SELECT nome FROM t WHERE id >= ?"), select.getSql());
+        assertEquals(List.of(List.of("Integer")), select.getParametros());
+        assertEquals("teste", select.getOperacao());
+        ConsultaLentaDTO lote = registradas.get(1);
+        assertEquals(3, lote.getLote());
+        assertEquals(List.of("Integer", "String(5)"), lote.getParametros().get(0));
+    }
+
+    @Test
+    void deveExporComandosLentosNoActuator() throws Exception {
+        consultasLentas.registrar(new ConsultaLentaDTO(LocalDateTime.now(), 150.0, "ChavePixService.incluir",
+                List.of("select 1"), List.of(List.of("valor")), 0));
+
+        mockMvc.perform(get("/actuator/consultaslentas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].operacao").value("ChavePixService.incluir"))
+                .andExpect(jsonPath("$[0].parametros[0][0]").value("valor"))
+                .andExpect(jsonPath("$[0].dataHora").isNotEmpty());
+        mockMvc.perform(delete("/actuator/consultaslentas")).andExpect(status().isNoContent());
+        assertTrue(consultasLentas.listar().isEmpty());
+    }
+
+    private <T> T medir(String operacao, int maximo, Supplier<T> chamada) {
+        ContagemSql contagem = PerfilSql.iniciar(operacao);
+        T resultado;
+        try {
+            resultado = chamada.get();
+        } finally {
+            PerfilSql.encerrar(contagem);
+        }
+        assertTrue(contagem.getComandos() <= maximo,
+                operacao + " executou " + contagem.getComandos() + " comandos; orçamento: " + maximo);
+        return resultado;
+    }
+
+    private static ChavePixRequestDTO request(String email) {
+        return new ChavePixRequestDTO("email", email, "corrente", 1234, 5678, "Maria", null);
+    }
+
+    private static ChavePixAlteracaoDTO alteracao() {
+        ChavePixAlteracaoDTO dto = new ChavePixAlteracaoDTO();
+        dto.setTipoConta("poupança");
+        dto.setNumeroAgencia(1234);
+        dto.setNumeroConta(5678);
+        dto.setNomeCorrentista("Maria");
+        dto.setSobrenomeCorrentista("Silva");
+        return dto;
+    }
+}
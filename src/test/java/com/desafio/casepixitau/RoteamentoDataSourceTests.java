@@ -0,0 +1,162 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.config.ReplicaMonitor;
+import com.desafio.casepixitau.config.RoteamentoContexto;
+import com.desafio.casepixitau.config.RoteamentoDataSource;
+import com.desafio.casepixitau.dto.ConsultaLoteRequestDTO;
+import com.desafio.casepixitau.repository.ChavePixArquivadaRepository;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.service.ConsultaLoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do roteamento leitura/escrita usando duas instâncias H2 independentes
+ * como primário e réplica.
+ */
+class RoteamentoDataSourceTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcDataSource replica;
+    private ReplicaMonitor replicaMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate leitura;
+    private TransactionTemplate escrita;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DataSource primario = criarBanco("roteamento_primario");
+        replica = criarBanco("roteamento_replica");
+        replicaMonitor = new ReplicaMonitor(replica, "", 5, meterRegistry);
+
+        DataSource roteamento = new LazyConnectionDataSourceProxy(
+                new RoteamentoDataSource(primario, replica, replicaMonitor, meterRegistry));
+        transactionManager = new DataSourceTransactionManager(roteamento);
+
+        jdbcTemplate = new JdbcTemplate(roteamento);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        escrita = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoteamentoContexto.limpar();
+    }
+
+    @Test
+    void deveEnviarLeituraParaReplica() {
+        assertEquals("replica", leitura.execute(s -> origem()));
+        assertEquals(1, meterRegistry.get("pix.datasource.conexao").tag("pool", "replica").timer().count());
+    }
+
+    @Test
+    void deveEnviarEscritaParaPrimario() {
+        assertEquals("primario", escrita.execute(s -> origem()));
+    }
+
+    @Test
+    void deveLerDoPrimarioAposEscritaNaMesmaRequisicao() {
+        escrita.execute(s -> jdbcTemplate.update("UPDATE origem SET nome = nome"));
+
+        assertEquals("primario", leitura.execute(s -> origem()));
+
+        RoteamentoContexto.limpar();
+        assertEquals("replica", leitura.execute(s -> origem()));
+    }
+
+    @Test
+    void deveUsarPrimarioQuandoReplicaAtrasada() {
+        ReplicaMonitor monitorComAtraso = new ReplicaMonitor(replica, "SELECT 10", 5, meterRegistry);
+        monitorComAtraso.verificar();
+
+        assertFalse(monitorComAtraso.isDisponivel());
+        assertEquals(10, monitorComAtraso.getLagSegundos());
+    }
+
+    @Test
+    void deveUsarPrimarioQuandoReplicaIndisponivel() {
+        replicaMonitor.marcarIndisponivel();
+        assertEquals("primario", leitura.execute(s -> origem()));
+
+        replicaMonitor.verificar();
+        assertTrue(replicaMonitor.isDisponivel());
+        assertEquals("replica", leitura.execute(s -> origem()));
+    }
+
+    @Test
+    void deveCairParaPrimarioQuandoConexaoComReplicaFalhar() {
+        DataSource replicaFora = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/replica_fora_do_ar");
+        DataSource roteamento = new LazyConnectionDataSourceProxy(new RoteamentoDataSource(
+                criarBanco("roteamento_primario"), replicaFora, replicaMonitor, meterRegistry));
+        TransactionTemplate leituraComFalha = new TransactionTemplate(new DataSourceTransactionManager(roteamento));
+        leituraComFalha.setReadOnly(true);
+        JdbcTemplate template = new JdbcTemplate(roteamento);
+
+        assertEquals("primario", leituraComFalha.execute(s -> template.queryForObject("SELECT nome FROM origem", String.class)));
+        assertFalse(replicaMonitor.isDisponivel());
+        assertEquals(1, meterRegistry.get("pix.datasource.replica.fallback").counter().count());
+    }
+
+    @Test
+    void deveConsultarBlocosDoLotePorValorNaReplica() {
+        ChavePixRepository repository = mock(ChavePixRepository.class);
+        ChavePixArquivadaRepository arquivo = mock(ChavePixArquivadaRepository.class);
+        List<String> origens = Collections.synchronizedList(new ArrayList<>());
+        when(repository.findByValorChaveIn(any())).thenAnswer(invocation -> {
+            origens.add(origem());
+            return List.of();
+        });
+        when(arquivo.findByValorChaveIn(any())).thenAnswer(invocation -> {
+            origens.add(origem());
+            return List.of();
+        });
+        ConsultaLoteService consultaLote = new ConsultaLoteService(repository, arquivo, transactionManager, 100, 10, 2);
+        List<String> valores = IntStream.range(0, 30).mapToObj(i -> "chave" + i + "@email.com").toList();
+        try {
+            consultaLote.consultar(new ConsultaLoteRequestDTO(null, valores));
+            assertEquals(Collections.nCopies(6, "replica"), origens);
+
+            origens.clear();
+            RoteamentoContexto.marcarEscrita();
+            consultaLote.consultar(new ConsultaLoteRequestDTO(null, valores));
+            assertEquals(Collections.nCopies(6, "primario"), origens);
+        } finally {
+            consultaLote.encerrar();
+        }
+    }
+
+    private String origem() {
+        return jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class);
+    }
+
+    private static JdbcDataSource criarBanco(String nome) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS origem (nome VARCHAR(20))");
+        template.execute("DELETE FROM origem");
+        template.update("INSERT INTO origem VALUES (?)", nome.substring(nome.indexOf('_') + 1));
+        return dataSource;
+    }
+}
@@ -0,0 +1,219 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.repository.ChavePixRepositoryMemoria;
+import com.desafio.casepixitau.snapshot.ArquivoSnapshotChavePix;
+import com.desafio.casepixitau.snapshot.SnapshotChavePixService;
+import com.desafio.casepixitau.util.UuidV7;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark da carga inicial de um diretório de chaves: snapshot binário contra o reenvio das
+ * chaves em NDJSON pelo {@code POST /api/pix}.
+ *
+ * Gera {@code snapshot.chaves} chaves na tabela, exporta o snapshot e o importa na tabela vazia
+ * e no repositório em memória, medindo tempo e tamanho. Em seguida, reenvia as primeiras
+ * {@code snapshot.chaves-ndjson} linhas do NDJSON equivalente pela API, com
+ * {@code snapshot.conexoes} requisições simultâneas, e projeta as duas vazões para 10 milhões de
+ * chaves ({@code snapshot.projecao}).
+ *
+ * Fica fora do build padrão. Execução:
+ * <pre>
+ * mvn test -Pcarga -Dtest=SnapshotBenchmarkTests -Dsnapshot.chaves=1000000 -Dsnapshot.chaves-ndjson=20000
+ * </pre>
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"pix.limite-taxa.enabled=false", "pix.limite-concorrencia.enabled=false",
+                "pix.aquecimento.enabled=false", "logging.level.root=WARN"})
+class SnapshotBenchmarkTests {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private SnapshotChavePixService snapshot;
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path diretorio;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compararSnapshotComReenvioPelaApi() throws Exception {
+        int chaves = Integer.getInteger("snapshot.chaves", 1_000_000);
+        int chavesNdjson = Integer.getInteger("snapshot.chaves-ndjson", 20_000);
+        int conexoes = Integer.getInteger("snapshot.conexoes", 8);
+        int threads = Integer.getInteger("snapshot.threads", 4);
+        long projecao = Long.getLong("snapshot.projecao", 10_000_000L);
+
+        Path gerado = diretorio.resolve("gerado.pixsnap");
+        Path ndjson = diretorio.resolve("chaves.ndjson");
+        Path exportado = diretorio.resolve("exportado.pixsnap");
+        new ArquivoSnapshotChavePix(8192, threads).gravar(gerado, consumidor -> gerar(chaves, consumidor));
+        gravarNdjson(chaves, ndjson);
+        jdbcTemplate.execute("TRUNCATE TABLE tb_chavespix");
+        snapshot.importar(gerado);
+
+        long inicio = System.nanoTime();
+        assertEquals(chaves, snapshot.exportar(exportado));
+        double exportacao = segundos(inicio);
+
+        jdbcTemplate.execute("TRUNCATE TABLE tb_chavespix");
+        ChavePixRepositoryMemoria memoria = new ChavePixRepositoryMemoria();
+        inicio = System.nanoTime();
+        new ArquivoSnapshotChavePix(8192, threads).carregar(exportado, lote -> lote.forEach(memoria::restaurar));
+        double cargaMemoria = segundos(inicio);
+        assertEquals(chaves, memoria.count());
+        memoria.deleteAll();
+
+        inicio = System.nanoTime();
+        assertEquals(chaves, snapshot.importar(exportado));
+        double importacao = segundos(inicio);
+        assertEquals(chaves, repository.count());
+
+        jdbcTemplate.execute("TRUNCATE TABLE tb_chavespix");
+        inicio = System.nanoTime();
+        int erros = reenviar(ndjson, chavesNdjson, conexoes);
+        double reenvio = segundos(inicio);
+        assertEquals(chavesNdjson - erros, repository.count());
+
+        System.out.printf("%nCarga inicial de %d chaves (%d threads de importação)%n", chaves, threads);
+        System.out.printf("  tamanho: snapshot %.1f MB, NDJSON %.1f MB%n", megabytes(exportado), megabytes(ndjson));
+        System.out.printf("  %-32s | %10s | %12s | %18s%n", "etapa", "segundos", "chaves/s", "projeção " + projecao);
+        imprimir("exportação do snapshot", chaves, exportacao, projecao);
+        imprimir("importação do snapshot (tabela)", chaves, importacao, projecao);
+        imprimir("importação do snapshot (memória)", chaves, cargaMemoria, projecao);
+        imprimir("NDJSON pelo POST /api/pix (" + conexoes + ")", chavesNdjson, reenvio, projecao);
+        System.out.printf("  respostas diferentes de 200 no reenvio: %d%n", erros);
+        assertTrue(reenvio > 0);
+    }
+
+    private static void gerar(int quantidade, Consumer<ChavePix> consumidor) {
+        for (int i = 0; i < quantidade; i++) {
+            ChavePix chave = new ChavePix();
+            chave.setId(UuidV7.gerar());
+            chave.setVersion(0L);
+            chave.setTipoChave("email");
+            chave.setValorChave(valor(i));
+            chave.setTipoConta(i % 4 == 0 ? "poupança" : "corrente");
+            chave.setNumeroAgencia(agencia(i));
+            chave.setNumeroConta(conta(i));
+            chave.setNomeCorrentista("Correntista" + i % 1000);
+            chave.setSobrenomeCorrentista(i % 3 == 0 ? null : "Sobrenome");
+            chave.setDataHoraInclusao(INICIO.plusSeconds(i * 30L));
+            consumidor.accept(chave);
+        }
+    }
+
+    private void gravarNdjson(int quantidade, Path destino) throws IOException {
+        try (BufferedWriter saida = Files.newBufferedWriter(destino, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < quantidade; i++) {
+                saida.write(objectMapper.writeValueAsString(new ChavePixRequestDTO("email", valor(i),
+                        i % 4 == 0 ? "poupança" : "corrente", agencia(i), conta(i), "Correntista" + i % 1000,
+                        i % 3 == 0 ? null : "Sobrenome")));
+                saida.newLine();
+            }
+        }
+    }
+
+    /**
+     * Reenvia as linhas do NDJSON pela API, com a quantidade informada de requisições simultâneas.
+     *
+     * @return a quantidade de respostas diferentes de 200.
+     */
+    private int reenviar(Path ndjson, int quantidade, int conexoes) throws Exception {
+        List<String> linhas;
+        try (var stream = Files.lines(ndjson)) {
+            linhas = stream.limit(quantidade).toList();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(conexoes);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+        URI uri = URI.create("http://localhost:" + porta + "/api/pix");
+        AtomicInteger proxima = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+        List<Future<?>> clientes = new ArrayList<>();
+        for (int c = 0; c < conexoes; c++) {
+            clientes.add(executor.submit(() -> {
+                int i;
+                while ((i = proxima.getAndIncrement()) < linhas.size()) {
+                    HttpRequest requisicao = HttpRequest.newBuilder(uri).header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(linhas.get(i))).build();
+                    if (client.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                        erros.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> cliente : clientes) {
+            cliente.get();
+        }
+        executor.shutdown();
+        return erros.get();
+    }
+
+    private static void imprimir(String etapa, long chaves, double segundos, long projecao) {
+        double vazao = chaves / segundos;
+        System.out.printf("  %-32s | %10.2f | %12.0f | %16.1f s%n", etapa, segundos, vazao, projecao / vazao);
+    }
+
+    private static String valor(int i) {
+        return "carga" + i + "@email.com";
+    }
+
+    private static int agencia(int i) {
+        return 1 + i % 5000;
+    }
+
+    private static int conta(int i) {
+        return 1 + i / 5000;
+    }
+
+    private static double segundos(long inicio) {
+        return (System.nanoTime() - inicio) / 1e9;
+    }
+
+    private static double megabytes(Path arquivo) throws IOException {
+        return Files.size(arquivo) / (1024.0 * 1024.0);
+    }
+}
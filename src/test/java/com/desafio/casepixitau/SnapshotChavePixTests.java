@@ -0,0 +1,198 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import com.desafio.casepixitau.dto.ChavePixResponseDTO;
+import com.desafio.casepixitau.model.ChavePix;
+import com.desafio.casepixitau.repository.ChavePixRepository;
+import com.desafio.casepixitau.repository.ChavePixRepositoryMemoria;
+import com.desafio.casepixitau.service.ChavePixService;
+import com.desafio.casepixitau.snapshot.ArquivoSnapshotChavePix;
+import com.desafio.casepixitau.snapshot.SnapshotChavePixService;
+import com.desafio.casepixitau.snapshot.SnapshotComandos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do snapshot binário do diretório de chaves Pix: formato, detecção de corrupção e
+ * exportação/importação pela tabela de chaves.
+ */
+@SpringBootTest(properties = "pix.limite-taxa.enabled=false")
+class SnapshotChavePixTests {
+
+    @Autowired
+    private SnapshotChavePixService snapshot;
+
+    @Autowired
+    private ChavePixService service;
+
+    @Autowired
+    private ChavePixRepository repository;
+
+    @TempDir
+    Path diretorio;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    /**
+     * Todos os atributos, inclusive nulos, nanossegundos e textos não ASCII, voltam iguais, com
+     * os blocos decodificados em paralelo.
+     */
+    @Test
+    void deveGravarECarregarTodasAsChavesEmBlocos() throws IOException {
+        List<ChavePix> chaves = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            chaves.add(chave(i));
+        }
+        chaves.get(3).setSobrenomeCorrentista(null);
+        chaves.get(4).setDataHoraInativacao(LocalDateTime.of(2025, 5, 6, 7, 8, 9, 123456789));
+        chaves.get(5).setDataHoraInativacao(LocalDateTime.of(2019, 1, 1, 0, 0)); // Antes da inclusão
+        chaves.get(6).setTipoConta("poupança");
+        chaves.get(6).setNomeCorrentista("João Ñandú");
+        ArquivoSnapshotChavePix arquivo = new ArquivoSnapshotChavePix(3, 2);
+        Path destino = diretorio.resolve("chaves.pixsnap");
+
+        assertEquals(10, arquivo.gravar(destino, consumidor -> chaves.forEach(consumidor)));
+
+        List<ChavePix> carregadas = Collections.synchronizedList(new ArrayList<>());
+        assertEquals(10, arquivo.carregar(destino, carregadas::addAll));
+        assertEquals(textos(chaves), textos(carregadas));
+
+        ChavePixRepositoryMemoria memoria = new ChavePixRepositoryMemoria();
+        arquivo.carregar(destino, lote -> lote.forEach(memoria::restaurar));
+        assertEquals(10, memoria.count());
+        assertEquals(chaves.get(6).getId(), memoria.findByValorChave("chave6@email.com").orElseThrow().getId());
+    }
+
+    /**
+     * Um byte alterado no conteúdo de um bloco é detectado pelo CRC; um arquivo truncado não é carregado.
+     */
+    @Test
+    void deveRecusarSnapshotCorrompidoOuIncompleto() throws IOException {
+        List<ChavePix> chaves = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            chaves.add(chave(i));
+        }
+        ArquivoSnapshotChavePix arquivo = new ArquivoSnapshotChavePix(10, 2);
+        Path destino = diretorio.resolve("chaves.pixsnap");
+        arquivo.gravar(destino, consumidor -> chaves.forEach(consumidor));
+        long tamanho = Files.size(destino);
+
+        Path truncado = diretorio.resolve("truncado.pixsnap");
+        Files.copy(destino, truncado);
+        try (FileChannel canal = FileChannel.open(truncado, StandardOpenOption.WRITE)) {
+            canal.truncate(tamanho - 20);
+        }
+        assertThrows(IOException.class, () -> arquivo.carregar(truncado, lote -> { }));
+
+        // Último byte do conteúdo comprimido do primeiro bloco (cabeçalho do arquivo: 12 bytes; do bloco: 16).
+        try (RandomAccessFile acesso = new RandomAccessFile(destino.toFile(), "rw")) {
+            acesso.seek(12 + 8);
+            long posicao = 12 + 16 + acesso.readInt() - 1;
+            acesso.seek(posicao);
+            int original = acesso.read();
+            acesso.seek(posicao);
+            acesso.write(original ^ 0xFF);
+        }
+        IOException erro = assertThrows(IOException.class, () -> arquivo.carregar(destino, lote -> { }));
+        assertTrue(erro.getMessage().contains("corrompido"), erro.getMessage());
+    }
+
+    /**
+     * As chaves exportadas da tabela são importadas com os mesmos ids, versões e datas, e ficam
+     * disponíveis para as consultas do serviço.
+     */
+    @Test
+    void deveExportarEImportarATabelaDeChaves() throws IOException {
+        ChavePixResponseDTO ativa = service.incluir(new ChavePixRequestDTO("email", "snapshot@email.com", "corrente",
+                4321, 8765, "Maria", "Silva"));
+        ChavePixResponseDTO inativa = service.incluir(new ChavePixRequestDTO("cpf", "52998224725", "poupança",
+                4321, 8765, "Maria", null));
+        service.inativar(inativa.getId());
+        List<String> antes = textos(repository.findAll());
+        Path destino = diretorio.resolve("tabela.pixsnap");
+
+        assertEquals(2, snapshot.exportar(destino));
+        assertThrows(IllegalStateException.class, () -> snapshot.importar(destino));
+
+        repository.deleteAll();
+        assertEquals(2, snapshot.importar(destino));
+
+        assertEquals(antes, textos(repository.findAll()));
+        assertEquals(List.of(ativa.getId()), service.consultarPorValor("snapshot@email.com").stream()
+                .map(ChavePixResponseDTO::getId).toList());
+        assertNotNull(service.consultarPorId(inativa.getId()).getDataHoraInativacao());
+    }
+
+    /**
+     * Um bloco que falha na gravação desfaz os blocos já gravados, e a importação pode ser repetida.
+     */
+    @Test
+    void deveRemoverAsChavesGravadasQuandoAImportacaoFalhar() throws IOException {
+        List<ChavePix> chaves = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            chaves.add(chave(i));
+        }
+        ChavePix repetida = chave(10);
+        repetida.setValorChave(chaves.get(0).getValorChave());
+        ArquivoSnapshotChavePix arquivo = new ArquivoSnapshotChavePix(3, 2);
+        Path invalido = diretorio.resolve("invalido.pixsnap");
+        arquivo.gravar(invalido, consumidor -> {
+            chaves.forEach(consumidor);
+            consumidor.accept(repetida);
+        });
+
+        assertThrows(RuntimeException.class, () -> snapshot.importar(invalido));
+        assertEquals(0, repository.count());
+
+        Path valido = diretorio.resolve("valido.pixsnap");
+        arquivo.gravar(valido, consumidor -> chaves.forEach(consumidor));
+        assertEquals(10, snapshot.importar(valido));
+        assertEquals(10, repository.count());
+    }
+
+    @Test
+    void deveRecusarComandoDesconhecido() {
+        SnapshotComandos comandos = new SnapshotComandos(snapshot, null, "restaurar", diretorio.resolve("x"), false);
+        assertThrows(IllegalArgumentException.class, () -> comandos.run(null));
+    }
+
+    private static ChavePix chave(int i) {
+        ChavePix chave = new ChavePix();
+        chave.setId(new UUID(0x0190_0000_0000_7000L + i * 1000L, 0x8000_0000_0000_0000L | i));
+        chave.setVersion((long) i % 3);
+        chave.setTipoChave(i % 2 == 0 ? "email" : "celular");
+        chave.setValorChave(i % 2 == 0 ? "chave" + i + "@email.com" : "+5511999" + String.format("%06d", i));
+        chave.setTipoConta("corrente");
+        chave.setNumeroAgencia(1000 + i);
+        chave.setNumeroConta(20000 + i);
+        chave.setNomeCorrentista("Correntista " + i);
+        chave.setSobrenomeCorrentista("Sobrenome");
+        chave.setDataHoraInclusao(LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(i).withNano(i * 1000));
+        return chave;
+    }
+
+    private static List<String> textos(List<ChavePix> chaves) {
+        return chaves.stream().sorted(Comparator.comparing(ChavePix::getId)).map(ChavePix::toString).toList();
+    }
+}
@@ -0,0 +1,107 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.util.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara a vazão de inclusão e o tamanho do índice da chave primária com ids UUID v4 (aleatórios)
+ * e UUID v7 (ordenados pelo instante). Executado apenas no perfil Maven {@code carga}:
+ * <pre>mvn test -Pcarga -Dtest=UuidV7BenchmarkTests -Dbenchmark.uuid.linhas=10000000</pre>
+ *
+ * Por padrão usa um banco H2 em arquivo por variante e compara o tamanho dos arquivos. Para medir
+ * no PostgreSQL, o tamanho é o do índice da chave primária ({@code pg_relation_size}):
+ * <pre>-Dbenchmark.uuid.url=jdbc:postgresql://localhost:5432/pix -Dbenchmark.uuid.usuario=... -Dbenchmark.uuid.senha=...</pre>
+ */
+@Tag("carga")
+public class UuidV7BenchmarkTests {
+
+    private static final int LINHAS = Integer.getInteger("benchmark.uuid.linhas", 1_000_000);
+    private static final int LOTE = 1_000;
+    private static final String URL = System.getProperty("benchmark.uuid.url");
+    private static final String USUARIO = System.getProperty("benchmark.uuid.usuario", "sa");
+    private static final String SENHA = System.getProperty("benchmark.uuid.senha", "");
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    public void compararInclusoes() throws Exception {
+        System.out.printf("%n%-8s %12s %12s %14s%n", "id", "linhas", "linhas/s", "tamanho(MB)");
+        medir("v4", UUID::randomUUID);
+        medir("v7", UuidV7::gerar);
+    }
+
+    private void medir(String variante, Supplier<UUID> ids) throws SQLException, IOException {
+        String tabela = "tb_benchmark_uuid_" + variante;
+        boolean postgres = URL != null;
+        String url = URL != null ? URL : "jdbc:h2:file:" + diretorio.resolve(variante).toAbsolutePath();
+        double porSegundo;
+        double tamanhoMb;
+
+        try (Connection conexao = DriverManager.getConnection(url, USUARIO, SENHA)) {
+            try (Statement statement = conexao.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + tabela);
+                statement.execute("CREATE TABLE " + tabela + " (id UUID PRIMARY KEY, valor_chave VARCHAR(77) NOT NULL)");
+            }
+            conexao.setAutoCommit(false);
+
+            long inicio = System.nanoTime();
+            try (PreparedStatement insert = conexao.prepareStatement(
+                    "INSERT INTO " + tabela + " (id, valor_chave) VALUES (?, ?)")) {
+                for (int i = 0; i < LINHAS; i++) {
+                    insert.setObject(1, ids.get());
+                    insert.setString(2, "chave" + i + "@email.com");
+                    insert.addBatch();
+                    if ((i + 1) % LOTE == 0 || i == LINHAS - 1) {
+                        insert.executeBatch();
+                        conexao.commit();
+                    }
+                }
+            }
+            porSegundo = LINHAS / ((System.nanoTime() - inicio) / 1e9);
+
+            try (Statement statement = conexao.createStatement();
+                 ResultSet contagem = statement.executeQuery("SELECT COUNT(*) FROM " + tabela)) {
+                contagem.next();
+                assertEquals(LINHAS, contagem.getLong(1));
+            }
+
+            if (postgres) {
+                try (Statement statement = conexao.createStatement();
+                     ResultSet tamanho = statement.executeQuery("SELECT pg_relation_size('" + tabela + "_pkey')")) {
+                    tamanho.next();
+                    tamanhoMb = tamanho.getLong(1) / 1e6;
+                }
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute("DROP TABLE " + tabela);
+                }
+                conexao.commit();
+            } else {
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute("SHUTDOWN");
+                }
+                tamanhoMb = -1;
+            }
+        }
+        if (!postgres) {
+            tamanhoMb = Files.size(diretorio.resolve(variante + ".mv.db")) / 1e6;
+        }
+        System.out.printf("%-8s %12d %12.0f %14.1f%n", variante, LINHAS, porSegundo, tamanhoMb);
+    }
+}
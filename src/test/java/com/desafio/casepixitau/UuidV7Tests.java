@@ -0,0 +1,80 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.util.UuidV7;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do gerador de identificadores UUID versão 7.
+ */
+public class UuidV7Tests {
+
+    /**
+     * Os identificadores têm versão 7, variante RFC e o instante de geração nos bits iniciais.
+     */
+    @Test
+    public void testFormato() {
+        long antes = System.currentTimeMillis();
+        UUID uuid = UuidV7.gerar();
+        long depois = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(UuidV7.instante(uuid) >= antes && UuidV7.instante(uuid) <= depois + 1);
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.instante(UUID.randomUUID()));
+    }
+
+    /**
+     * Identificadores gerados em sequência, inclusive no mesmo milissegundo, são estritamente crescentes.
+     */
+    @Test
+    public void testOrdemCrescente() {
+        UUID anterior = UuidV7.gerar();
+        for (int i = 0; i < 100_000; i++) {
+            UUID atual = UuidV7.gerar();
+            assertTrue(atual.compareTo(anterior) > 0);
+            assertTrue(anterior.toString().compareTo(atual.toString()) < 0);
+            anterior = atual;
+        }
+    }
+
+    /**
+     * Threads concorrentes não geram identificadores repetidos.
+     */
+    @Test
+    public void testUnicidadeConcorrente() throws Exception {
+        int threads = 8;
+        int porThread = 20_000;
+        Set<UUID> gerados = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futuros.add(executor.submit(() -> {
+                    Set<UUID> locais = new HashSet<>();
+                    for (int i = 0; i < porThread; i++) {
+                        locais.add(UuidV7.gerar());
+                    }
+                    gerados.addAll(locais);
+                }));
+            }
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * porThread, gerados.size());
+    }
+}
@@ -0,0 +1,106 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.config.ValidacaoConfig;
+import com.desafio.casepixitau.dto.ChavePixAlteracaoDTO;
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import jakarta.validation.Configuration;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark (JMH) da validação dos DTOs de inclusão e alteração de chaves Pix, com payloads
+ * válidos e inválidos (várias restrições violadas) e com o fail-fast ligado e desligado.
+ * Executado apenas no perfil Maven {@code carga}:
+ * <pre>mvn test -Pcarga -Dtest=ValidacaoBenchmarkTests</pre>
+ */
+@Tag("carga")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoBenchmarkTests {
+
+    @Param({"true", "false"})
+    public boolean failFast;
+
+    @Param({"valido", "invalido"})
+    public String payload;
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private ChavePixRequestDTO requisicao;
+    private ChavePixAlteracaoDTO alteracao;
+
+    @Test
+    public void executar() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ValidacaoBenchmarkTests.class.getName() + "\\.")
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Configuration<?> configuration = Validation.byDefaultProvider().configure();
+        ValidacaoConfig.validacaoFailFast(failFast).customize(configuration);
+        factory = configuration.buildValidatorFactory();
+        validator = factory.getValidator();
+        new ValidacaoConfig(validator).aquecer();
+
+        alteracao = new ChavePixAlteracaoDTO();
+        if ("valido".equals(payload)) {
+            requisicao = new ChavePixRequestDTO("email", "correntista.nome@provedor.com.br", "corrente",
+                    1234, 12345678, "Correntista", "Sobrenome");
+            alteracao.setTipoConta("poupança");
+            alteracao.setNumeroAgencia(1234);
+            alteracao.setNumeroConta(12345678);
+            alteracao.setNomeCorrentista("Correntista");
+        } else {
+            requisicao = new ChavePixRequestDTO("email", "correntista sem arroba", "salario", 0, 0, " ", null);
+            alteracao.setTipoConta("salario");
+            alteracao.setNumeroAgencia(0);
+            alteracao.setNumeroConta(0);
+            alteracao.setNomeCorrentista("");
+            alteracao.setSobrenomeCorrentista("x".repeat(50));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ChavePixRequestDTO>> validarInclusao() {
+        return validator.validate(requisicao);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ChavePixAlteracaoDTO>> validarAlteracao() {
+        return validator.validate(alteracao);
+    }
+}
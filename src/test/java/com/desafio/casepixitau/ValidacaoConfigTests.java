@@ -0,0 +1,54 @@
+package com.desafio.casepixitau;
+
+import com.desafio.casepixitau.config.ValidacaoConfig;
+import com.desafio.casepixitau.dto.ChavePixRequestDTO;
+import jakarta.validation.Configuration;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidacaoConfigTests {
+
+    @Test
+    void failFast_DeveInterromperNaPrimeiraRestricaoViolada() {
+        ChavePixRequestDTO invalido = new ChavePixRequestDTO("email", "sem-arroba", "salario", 0, 0, "", null);
+
+        try (ValidatorFactory factory = criar(true)) {
+            Set<ConstraintViolation<ChavePixRequestDTO>> violacoes = factory.getValidator().validate(invalido);
+            assertEquals(1, violacoes.size());
+        }
+        try (ValidatorFactory factory = criar(false)) {
+            Set<ConstraintViolation<ChavePixRequestDTO>> violacoes = factory.getValidator().validate(invalido);
+            assertTrue(violacoes.size() > 1);
+        }
+    }
+
+    @Test
+    void failFast_DeveManterAsMensagensDasRestricoes() {
+        ChavePixRequestDTO email = new ChavePixRequestDTO("email", "sem-arroba", "corrente", 1, 1, "Fulano", null);
+
+        try (ValidatorFactory factory = criar(true)) {
+            Validator validator = factory.getValidator();
+            new ValidacaoConfig(validator).aquecer();
+
+            Set<ConstraintViolation<ChavePixRequestDTO>> violacoes = validator.validate(email);
+            assertEquals(1, violacoes.size());
+            ConstraintViolation<ChavePixRequestDTO> violacao = violacoes.iterator().next();
+            assertEquals("emailValid", violacao.getPropertyPath().toString());
+            assertEquals("Formato de email inválido.", violacao.getMessage());
+        }
+    }
+
+    private static ValidatorFactory criar(boolean failFast) {
+        Configuration<?> configuration = Validation.byDefaultProvider().configure();
+        ValidacaoConfig.validacaoFailFast(failFast).customize(configuration);
+        return configuration.buildValidatorFactory();
+    }
+}